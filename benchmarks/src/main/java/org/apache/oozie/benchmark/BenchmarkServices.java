@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.oozie.service.CallableQueueService;
+import org.apache.oozie.service.ConfigurationService;
+import org.apache.oozie.service.DagXLogInfoService;
+import org.apache.oozie.service.ELService;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.MemoryLocksService;
+import org.apache.oozie.service.SchedulerService;
+import org.apache.oozie.service.ServiceException;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.service.XLogService;
+
+/**
+ * Bootstraps a minimal {@link Services} instance for the benchmarks.
+ * <p>
+ * Only the services needed by the benchmarked code paths are loaded, there is no database, Hadoop or ZooKeeper
+ * involved. The Oozie home, configuration and log directories are created in a temporary directory which is removed
+ * by {@link #destroy()}.
+ */
+public class BenchmarkServices {
+
+    public static final String MINIMAL_SERVICES = SchedulerService.class.getName() + ","
+            + InstrumentationService.class.getName() + ","
+            + MemoryLocksService.class.getName() + ","
+            + ELService.class.getName() + ","
+            + DagXLogInfoService.class.getName() + ","
+            + CallableQueueService.class.getName();
+
+    private final File oozieHome;
+    private final Services services;
+
+    /**
+     * Create and initialize the services.
+     *
+     * @param overrides configuration values to set on top of <code>oozie-default.xml</code>, may be empty.
+     * @throws IOException thrown if the temporary Oozie home could not be created.
+     * @throws ServiceException thrown if the services could not be initialized.
+     */
+    public BenchmarkServices(Map<String, String> overrides) throws IOException, ServiceException {
+        oozieHome = Files.createTempDirectory("oozie-benchmark").toFile();
+        File confDir = new File(oozieHome, "conf");
+        File logDir = new File(oozieHome, "logs");
+        if (!confDir.mkdirs() || !logDir.mkdirs()) {
+            throw new IOException("Could not create benchmark directories under " + oozieHome);
+        }
+        System.setProperty(Services.OOZIE_HOME_DIR, oozieHome.getAbsolutePath());
+        System.setProperty(ConfigurationService.OOZIE_CONFIG_DIR, confDir.getAbsolutePath());
+        System.setProperty(ConfigurationService.OOZIE_DATA_DIR, oozieHome.getAbsolutePath());
+        System.setProperty(XLogService.OOZIE_LOG_DIR, logDir.getAbsolutePath());
+
+        services = new Services();
+        services.getConf().set(Services.CONF_SERVICE_CLASSES, MINIMAL_SERVICES);
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            services.getConf().set(entry.getKey(), entry.getValue());
+        }
+        services.init();
+    }
+
+    public Services getServices() {
+        return services;
+    }
+
+    /**
+     * Destroy the services and remove the temporary Oozie home.
+     */
+    public void destroy() {
+        services.destroy();
+        FileUtils.deleteQuietly(oozieHome);
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.service.CallableQueueService;
+import org.apache.oozie.service.ServiceException;
+import org.apache.oozie.util.XCallable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of submitting callables to {@link CallableQueueService}, including the per-type concurrency
+ * accounting done when they are executed by the worker threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class CallableQueueServiceBenchmark {
+    private static final int TYPES = 8;
+    private static final int SERIAL_BATCH = 5;
+    private static final String[] TYPE_NAMES = new String[TYPES];
+
+    static {
+        for (int i = 0; i < TYPES; i++) {
+            TYPE_NAMES[i] = "type" + i;
+        }
+    }
+
+    @Param({"true", "false"})
+    public boolean newImpl;
+
+    private BenchmarkServices services;
+    private CallableQueueService queueService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ServiceException {
+        Map<String, String> conf = new HashMap<>();
+        conf.put(CallableQueueService.CONF_NEWIMPL, Boolean.toString(newImpl));
+        conf.put(CallableQueueService.CONF_QUEUE_SIZE, "1000000");
+        conf.put(CallableQueueService.CONF_THREADS, "16");
+        services = new BenchmarkServices(conf);
+        queueService = services.getServices().get(CallableQueueService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.destroy();
+    }
+
+    @Benchmark
+    public boolean queue(ThreadState state) {
+        return queueService.queue(state.next());
+    }
+
+    @Benchmark
+    public boolean queueWithDelay(ThreadState state) {
+        return queueService.queue(state.next(), 10);
+    }
+
+    @Benchmark
+    public boolean queueSerial(ThreadState state) {
+        List<XCallable<?>> callables = new ArrayList<>(SERIAL_BATCH);
+        for (int i = 0; i < SERIAL_BATCH; i++) {
+            callables.add(state.next());
+        }
+        return queueService.queueSerial(callables);
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private int counter;
+
+        NoOpCallable next() {
+            counter++;
+            return new NoOpCallable(TYPE_NAMES[counter % TYPES], counter % CallableQueueService.PRIORITIES);
+        }
+    }
+}
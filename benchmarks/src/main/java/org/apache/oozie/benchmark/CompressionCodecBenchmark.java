@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.BinaryBlob;
+import org.apache.oozie.compression.CodecFactory;
+import org.apache.oozie.compression.ZstdCompressionCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures compressing and decompressing an action configuration through {@link BinaryBlob}, as done for every blob
+ * column written to or read from the database, with each of the built-in codecs. <code>zstd-dict</code> uses a
+ * dictionary trained on similar configurations. The compressed size is printed at the start of each trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CompressionCodecBenchmark {
+    private static final String ZSTD_DICT = "zstd-dict";
+
+    @Param({"gz", "lz4", "zstd", ZSTD_DICT})
+    public String codec;
+
+    @Param({"20", "200"})
+    public int properties;
+
+    private File dictionary;
+    private byte[] uncompressed;
+    private byte[] compressed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Configuration conf = new Configuration(false);
+        if (codec.equals(ZSTD_DICT)) {
+            List<byte[]> samples = new ArrayList<byte[]>();
+            for (int i = 0; i < 1000; i++) {
+                samples.add(actionConf(i, properties));
+            }
+            dictionary = File.createTempFile("oozie-benchmark", ".dict");
+            Files.write(dictionary.toPath(), ZstdCompressionCodec.trainDictionary(samples, 16 * 1024));
+            conf.set(ZstdCompressionCodec.CONF_DICTIONARIES, dictionary.getAbsolutePath());
+            conf.set(CodecFactory.COMPRESSION_OUTPUT_CODEC, ZstdCompressionCodec.CODEC_NAME);
+        }
+        else {
+            conf.set(CodecFactory.COMPRESSION_OUTPUT_CODEC, codec);
+        }
+        CodecFactory.initialize(conf);
+        uncompressed = actionConf(1234567, properties);
+        compressed = compress();
+        System.out.println();
+        System.out.println(codec + ": " + uncompressed.length + " bytes compressed to " + compressed.length);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (dictionary != null) {
+            dictionary.delete();
+        }
+    }
+
+    private static byte[] actionConf(int id, int properties) {
+        StringBuilder sb = new StringBuilder("<configuration>");
+        sb.append("<property><name>oozie.action.id</name><value>").append(String.format("%07d", id))
+                .append("-191001000000000-oozie-oozi-W@action-").append(id % 10).append("</value></property>");
+        for (int i = 0; i < properties; i++) {
+            sb.append("<property><name>property.name.").append(i).append("</name><value>")
+                    .append("hdfs://localhost:8020/user/oozie/examples/apps/value-").append(i)
+                    .append("</value></property>");
+        }
+        sb.append("</configuration>");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return new BinaryBlob(uncompressed, true).getRawBlob();
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return new BinaryBlob(compressed, false).getBytes();
+    }
+}
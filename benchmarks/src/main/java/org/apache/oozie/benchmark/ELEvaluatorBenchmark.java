@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.coord.CoordELEvaluator;
+import org.apache.oozie.service.ELService;
+import org.apache.oozie.util.ELEvaluator;
+import org.apache.oozie.util.XConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link ELEvaluator#evaluate} for expressions commonly found in coordinator definitions, and the cost of
+ * creating an evaluator for a group through {@link ELService#createEvaluator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ELEvaluatorBenchmark {
+    private static final String FREQ_GROUP = "coord-job-submit-freq";
+
+    private BenchmarkServices services;
+    private ELEvaluator freqEvaluator;
+    private ELEvaluator uriEvaluator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        services = new BenchmarkServices(Collections.<String, String>emptyMap());
+        XConfiguration conf = new XConfiguration();
+        conf.set("nameNode", "hdfs://localhost:8020");
+        conf.set("queueName", "default");
+        freqEvaluator = CoordELEvaluator.createELEvaluatorForGroup(conf, FREQ_GROUP);
+        uriEvaluator = CoordELEvaluator.createURIELEvaluator("2009-02-01T01:00Z");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.destroy();
+    }
+
+    @Benchmark
+    public String frequencyDays() throws Exception {
+        return freqEvaluator.evaluate("${coord:days(1)}", String.class);
+    }
+
+    @Benchmark
+    public String frequencyHours() throws Exception {
+        return freqEvaluator.evaluate("${coord:hours(6)}", String.class);
+    }
+
+    @Benchmark
+    public String configurationVariable() throws Exception {
+        return freqEvaluator.evaluate("${nameNode}/user/${queueName}/output", String.class);
+    }
+
+    @Benchmark
+    public String uriTemplate() throws Exception {
+        return uriEvaluator.evaluate("hdfs://localhost:8020/data/${YEAR}/${MONTH}/${DAY}/${HOUR}", String.class);
+    }
+
+    @Benchmark
+    public ELEvaluator createEvaluator() {
+        return services.getServices().get(ELService.class).createEvaluator(FREQ_GROUP);
+    }
+}
@@ -0,0 +1,122 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.service.LiteWorkflowStoreService;
+import org.apache.oozie.util.WritableUtils;
+import org.apache.oozie.util.XConfiguration;
+import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.oozie.workflow.lite.ActionNodeDef;
+import org.apache.oozie.workflow.lite.EndNodeDef;
+import org.apache.oozie.workflow.lite.KillNodeDef;
+import org.apache.oozie.workflow.lite.LiteWorkflowApp;
+import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
+import org.apache.oozie.workflow.lite.StartNodeDef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the serialization of {@link LiteWorkflowInstance}, which happens every time a workflow job is written to
+ * or read from the <code>wf_instance</code> column.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LiteWorkflowInstanceBenchmark {
+    private static final String ACTION_CONF = "<java xmlns=\"uri:oozie:workflow:1.0\">"
+            + "<resource-manager>${resourceManager}</resource-manager><name-node>${nameNode}</name-node>"
+            + "<main-class>org.apache.oozie.example.DemoJavaMain</main-class><arg>Hello</arg><arg>Oozie!</arg></java>";
+
+    @Param({"10", "100"})
+    public int actions;
+
+    @Param({"20", "200"})
+    public int properties;
+
+    private BenchmarkServices services;
+    private LiteWorkflowInstance instance;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        services = new BenchmarkServices(Collections.<String, String>emptyMap());
+
+        StringBuilder definition = new StringBuilder("<workflow-app xmlns=\"uri:oozie:workflow:1.0\" name=\"bench\">");
+        for (int i = 0; i < actions; i++) {
+            definition.append("<action name=\"action-").append(i).append("\">").append(ACTION_CONF)
+                    .append("<ok to=\"").append(transition(i)).append("\"/><error to=\"kill\"/></action>");
+        }
+        definition.append("</workflow-app>");
+
+        LiteWorkflowApp app = new LiteWorkflowApp("bench", definition.toString(),
+                new StartNodeDef(LiteWorkflowStoreService.LiteControlNodeHandler.class, "action-0"));
+        for (int i = 0; i < actions; i++) {
+            app.addNode(new ActionNodeDef("action-" + i, ACTION_CONF, LiteWorkflowStoreService.LiteActionHandler.class,
+                    transition(i), "kill"));
+        }
+        app.addNode(new KillNodeDef("kill", "failed", LiteWorkflowStoreService.LiteControlNodeHandler.class));
+        app.addNode(new EndNodeDef("end", LiteWorkflowStoreService.LiteControlNodeHandler.class));
+
+        XConfiguration conf = new XConfiguration();
+        for (int i = 0; i < properties; i++) {
+            conf.set("property.name." + i, "hdfs://localhost:8020/user/oozie/examples/apps/value-" + i);
+        }
+        instance = new LiteWorkflowInstance(app, conf, "0000001-000000000000000-oozie-oozi-W");
+        for (int i = 0; i < actions; i++) {
+            instance.setVar("action-" + i + WorkflowInstance.NODE_VAR_SEPARATOR + "transition", "ok");
+        }
+        serialized = WritableUtils.toByteArray(instance);
+    }
+
+    private String transition(int action) {
+        return (action + 1 < actions) ? "action-" + (action + 1) : "end";
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.destroy();
+    }
+
+    @Benchmark
+    public byte[] write() {
+        return WritableUtils.toByteArray(instance);
+    }
+
+    @Benchmark
+    public LiteWorkflowInstance readFields() {
+        return WritableUtils.fromByteArray(serialized, LiteWorkflowInstance.class);
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.util.PriorityDelayQueue;
+import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PriorityDelayQueue#offer} and {@link PriorityDelayQueue#poll} with a queue kept at a steady size.
+ * <p>
+ * Half of the prefilled elements are not due yet, which is what the queue looks like when many commands have been
+ * requeued with a delay.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PriorityDelayQueueBenchmark {
+    private static final int PRIORITIES = 3;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private PriorityDelayQueue<Void> queue;
+    private int counter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        queue = new PriorityDelayQueue<>(PRIORITIES, 30_000, TimeUnit.MILLISECONDS, -1);
+        for (int i = 0; i < size; i++) {
+            queue.offer(newElement(i % 2 == 0 ? 0 : TimeUnit.HOURS.toMillis(1)));
+        }
+    }
+
+    private QueueElement<Void> newElement(long delay) {
+        counter++;
+        return new QueueElement<>(new NoOpCallable("pdq", counter % PRIORITIES), counter % PRIORITIES, delay,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @Benchmark
+    public QueueElement<Void> offerPoll() {
+        queue.offer(newElement(0));
+        return queue.poll();
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.util.TimingWheel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link TimingWheel} with a binary heap when holding a steady number of delayed elements.
+ * <p>
+ * Every operation adds one element expiring <code>size</code> ticks from the simulated clock and advances the clock by
+ * one tick, so that one element expires, the way delayed callables flow through <code>CallableQueueService</code>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TimingWheelBenchmark {
+    private static final long TICK_MS = 10;
+
+    @Param({"1000", "1000000"})
+    public int size;
+
+    private TimingWheel<Long> wheel;
+    private PriorityQueue<Long> heap;
+    private long horizon;
+    private long now;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        wheel = new TimingWheel<>(TICK_MS, 512, 0);
+        heap = new PriorityQueue<>();
+        horizon = size * TICK_MS;
+        now = 0;
+        for (int i = 0; i < size; i++) {
+            long expiration = i * TICK_MS;
+            wheel.add(expiration, expiration);
+            heap.offer(expiration);
+        }
+    }
+
+    @Benchmark
+    public List<Long> timingWheel() {
+        now += TICK_MS;
+        long expiration = now + horizon;
+        wheel.add(expiration, expiration);
+        return wheel.advance(now);
+    }
+
+    @Benchmark
+    public Long heap() {
+        now += TICK_MS;
+        long expiration = now + horizon;
+        heap.offer(expiration);
+        Long expired = null;
+        while (!heap.isEmpty() && heap.peek() < now) {
+            expired = heap.poll();
+        }
+        return expired;
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.service.CallableQueueService;
+import org.apache.oozie.service.ServiceException;
+import org.apache.oozie.util.VirtualThreadFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes <code>CallableQueueService</code> to run a batch of callables that block, the way
+ * commands wait for the database, HDFS or YARN, on platform threads and on virtual threads.
+ * <p>
+ * Virtual threads need Java 21 or later; on older JDKs both variants use platform threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VirtualThreadsBenchmark {
+    private static final int BATCH = 500;
+    private static final int TYPES = 8;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"5"})
+    public int blockMs;
+
+    private BenchmarkServices services;
+    private CallableQueueService queueService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ServiceException {
+        if (virtualThreads && !VirtualThreadFactory.isSupported()) {
+            System.err.println("Virtual threads are not supported by this JDK, falling back to platform threads");
+        }
+        Map<String, String> conf = new HashMap<>();
+        conf.put(CallableQueueService.CONF_VIRTUAL_THREADS, Boolean.toString(virtualThreads));
+        conf.put(CallableQueueService.CONF_CALLABLE_CONCURRENCY, Integer.toString(BATCH));
+        conf.put(CallableQueueService.CONF_QUEUE_SIZE, "100000");
+        services = new BenchmarkServices(conf);
+        queueService = services.getServices().get(CallableQueueService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.destroy();
+    }
+
+    @Benchmark
+    public void blockingBatch() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            queueService.queue(new NoOpCallable("type" + (i % TYPES), 0) {
+                @Override
+                public Void call() throws Exception {
+                    try {
+                        Thread.sleep(blockMs);
+                    }
+                    finally {
+                        latch.countDown();
+                    }
+                    return null;
+                }
+            });
+        }
+        latch.await();
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.benchmark;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.oozie.command.CommandException;
+import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.command.XCommand;
+import org.apache.oozie.service.ServiceException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the fixed overhead of {@link XCommand#call()}: instrumentation, interrupt checks and the lock acquisition
+ * and release through {@link org.apache.oozie.service.MemoryLocksService}.
+ * <p>
+ * With <code>sharedLock</code> all threads compete for the lock of the same entity, otherwise each thread locks its
+ * own entity.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class XCommandBenchmark {
+
+    @Param({"false", "true"})
+    public boolean sharedLock;
+
+    private BenchmarkServices services;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ServiceException {
+        services = new BenchmarkServices(Collections.<String, String>emptyMap());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.destroy();
+    }
+
+    @Benchmark
+    public String call(ThreadState state) throws CommandException {
+        return new LockingCommand(sharedLock ? "shared-entity" : state.entityKey).call();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+        private String entityKey;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            entityKey = "entity-" + SEQUENCE.incrementAndGet();
+        }
+    }
+
+    static class LockingCommand extends XCommand<String> {
+        private final String entityKey;
+
+        LockingCommand(String entityKey) {
+            super("benchmark", "benchmark", 1);
+            this.entityKey = entityKey;
+        }
+
+        @Override
+        protected boolean isLockRequired() {
+            return true;
+        }
+
+        @Override
+        public String getEntityKey() {
+            return entityKey;
+        }
+
+        @Override
+        protected boolean isReQueueRequired() {
+            return false;
+        }
+
+        @Override
+        protected void loadState() throws CommandException {
+        }
+
+        @Override
+        protected void verifyPrecondition() throws CommandException, PreconditionException {
+        }
+
+        @Override
+        protected String execute() throws CommandException {
+            return entityKey;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.oozie.client;
+
+import java.util.List;
+
+/**
+ * A page of a list of jobs paged by keyset, see {@link OozieClient#getJobsInfo(String, String, int, boolean)}.
+ *
+ * @param <T> the type of the jobs
+ */
+public class JobsPage<T> {
+    private final List<T> jobs;
+    private final String cursor;
+    private final int total;
+
+    public JobsPage(List<T> jobs, String cursor, int total) {
+        this.jobs = jobs;
+        this.cursor = cursor;
+        this.total = total;
+    }
+
+    /**
+     * Return the jobs of the page.
+     *
+     * @return the jobs.
+     */
+    public List<T> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Return the cursor to get the next page with.
+     *
+     * @return the cursor, <code>null</code> if this is the last page.
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    /**
+     * Return the number of jobs matching the filter.
+     *
+     * @return the number of jobs, -1 if they were not counted.
+     */
+    public int getTotal() {
+        return total;
+    }
+}
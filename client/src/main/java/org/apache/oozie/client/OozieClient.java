@@ -64,6 +64,7 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
 
 
 /**
@@ -605,6 +606,30 @@ public class OozieClient {
         }
     }
 
+    /**
+     * Ask for a response compressed with gzip, which is used by the Oozie server for job lists and job info.
+     *
+     * @param conn connection, not connected yet
+     */
+    static void acceptGzip(HttpURLConnection conn) {
+        conn.setRequestProperty("Accept-Encoding", "gzip");
+    }
+
+    /**
+     * Return a reader of the response, decompressing it if the server compressed it with gzip.
+     *
+     * @param conn connection
+     * @return the reader of the response
+     * @throws IOException thrown if the response could not be read
+     */
+    static Reader getResponseReader(HttpURLConnection conn) throws IOException {
+        InputStream is = conn.getInputStream();
+        if ("gzip".equalsIgnoreCase(conn.getContentEncoding())) {
+            is = new GZIPInputStream(is);
+        }
+        return new InputStreamReader(is, StandardCharsets.UTF_8);
+    }
+
     static void handleError(HttpURLConnection conn) throws IOException, OozieClientException {
         int status = conn.getResponseCode();
         String error = conn.getHeaderField(RestConstants.OOZIE_ERROR_CODE);
@@ -994,8 +1019,9 @@ public class OozieClient {
 
         @Override
         protected WorkflowJob call(HttpURLConnection conn) throws IOException, OozieClientException {
+            acceptGzip(conn);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8);
+                Reader reader = getResponseReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createWorkflowJob(json);
             }
@@ -1458,8 +1484,9 @@ public class OozieClient {
 
         @Override
         protected CoordinatorJob call(HttpURLConnection conn) throws IOException, OozieClientException {
+            acceptGzip(conn);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8);
+                Reader reader = getResponseReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createCoordinatorJob(json);
             }
@@ -1505,8 +1532,9 @@ public class OozieClient {
 
         @Override
         protected BundleJob call(HttpURLConnection conn) throws IOException, OozieClientException {
+            acceptGzip(conn);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8);
+                Reader reader = getResponseReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
                 return JsonToBean.createBundleJob(json);
             }
@@ -1616,14 +1644,9 @@ public class OozieClient {
         @Override
         protected List<WorkflowJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
+            acceptGzip(conn);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8);
-                JSONObject json = (JSONObject) JSONValue.parse(reader);
-                JSONArray workflows = (JSONArray) json.get(JsonTags.WORKFLOWS_JOBS);
-                if (workflows == null) {
-                    workflows = new JSONArray();
-                }
-                return JsonToBean.createWorkflowJobList(workflows);
+                return JsonToBean.createWorkflowJobList(getResponseReader(conn));
             }
             else {
                 handleError(conn);
@@ -1643,14 +1666,9 @@ public class OozieClient {
         @Override
         protected List<CoordinatorJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
+            acceptGzip(conn);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8);
-                JSONObject json = (JSONObject) JSONValue.parse(reader);
-                JSONArray jobs = (JSONArray) json.get(JsonTags.COORDINATOR_JOBS);
-                if (jobs == null) {
-                    jobs = new JSONArray();
-                }
-                return JsonToBean.createCoordinatorJobList(jobs);
+                return JsonToBean.createCoordinatorJobList(getResponseReader(conn));
             }
             else {
                 handleError(conn);
@@ -1670,20 +1688,86 @@ public class OozieClient {
         @Override
         protected List<BundleJob> call(HttpURLConnection conn) throws IOException, OozieClientException {
             conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
+            acceptGzip(conn);
             if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
-                Reader reader = new InputStreamReader(conn.getInputStream(), StandardCharsets.UTF_8);
+                return JsonToBean.createBundleJobList(getResponseReader(conn));
+            }
+            else {
+                handleError(conn);
+            }
+            return null;
+        }
+    }
+
+    private abstract class JobsPageStatus<T> extends ClientCallable<JobsPage<T>> {
+        private final Object jobsTag;
+
+        JobsPageStatus(String jobType, Object jobsTag, String filter, String cursor, int len, boolean count) {
+            super("GET", RestConstants.JOBS, "", prepareParams(RestConstants.JOBS_FILTER_PARAM, filter,
+                    RestConstants.JOBTYPE_PARAM, jobType, RestConstants.JOBS_CURSOR_PARAM, cursor == null ? "" : cursor,
+                    RestConstants.LEN_PARAM, Integer.toString(len), RestConstants.JOBS_COUNT_PARAM,
+                    Boolean.toString(count)));
+            this.jobsTag = jobsTag;
+        }
+
+        @Override
+        protected JobsPage<T> call(HttpURLConnection conn) throws IOException, OozieClientException {
+            conn.setRequestProperty("content-type", RestConstants.XML_CONTENT_TYPE);
+            acceptGzip(conn);
+            if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
+                Reader reader = getResponseReader(conn);
                 JSONObject json = (JSONObject) JSONValue.parse(reader);
-                JSONArray jobs = (JSONArray) json.get(JsonTags.BUNDLE_JOBS);
+                JSONArray jobs = (JSONArray) json.get(jobsTag);
                 if (jobs == null) {
                     jobs = new JSONArray();
                 }
-                return JsonToBean.createBundleJobList(jobs);
+                Long total = (Long) json.get(JsonTags.WORKFLOWS_TOTAL);
+                return new JobsPage<T>(createJobs(jobs), (String) json.get(JsonTags.WORKFLOWS_CURSOR),
+                        total == null ? -1 : total.intValue());
             }
             else {
                 handleError(conn);
             }
             return null;
         }
+
+        protected abstract List<T> createJobs(JSONArray jobs);
+    }
+
+    private class WfJobsPageStatus extends JobsPageStatus<WorkflowJob> {
+
+        WfJobsPageStatus(String filter, String cursor, int len, boolean count) {
+            super("wf", JsonTags.WORKFLOWS_JOBS, filter, cursor, len, count);
+        }
+
+        @Override
+        protected List<WorkflowJob> createJobs(JSONArray jobs) {
+            return JsonToBean.createWorkflowJobList(jobs);
+        }
+    }
+
+    private class CoordJobsPageStatus extends JobsPageStatus<CoordinatorJob> {
+
+        CoordJobsPageStatus(String filter, String cursor, int len, boolean count) {
+            super("coord", JsonTags.COORDINATOR_JOBS, filter, cursor, len, count);
+        }
+
+        @Override
+        protected List<CoordinatorJob> createJobs(JSONArray jobs) {
+            return JsonToBean.createCoordinatorJobList(jobs);
+        }
+    }
+
+    private class BundleJobsPageStatus extends JobsPageStatus<BundleJob> {
+
+        BundleJobsPageStatus(String filter, String cursor, int len, boolean count) {
+            super("bundle", JsonTags.BUNDLE_JOBS, filter, cursor, len, count);
+        }
+
+        @Override
+        protected List<BundleJob> createJobs(JSONArray jobs) {
+            return JsonToBean.createBundleJobList(jobs);
+        }
     }
 
     private class BulkResponseStatus extends ClientCallable<List<BulkResponse>> {
@@ -1874,6 +1958,26 @@ public class OozieClient {
         return new JobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return a page of the info of the workflow jobs that match the filter.
+     * <p>
+     * The jobs are paged by keyset: the jobs are ordered by creation time, newest first, and every page starts after
+     * the cursor returned with the previous page. Unlike an offset, the cursor does not make the server skip all the
+     * jobs of the previous pages, and it does not shift when jobs are created in the meantime. The filter cannot sort
+     * the jobs by anything else.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param cursor cursor returned with the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count whether to count all the jobs that match the filter, which takes an extra query on the server.
+     * @return the page with the workflow jobs info, without node details.
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public JobsPage<WorkflowJob> getJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        return new WfJobsPageStatus(filter, cursor, len, count).call();
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter.
      * <p>
@@ -2447,6 +2551,22 @@ public class OozieClient {
         return new CoordJobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return a page of the info of the coordinator jobs that match the filter, paged by keyset like
+     * {@link #getJobsInfo(String, String, int, boolean)}.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param cursor cursor returned with the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count whether to count all the jobs that match the filter.
+     * @return the page with the coordinator jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public JobsPage<CoordinatorJob> getCoordJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        return new CoordJobsPageStatus(filter, cursor, len, count).call();
+    }
+
     /**
      * Return the info of the bundle jobs that match the filter.
      *
@@ -2460,6 +2580,22 @@ public class OozieClient {
         return new BundleJobsStatus(filter, start, len).call();
     }
 
+    /**
+     * Return a page of the info of the bundle jobs that match the filter, paged by keyset like
+     * {@link #getJobsInfo(String, String, int, boolean)}.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter syntax.
+     * @param cursor cursor returned with the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count whether to count all the jobs that match the filter.
+     * @return the page with the bundle jobs info
+     * @throws OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    public JobsPage<BundleJob> getBundleJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        return new BundleJobsPageStatus(filter, cursor, len, count).call();
+    }
+
     public List<BulkResponse> getBulkInfo(String filter, int start, int len) throws OozieClientException {
         return new BulkResponseStatus(filter, start, len).call();
     }
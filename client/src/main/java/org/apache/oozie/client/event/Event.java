@@ -18,11 +18,15 @@
 
 package org.apache.oozie.client.event;
 
+import java.io.Serializable;
+
 /**
  * This interface defines an Event that can be generated via Job status changes
  * or SLA related events
  */
-public abstract class Event {
+public abstract class Event implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     protected MessageType msgType;
 
@@ -31,13 +31,19 @@ import org.apache.oozie.AppType;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
 import org.json.simple.JSONValue;
+import org.json.simple.parser.ContentHandler;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -494,4 +500,155 @@ public class JsonToBean {
         return list;
     }
 
+    /**
+     * Creates a list of workflow job beans from a JSON list of workflow jobs, while the JSON is read.
+     *
+     * @param reader reader of the JSON object with the workflow jobs.
+     * @return a list of workflow job beans, empty if the JSON object has no workflow jobs.
+     * @throws IOException thrown if the JSON could not be read or parsed.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<WorkflowJob> createWorkflowJobList(Reader reader) throws IOException {
+        return (List<WorkflowJob>) parseBeanList(reader, JsonTags.WORKFLOWS_JOBS, WorkflowJob.class);
+    }
+
+    /**
+     * Creates a list of coordinator job beans from a JSON list of coordinator jobs, while the JSON is read.
+     *
+     * @param reader reader of the JSON object with the coordinator jobs.
+     * @return a list of coordinator job beans, empty if the JSON object has no coordinator jobs.
+     * @throws IOException thrown if the JSON could not be read or parsed.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<CoordinatorJob> createCoordinatorJobList(Reader reader) throws IOException {
+        return (List<CoordinatorJob>) parseBeanList(reader, JsonTags.COORDINATOR_JOBS, CoordinatorJob.class);
+    }
+
+    /**
+     * Creates a list of bundle job beans from a JSON list of bundle jobs, while the JSON is read.
+     *
+     * @param reader reader of the JSON object with the bundle jobs.
+     * @return a list of bundle job beans, empty if the JSON object has no bundle jobs.
+     * @throws IOException thrown if the JSON could not be read or parsed.
+     */
+    @SuppressWarnings("unchecked")
+    public static List<BundleJob> createBundleJobList(Reader reader) throws IOException {
+        return (List<BundleJob>) parseBeanList(reader, JsonTags.BUNDLE_JOBS, BundleJob.class);
+    }
+
+    private static List<?> parseBeanList(Reader reader, Object arrayKey, Class<?> type) throws IOException {
+        BeanListHandler handler = new BeanListHandler(arrayKey, type);
+        try {
+            new JSONParser().parse(reader, handler);
+        }
+        catch (ParseException ex) {
+            throw new IOException("Invalid JSON response: " + ex, ex);
+        }
+        return handler.beans;
+    }
+
+    /**
+     * Parser handler which creates the beans of an array of the top level JSON object as soon as each of its elements has
+     * been parsed, so that the JSON objects of the whole array are never held in a JSON array. The other values of the top
+     * level JSON object are parsed and dropped.
+     */
+    private static class BeanListHandler implements ContentHandler {
+        private final Object arrayKey;
+        private final Class<?> type;
+        private final List<Object> beans = new ArrayList<Object>();
+        private final LinkedList<Object> containers = new LinkedList<Object>();
+        private final LinkedList<String> keys = new LinkedList<String>();
+
+        private BeanListHandler(Object arrayKey, Class<?> type) {
+            this.arrayKey = arrayKey;
+            this.type = type;
+        }
+
+        @Override
+        public void startJSON() {
+        }
+
+        @Override
+        public void endJSON() {
+        }
+
+        @Override
+        public boolean startObject() {
+            containers.push(new JSONObject());
+            return true;
+        }
+
+        @Override
+        public boolean endObject() {
+            addValue(containers.pop());
+            return true;
+        }
+
+        @Override
+        public boolean startObjectEntry(String key) {
+            keys.push(key);
+            return true;
+        }
+
+        @Override
+        public boolean endObjectEntry() {
+            keys.pop();
+            return true;
+        }
+
+        @Override
+        public boolean startArray() {
+            if (containers.size() == 1 && arrayKey.equals(keys.peek())) {
+                containers.push(beans);
+            }
+            else {
+                containers.push(new JSONArray());
+            }
+            return true;
+        }
+
+        @Override
+        public boolean endArray() {
+            Object array = containers.pop();
+            if (array != beans) {
+                addValue(array);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean primitive(Object value) {
+            addValue(value);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void addValue(Object value) {
+            Object container = containers.peek();
+            if (container == beans) {
+                beans.add(createBean((JSONObject) value));
+            }
+            else if (containers.size() > 1 && container instanceof JSONObject) {
+                ((JSONObject) container).put(keys.peek(), value);
+            }
+            else if (container instanceof JSONArray) {
+                ((JSONArray) container).add(value);
+            }
+        }
+
+        private Object createBean(JSONObject json) {
+            if (type == WorkflowJob.class) {
+                return createWorkflowJob(json);
+            }
+            else if (type == CoordinatorJob.class) {
+                return createCoordinatorJob(json);
+            }
+            else if (type == BundleJob.class) {
+                return createBundleJob(json);
+            }
+            else {
+                throw new RuntimeException("Unsupported type : " + type.getSimpleName());
+            }
+        }
+    }
 }
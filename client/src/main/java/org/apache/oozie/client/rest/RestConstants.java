@@ -143,6 +143,10 @@ public interface RestConstants {
 
     String JOBS_EXTERNAL_ID_PARAM = "external-id";
 
+    String JOBS_CURSOR_PARAM = "cursor";
+
+    String JOBS_COUNT_PARAM = "count";
+
     String ADMIN_STATUS_RESOURCE = "status";
 
     String ADMIN_SAFE_MODE_PARAM = "safemode";
@@ -18,6 +18,7 @@
 
 package org.apache.oozie.client.rest;
 
+import java.io.StringReader;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -190,6 +191,24 @@ public class TestJsonToBean {
         assertEquals("j2", list.get(1).getId());
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testParseWorkflowJobsFromReader() throws Exception {
+        JSONObject json = new JSONObject();
+        json.put(JsonTags.WORKFLOWS_TOTAL, 2L);
+        json.put(JsonTags.WORKFLOWS_JOBS, createJsonWorkflowJobList());
+        List<WorkflowJob> list = JsonToBean.createWorkflowJobList(new StringReader(json.toJSONString()));
+
+        assertEquals(2, list.size());
+        assertEquals("j1", list.get(0).getId());
+        assertEquals("j2", list.get(1).getId());
+        assertEquals(WorkflowJob.Status.PREP, list.get(1).getStatus());
+        assertEquals(2, list.get(1).getActions().size());
+        assertEquals("a2", list.get(1).getActions().get(1).getId());
+
+        assertEquals(0, JsonToBean.createWorkflowJobList(new StringReader("{\"total\":0}")).size());
+    }
+
     @SuppressWarnings("unchecked")
     private JSONObject createJsonCoordinatorAction() {
         JSONObject json = new JSONObject();
@@ -348,6 +367,21 @@ public class TestJsonToBean {
         assertEquals("cj2", list.get(1).getId());
     }
 
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testParseCoordinatorJobsFromReader() throws Exception {
+        JSONObject json = new JSONObject();
+        json.put(JsonTags.COORDINATOR_JOBS, createJsonCoordinatorJobList());
+        json.put(JsonTags.COORD_JOB_TOTAL, 2L);
+        List<CoordinatorJob> list = JsonToBean.createCoordinatorJobList(new StringReader(json.toJSONString()));
+
+        assertEquals(2, list.size());
+        assertEquals("cj1", list.get(0).getId());
+        assertEquals("cj2", list.get(1).getId());
+        assertEquals(2, list.get(0).getActions().size());
+        assertEquals("ca2", list.get(0).getActions().get(1).getId());
+    }
+
 
     private JSONObject createJMSInfoJSONObject(){
         JSONObject json = new JSONObject();
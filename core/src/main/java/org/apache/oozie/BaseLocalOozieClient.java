@@ -23,6 +23,7 @@ import org.apache.oozie.client.BundleJob;
 import org.apache.oozie.client.CoordinatorAction;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.JMSConnectionInfo;
+import org.apache.oozie.client.JobsPage;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.OozieClientException;
 import org.apache.oozie.client.WorkflowAction;
@@ -379,6 +380,12 @@ abstract class BaseLocalOozieClient extends OozieClient {
         return throwNoOp();
     }
 
+    @Override
+    public JobsPage<WorkflowJob> getJobsInfo(final String filter, final String cursor, final int len, final boolean count)
+            throws OozieClientException {
+        return throwNoOp();
+    }
+
     @Override
     public List<CoordinatorAction> kill(final String jobId, final String rangeType, final String scope)
             throws OozieClientException {
@@ -459,11 +466,23 @@ abstract class BaseLocalOozieClient extends OozieClient {
         return throwNoOp();
     }
 
+    @Override
+    public JobsPage<CoordinatorJob> getCoordJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        return throwNoOp();
+    }
+
     @Override
     public List<BundleJob> getBundleJobsInfo(String filter, int start, int len) throws OozieClientException {
         return throwNoOp();
     }
 
+    @Override
+    public JobsPage<BundleJob> getBundleJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        return throwNoOp();
+    }
+
     @Override
     protected HttpURLConnection createRetryableConnection(URL url, String method) throws IOException {
         try {
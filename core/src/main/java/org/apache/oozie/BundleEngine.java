@@ -276,6 +276,27 @@ public class BundleEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Get a page of bundle jobs paged by keyset
+     *
+     * @param filter the filter string
+     * @param cursor cursor returned with the previous page, null or empty for the first page
+     * @param len length of the page
+     * @param count whether to count all the matching jobs
+     * @return bundle job info, with the cursor of the next page if there can be one
+     * @throws BundleEngineException thrown if failed to get bundle job info
+     */
+    public BundleJobInfo getBundleJobs(String filter, String cursor, int len, boolean count) throws BundleEngineException {
+        Map<String, List<String>> filterList = parseFilter(filter);
+
+        try {
+            return new BundleJobsXCommand(filterList, cursor, len, count).call();
+        }
+        catch (CommandException ex) {
+            throw new BundleEngineException(ex);
+        }
+    }
+
     /**
      * Parse filter string to a map with key = filter name and values = filter values
      *
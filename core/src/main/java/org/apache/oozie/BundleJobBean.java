@@ -41,10 +41,11 @@ import org.apache.hadoop.io.Writable;
 import org.apache.oozie.client.BundleJob;
 import org.apache.oozie.client.CoordinatorJob;
 import org.apache.oozie.client.Job;
-import org.apache.oozie.client.rest.JsonBean;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.JsonUtils;
 import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.StreamingJSONArray;
+import org.apache.oozie.util.StreamingJsonBean;
 import org.apache.oozie.util.WritableUtils;
 import org.apache.openjpa.persistence.jdbc.Index;
 import org.apache.openjpa.persistence.jdbc.Strategy;
@@ -144,7 +145,7 @@ import org.json.simple.JSONObject;
 
         @NamedQuery(name = "GET_BUNDLE_JOB_FOR_USER", query = "select w.user from BundleJobBean w where w.id = :id") })
 @Table(name = "BUNDLE_JOBS")
-public class BundleJobBean implements Writable, BundleJob, JsonBean {
+public class BundleJobBean implements Writable, BundleJob, StreamingJsonBean {
 
     @Id
     private String id;
@@ -573,8 +574,17 @@ public class BundleJobBean implements Writable, BundleJob, JsonBean {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public JSONObject toJSONObject(String timeZoneId) {
+        return toJSONObject(timeZoneId, false);
+    }
+
+    @Override
+    public JSONObject toStreamingJSONObject(String timeZoneId) {
+        return toJSONObject(timeZoneId, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject toJSONObject(String timeZoneId, boolean streaming) {
         JSONObject json = new JSONObject();
         json.put(JsonTags.BUNDLE_JOB_PATH, appPath);
         json.put(JsonTags.BUNDLE_JOB_NAME, appName);
@@ -593,7 +603,8 @@ public class BundleJobBean implements Writable, BundleJob, JsonBean {
         json.put(JsonTags.BUNDLE_JOB_GROUP, getGroup());
         json.put(JsonTags.BUNDLE_JOB_ACL, getAcl());
         json.put(JsonTags.BUNDLE_JOB_CONSOLE_URL, getConsoleUrl());
-        json.put(JsonTags.BUNDLE_COORDINATOR_JOBS, CoordinatorJobBean.toJSONArray(coordJobs, timeZoneId));
+        json.put(JsonTags.BUNDLE_COORDINATOR_JOBS, streaming ? new StreamingJSONArray(coordJobs, timeZoneId)
+                : CoordinatorJobBean.toJSONArray(coordJobs, timeZoneId));
         json.put(JsonTags.TO_STRING, toString());
 
         return json;
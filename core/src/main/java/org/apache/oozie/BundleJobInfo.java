@@ -24,6 +24,7 @@ public class BundleJobInfo {
     private int start;
     private int len;
     private int total;
+    private String cursor;
     private List<BundleJobBean> jobs;
 
     /**
@@ -41,6 +42,19 @@ public class BundleJobInfo {
         this.jobs = jobs;
     }
 
+    /**
+     * Create a bundle jobs info bean for a page of a list paged by keyset.
+     *
+     * @param jobs bundle jobs being returned.
+     * @param len number of bundle jobs requested.
+     * @param total total bundle jobs, -1 if not counted.
+     * @param cursor cursor of the next page, null if this is the last page.
+     */
+    public BundleJobInfo(List<BundleJobBean> jobs, int len, int total, String cursor) {
+        this(jobs, 1, len, total);
+        this.cursor = cursor;
+    }
+
     /**
      * Return the bundle jobs being returned.
      *
@@ -83,4 +97,12 @@ public class BundleJobInfo {
         return total;
     }
 
+    /**
+     * Return the cursor of the next page, for lists paged by keyset.
+     *
+     * @return the cursor of the next page, null if this is the last page or the list is paged by offset.
+     */
+    public String getCursor() {
+        return cursor;
+    }
 }
@@ -545,6 +545,27 @@ public class CoordinatorEngine extends BaseEngine {
         }
     }
 
+    /**
+     * @param filter he filter to parse. Elements must be semicolon-separated name=value pairs.
+     *               Supported names are in{@link CoordinatorEngine#FILTER_NAMES}.
+     * @param cursor cursor returned with the previous page, null or empty for the first page
+     * @param len maximum number of results
+     * @param count whether to count all the matching jobs
+     * @return CoordinatorJobInfo, with the cursor of the next page if there can be one
+     * @throws CoordinatorEngineException if the job info could no be retrieved
+     */
+    public CoordinatorJobInfo getCoordJobs(String filter, String cursor, int len, boolean count)
+            throws CoordinatorEngineException {
+        Map<String, List<String>> filterList = parseJobsFilter(filter);
+
+        try {
+            return new CoordJobsXCommand(filterList, cursor, len, count).call();
+        }
+        catch (CommandException ex) {
+            throw new CoordinatorEngineException(ex);
+        }
+    }
+
     // Parses the filter string (e.g status=RUNNING;status=WAITING) and returns a list of status values
     public Map<Pair<String, FILTER_COMPARATORS>, List<Object>> parseJobFilter(String filter) throws
         CoordinatorEngineException {
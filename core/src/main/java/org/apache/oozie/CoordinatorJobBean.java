@@ -42,10 +42,11 @@ import javax.persistence.Transient;
 import org.apache.hadoop.io.Writable;
 import org.apache.oozie.client.CoordinatorAction;
 import org.apache.oozie.client.CoordinatorJob;
-import org.apache.oozie.client.rest.JsonBean;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.JsonUtils;
 import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.StreamingJSONArray;
+import org.apache.oozie.util.StreamingJsonBean;
 import org.apache.oozie.util.WritableUtils;
 import org.apache.openjpa.persistence.jdbc.Index;
 import org.apache.openjpa.persistence.jdbc.Strategy;
@@ -228,7 +229,7 @@ import org.json.simple.JSONObject;
 
 })
 @Table(name = "COORD_JOBS")
-public class CoordinatorJobBean implements Writable, CoordinatorJob, JsonBean {
+public class CoordinatorJobBean implements Writable, CoordinatorJob, StreamingJsonBean {
 
     @Id
     private String id;
@@ -1160,8 +1161,17 @@ public class CoordinatorJobBean implements Writable, CoordinatorJob, JsonBean {
         return toJSONObject("GMT");
     }
 
-    @SuppressWarnings("unchecked")
     public JSONObject toJSONObject(String timeZoneId) {
+        return toJSONObject(timeZoneId, false);
+    }
+
+    @Override
+    public JSONObject toStreamingJSONObject(String timeZoneId) {
+        return toJSONObject(timeZoneId, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject toJSONObject(String timeZoneId, boolean streaming) {
         JSONObject json = new JSONObject();
         json.put(JsonTags.COORDINATOR_JOB_PATH, getAppPath());
         json.put(JsonTags.COORDINATOR_JOB_NAME, getAppName());
@@ -1188,7 +1198,8 @@ public class CoordinatorJobBean implements Writable, CoordinatorJob, JsonBean {
         json.put(JsonTags.COORDINATOR_JOB_ACL, getAcl());
         json.put(JsonTags.COORDINATOR_JOB_CONSOLE_URL, getConsoleUrl());
         json.put(JsonTags.COORDINATOR_JOB_MAT_THROTTLING, getMatThrottling());
-        json.put(JsonTags.COORDINATOR_ACTIONS, CoordinatorActionBean.toJSONArray(actions, timeZoneId));
+        json.put(JsonTags.COORDINATOR_ACTIONS, streaming ? new StreamingJSONArray(actions, timeZoneId)
+                : CoordinatorActionBean.toJSONArray(actions, timeZoneId));
         json.put(JsonTags.TO_STRING,toString());
         json.put(JsonTags.COORDINATOR_JOB_NUM_ACTION, numActions);
 
@@ -24,6 +24,7 @@ public class CoordinatorJobInfo {
     private int start;
     private int len;
     private int total;
+    private String cursor;
     private List<CoordinatorJobBean> jobs;
 
     /**
@@ -41,6 +42,19 @@ public class CoordinatorJobInfo {
         this.jobs = jobs;
     }
 
+    /**
+     * Create a coordinator jobs info bean for a page of a list paged by keyset.
+     *
+     * @param jobs coordinator jobs being returned.
+     * @param len number of coordinator jobs requested.
+     * @param total total coordinator jobs, -1 if not counted.
+     * @param cursor cursor of the next page, null if this is the last page.
+     */
+    public CoordinatorJobInfo(List<CoordinatorJobBean> jobs, int len, int total, String cursor) {
+        this(jobs, 1, len, total);
+        this.cursor = cursor;
+    }
+
     /**
      * Return the coordiantor jobs being returned.
      *
@@ -77,4 +91,12 @@ public class CoordinatorJobInfo {
         return total;
     }
 
+    /**
+     * Return the cursor of the next page, for lists paged by keyset.
+     *
+     * @return the cursor of the next page, null if this is the last page or the list is paged by offset.
+     */
+    public String getCursor() {
+        return cursor;
+    }
 }
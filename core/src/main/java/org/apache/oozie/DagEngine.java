@@ -480,6 +480,26 @@ public class DagEngine extends BaseEngine {
         }
     }
 
+    /**
+     * Return the info about a page of a set of jobs paged by keyset.
+     *
+     * @param filter job filter. Refer to the {@link org.apache.oozie.client.OozieClient} for the filter syntax.
+     * @param cursor cursor returned with the previous page, null or empty for the first page.
+     * @param len number of jobs to return.
+     * @param count whether to count all the matching jobs.
+     * @return job info for the matching jobs of the page, with the cursor of the next page if there can be one.
+     * @throws DagEngineException thrown if the jobs info could not be obtained.
+     */
+    public WorkflowsInfo getJobs(String filter, String cursor, int len, boolean count) throws DagEngineException {
+        Map<String, List<String>> filterList = parseFilter(filter);
+        try {
+            return new JobsXCommand(filterList, cursor, len, count).call();
+        }
+        catch (CommandException dce) {
+            throw new DagEngineException(dce);
+        }
+    }
+
     /**
      * Return the workflow Job ID for an external ID. <p> This is reverse lookup for recovery purposes.
      *
@@ -108,6 +108,7 @@ public enum ErrorCode {
     E0611(XLog.OPS, "SQL error in operation [{0}], {1}"),
     E0612(XLog.OPS, "Could not get coordinator actions"),
     E0613(XLog.OPS, "Workflow hierarchy error, cycle found {0}"),
+    E0614(XLog.OPS, "Could not archive purged jobs to [{0}], {1}"),
 
     E0700(XLog.STD, "XML error, {0}"),
     E0701(XLog.STD, "XML schema error, {0}"),
@@ -18,6 +18,7 @@
 
 package org.apache.oozie;
 
+import org.apache.oozie.client.JobsPage;
 import org.apache.oozie.client.OozieClientException;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
@@ -83,6 +84,28 @@ public class LocalOozieClient extends BaseLocalOozieClient {
         }
     }
 
+    /**
+     * Return a page of the info of the workflow jobs that match the filter, paged by keyset.
+     *
+     * @param filter job filter. Refer to the {@link LocalOozieClient} for the filter syntax.
+     * @param cursor cursor returned with the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count whether to count all the jobs that match the filter.
+     * @return the page with the workflow jobs info, without node details.
+     * @throws org.apache.oozie.client.OozieClientException thrown if the jobs info could not be retrieved.
+     */
+    @Override
+    public JobsPage<WorkflowJob> getJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        try {
+            WorkflowsInfo info = dagEngine.getJobs(filter, cursor, len, count);
+            return new JobsPage<WorkflowJob>((List) info.getWorkflows(), info.getCursor(), info.getTotal());
+        }
+        catch (DagEngineException ex) {
+            throw new OozieClientException(ex.getErrorCode().toString(), ex);
+        }
+    }
+
     /**
      * Return the info of the workflow jobs that match the filter. <p> It returns the first 100 jobs that match the
      * filter.
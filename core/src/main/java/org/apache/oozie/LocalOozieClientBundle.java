@@ -20,6 +20,7 @@ package org.apache.oozie;
 
 import org.apache.oozie.client.BulkResponse;
 import org.apache.oozie.client.BundleJob;
+import org.apache.oozie.client.JobsPage;
 import org.apache.oozie.client.OozieClientException;
 
 import java.util.List;
@@ -81,6 +82,17 @@ public class LocalOozieClientBundle extends BaseLocalOozieClient {
         }
     }
 
+    @Override
+    public JobsPage<BundleJob> getBundleJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        try {
+            BundleJobInfo info = bundleEngine.getBundleJobs(filter, cursor, len, count);
+            return new JobsPage<BundleJob>((List) info.getBundleJobs(), info.getCursor(), info.getTotal());
+        } catch (BundleEngineException e) {
+            throw new OozieClientException(e.getErrorCode().toString(), e);
+        }
+    }
+
     @Override
     public List<BulkResponse> getBulkInfo(String filter, int start, int len) throws OozieClientException {
         try {
@@ -24,6 +24,7 @@ import java.util.Properties;
 
 import org.apache.oozie.client.CoordinatorAction;
 import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.client.JobsPage;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.OozieClientException;
 import org.apache.oozie.client.WorkflowJob;
@@ -228,6 +229,31 @@ public class LocalOozieClientCoord extends BaseLocalOozieClient {
         }
     }
 
+    /**
+     * Return a page of the info of the coordinator jobs that match the filter, paged by keyset.
+     *
+     * @param filter job filter. Refer to the {@link OozieClient} for the filter
+     *        syntax.
+     * @param cursor cursor returned with the previous page, <code>null</code> for the first page.
+     * @param len number of jobs to return.
+     * @param count whether to count all the jobs that match the filter.
+     * @return the page with the coordinator jobs info
+     * @throws OozieClientException thrown if the jobs info could not be
+     *         retrieved.
+     */
+    @Override
+    public JobsPage<CoordinatorJob> getCoordJobsInfo(String filter, String cursor, int len, boolean count)
+            throws OozieClientException {
+        try {
+            CoordinatorJobInfo info = coordEngine.getCoordJobs(filter, cursor, len, count);
+            return new JobsPage<CoordinatorJob>(new ArrayList<CoordinatorJob>(info.getCoordJobs()), info.getCursor(),
+                    info.getTotal());
+        }
+        catch (CoordinatorEngineException ex) {
+            throw new OozieClientException(ex.getErrorCode().toString(), ex);
+        }
+    }
+
     @Override
     public String updateCoord(String jobId, Properties conf, String dryrun, String showDiff) throws OozieClientException {
         try {
@@ -19,37 +19,66 @@
 package org.apache.oozie;
 
 import org.apache.oozie.client.rest.JsonTags;
+import org.apache.oozie.util.StreamingJSONArray;
 import org.json.simple.JSONObject;
 
+/**
+ * Creates the JSON representation of job lists. With <code>streaming</code>, the jobs are converted to JSON while the
+ * JSON object is written, by a {@link StreamingJSONArray}.
+ */
 public final class OozieJsonFactory {
 
     private OozieJsonFactory() {
     }
 
     public static JSONObject getWFJSONObject(WorkflowsInfo jobs, String timeZoneId) {
+        return getWFJSONObject(jobs, timeZoneId, false);
+    }
+
+    public static JSONObject getWFJSONObject(WorkflowsInfo jobs, String timeZoneId, boolean streaming) {
         JSONObject json = new JSONObject();
-        json.put(JsonTags.WORKFLOWS_JOBS, WorkflowJobBean.toJSONArray(jobs.getWorkflows(), timeZoneId));
+        json.put(JsonTags.WORKFLOWS_JOBS, streaming ? new StreamingJSONArray(jobs.getWorkflows(), timeZoneId)
+                : WorkflowJobBean.toJSONArray(jobs.getWorkflows(), timeZoneId));
         json.put(JsonTags.WORKFLOWS_TOTAL, jobs.getTotal());
         json.put(JsonTags.WORKFLOWS_OFFSET, jobs.getStart());
         json.put(JsonTags.WORKFLOWS_LEN, jobs.getLen());
+        if (jobs.getCursor() != null) {
+            json.put(JsonTags.WORKFLOWS_CURSOR, jobs.getCursor());
+        }
         return json;
     }
 
     public static JSONObject getCoordJSONObject(CoordinatorJobInfo jobs, String timeZoneId) {
+        return getCoordJSONObject(jobs, timeZoneId, false);
+    }
+
+    public static JSONObject getCoordJSONObject(CoordinatorJobInfo jobs, String timeZoneId, boolean streaming) {
         JSONObject json = new JSONObject();
-        json.put(JsonTags.COORDINATOR_JOBS, CoordinatorJobBean.toJSONArray(jobs.getCoordJobs(), timeZoneId));
+        json.put(JsonTags.COORDINATOR_JOBS, streaming ? new StreamingJSONArray(jobs.getCoordJobs(), timeZoneId)
+                : CoordinatorJobBean.toJSONArray(jobs.getCoordJobs(), timeZoneId));
         json.put(JsonTags.COORD_JOB_TOTAL, jobs.getTotal());
         json.put(JsonTags.COORD_JOB_OFFSET, jobs.getStart());
         json.put(JsonTags.COORD_JOB_LEN, jobs.getLen());
+        if (jobs.getCursor() != null) {
+            json.put(JsonTags.COORD_JOB_CURSOR, jobs.getCursor());
+        }
         return json;
     }
 
     public static JSONObject getBundleJSONObject(BundleJobInfo jobs, String timeZoneId) {
+        return getBundleJSONObject(jobs, timeZoneId, false);
+    }
+
+    public static JSONObject getBundleJSONObject(BundleJobInfo jobs, String timeZoneId, boolean streaming) {
         JSONObject json = new JSONObject();
-        json.put(JsonTags.BUNDLE_JOBS, BundleJobBean.toJSONArray(jobs.getBundleJobs(), timeZoneId));
+        json.put(JsonTags.BUNDLE_JOBS, streaming ? new StreamingJSONArray(jobs.getBundleJobs(), timeZoneId)
+                : BundleJobBean.toJSONArray(jobs.getBundleJobs(), timeZoneId));
         json.put(JsonTags.BUNDLE_JOB_TOTAL, jobs.getTotal());
         json.put(JsonTags.BUNDLE_JOB_OFFSET, jobs.getStart());
         json.put(JsonTags.BUNDLE_JOB_LEN, jobs.getLen());
+        if (jobs.getCursor() != null) {
+            json.put(JsonTags.BUNDLE_JOB_CURSOR, jobs.getCursor());
+        }
         return json;
     }
 }
\ No newline at end of file
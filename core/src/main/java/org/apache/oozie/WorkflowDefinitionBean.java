@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import javax.persistence.Basic;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.apache.oozie.util.DateUtils;
+import org.apache.openjpa.persistence.jdbc.Index;
+import org.apache.openjpa.persistence.jdbc.Strategy;
+
+/**
+ * Immutable, content-addressed part of a workflow instance: the serialized workflow definition or job configuration.
+ * <p>
+ * The id is the SHA-256 digest of the data, so runs of the same workflow application share one row. The last used
+ * time is refreshed whenever a workflow job starts to reference the row, and is used to remove the rows which are no
+ * longer referenced.
+ */
+@Entity
+@NamedQueries({
+
+    @NamedQuery(name = "GET_WF_DEFINITION", query = "select OBJECT(d) from WorkflowDefinitionBean d where d.id = :id"),
+
+    @NamedQuery(name = "GET_WF_DEFINITIONS", query = "select OBJECT(d) from WorkflowDefinitionBean d"),
+
+    @NamedQuery(name = "UPDATE_WF_DEFINITION_LAST_USED", query = "update WorkflowDefinitionBean d"
+            + " set d.lastUsedTimestamp = :lastUsedTime where d.id = :id"),
+
+    @NamedQuery(name = "DELETE_WF_DEFINITIONS_NOT_USED_SINCE", query = "delete from WorkflowDefinitionBean d"
+            + " where d.lastUsedTimestamp < :lastUsedTime"),
+
+    @NamedQuery(name = "GET_WORKFLOWS_MIN_CREATED_TIME", query = "select MIN(w.createdTimestamp) from WorkflowJobBean w")
+})
+@Table(name = "WF_DEFINITIONS")
+public class WorkflowDefinitionBean {
+
+    @Id
+    @Column(name = "id")
+    private String id;
+
+    @Basic
+    @Index
+    @Column(name = "last_used_time")
+    private Timestamp lastUsedTimestamp;
+
+    @Basic
+    @Column(name = "data")
+    @Lob
+    @Strategy("org.apache.oozie.executor.jpa.BinaryBlobValueHandler")
+    private BinaryBlob data;
+
+    public WorkflowDefinitionBean() {
+    }
+
+    public WorkflowDefinitionBean(String id, byte[] data, Date lastUsedTime) {
+        this.id = id;
+        this.data = new BinaryBlob(data, true);
+        this.lastUsedTimestamp = DateUtils.convertDateToTimestamp(lastUsedTime);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public byte[] getData() {
+        return data == null ? null : data.getBytes();
+    }
+
+    public BinaryBlob getDataBlob() {
+        return data;
+    }
+
+    public void setDataBlob(BinaryBlob data) {
+        this.data = data;
+    }
+
+    public Date getLastUsedTime() {
+        return DateUtils.toDate(lastUsedTimestamp);
+    }
+
+    public Timestamp getLastUsedTimestamp() {
+        return lastUsedTimestamp;
+    }
+
+    public void setLastUsedTime(Date lastUsedTime) {
+        this.lastUsedTimestamp = DateUtils.convertDateToTimestamp(lastUsedTime);
+    }
+}
@@ -21,10 +21,11 @@ package org.apache.oozie;
 import org.apache.hadoop.io.Writable;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
-import org.apache.oozie.client.rest.JsonBean;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.JsonUtils;
 import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.StreamingJSONArray;
+import org.apache.oozie.util.StreamingJsonBean;
 import org.apache.oozie.util.StringUtils;
 import org.apache.oozie.util.WritableUtils;
 import org.apache.oozie.workflow.WorkflowInstance;
@@ -168,7 +169,7 @@ import java.util.List;
     @NamedQuery(name = "GET_WORKFLOWS_PARENT_COORD_RERUN", query = "select w.id, w.statusStr, w.startTimestamp, w.endTimestamp "
             + "from WorkflowJobBean w where w.parentId = :parentId order by w.createdTimestamp")})
 @Table(name = "WF_JOBS")
-public class WorkflowJobBean implements Writable, WorkflowJob, JsonBean {
+public class WorkflowJobBean implements Writable, WorkflowJob, StreamingJsonBean {
 
     @Id
     private String id;
@@ -385,11 +386,19 @@ public class WorkflowJobBean implements Writable, WorkflowJob, JsonBean {
     }
 
     public void setWorkflowInstance(WorkflowInstance workflowInstance) {
+        LiteWorkflowInstance liteWorkflowInstance = (LiteWorkflowInstance) workflowInstance;
+        try {
+            // the instance blob is persisted with the job, the definition and configuration it refers to beforehand
+            liteWorkflowInstance.storeDefinition();
+        }
+        catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
         if (this.wfInstance == null) {
-            this.wfInstance = new BinaryBlob(WritableUtils.toByteArray((LiteWorkflowInstance) workflowInstance), true);
+            this.wfInstance = new BinaryBlob(WritableUtils.toByteArray(liteWorkflowInstance), true);
         }
         else {
-            this.wfInstance.setBytes(WritableUtils.toByteArray((LiteWorkflowInstance) workflowInstance));
+            this.wfInstance.setBytes(WritableUtils.toByteArray(liteWorkflowInstance));
         }
     }
 
@@ -502,8 +511,17 @@ public class WorkflowJobBean implements Writable, WorkflowJob, JsonBean {
         return toJSONObject("GMT");
     }
 
-    @SuppressWarnings("unchecked")
     public JSONObject toJSONObject(String timeZoneId) {
+        return toJSONObject(timeZoneId, false);
+    }
+
+    @Override
+    public JSONObject toStreamingJSONObject(String timeZoneId) {
+        return toJSONObject(timeZoneId, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JSONObject toJSONObject(String timeZoneId, boolean streaming) {
         JSONObject json = new JSONObject();
         json.put(JsonTags.WORKFLOW_APP_PATH, getAppPath());
         json.put(JsonTags.WORKFLOW_APP_NAME, getAppName());
@@ -521,7 +539,8 @@ public class WorkflowJobBean implements Writable, WorkflowJob, JsonBean {
         json.put(JsonTags.WORKFLOW_ACL, getAcl());
         json.put(JsonTags.WORKFLOW_RUN, (long) getRun());
         json.put(JsonTags.WORKFLOW_CONSOLE_URL, getConsoleUrl());
-        json.put(JsonTags.WORKFLOW_ACTIONS, WorkflowActionBean.toJSONArray(actions, timeZoneId));
+        json.put(JsonTags.WORKFLOW_ACTIONS, streaming ? new StreamingJSONArray(actions, timeZoneId)
+                : WorkflowActionBean.toJSONArray(actions, timeZoneId));
         json.put(JsonTags.TO_STRING, toString());
         return json;
     }
@@ -27,6 +27,7 @@ public class WorkflowsInfo {
     private int start;
     private int len;
     private int total;
+    private String cursor;
     private List<WorkflowJobBean> workflows;
 
     /**
@@ -44,6 +45,19 @@ public class WorkflowsInfo {
         this.workflows = workflows;
     }
 
+    /**
+     * Create a workflows info bean for a page of a list paged by keyset.
+     *
+     * @param workflows workflows being returned.
+     * @param len number of workflows requested.
+     * @param total total workflows, -1 if not counted.
+     * @param cursor cursor of the next page, null if this is the last page.
+     */
+    public WorkflowsInfo(List<WorkflowJobBean> workflows, int len, int total, String cursor) {
+        this(workflows, 1, len, total);
+        this.cursor = cursor;
+    }
+
     /**
      * Return the workflows being returned.
      *
@@ -80,4 +94,12 @@ public class WorkflowsInfo {
         return total;
     }
 
+    /**
+     * Return the cursor of the next page, for lists paged by keyset.
+     *
+     * @return the cursor of the next page, null if this is the last page or the list is paged by offset.
+     */
+    public String getCursor() {
+        return cursor;
+    }
 }
@@ -39,4 +39,17 @@ public interface CredentialsProvider {
      */
     public void updateCredentials(Credentials credentials, Configuration config, CredentialsProperties props, Context context)
             throws Exception;
+
+    /**
+     * Apply the changes of {@link #updateCredentials} to the launcher AM configuration which don't depend on the obtained
+     * tokens. This function is called instead of {@link #updateCredentials} when the tokens are taken from the cache of
+     * {@link CredentialsTokenCache}, providers updating the configuration must implement it.
+     *
+     * @param config launcher AM configuration
+     * @param props properties for getting credential token or certificate
+     * @param context workflow context
+     * @throws Exception thrown if failed
+     */
+    default void prepareConf(Configuration config, CredentialsProperties props, Context context) throws Exception {
+    }
 }
@@ -38,6 +38,7 @@ public class CredentialsProviderFactory {
     public static final String JHS = "jhs";
     private static CredentialsProviderFactory instance;
     private final Map<String, Class<? extends CredentialsProvider>> providerCache;
+    private final CredentialsTokenCache tokenCache;
 
     @VisibleForTesting
     static void destroy() {
@@ -79,6 +80,7 @@ public class CredentialsProviderFactory {
         providerCache.put(HDFS, HDFSCredentials.class);
         providerCache.put(YARN, YarnRMCredentials.class);
         providerCache.put(JHS, JHSCredentials.class);
+        tokenCache = CredentialsTokenCache.fromConfiguration();
     }
 
     static Text getUniqueAlias(Token<?> token) {
@@ -87,7 +89,7 @@ public class CredentialsProviderFactory {
     }
 
     /**
-     * Create Credential object
+     * Create Credential object, caching the tokens it obtains if the type is one of {@link CredentialsTokenCache#CONF_TYPES}
      *
      * @param type provider type
      * @return Credential object
@@ -98,7 +100,7 @@ public class CredentialsProviderFactory {
         if(providerClass == null){
             return null;
         }
-        return providerClass.newInstance();
+        return tokenCache.wrap(type, providerClass.newInstance());
     }
 
     /**
@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.oozie.action.hadoop;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.security.Credentials;
+import org.apache.hadoop.security.token.Token;
+import org.apache.hadoop.security.token.TokenIdentifier;
+import org.apache.hadoop.security.token.delegation.AbstractDelegationTokenIdentifier;
+import org.apache.oozie.action.ActionExecutor.Context;
+import org.apache.oozie.service.ConfigurationService;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.StringUtils;
+import org.apache.oozie.util.XLog;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Server-wide cache of the delegation tokens obtained by the credentials providers, so that the actions of a user
+ * needing the same credentials share the tokens instead of asking the metastore or the server for new ones every time.
+ * <p>
+ * Tokens are cached per user, credentials type and credentials properties, which include the URI of the service, and
+ * are reused until {@link #CONF_LIFETIME_FRACTION} of their lifetime has passed, so that the actions using them still
+ * have the rest of the lifetime to run. The lifetime is the one in the token identifier, capped by
+ * {@link #CONF_MAX_LIFETIME} as tokens which are not renewed expire before it.
+ * <p>
+ * Only the types listed in {@link #CONF_TYPES} are cached. Types whose tokens are cancelled when the application using
+ * them completes, like the HDFS and YARN tokens, must not be listed. When the tokens are taken from the cache, the
+ * provider still updates the launcher configuration through {@link CredentialsProvider#prepareConf}.
+ */
+public class CredentialsTokenCache {
+
+    public static final String CONF_PREFIX = "oozie.credentials.cache.";
+
+    public static final String CONF_TYPES = CONF_PREFIX + "types";
+
+    public static final String CONF_LIFETIME_FRACTION = CONF_PREFIX + "lifetime.fraction";
+
+    public static final String CONF_MAX_LIFETIME = CONF_PREFIX + "max.lifetime";
+
+    public static final String CONF_SIZE = CONF_PREFIX + "size";
+
+    public static final String INSTRUMENTATION_GROUP = "credentials_cache";
+
+    private static final XLog LOG = XLog.getLog(CredentialsTokenCache.class);
+
+    private final Set<String> types;
+    private final float lifetimeFraction;
+    private final long maxLifetime;
+    private final Cache<List<Object>, CachedCredentials> cache;
+
+    /**
+     * Create a cache of delegation tokens.
+     *
+     * @param types credentials types to cache the tokens of
+     * @param lifetimeFraction fraction of the lifetime of the tokens they are reused for
+     * @param maxLifetime maximum lifetime of the tokens, in seconds
+     * @param size maximum number of cached credentials
+     */
+    public CredentialsTokenCache(Set<String> types, float lifetimeFraction, long maxLifetime, long size) {
+        this.types = types;
+        this.lifetimeFraction = lifetimeFraction;
+        this.maxLifetime = maxLifetime * 1000;
+        cache = CacheBuilder.newBuilder().maximumSize(size).build();
+    }
+
+    /**
+     * Create a cache of delegation tokens from the Oozie configuration.
+     *
+     * @return the cache
+     */
+    static CredentialsTokenCache fromConfiguration() {
+        Set<String> types = new HashSet<>();
+        for (String type : ConfigurationService.getStrings(CONF_TYPES)) {
+            type = StringUtils.trim(type);
+            if (!type.isEmpty()) {
+                types.add(type);
+            }
+        }
+        return new CredentialsTokenCache(types, ConfigurationService.getFloat(CONF_LIFETIME_FRACTION),
+                ConfigurationService.getLong(CONF_MAX_LIFETIME), ConfigurationService.getLong(CONF_SIZE));
+    }
+
+    /**
+     * Wrap a credentials provider so that its tokens are cached, if its type is cached.
+     *
+     * @param type credentials type
+     * @param provider credentials provider
+     * @return the provider caching the tokens, or the given provider if the type is not cached
+     */
+    public CredentialsProvider wrap(final String type, final CredentialsProvider provider) {
+        if (provider == null || !types.contains(type)) {
+            return provider;
+        }
+        return new CredentialsProvider() {
+            @Override
+            public void updateCredentials(Credentials credentials, Configuration config, CredentialsProperties props,
+                    Context context) throws Exception {
+                CredentialsTokenCache.this.updateCredentials(type, provider, credentials, config, props, context);
+            }
+
+            @Override
+            public void prepareConf(Configuration config, CredentialsProperties props, Context context) throws Exception {
+                provider.prepareConf(config, props, context);
+            }
+        };
+    }
+
+    private void updateCredentials(String type, CredentialsProvider provider, Credentials credentials,
+            Configuration config, CredentialsProperties props, Context context) throws Exception {
+        List<Object> key = Arrays.<Object>asList(context.getWorkflow().getUser(), type,
+                new TreeMap<>(props.getProperties()));
+        long now = System.currentTimeMillis();
+        CachedCredentials cached = cache.getIfPresent(key);
+        if (cached != null && now < cached.reuseUntil) {
+            incr("hits");
+            LOG.debug("Using cached tokens of type [{0}] for credentials [{1}]", type, props.getName());
+            provider.prepareConf(config, props, context);
+            credentials.addAll(cached.credentials);
+            return;
+        }
+        incr(cached == null ? "misses" : "renewals");
+        Credentials obtained = new Credentials();
+        provider.updateCredentials(obtained, config, props, context);
+        cache.put(key, new CachedCredentials(obtained, now + getReuseTime(obtained)));
+        credentials.addAll(obtained);
+    }
+
+    private long getReuseTime(Credentials obtained) {
+        long lifetime = maxLifetime;
+        for (Token<? extends TokenIdentifier> token : obtained.getAllTokens()) {
+            try {
+                TokenIdentifier identifier = token.decodeIdentifier();
+                if (identifier instanceof AbstractDelegationTokenIdentifier) {
+                    AbstractDelegationTokenIdentifier dtIdentifier = (AbstractDelegationTokenIdentifier) identifier;
+                    if (dtIdentifier.getMaxDate() > dtIdentifier.getIssueDate()) {
+                        lifetime = Math.min(lifetime, dtIdentifier.getMaxDate() - dtIdentifier.getIssueDate());
+                    }
+                }
+            }
+            catch (IOException | RuntimeException e) {
+                LOG.debug("Could not decode the identifier of token [{0}], using the maximum lifetime", token.getKind(), e);
+            }
+        }
+        return (long) (lifetime * lifetimeFraction);
+    }
+
+    /**
+     * @return the number of cached credentials
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    private void incr(String counter) {
+        InstrumentationService service = Services.get() != null ? Services.get().get(InstrumentationService.class) : null;
+        Instrumentation instr = service != null ? service.get() : null;
+        if (instr != null) {
+            instr.incr(INSTRUMENTATION_GROUP, counter, 1);
+        }
+    }
+
+    private static class CachedCredentials {
+        private final Credentials credentials;
+        private final long reuseUntil;
+
+        private CachedCredentials(Credentials credentials, long reuseUntil) {
+            this.credentials = credentials;
+            this.reuseUntil = reuseUntil;
+        }
+    }
+}
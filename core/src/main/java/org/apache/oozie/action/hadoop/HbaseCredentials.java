@@ -64,6 +64,11 @@ public class HbaseCredentials implements CredentialsProvider {
         }
     }
 
+    @Override
+    public void prepareConf(Configuration config, CredentialsProperties props, Context context) {
+        copyHbaseConfToJobConf(config, props);
+    }
+
     void copyHbaseConfToJobConf(Configuration jobConf, CredentialsProperties props) {
         // Create configuration using hbase-site.xml/hbase-default.xml
         Configuration hbaseConf = new Configuration(false);
@@ -91,14 +91,17 @@ import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.command.coord.CoordActionStartXCommand;
 import org.apache.oozie.command.wf.WorkflowXCommand;
+import org.apache.oozie.service.CallbackService;
 import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.HadoopAccessorException;
 import org.apache.oozie.service.HadoopAccessorService;
+import org.apache.oozie.service.LauncherPoolService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.ShareLibService;
 import org.apache.oozie.service.URIHandlerService;
 import org.apache.oozie.service.UserGroupInformationService;
 import org.apache.oozie.service.WorkflowAppService;
+import org.apache.oozie.service.YarnApplicationReportService;
 import org.apache.oozie.util.ClasspathUtils;
 import org.apache.oozie.util.ELEvaluationException;
 import org.apache.oozie.util.ELEvaluator;
@@ -131,6 +134,9 @@ public class JavaActionExecutor extends ActionExecutor {
     public static final String HADOOP_YARN_RM = "yarn.resourcemanager.address";
     public static final String HADOOP_NAME_NODE = "fs.default.name";
     public static final String OOZIE_COMMON_LIBDIR = "oozie";
+    private static final String LAUNCHER_POOL_CONF_DIR = "conf";
+    private static final String[] LAUNCHER_POOL_TOKEN_PROPERTIES = {HADOOP_NAME_NODE, MRJobConfig.JOB_NAMENODES,
+            "mapreduce.job.hdfs-servers.token-renewal.exclude"};
 
     public static final String DEFAULT_LAUNCHER_VCORES = "oozie.launcher.default.vcores";
     public static final String DEFAULT_LAUNCHER_MEMORY_MB = "oozie.launcher.default.memory.mb";
@@ -917,6 +923,7 @@ public class JavaActionExecutor extends ActionExecutor {
             injectJobInfo(launcherJobConf, actionConf, context, action);
 
             injectLauncherCallback(context, launcherJobConf);
+            injectActionDataCallback(action, launcherJobConf);
 
             String jobId = context.getWorkflow().getId();
             String actionId = action.getId();
@@ -1021,6 +1028,16 @@ public class JavaActionExecutor extends ActionExecutor {
         injectCallback(context, launcherConf);
     }
 
+    private void injectActionDataCallback(WorkflowAction action, Configuration launcherConf) {
+        CallbackService callbackService = Services.get().get(CallbackService.class);
+        if (callbackService.getActionDataMaxSize() > 0) {
+            launcherConf.setInt(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE,
+                    callbackService.getActionDataMaxSize());
+            launcherConf.set(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_TOKEN,
+                    callbackService.createActionDataToken(action.getId()));
+        }
+    }
+
     private void actionConfToLauncherConf(Configuration actionConf, Configuration launcherConf) {
         for (String name : SPECIAL_PROPERTIES) {
             if (actionConf.get(name) != null && launcherConf.get("oozie.launcher." + name) == null) {
@@ -1115,15 +1132,23 @@ public class JavaActionExecutor extends ActionExecutor {
                 }
             }
             else {
-                YarnClientApplication newApp = yarnClient.createApplication();
-                ApplicationId appId = newApp.getNewApplicationResponse().getApplicationId();
-                ApplicationSubmissionContext appContext =
-                        createAppSubmissionContext(appId, launcherConf, context, actionConf, action, credentials, actionXml);
-                yarnClient.submitApplication(appContext);
+                ApplicationReport appReport = null;
+                LauncherPoolService launcherPool = Services.get().get(LauncherPoolService.class);
+                if (launcherPool != null && launcherPool.isPoolable(getType(), action, launcherConf)) {
+                    appReport = submitToLauncherPool(launcherPool, yarnClient, actionFs, context, action, launcherConf,
+                            actionConf, credentials, actionXml);
+                }
+                if (appReport == null) {
+                    YarnClientApplication newApp = yarnClient.createApplication();
+                    ApplicationId appId = newApp.getNewApplicationResponse().getApplicationId();
+                    ApplicationSubmissionContext appContext = createAppSubmissionContext(appId, launcherConf, context,
+                            actionConf, action, credentials, actionXml, context.getActionDir());
+                    yarnClient.submitApplication(appContext);
+                    appReport = yarnClient.getApplicationReport(appId);
+                }
 
-                launcherId = appId.toString();
+                launcherId = appReport.getApplicationId().toString();
                 LOG.debug("After submission get the launcherId [{0}]", launcherId);
-                ApplicationReport appReport = yarnClient.getApplicationReport(appId);
                 consoleUrl = appReport.getTrackingUrl();
             }
 
@@ -1140,6 +1165,121 @@ public class JavaActionExecutor extends ActionExecutor {
         }
     }
 
+    /**
+     * Run the action in a launcher of the pool of its user and launcher settings: hand it over to an idle launcher, or
+     * start a new launcher for it if there is none.
+     *
+     * @return the report of the launcher application, or null if the pool is full and the action needs its own launcher
+     */
+    private ApplicationReport submitToLauncherPool(final LauncherPoolService launcherPool, final YarnClient yarnClient,
+                                                   final FileSystem actionFs, final Context context,
+                                                   final WorkflowAction action, final Configuration launcherConf,
+                                                   final Configuration actionConf, final Credentials credentials,
+                                                   final Element actionXml)
+            throws IOException, HadoopAccessorException, URISyntaxException, InterruptedException, YarnException,
+            ActionExecutorException {
+        final String user = context.getWorkflow().getUser();
+        final Path actionDir = context.getActionDir();
+        // the launcher reads the configurations of the action from the action dir
+        HadoopAccessorService has = Services.get().get(HadoopAccessorService.class);
+        launcherConf.set(LauncherAM.OOZIE_SUBMITTER_USER, user);
+        has.createLocalResourceForConfigurationFile(LauncherAM.LAUNCHER_JOB_CONF_XML, user, launcherConf, actionFs.getUri(),
+                actionDir);
+        has.createLocalResourceForConfigurationFile(LauncherAM.ACTION_CONF_XML, user, actionConf, actionFs.getUri(),
+                actionDir);
+        actionFs.delete(new Path(actionDir, LauncherAM.POOLED_ACTION_DONE), false);
+        actionFs.delete(LauncherHelper.getActionDataSequenceFilePath(actionDir), false);
+
+        String key = getLauncherPoolKey(user, launcherConf, actionConf, actionXml);
+        LauncherPoolService.PooledLauncher launcher;
+        while ((launcher = launcherPool.acquire(key, action.getId())) != null) {
+            try {
+                ApplicationReport appReport = yarnClient.getApplicationReport(
+                        ConverterUtils.toApplicationId(launcher.getAppId()));
+                if (appReport.getYarnApplicationState() == YarnApplicationState.RUNNING
+                        && launcherPool.handOver(actionFs, launcher, action.getId(), actionDir)) {
+                    LOG.debug("Action handed over to pooled launcher [{0}]", launcher.getAppId());
+                    return appReport;
+                }
+            }
+            catch (YarnException | IOException ex) {
+                LOG.warn("Could not hand over action to pooled launcher [{0}]", launcher.getAppId(), ex);
+            }
+            launcherPool.remove(launcher);
+        }
+
+        launcher = launcherPool.reserve(key, action.getId());
+        if (launcher == null) {
+            LOG.debug("Launcher pool is full, starting a launcher for the action only");
+            return null;
+        }
+        try {
+            YarnClientApplication newApp = yarnClient.createApplication();
+            ApplicationId appId = newApp.getNewApplicationResponse().getApplicationId();
+            Path launcherDir = actionFs.makeQualified(new Path(launcherPool.getDir(actionFs), appId.toString()));
+            actionFs.mkdirs(launcherDir);
+            launcherPool.setApplication(launcher, appId.toString(), launcherDir);
+            if (!launcherPool.handOver(actionFs, launcher, action.getId(), actionDir)) {
+                throw new IOException("Could not hand over action to new pooled launcher " + appId);
+            }
+
+            Configuration poolConf = createLauncherPoolConf(launcherConf);
+            launcherPool.configure(poolConf, launcherDir);
+            ApplicationSubmissionContext appContext = createAppSubmissionContext(appId, poolConf, context, actionConf,
+                    action, credentials, actionXml, new Path(launcherDir, LAUNCHER_POOL_CONF_DIR));
+            appContext.setApplicationType(LauncherPoolService.APPLICATION_TYPE);
+            appContext.setApplicationName(XLog.format("oozie:launcher-pool:T={0}:U={1}", getType(), user));
+            // the actions handed over would be run again by a new attempt
+            appContext.setMaxAppAttempts(1);
+            yarnClient.submitApplication(appContext);
+            LOG.info("Started pooled launcher [{0}]", appId);
+            return yarnClient.getApplicationReport(appId);
+        }
+        catch (IOException | HadoopAccessorException | URISyntaxException | InterruptedException | YarnException
+                | ActionExecutorException ex) {
+            launcherPool.remove(launcher);
+            throw ex;
+        }
+    }
+
+    /**
+     * The actions of a pool share the container, the JVM and the YARN queue of its launchers, and the delegation tokens
+     * the launchers were started with, which are obtained for the name nodes of the action configuration.
+     */
+    private String getLauncherPoolKey(String user, Configuration launcherConf, Configuration actionConf,
+                                      Element actionXml) {
+        List<String> javaOpts = new ArrayList<>();
+        setJavaOpts(launcherConf, actionXml, javaOpts);
+        List<String> tokenProperties = new ArrayList<>();
+        for (String name : LAUNCHER_POOL_TOKEN_PROPERTIES) {
+            tokenProperties.add(actionConf.get(name));
+        }
+        return XLog.format("{0}|{1}|{2}|{3}|{4}|{5}|{6}|{7}|{8}", user, launcherConf.get(HADOOP_YARN_RM),
+                getLauncherQueue(launcherConf), readMemoryMb(launcherConf), readVCores(launcherConf),
+                launcherConf.get(LauncherAM.OOZIE_LAUNCHER_PRIORITY_PROPERTY), javaOpts,
+                launcherConf.get(LauncherAM.OOZIE_LAUNCHER_ENV_PROPERTY), tokenProperties);
+    }
+
+    /**
+     * The launcher configuration of a pooled launcher, which only has the Oozie sharelib in its classpath: the files of
+     * the actions are localized by the launcher for each action.
+     */
+    private Configuration createLauncherPoolConf(Configuration launcherConf) throws IOException, ActionExecutorException {
+        Configuration poolConf = new Configuration(launcherConf);
+        for (String name : new String[] {MRJobConfig.CACHE_FILES, MRJobConfig.CACHE_FILES_SIZES,
+                MRJobConfig.CACHE_FILE_TIMESTAMPS, MRJobConfig.CACHE_FILE_VISIBILITIES, MRJobConfig.CLASSPATH_FILES,
+                MRJobConfig.CACHE_ARCHIVES, MRJobConfig.CACHE_ARCHIVES_SIZES, MRJobConfig.CACHE_ARCHIVES_TIMESTAMPS,
+                MRJobConfig.CACHE_ARCHIVES_VISIBILITIES, MRJobConfig.CLASSPATH_ARCHIVES}) {
+            poolConf.unset(name);
+        }
+        ShareLibService shareLibService = Services.get().get(ShareLibService.class);
+        // ShareLibService is null for test cases
+        if (shareLibService != null) {
+            addLibPathsToClassPath(poolConf, shareLibService.getSystemLibJars(JavaActionExecutor.OOZIE_COMMON_LIBDIR));
+        }
+        return poolConf;
+    }
+
     private String getYarnApplicationName(final Context context, final WorkflowAction action, final String prefix) {
         return XLog.format("{0}:T={1}:W={2}:A={3}:ID={4}",
                 prefix,
@@ -1206,7 +1346,8 @@ public class JavaActionExecutor extends ActionExecutor {
                                                                     final Configuration actionConf,
                                                                     final WorkflowAction action,
                                                                     final Credentials credentials,
-                                                                    final Element actionXml)
+                                                                    final Element actionXml,
+                                                                    final Path confDir)
             throws IOException, HadoopAccessorException, URISyntaxException, InterruptedException {
 
         ApplicationSubmissionContext appContext = Records.newRecord(ApplicationSubmissionContext.class);
@@ -1243,10 +1384,10 @@ public class JavaActionExecutor extends ActionExecutor {
         HadoopAccessorService has = Services.get().get(HadoopAccessorService.class);
         launcherJobConf.set(LauncherAM.OOZIE_SUBMITTER_USER, user);
         LocalResource launcherJobConfLR = has.createLocalResourceForConfigurationFile(LauncherAM.LAUNCHER_JOB_CONF_XML, user,
-                launcherJobConf, actionContext.getAppFileSystem().getUri(), actionContext.getActionDir());
+                launcherJobConf, actionContext.getAppFileSystem().getUri(), confDir);
         localResources.put(LauncherAM.LAUNCHER_JOB_CONF_XML, launcherJobConfLR);
         LocalResource actionConfLR = has.createLocalResourceForConfigurationFile(LauncherAM.ACTION_CONF_XML, user, actionConf,
-                actionContext.getAppFileSystem().getUri(), actionContext.getActionDir());
+                actionContext.getAppFileSystem().getUri(), confDir);
         localResources.put(LauncherAM.ACTION_CONF_XML, actionConfLR);
         amContainer.setLocalResources(localResources);
 
@@ -1425,6 +1566,10 @@ public class JavaActionExecutor extends ActionExecutor {
     }
 
     private void setQueue(Configuration launcherJobConf, ApplicationSubmissionContext appContext) {
+        appContext.setQueue(getLauncherQueue(launcherJobConf));
+    }
+
+    private String getLauncherQueue(Configuration launcherJobConf) {
         String launcherQueueName;
         if (launcherJobConf.get(LauncherAM.OOZIE_LAUNCHER_QUEUE_PROPERTY) != null) {
             launcherQueueName = launcherJobConf.get(LauncherAM.OOZIE_LAUNCHER_QUEUE_PROPERTY);
@@ -1432,7 +1577,7 @@ public class JavaActionExecutor extends ActionExecutor {
             launcherQueueName = Objects.requireNonNull(
                     ConfigurationService.get(DEFAULT_LAUNCHER_QUEUE), "Default launcherQueueName is undefined");
         }
-        appContext.setQueue(launcherQueueName);
+        return launcherQueueName;
     }
 
     private void setPriority(Configuration launcherJobConf, ApplicationSubmissionContext appContext) {
@@ -1757,33 +1902,66 @@ public class JavaActionExecutor extends ActionExecutor {
             Element actionXml = XmlUtils.parseXml(action.getConf());
             Configuration jobConf = createBaseHadoopConf(context, actionXml);
             FileSystem actionFs = context.getAppFileSystem();
-            yarnClient = createYarnClient(context, jobConf);
+            YarnApplicationReportService reportService = Services.get().get(YarnApplicationReportService.class);
+            if (reportService != null) {
+                reportService.register(context.getWorkflow().getUser(), jobConf);
+            }
             FinalApplicationStatus appStatus = null;
-            try {
-                final String effectiveApplicationId = findYarnApplicationId(context, action);
-                final ApplicationId applicationId = ConverterUtils.toApplicationId(effectiveApplicationId);
-                final ApplicationReport appReport = yarnClient.getApplicationReport(applicationId);
-                final YarnApplicationState appState = appReport.getYarnApplicationState();
-                if (appState == YarnApplicationState.FAILED || appState == YarnApplicationState.FINISHED
-                        || appState == YarnApplicationState.KILLED) {
-                    appStatus = appReport.getFinalApplicationStatus();
+            // the action data sent by the launcher with its callback, if it was small enough
+            CallbackService callbackService = Services.get().get(CallbackService.class);
+            Map<String, String> callbackActionData = callbackService != null ? callbackService.getActionData(action.getId())
+                    : null;
+            if (callbackActionData != null && callbackActionData.get(LauncherAM.ACTION_DATA_FINAL_STATUS) != null) {
+                appStatus = LauncherAM.OozieActionResult.valueOf(
+                        callbackActionData.get(LauncherAM.ACTION_DATA_FINAL_STATUS)).getYarnStatus();
+                LOG.debug("Using the action data sent with the callback of action [{0}]", action.getId());
+            }
+            else {
+                try {
+                    final String effectiveApplicationId = findYarnApplicationId(context, action);
+                    final ApplicationId applicationId = ConverterUtils.toApplicationId(effectiveApplicationId);
+                    ApplicationReport appReport = reportService != null ? reportService.getApplicationReport(applicationId)
+                            : null;
+                    if (appReport == null) {
+                        yarnClient = createYarnClient(context, jobConf);
+                        appReport = yarnClient.getApplicationReport(applicationId);
+                    }
+                    final YarnApplicationState appState = appReport.getYarnApplicationState();
+                    final boolean appDone = appState == YarnApplicationState.FAILED
+                            || appState == YarnApplicationState.FINISHED || appState == YarnApplicationState.KILLED;
+                    if (LauncherPoolService.APPLICATION_TYPE.equals(appReport.getApplicationType())) {
+                        // a pooled launcher keeps running, the action is done once it marked it as complete
+                        fallback = appDone || actionFs.exists(new Path(context.getActionDir(),
+                                LauncherAM.POOLED_ACTION_DONE));
+                        LauncherPoolService launcherPool = Services.get().get(LauncherPoolService.class);
+                        if (appDone && launcherPool != null) {
+                            launcherPool.remove(effectiveApplicationId);
+                        }
+                    }
+                    else if (appDone) {
+                        appStatus = appReport.getFinalApplicationStatus();
+                    }
+                } catch (final ActionExecutorException aae) {
+                    LOG.warn("Foreseen Exception occurred while action execution; rethrowing ", aae);
+                    throw aae;
+                } catch (final HadoopAccessorException hae) {
+                    throw hae;
+                } catch (final Exception ye) {
+                    LOG.warn("Exception occurred while checking Launcher AM status; will try checking action data file instead ",
+                            ye);
+                    // Fallback to action data file if we can't find the Launcher AM (maybe it got purged)
+                    fallback = true;
                 }
-            } catch (final ActionExecutorException aae) {
-                LOG.warn("Foreseen Exception occurred while action execution; rethrowing ", aae);
-                throw aae;
-            } catch (final Exception ye) {
-                LOG.warn("Exception occurred while checking Launcher AM status; will try checking action data file instead ", ye);
-                // Fallback to action data file if we can't find the Launcher AM (maybe it got purged)
-                fallback = true;
             }
             if (appStatus != null || fallback) {
                 Path actionDir = context.getActionDir();
                 // load sequence file into object
-                Map<String, String> actionData = LauncherHelper.getActionData(actionFs, actionDir, jobConf);
+                Map<String, String> actionData = callbackActionData != null ? callbackActionData
+                        : LauncherHelper.getActionData(actionFs, actionDir, jobConf);
                 if (fallback) {
                     String finalStatus = actionData.get(LauncherAM.ACTION_DATA_FINAL_STATUS);
                     if (finalStatus != null) {
-                        appStatus = FinalApplicationStatus.valueOf(finalStatus);
+                        appStatus = LauncherAM.OozieActionResult.valueOf(finalStatus).getYarnStatus();
                     } else {
                         context.setExecutionData(FAILED, null);
                         throw new ActionExecutorException(ActionExecutorException.ErrorType.FAILED, "JA017",
@@ -1852,6 +2030,14 @@ public class JavaActionExecutor extends ActionExecutor {
                     }
                     context.setExecutionData(FAILED_KILLED, null);
                 }
+                if (callbackActionData != null) {
+                    callbackService.removeActionData(action.getId());
+                }
+                LauncherPoolService launcherPool = Services.get().get(LauncherPoolService.class);
+                if (launcherPool != null) {
+                    String delay = actionData.get(LauncherAM.ACTION_DATA_POOLED_LAUNCHER_DELAY);
+                    launcherPool.release(action.getId(), delay != null ? Long.valueOf(delay) : null);
+                }
             }
             else {
                 context.setExternalStatus(YarnApplicationState.RUNNING.toString());
@@ -1917,7 +2103,19 @@ public class JavaActionExecutor extends ActionExecutor {
             yarnClient = createYarnClient(context, jobConf);
 
             String appExternalId = action.getExternalId();
-            killExternalApp(action, yarnClient, appExternalId);
+            LauncherPoolService launcherPool = Services.get().get(LauncherPoolService.class);
+            if (launcherPool != null && appExternalId != null && LauncherPoolService.APPLICATION_TYPE.equals(
+                    yarnClient.getApplicationReport(ConverterUtils.toApplicationId(appExternalId)).getApplicationType())) {
+                // the pooled launcher may already run the next action
+                if (!isPooledActionDone(context, action)) {
+                    killExternalApp(action, yarnClient, appExternalId);
+                    launcherPool.remove(appExternalId);
+                }
+                launcherPool.release(action.getId(), null);
+            }
+            else {
+                killExternalApp(action, yarnClient, appExternalId);
+            }
             killExternalChildApp(action, yarnClient, appExternalId);
             killExternalChildAppByTags(action, yarnClient, jobConf, appExternalId);
 
@@ -1938,6 +2136,13 @@ public class JavaActionExecutor extends ActionExecutor {
         }
     }
 
+    private boolean isPooledActionDone(Context context, WorkflowAction action)
+            throws IOException, HadoopAccessorException, URISyntaxException {
+        CallbackService callbackService = Services.get().get(CallbackService.class);
+        return (callbackService != null && callbackService.getActionData(action.getId()) != null)
+                || context.getAppFileSystem().exists(new Path(context.getActionDir(), LauncherAM.POOLED_ACTION_DONE));
+    }
+
     private boolean finalAppStatusUndefined(ApplicationReport appReport) {
         FinalApplicationStatus status = appReport.getFinalApplicationStatus();
         return !FinalApplicationStatus.SUCCEEDED.equals(status) &&
@@ -23,6 +23,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
@@ -93,8 +94,11 @@ public class SshActionExecutor extends ActionExecutor {
 
     private static final int SSH_CONNECT_ERROR_CODE = 255;
 
+    private static final String[] SSH_SCRIPTS = {"ssh-base.sh", "ssh-wrapper.sh"};
+
     private static int maxLen;
     private static boolean allowSshUserAtHost;
+    private static SshSessionPool sessionPool;
 
     private final XLog LOG = XLog.getLog(getClass())
 ;
@@ -113,6 +117,15 @@ public class SshActionExecutor extends ActionExecutor {
         registerError(InterruptedException.class.getName(), ActionExecutorException.ErrorType.ERROR, "SH001");
         registerError(JDOMException.class.getName(), ActionExecutorException.ErrorType.ERROR, "SH002");
         initSshScripts();
+        if (sessionPool != null) {
+            sessionPool.close();
+        }
+        sessionPool = ConfigurationService.getBoolean(SshSessionPool.CONF_ENABLED)
+                ? new SshSessionPool(ConfigurationService.getStrings(SshSessionPool.CONF_IDENTITIES),
+                        ConfigurationService.getInt(SshSessionPool.CONF_MAX_CHANNELS),
+                        ConfigurationService.getLong(SshSessionPool.CONF_IDLE_TIMEOUT),
+                        ConfigurationService.getLong(SshSessionPool.CONF_FAILURE_BACKOFF))
+                : null;
     }
 
     /**
@@ -142,10 +155,9 @@ public class SshActionExecutor extends ActionExecutor {
         if (status == Status.OK) {
             if (captureOutput) {
                 String outFile = getRemoteFileName(context, action, "stdout", false, true);
-                String dataCommand = SSH_COMMAND_BASE + action.getTrackerUri() + " cat " + outFile;
-                LOG.debug("Ssh command [{0}]", dataCommand);
+                LOG.debug("Ssh command [{0} cat {1}]", action.getTrackerUri(), outFile);
                 try {
-                    final StringBuffer outBuffer = getActionOutputMessage(dataCommand);
+                    final StringBuffer outBuffer = getActionOutputMessage(action.getTrackerUri(), "cat", outFile);
                     context.setExecutionData(status.toString(), PropertiesUtils.stringToProperties(outBuffer.toString()));
                     LOG.trace("Execution data set. status={0}, properties={1}", status,
                             PropertiesUtils.stringToProperties(outBuffer.toString()));
@@ -176,13 +188,12 @@ public class SshActionExecutor extends ActionExecutor {
         LOG.trace("check() end for action={0}", action);
     }
 
-    private StringBuffer getActionOutputMessage(String dataCommand) throws IOException, ActionExecutorException {
-        final Process process = Runtime.getRuntime().exec(dataCommand.split("\\s"));
+    private StringBuffer getActionOutputMessage(String host, String... remoteCommand)
+            throws IOException, ActionExecutorException {
         boolean overflow = false;
-        final BufferDrainer bufferDrainer = new BufferDrainer(process, maxLen);
-        bufferDrainer.drainBuffers();
-        final StringBuffer outBuffer = bufferDrainer.getInputBuffer();
-        final StringBuffer errBuffer = bufferDrainer.getErrorBuffer();
+        final SshSessionPool.Result result = runRemote(host, remoteCommand, maxLen);
+        final StringBuffer outBuffer = result.getOutput();
+        final StringBuffer errBuffer = result.getError();
         LOG.debug("outBuffer={0}", outBuffer);
         LOG.debug("errBuffer={0}", errBuffer);
         if (outBuffer.length() > maxLen) {
@@ -197,11 +208,10 @@ public class SshActionExecutor extends ActionExecutor {
 
     private String getActionErrorMessage(Context context, WorkflowAction action) throws ActionExecutorException {
         String outFile = getRemoteFileName(context, action, "error", false, true);
-        String errorMsgCmd = SSH_COMMAND_BASE + action.getTrackerUri() + " cat " + outFile;
-        LOG.debug("Get error message command: [{0}]", errorMsgCmd);
+        LOG.debug("Get error message command: [{0} cat {1}]", action.getTrackerUri(), outFile);
         String errorMessage;
         try {
-            final StringBuffer outBuffer = getActionOutputMessage(errorMsgCmd);
+            final StringBuffer outBuffer = getActionOutputMessage(action.getTrackerUri(), "cat", outFile);
             errorMessage = outBuffer.toString().replaceAll("\n", "");
         } catch (Exception ex) {
             throw new ActionExecutorException(ActionExecutorException.ErrorType.ERROR, "ERR_UNKNOWN_ERROR",
@@ -220,8 +230,7 @@ public class SshActionExecutor extends ActionExecutor {
     @Override
     public void kill(Context context, WorkflowAction action) throws ActionExecutorException {
         LOG.info("Killing action");
-        String command = "ssh " + action.getTrackerUri() + " kill  -KILL " + action.getExternalId();
-        int returnValue = getReturnValue(command);
+        int returnValue = getReturnValue(action.getTrackerUri(), "kill", "-KILL", String.valueOf(action.getExternalId()));
         if (returnValue != 0) {
             throw new ActionExecutorException(ActionExecutorException.ErrorType.ERROR, "FAILED_TO_KILL", XLog.format(
                     "Unable to kill process {0} on {1}", action.getExternalId(), action.getTrackerUri()));
@@ -327,12 +336,8 @@ public class SshActionExecutor extends ActionExecutor {
 
     private String checkIfRunning(String host, final Context context, final WorkflowAction action) {
         String outFile = getRemoteFileName(context, action, "pid", false, false);
-        String getOutputCmd = SSH_COMMAND_BASE + host + " cat " + outFile;
         try {
-            final Process process = Runtime.getRuntime().exec(getOutputCmd.split("\\s"));
-            final BufferDrainer bufferDrainer = new BufferDrainer(process, maxLen);
-            bufferDrainer.drainBuffers();
-            final StringBuffer buffer = bufferDrainer.getInputBuffer();
+            final StringBuffer buffer = runRemote(host, new String[] {"cat", outFile}, maxLen).getOutput();
             String pid = getFirstLine(buffer);
             if (Long.valueOf(pid) > 0) {
                 return pid;
@@ -418,6 +423,15 @@ public class SshActionExecutor extends ActionExecutor {
             throw new IOException("Required Local file " + file.getAbsolutePath() + " not present.");
         }
         String remoteDirLocation = getRemoteFileName(context, action, null, true, true);
+        if (sessionPool != null) {
+            try {
+                setupRemoteInSession(host, localDirLocation, remoteDirLocation);
+                return remoteDirLocation;
+            }
+            catch (SshSessionPool.ConnectionException e) {
+                LOG.warn("Could not copy the ssh scripts through an ssh session, copying them with scp: {0}", e.getMessage());
+            }
+        }
         String command = XLog.format("{0}{1}  mkdir -p {2} ", SSH_COMMAND_BASE, host, remoteDirLocation).toString();
         executeCommand(command);
         command = XLog.format("{0}{1}/ssh-base.sh {2}/ssh-wrapper.sh {3}:{4}", SCP_COMMAND_BASE, localDirLocation,
@@ -429,6 +443,58 @@ public class SshActionExecutor extends ActionExecutor {
         return remoteDirLocation;
     }
 
+    private void setupRemoteInSession(String host, String localDirLocation, String remoteDirLocation) throws IOException {
+        checkRemoteResult(host, "mkdir -p " + remoteDirLocation, null);
+        for (String script : SSH_SCRIPTS) {
+            checkRemoteResult(host, "cat > " + remoteDirLocation + script,
+                    Files.readAllBytes(new File(localDirLocation, script).toPath()));
+        }
+        checkRemoteResult(host, XLog.format("chmod +x {0}ssh-base.sh {1}ssh-wrapper.sh", remoteDirLocation,
+                remoteDirLocation), null);
+    }
+
+    private void checkRemoteResult(String host, String command, byte[] input) throws IOException {
+        SshSessionPool.Result result = sessionPool.exec(host, command, input, maxLen);
+        if (result.getExitValue() != 0) {
+            throw new IOException(XLog.format("Not able to perform operation [{0}] on {1}", command, host) + " | "
+                    + "ErrorStream: " + getTruncatedString(result.getError()));
+        }
+    }
+
+    /**
+     * Run a command on a remote host, in a pooled ssh session if the pool is enabled and can reach the host, otherwise
+     * by forking an ssh process.
+     *
+     * @param host the host, as user@host
+     * @param remoteCommand the command and its arguments
+     * @param maxLength the maximum length of the output to keep
+     * @return the exit value and the output of the command
+     * @throws IOException if the command can't be run
+     */
+    private SshSessionPool.Result runRemote(String host, String[] remoteCommand, int maxLength) throws IOException {
+        if (sessionPool != null) {
+            try {
+                return sessionPool.exec(host, String.join(" ", remoteCommand), null, maxLength);
+            }
+            catch (SshSessionPool.ConnectionException e) {
+                LOG.warn("Could not run the command through an ssh session, running it with ssh: {0}", e.getMessage());
+            }
+        }
+        String[] commandBase = (SSH_COMMAND_BASE + host).split("\\s");
+        String[] command = new String[commandBase.length + remoteCommand.length];
+        System.arraycopy(commandBase, 0, command, 0, commandBase.length);
+        System.arraycopy(remoteCommand, 0, command, commandBase.length, remoteCommand.length);
+        Process process = Runtime.getRuntime().exec(command);
+        try {
+            BufferDrainer bufferDrainer = new BufferDrainer(process, maxLength);
+            int exitValue = bufferDrainer.drainBuffers();
+            return new SshSessionPool.Result(exitValue, bufferDrainer.getInputBuffer(), bufferDrainer.getErrorBuffer());
+        }
+        finally {
+            process.destroy();
+        }
+    }
+
     /**
      * Execute the ssh command.
      *
@@ -447,14 +513,13 @@ public class SshActionExecutor extends ActionExecutor {
     protected String doExecute(String host, String dirLocation, String cmnd, String[] args, boolean ignoreOutput,
                                WorkflowAction action, String recoveryId, boolean preserveArgs)
                                throws IOException, InterruptedException {
-        Runtime runtime = Runtime.getRuntime();
         String callbackPost = ignoreOutput ? "_" : ConfigurationService.get(HTTP_COMMAND_OPTIONS).replace(" ", "%%%");
         String preserveArgsS = preserveArgs ? "PRESERVE_ARGS" : "FLATTEN_ARGS";
         // TODO check
         String callBackUrl = Services.get().get(CallbackService.class)
                 .createCallBackUrl(action.getId(), EXT_STATUS_VAR);
-        String command = XLog.format("{0}{1} {2}ssh-base.sh {3} {4} \"{5}\" \"{6}\" {7} {8} ", SSH_COMMAND_BASE, host, dirLocation,
-                preserveArgsS, ConfigurationService.get(HTTP_COMMAND), callBackUrl, callbackPost, recoveryId, cmnd);
+        String command = XLog.format("{0}ssh-base.sh {1} {2} \"{3}\" \"{4}\" {5} {6} ", dirLocation, preserveArgsS,
+                ConfigurationService.get(HTTP_COMMAND), callBackUrl, callbackPost, recoveryId, cmnd);
         String[] commandArray = command.split("\\s");
         String[] finalCommand;
         if (args == null) {
@@ -466,13 +531,11 @@ public class SshActionExecutor extends ActionExecutor {
             System.arraycopy(args, 0, finalCommand, commandArray.length, args.length);
         }
 
-        LOG.trace("Executing SSH command [finalCommand={0}]", Arrays.toString(finalCommand));
-        final Process p = runtime.exec(finalCommand);
-
-        BufferDrainer bufferDrainer = new BufferDrainer(p, maxLen);
-        final int exitValue = bufferDrainer.drainBuffers();
-        final StringBuffer inputBuffer = bufferDrainer.getInputBuffer();
-        final StringBuffer errorBuffer = bufferDrainer.getErrorBuffer();
+        LOG.trace("Executing SSH command [host={0}, finalCommand={1}]", host, Arrays.toString(finalCommand));
+        final SshSessionPool.Result result = runRemote(host, finalCommand, maxLen);
+        final int exitValue = result.getExitValue();
+        final StringBuffer inputBuffer = result.getOutput();
+        final StringBuffer errorBuffer = result.getError();
         final String pid = getFirstLine(inputBuffer);
         if (exitValue != 0) {
             String error = getTruncatedString(errorBuffer);
@@ -502,8 +565,7 @@ public class SshActionExecutor extends ActionExecutor {
         boolean deleteTmpDir = ConfigurationService.getBoolean(DELETE_TMP_DIR);
         if (deleteTmpDir) {
             String tmpDir = getRemoteFileName(context, action, null, true, false);
-            String removeTmpDirCmd = SSH_COMMAND_BASE + action.getTrackerUri() + " rm -rf " + tmpDir;
-            int retVal = getReturnValue(removeTmpDirCmd);
+            int retVal = getReturnValue(action.getTrackerUri(), "rm", "-rf", tmpDir);
             if (retVal != 0) {
                 XLog.getLog(getClass()).warn("Cannot delete temp dir {0}", tmpDir);
             }
@@ -512,28 +574,23 @@ public class SshActionExecutor extends ActionExecutor {
     }
 
     /**
-     * Get the return value of a processSettings.
+     * Get the return value of a remote command.
      *
-     * @param command command to be executed.
+     * @param host the host, as user@host.
+     * @param command command to be executed and its arguments.
      * @return zero if execution is successful and any non zero value for failure.
      * @throws ActionExecutorException
      */
-    private int getReturnValue(String command) throws ActionExecutorException {
-        LOG.trace("Getting return value for command={0}", command);
+    private int getReturnValue(String host, String... command) throws ActionExecutorException {
+        LOG.trace("Getting return value for host={0}, command={1}", host, Arrays.toString(command));
 
         int returnValue;
-        Process ps = null;
         try {
-            ps = Runtime.getRuntime().exec(command.split("\\s"));
-            final BufferDrainer bufferDrainer = new BufferDrainer(ps, 0);
-            returnValue = bufferDrainer.drainBuffers();
+            returnValue = runRemote(host, command, 0).getExitValue();
         }
         catch (IOException e) {
             throw new ActionExecutorException(ActionExecutorException.ErrorType.ERROR, "FAILED_OPERATION", XLog.format(
-                    "Not able to perform operation {0}", command), e);
-        }
-        finally {
-            ps.destroy();
+                    "Not able to perform operation {0} on {1}", Arrays.toString(command), host), e);
         }
 
         LOG.trace("returnValue={0}", returnValue);
@@ -573,15 +630,16 @@ public class SshActionExecutor extends ActionExecutor {
      * @throws ActionExecutorException thrown if there is any error in getting status.
      */
     protected Status getActionStatus(Context context, WorkflowAction action) throws ActionExecutorException {
-        String command = SSH_COMMAND_BASE + action.getTrackerUri() + " ps -p " + action.getExternalId();
+        String host = action.getTrackerUri();
+        String[] command = {"ps", "-p", String.valueOf(action.getExternalId())};
         Status aStatus;
-        int returnValue = getReturnValue(command);
+        int returnValue = getReturnValue(host, command);
         if (returnValue == SSH_CONNECT_ERROR_CODE) {
             int maxRetryCount = ConfigurationService.getInt(CHECK_MAX_RETRIES, 3);
             long waitTime = ConfigurationService.getLong(CHECK_INITIAL_RETRY_WAIT_TIME, 3000);
             for (int retries = 1; retries <= maxRetryCount; retries++) {
                 waitTime = handleRetry(waitTime, retries);
-                returnValue = getReturnValue(command);
+                returnValue = getReturnValue(host, command);
                 if (returnValue != SSH_CONNECT_ERROR_CODE) {
                     break;
                 }
@@ -596,8 +654,7 @@ public class SshActionExecutor extends ActionExecutor {
         }
         else {
             String outFile = getRemoteFileName(context, action, "error", false, true);
-            String checkErrorCmd = SSH_COMMAND_BASE + action.getTrackerUri() + " ls " + outFile;
-            int retVal = getReturnValue(checkErrorCmd);
+            int retVal = getReturnValue(host, "ls", outFile);
             if (retVal == 0) {
                 aStatus = Status.ERROR;
             }
@@ -0,0 +1,451 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.action.ssh;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.oozie.util.XLog;
+
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+
+/**
+ * Pool of SSH sessions opened by the Oozie server to run the remote commands of the ssh actions, instead of forking an
+ * <code>ssh</code> process and doing an SSH handshake for every command.
+ * <p>
+ * Sessions are kept per user and host and shared by the actions: each command runs in its own channel of a session, a
+ * session carrying up to {@link #CONF_MAX_CHANNELS} commands at a time. Sessions idle for {@link #CONF_IDLE_TIMEOUT}
+ * seconds are closed. A {@link ConnectionException} is thrown when a host can't be reached through the pool, so that
+ * the caller can fall back to the <code>ssh</code> command. A host which could not be connected to is not tried again for
+ * {@link #CONF_FAILURE_BACKOFF} seconds, the commands of the host fail over to the <code>ssh</code> command right away.
+ */
+public class SshSessionPool {
+
+    public static final String CONF_PREFIX = "oozie.action.ssh.session.pool.";
+
+    /**
+     * Whether the ssh actions run their remote commands through the pool.
+     */
+    public static final String CONF_ENABLED = CONF_PREFIX + "enabled";
+
+    /**
+     * Maximum number of commands running at the same time in a session.
+     */
+    public static final String CONF_MAX_CHANNELS = CONF_PREFIX + "max.channels";
+
+    /**
+     * Seconds after which an unused session is closed.
+     */
+    public static final String CONF_IDLE_TIMEOUT = CONF_PREFIX + "idle.timeout";
+
+    /**
+     * Private key files used to authenticate the sessions, the ones which don't exist are ignored.
+     */
+    public static final String CONF_IDENTITIES = CONF_PREFIX + "identities";
+
+    /**
+     * Seconds during which a host which could not be connected to is not tried again.
+     */
+    public static final String CONF_FAILURE_BACKOFF = CONF_PREFIX + "failure.backoff";
+
+    private static final int SSH_PORT = 22;
+    private static final int CONNECT_TIMEOUT_MS = 20 * 1000;
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private static final XLog LOG = XLog.getLog(SshSessionPool.class);
+
+    /**
+     * Connection to a host, running commands in channels.
+     */
+    interface Connection {
+
+        boolean isConnected();
+
+        /**
+         * Run a command.
+         *
+         * @param command the command
+         * @param input the standard input of the command, or null
+         * @param maxLen number of characters of the output and error streams to keep
+         * @return the result of the command
+         * @throws ConnectionException if a channel can't be opened
+         * @throws IOException if the command can't be run
+         */
+        Result exec(String command, byte[] input, int maxLen) throws IOException;
+
+        void close();
+    }
+
+    /**
+     * Opens the connections of the pool.
+     */
+    interface ConnectionFactory {
+
+        /**
+         * Connect to a host.
+         *
+         * @param user the user
+         * @param host the host
+         * @return the connection
+         * @throws ConnectionException if the host can't be connected to
+         */
+        Connection connect(String user, String host) throws ConnectionException;
+    }
+
+    /**
+     * Thrown when a host can't be reached through the pool.
+     */
+    public static class ConnectionException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public ConnectionException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Exit value and output of a remote command.
+     */
+    public static class Result {
+        private final int exitValue;
+        private final StringBuffer output;
+        private final StringBuffer error;
+
+        public Result(int exitValue, StringBuffer output, StringBuffer error) {
+            this.exitValue = exitValue;
+            this.output = output;
+            this.error = error;
+        }
+
+        public int getExitValue() {
+            return exitValue;
+        }
+
+        public StringBuffer getOutput() {
+            return output;
+        }
+
+        public StringBuffer getError() {
+            return error;
+        }
+    }
+
+    private static class PooledConnection {
+        private final Connection connection;
+        private int channels;
+        private long lastUsed;
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxChannels;
+    private final long idleTimeoutMs;
+    private final long failureBackoffMs;
+    private final Map<String, List<PooledConnection>> connections = new HashMap<String, List<PooledConnection>>();
+    private final Map<String, Long> failedUntil = new HashMap<String, Long>();
+    private final Set<String> connecting = new HashSet<String>();
+
+    /**
+     * Create a pool opening its sessions with JSch.
+     *
+     * @param identities private key files to authenticate with
+     * @param maxChannels maximum number of commands running at the same time in a session
+     * @param idleTimeout seconds after which an unused session is closed
+     * @param failureBackoff seconds during which a host which could not be connected to is not tried again
+     */
+    public SshSessionPool(String[] identities, int maxChannels, long idleTimeout, long failureBackoff) {
+        this(new JSchConnectionFactory(identities), maxChannels, idleTimeout, failureBackoff);
+    }
+
+    SshSessionPool(ConnectionFactory factory, int maxChannels, long idleTimeout, long failureBackoff) {
+        this.factory = factory;
+        this.maxChannels = maxChannels;
+        this.idleTimeoutMs = idleTimeout * 1000;
+        this.failureBackoffMs = failureBackoff * 1000;
+    }
+
+    /**
+     * Run a command on a host.
+     *
+     * @param userHost the host, as <code>user@host</code>
+     * @param command the command
+     * @param input the standard input of the command, or null
+     * @param maxLen number of characters of the output and error streams to keep
+     * @return the result of the command
+     * @throws ConnectionException if the host can't be reached through the pool
+     * @throws IOException if the command can't be run
+     */
+    public Result exec(String userHost, String command, byte[] input, int maxLen) throws IOException {
+        PooledConnection pooled = acquire(userHost);
+        try {
+            return pooled.connection.exec(command, input, maxLen);
+        }
+        finally {
+            release(pooled);
+        }
+    }
+
+    /**
+     * @return the number of open sessions
+     */
+    public synchronized int getSessionCount() {
+        int count = 0;
+        for (List<PooledConnection> hostConnections : connections.values()) {
+            count += hostConnections.size();
+        }
+        return count;
+    }
+
+    /**
+     * Close all the sessions.
+     */
+    public void close() {
+        List<PooledConnection> closed = new ArrayList<PooledConnection>();
+        synchronized (this) {
+            for (List<PooledConnection> hostConnections : connections.values()) {
+                closed.addAll(hostConnections);
+            }
+            connections.clear();
+            failedUntil.clear();
+        }
+        for (PooledConnection pooled : closed) {
+            pooled.connection.close();
+        }
+    }
+
+    private PooledConnection acquire(String userHost) throws ConnectionException {
+        List<PooledConnection> closed = new ArrayList<PooledConnection>();
+        try {
+            synchronized (this) {
+                while (true) {
+                    removeIdle(closed);
+                    Long backoffEnd = failedUntil.get(userHost);
+                    if (backoffEnd != null) {
+                        if (System.currentTimeMillis() < backoffEnd) {
+                            throw new ConnectionException(XLog.format("Not retrying ssh session to [{0}] yet, "
+                                    + "the last connection failed", userHost), null);
+                        }
+                        failedUntil.remove(userHost);
+                    }
+                    List<PooledConnection> hostConnections = connections.get(userHost);
+                    if (hostConnections != null) {
+                        for (PooledConnection pooled : hostConnections) {
+                            if (pooled.channels < maxChannels) {
+                                pooled.channels++;
+                                return pooled;
+                            }
+                        }
+                    }
+                    // one session of a host is opened at a time, the commands waiting for it use its channels
+                    if (connecting.add(userHost)) {
+                        break;
+                    }
+                    try {
+                        wait();
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new ConnectionException(XLog.format("Interrupted waiting for ssh session to [{0}]",
+                                userHost), e);
+                    }
+                }
+            }
+        }
+        finally {
+            for (PooledConnection pooled : closed) {
+                pooled.connection.close();
+            }
+        }
+        int index = userHost.indexOf('@');
+        String user = index > 0 ? userHost.substring(0, index) : System.getProperty("user.name");
+        String host = userHost.substring(index + 1);
+        PooledConnection pooled = null;
+        try {
+            pooled = new PooledConnection(factory.connect(user, host));
+        }
+        finally {
+            synchronized (this) {
+                connecting.remove(userHost);
+                if (pooled == null) {
+                    failedUntil.put(userHost, System.currentTimeMillis() + failureBackoffMs);
+                }
+                else {
+                    pooled.channels = 1;
+                    List<PooledConnection> hostConnections = connections.get(userHost);
+                    if (hostConnections == null) {
+                        hostConnections = new ArrayList<PooledConnection>();
+                        connections.put(userHost, hostConnections);
+                    }
+                    hostConnections.add(pooled);
+                }
+                notifyAll();
+            }
+        }
+        LOG.debug("Opened ssh session to [{0}]", userHost);
+        return pooled;
+    }
+
+    private synchronized void release(PooledConnection pooled) {
+        pooled.channels--;
+        pooled.lastUsed = System.currentTimeMillis();
+    }
+
+    private void removeIdle(List<PooledConnection> closed) {
+        long now = System.currentTimeMillis();
+        Iterator<List<PooledConnection>> hosts = connections.values().iterator();
+        while (hosts.hasNext()) {
+            List<PooledConnection> hostConnections = hosts.next();
+            Iterator<PooledConnection> it = hostConnections.iterator();
+            while (it.hasNext()) {
+                PooledConnection pooled = it.next();
+                if (pooled.channels == 0 && (now - pooled.lastUsed > idleTimeoutMs || !pooled.connection.isConnected())) {
+                    it.remove();
+                    closed.add(pooled);
+                }
+            }
+            if (hostConnections.isEmpty()) {
+                hosts.remove();
+            }
+        }
+    }
+
+    private static class JSchConnectionFactory implements ConnectionFactory {
+        private final JSch jsch = new JSch();
+
+        private JSchConnectionFactory(String[] identities) {
+            for (String identity : identities) {
+                identity = identity.trim();
+                if (!identity.isEmpty() && new File(identity).isFile()) {
+                    try {
+                        jsch.addIdentity(identity);
+                    }
+                    catch (JSchException e) {
+                        LOG.warn("Could not load ssh identity [{0}], {1}", identity, e.getMessage());
+                    }
+                }
+            }
+        }
+
+        @Override
+        public Connection connect(String user, String host) throws ConnectionException {
+            try {
+                Session session = jsch.getSession(user, host, SSH_PORT);
+                // same options as the ssh command of the process mode
+                session.setConfig("StrictHostKeyChecking", "no");
+                session.setConfig("PreferredAuthentications", "publickey");
+                session.setDaemonThread(true);
+                session.connect(CONNECT_TIMEOUT_MS);
+                return new JSchConnection(session);
+            }
+            catch (JSchException e) {
+                throw new ConnectionException(XLog.format("Could not open ssh session to [{0}@{1}]", user, host), e);
+            }
+        }
+    }
+
+    private static class JSchConnection implements Connection {
+        private final Session session;
+
+        private JSchConnection(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public boolean isConnected() {
+            return session.isConnected();
+        }
+
+        @Override
+        public Result exec(String command, byte[] input, int maxLen) throws IOException {
+            ChannelExec channel;
+            InputStream out;
+            InputStream err;
+            try {
+                channel = (ChannelExec) session.openChannel("exec");
+                channel.setCommand(command);
+                channel.setInputStream(input != null ? new ByteArrayInputStream(input) : null);
+                out = channel.getInputStream();
+                err = channel.getExtInputStream();
+                channel.connect(CONNECT_TIMEOUT_MS);
+            }
+            catch (JSchException e) {
+                throw new ConnectionException(XLog.format("Could not open ssh channel to [{0}@{1}]", session.getUserName(),
+                        session.getHost()), e);
+            }
+            try {
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                ByteArrayOutputStream error = new ByteArrayOutputStream();
+                // both streams are drained while the command runs, a full stream would block the whole session
+                while (true) {
+                    boolean closed = channel.isClosed();
+                    drain(out, output, maxLen);
+                    drain(err, error, maxLen);
+                    if (closed) {
+                        break;
+                    }
+                    Thread.sleep(POLL_INTERVAL_MS);
+                }
+                return new Result(channel.getExitStatus(), new StringBuffer(output.toString(StandardCharsets.UTF_8.name())),
+                        new StringBuffer(error.toString(StandardCharsets.UTF_8.name())));
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while running [" + command + "]");
+            }
+            finally {
+                channel.disconnect();
+            }
+        }
+
+        private void drain(InputStream in, ByteArrayOutputStream buffer, int maxLen) throws IOException {
+            byte[] bytes = new byte[4096];
+            while (in.available() > 0) {
+                int read = in.read(bytes);
+                if (read < 0) {
+                    break;
+                }
+                // keeps one byte more than the maximum, for the caller to see the output is too long
+                buffer.write(bytes, 0, Math.max(0, Math.min(read, maxLen + 1 - buffer.size())));
+            }
+        }
+
+        @Override
+        public void close() {
+            session.disconnect();
+        }
+    }
+}
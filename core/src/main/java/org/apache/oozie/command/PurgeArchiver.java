@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.oozie.command;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.rest.JsonBean;
+import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordActionGetJPAExecutor;
+import org.apache.oozie.executor.jpa.CoordJobGetJPAExecutor;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowJobGetActionsJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowJobGetJPAExecutor;
+import org.apache.oozie.service.HadoopAccessorService;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.XLog;
+
+/**
+ * Writes the jobs purged by {@link PurgeXCommand} to gzip compressed files before they are deleted, one file for each type
+ * of job and purge run, on HDFS or on the local disk.
+ * <p>
+ * Each line of a file is the JSON of a job, as returned by the REST API: the workflows with their actions, the coordinator
+ * actions, the coordinators and the bundles. A chunk of jobs is flushed to the file before it is deleted, so a job can be
+ * archived twice if its deletion fails, but it is never deleted without being archived.
+ */
+public class PurgeArchiver {
+    public static final String WORKFLOWS = "workflows";
+    public static final String COORD_ACTIONS = "coord-actions";
+    public static final String COORDINATORS = "coordinators";
+    public static final String BUNDLES = "bundles";
+
+    private static final XLog LOG = XLog.getLog(PurgeArchiver.class);
+
+    private final JPAService jpaService;
+    private final FileSystem fs;
+    private final Path dir;
+    private final String prefix;
+    private final Map<String, Archive> archives = new HashMap<>();
+
+    private static class Archive {
+        private final Path path;
+        private final FSDataOutputStream out;
+        private final Writer writer;
+
+        private Archive(Path path, FSDataOutputStream out) throws IOException {
+            this.path = path;
+            this.out = out;
+            this.writer = new OutputStreamWriter(new GZIPOutputStream(out, true), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Create an archiver writing the files of a purge run in a directory.
+     *
+     * @param jpaService the JPA service to read the jobs with
+     * @param archiveDir the URI of the directory
+     * @param purgeTime the start time of the purge run, in the file names with a random part keeping apart the files of the
+     * runs started in the same second
+     * @throws CommandException if the file system of the directory can't be accessed
+     */
+    public PurgeArchiver(JPAService jpaService, String archiveDir, Date purgeTime) throws CommandException {
+        this.jpaService = jpaService;
+        this.dir = new Path(archiveDir);
+        SimpleDateFormat format = new SimpleDateFormat("yyyyMMdd-HHmmss");
+        format.setTimeZone(DateUtils.UTC);
+        this.prefix = "purge-" + format.format(purgeTime) + "-" + UUID.randomUUID().toString().substring(0, 8) + "-";
+        try {
+            URI uri = dir.toUri();
+            HadoopAccessorService has = Services.get().get(HadoopAccessorService.class);
+            fs = FileSystem.get(uri, has.createConfiguration(uri.getAuthority()));
+        }
+        catch (IOException ex) {
+            throw new CommandException(ErrorCode.E0614, archiveDir, ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Write a chunk of jobs to the file of their type.
+     *
+     * @param type the type of the jobs, {@link #WORKFLOWS}, {@link #COORD_ACTIONS}, {@link #COORDINATORS} or
+     * {@link #BUNDLES}
+     * @param ids the IDs of the jobs
+     * @return the number of jobs written
+     * @throws JPAExecutorException if a job can't be read
+     * @throws CommandException if the file can't be written
+     */
+    public int archive(String type, List<String> ids) throws JPAExecutorException, CommandException {
+        try {
+            Archive archive = archives.get(type);
+            if (archive == null) {
+                fs.mkdirs(dir);
+                Path path = new Path(dir, prefix + type + ".json.gz");
+                archive = new Archive(path, fs.create(path, false));
+                archives.put(type, archive);
+            }
+            for (String id : ids) {
+                archive.writer.write(getJob(type, id).toJSONObject().toJSONString());
+                archive.writer.write('\n');
+            }
+            archive.writer.flush();
+            // the jobs are deleted once archived
+            archive.out.hsync();
+            return ids.size();
+        }
+        catch (IOException ex) {
+            throw new CommandException(ErrorCode.E0614, dir, ex.getMessage(), ex);
+        }
+    }
+
+    private JsonBean getJob(String type, String id) throws JPAExecutorException {
+        switch (type) {
+            case WORKFLOWS:
+                WorkflowJobBean workflow = jpaService.execute(new WorkflowJobGetJPAExecutor(id));
+                workflow.setActions(jpaService.execute(new WorkflowJobGetActionsJPAExecutor(id)));
+                return workflow;
+            case COORD_ACTIONS:
+                return jpaService.execute(new CoordActionGetJPAExecutor(id));
+            case COORDINATORS:
+                return jpaService.execute(new CoordJobGetJPAExecutor(id));
+            case BUNDLES:
+                return jpaService.execute(new BundleJobGetJPAExecutor(id));
+            default:
+                throw new IllegalArgumentException("Unknown job type " + type);
+        }
+    }
+
+    /**
+     * Close the files of the purge run. The jobs are already deleted, so a file which can't be closed is logged as an
+     * error, its end may be missing.
+     */
+    public void close() {
+        for (Archive archive : archives.values()) {
+            try {
+                archive.writer.close();
+            }
+            catch (IOException ex) {
+                LOG.error("Could not close purge archive [{0}], the archive may be truncated: {1}", archive.path,
+                        ex.getMessage(), ex);
+            }
+        }
+        archives.clear();
+    }
+}
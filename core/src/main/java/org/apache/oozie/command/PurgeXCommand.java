@@ -37,12 +37,14 @@ import org.apache.oozie.executor.jpa.WorkflowJobsBasicInfoFromCoordParentIdJPAEx
 import org.apache.oozie.executor.jpa.WorkflowJobsBasicInfoFromWorkflowParentIdJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobsDeleteJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobsGetForPurgeJPAExecutor;
+import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.PurgeService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.service.WorkflowDefinitionService;
 import org.eclipse.jgit.util.StringUtils;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
@@ -54,8 +56,15 @@ import java.util.Set;
  * This class is used to purge workflows, coordinators, and bundles.  It takes into account the relationships between workflows and
  * coordinators, and coordinators and bundles.  It also only acts on 'limit' number of items at a time to not overtax the DB and in
  * case something gets rolled back.  Also, children are always deleted before their parents in case of a rollback.
+ * <p>
+ * If {@link PurgeService#CHUNK_SIZE} is set, the items are deleted in chunks of that size instead, ordered by ID apart from the
+ * workflows which are deleted children first, waiting {@link PurgeService#CHUNK_INTERVAL} between two chunks so that the
+ * purge doesn't hold the locks of the tables for long and the replicas of the DB keep up. If {@link PurgeService#ARCHIVE_DIR}
+ * is set, each chunk is written to the archive files of the purge run with {@link PurgeArchiver} before it is deleted.
  */
 public class PurgeXCommand extends XCommand<Void> {
+    private static final String INSTRUMENTATION_GROUP = "purge";
+
     private JPAService jpaService = null;
     private int wfOlderThan;
     private int coordOlderThan;
@@ -70,6 +79,11 @@ public class PurgeXCommand extends XCommand<Void> {
     private int coordDel;
     private int coordActionDel;
     private int bundleDel;
+    private final int chunkSize;
+    private final long chunkInterval;
+    private final String archiveDir;
+    private PurgeArchiver archiver;
+    private long lastChunkTime;
     private static final long DAY_IN_MS = 24 * 60 * 60 * 1000;
 
     interface JPAFunction<T, R> {
@@ -150,6 +164,9 @@ public class PurgeXCommand extends XCommand<Void> {
         coordDel = 0;
         coordActionDel = 0;
         bundleDel = 0;
+        chunkSize = ConfigurationService.getInt(PurgeService.CHUNK_SIZE);
+        chunkInterval = ConfigurationService.getLong(PurgeService.CHUNK_INTERVAL);
+        archiveDir = ConfigurationService.get(PurgeService.ARCHIVE_DIR).trim();
     }
 
     @Override
@@ -202,6 +219,24 @@ public class PurgeXCommand extends XCommand<Void> {
     protected Void execute() throws CommandException {
         LOG.info("STARTED Purge to purge Workflow Jobs older than [{0}] days, Coordinator Jobs older than [{1}] days, and Bundle"
                 + " jobs older than [{2}] days.", wfOlderThan, coordOlderThan, bundleOlderThan);
+        if (!archiveDir.isEmpty()) {
+            archiver = new PurgeArchiver(jpaService, archiveDir, new Date());
+        }
+        try {
+            purge();
+        }
+        finally {
+            if (archiver != null) {
+                archiver.close();
+            }
+        }
+
+        LOG.info("ENDED Purge deleted [{0}] workflows, [{1}] coordinatorActions, [{2}] coordinators, [{3}] bundles",
+                wfDel, coordActionDel, coordDel, bundleDel);
+        return null;
+    }
+
+    private void purge() throws CommandException {
 
         // Process parentless workflows to purge them and their children
         if (!wfList.isEmpty()) {
@@ -242,9 +277,23 @@ public class PurgeXCommand extends XCommand<Void> {
             }
         }
 
-        LOG.info("ENDED Purge deleted [{0}] workflows, [{1}] coordinatorActions, [{2}] coordinators, [{3}] bundles",
-                wfDel, coordActionDel, coordDel, bundleDel);
-        return null;
+        purgeWorkflowDefinitions();
+    }
+
+    /**
+     * Purge the workflow definitions and configurations which are not referenced by any workflow job anymore.
+     */
+    private void purgeWorkflowDefinitions() {
+        WorkflowDefinitionService definitionService = Services.get().get(WorkflowDefinitionService.class);
+        if (definitionService != null && definitionService.isEnabled()) {
+            try {
+                int deleted = definitionService.purgeUnused();
+                LOG.info("Purge deleted [{0}] unused workflow definitions", deleted);
+            }
+            catch (JPAExecutorException je) {
+                LOG.warn("Could not purge unused workflow definitions: {0}", je.getMessage(), je);
+            }
+        }
     }
 
     /**
@@ -253,8 +302,9 @@ public class PurgeXCommand extends XCommand<Void> {
      *
      * @param wfs List of workflows to process
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the workflows can't be archived
      */
-    private void processWorkflows(List<String> wfs) throws JPAExecutorException {
+    private void processWorkflows(List<String> wfs) throws JPAExecutorException, CommandException {
         List<String> wfsToPurge = findPurgeableWorkflows(wfs);
         purgeWorkflows(wfsToPurge);
     }
@@ -325,8 +375,9 @@ public class PurgeXCommand extends XCommand<Void> {
      *
      * @param coords List of coordinators to process
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the coordinators can't be archived
      */
-    private void processCoordinators(List<String> coords) throws JPAExecutorException {
+    private void processCoordinators(List<String> coords) throws JPAExecutorException, CommandException {
         List<String> wfsToPurge = new ArrayList<String>();
         List<String> actionsToPurge = new ArrayList<String>();
         List<String> coordsToPurge = new ArrayList<String>();
@@ -371,8 +422,9 @@ public class PurgeXCommand extends XCommand<Void> {
      *
      * @param bundles List of bundles to process
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the bundles can't be archived
      */
-    private void processBundles(List<String> bundles) throws JPAExecutorException {
+    private void processBundles(List<String> bundles) throws JPAExecutorException, CommandException {
         List<String> coordsToPurge = new ArrayList<String>();
         List<String> bundlesToPurge = new ArrayList<String>();
         for (Iterator<String> it = bundles.iterator(); it.hasNext(); ) {
@@ -405,18 +457,18 @@ public class PurgeXCommand extends XCommand<Void> {
      *
      * @param wfs List of workflows to purge
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the workflows can't be archived
      */
-    private void purgeWorkflows(List<String> wfs) throws JPAExecutorException {
+    private void purgeWorkflows(List<String> wfs) throws JPAExecutorException, CommandException {
         wfDel += wfs.size();
         //To delete sub-workflows before deleting parent workflows
         Collections.reverse(wfs);
-        for (int startIndex = 0; startIndex < wfs.size(); ) {
-            int endIndex = (startIndex + limit < wfs.size()) ? (startIndex + limit) : wfs.size();
-            List<String> wfsForDelete = wfs.subList(startIndex, endIndex);
-            LOG.debug("Deleting workflows: " + StringUtils.join(wfsForDelete, ","));
-            jpaService.execute(new WorkflowJobsDeleteJPAExecutor(wfsForDelete));
-            startIndex = endIndex;
-        }
+        deleteInChunks(PurgeArchiver.WORKFLOWS, wfs, new JPAFunction<List<String>, Integer>() {
+            @Override
+            public Integer apply(List<String> wfsForDelete) throws JPAExecutorException {
+                return jpaService.execute(new WorkflowJobsDeleteJPAExecutor(wfsForDelete));
+            }
+        });
     }
 
     /**
@@ -424,32 +476,34 @@ public class PurgeXCommand extends XCommand<Void> {
      *
      * @param coordActions List of coordActions to purge
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the coordActions can't be archived
      */
-    private void purgeCoordActions(List<String> coordActions) throws JPAExecutorException {
+    private void purgeCoordActions(List<String> coordActions) throws JPAExecutorException, CommandException {
         coordActionDel += coordActions.size();
-        for (int startIndex = 0; startIndex < coordActions.size(); ) {
-            int endIndex = (startIndex + limit < coordActions.size()) ? (startIndex + limit) : coordActions.size();
-            List<String> coordActionsForDelete = coordActions.subList(startIndex, endIndex);
-            LOG.debug("Deleting coordinator actions: " + StringUtils.join(coordActionsForDelete, ","));
-            jpaService.execute(new CoordActionsDeleteJPAExecutor(coordActionsForDelete));
-            startIndex = endIndex;
-        }
+        sortIfChunked(coordActions);
+        deleteInChunks(PurgeArchiver.COORD_ACTIONS, coordActions, new JPAFunction<List<String>, Integer>() {
+            @Override
+            public Integer apply(List<String> coordActionsForDelete) throws JPAExecutorException {
+                return jpaService.execute(new CoordActionsDeleteJPAExecutor(coordActionsForDelete));
+            }
+        });
     }
     /**
      * Purge the coordinators in SOME order in batches of size 'limit' (its in reverse order only for convenience)
      *
      * @param coords List of coordinators to purge
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the coordinators can't be archived
      */
-    private void purgeCoordinators(List<String> coords) throws JPAExecutorException {
+    private void purgeCoordinators(List<String> coords) throws JPAExecutorException, CommandException {
         coordDel += coords.size();
-        for (int startIndex = 0; startIndex < coords.size(); ) {
-            int endIndex = (startIndex + limit < coords.size()) ? (startIndex + limit) : coords.size();
-            List<String> coordsForDelete = coords.subList(startIndex, endIndex);
-            LOG.debug("Deleting coordinators: " + StringUtils.join(coordsForDelete, ","));
-            jpaService.execute(new CoordJobsDeleteJPAExecutor(coordsForDelete));
-            startIndex = endIndex;
-        }
+        sortIfChunked(coords);
+        deleteInChunks(PurgeArchiver.COORDINATORS, coords, new JPAFunction<List<String>, Integer>() {
+            @Override
+            public Integer apply(List<String> coordsForDelete) throws JPAExecutorException {
+                return jpaService.execute(new CoordJobsDeleteJPAExecutor(coordsForDelete));
+            }
+        });
     }
 
     /**
@@ -457,18 +511,76 @@ public class PurgeXCommand extends XCommand<Void> {
      *
      * @param bundles List of bundles to purge
      * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the bundles can't be archived
      */
-    private void purgeBundles(List<String> bundles) throws JPAExecutorException {
+    private void purgeBundles(List<String> bundles) throws JPAExecutorException, CommandException {
         bundleDel += bundles.size();
-        for (int startIndex = 0; startIndex < bundles.size(); ) {
-            int endIndex = (startIndex + limit < bundles.size()) ? (startIndex + limit) : bundles.size();
-            Collection<String> bundlesForDelete = bundles.subList(startIndex, endIndex);
-            LOG.debug("Deleting bundles: " + StringUtils.join(bundlesForDelete, ","));
-            jpaService.execute(new BundleJobsDeleteJPAExecutor(bundlesForDelete));
+        sortIfChunked(bundles);
+        deleteInChunks(PurgeArchiver.BUNDLES, bundles, new JPAFunction<List<String>, Integer>() {
+            @Override
+            public Integer apply(List<String> bundlesForDelete) throws JPAExecutorException {
+                return jpaService.execute(new BundleJobsDeleteJPAExecutor(bundlesForDelete));
+            }
+        });
+    }
+
+    /**
+     * Sort the items to delete by ID in chunked mode, so that a chunk covers a range of IDs of the table.
+     */
+    private void sortIfChunked(List<String> ids) {
+        if (chunkSize > 0) {
+            Collections.sort(ids);
+        }
+    }
+
+    /**
+     * Delete items in batches of size 'limit', or in chunks of size {@link PurgeService#CHUNK_SIZE} waiting
+     * {@link PurgeService#CHUNK_INTERVAL} between two chunks, archiving each batch before deleting it.
+     *
+     * @param type the type of the items, as named by {@link PurgeArchiver}
+     * @param ids the items to delete
+     * @param deleter the function deleting a batch of items
+     * @throws JPAExecutorException If a JPA executor has a problem
+     * @throws CommandException If the items can't be archived or the purge is interrupted
+     */
+    private void deleteInChunks(String type, List<String> ids, JPAFunction<List<String>, Integer> deleter)
+            throws JPAExecutorException, CommandException {
+        int batchSize = chunkSize > 0 ? chunkSize : limit;
+        for (int startIndex = 0; startIndex < ids.size(); ) {
+            int endIndex = (startIndex + batchSize < ids.size()) ? (startIndex + batchSize) : ids.size();
+            List<String> idsForDelete = ids.subList(startIndex, endIndex);
+            if (chunkSize > 0) {
+                waitForNextChunk();
+            }
+            if (archiver != null) {
+                instrumentation.incr(INSTRUMENTATION_GROUP, type + ".archived", archiver.archive(type, idsForDelete));
+            }
+            LOG.debug("Deleting " + type + ": " + StringUtils.join(idsForDelete, ","));
+            deleter.apply(idsForDelete);
+            instrumentation.incr(INSTRUMENTATION_GROUP, type + ".deleted", idsForDelete.size());
+            instrumentation.incr(INSTRUMENTATION_GROUP, "chunks", 1);
+            if (chunkSize > 0) {
+                LOG.info("Purge progress: deleted [{0}] of [{1}] {2}", endIndex, ids.size(), type);
+            }
             startIndex = endIndex;
         }
     }
 
+    // Sleeps in the CallableQueueService thread running the purge, see oozie.service.PurgeService.chunk.interval
+    private void waitForNextChunk() throws CommandException {
+        long wait = lastChunkTime + chunkInterval - System.currentTimeMillis();
+        if (wait > 0) {
+            try {
+                Thread.sleep(wait);
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new CommandException(ErrorCode.E0607, getName(), "interrupted");
+            }
+        }
+        lastChunkTime = System.currentTimeMillis();
+    }
+
     @Override
     public String getEntityKey() {
         return "purge_command";
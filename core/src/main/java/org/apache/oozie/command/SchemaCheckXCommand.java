@@ -144,6 +144,7 @@ public class SchemaCheckXCommand extends XCommand<Void> {
         expectedTables.add(caseTableName("oozie_sys"));
         expectedTables.add(caseTableName("openjpa_sequence_table"));
         expectedTables.add(caseTableName("validate_conn"));
+        expectedTables.add(caseTableName("wf_definitions"));
         // Oracle returns > 1000 tables if we don't have the schema "OOZIE"; MySQL and Postgres don't want this
         String schema = null;
         if (dbType.equals("oracle")) {
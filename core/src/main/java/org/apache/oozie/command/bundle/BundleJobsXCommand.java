@@ -38,6 +38,8 @@ public class BundleJobsXCommand extends XCommand<BundleJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String cursor;
+    private boolean count = true;
 
     /**
      * The constructor for BundleJobsXCommand
@@ -53,6 +55,20 @@ public class BundleJobsXCommand extends XCommand<BundleJobInfo> {
         this.len = length;
     }
 
+    /**
+     * The constructor for BundleJobsXCommand getting a page of the list of bundle jobs paged by keyset
+     *
+     * @param filter the filter string
+     * @param cursor cursor returned with the previous page, empty for the first page
+     * @param length length of the page
+     * @param count whether to count the bundle jobs matching the filter
+     */
+    public BundleJobsXCommand(Map<String, List<String>> filter, String cursor, int length, boolean count) {
+        this(filter, 1, length);
+        this.cursor = cursor == null ? "" : cursor;
+        this.count = count;
+    }
+
     @Override
     protected boolean isLockRequired() {
         return false;
@@ -77,7 +93,9 @@ public class BundleJobsXCommand extends XCommand<BundleJobInfo> {
             JPAService jpaService = Services.get().get(JPAService.class);
             BundleJobInfo bundleInfo = null;
             if (jpaService != null) {
-                bundleInfo = jpaService.execute(new BundleJobInfoGetJPAExecutor(filter, start, len));
+                bundleInfo = jpaService.execute(cursor != null
+                        ? new BundleJobInfoGetJPAExecutor(filter, cursor, len, count)
+                        : new BundleJobInfoGetJPAExecutor(filter, start, len));
             }
             else {
                 LOG.error(ErrorCode.E0610);
@@ -28,6 +28,8 @@ import java.util.TimeZone;
 import java.util.List;
 import java.util.Date;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.CoordinatorActionBean;
@@ -522,9 +524,31 @@ public class CoordCommandUtils {
      * @return one materialized action for specific nominal time
      * @throws Exception when materialization fails due to url checks or evaluation
      */
-    @SuppressWarnings("unchecked")
     public static String materializeOneInstance(String jobId, boolean dryrun, Element eAction, Date nominalTime,
             Date actualTime, int instanceCount, Configuration conf, CoordinatorActionBean actionBean) throws Exception {
+        return materializeOneInstance(jobId, dryrun, eAction, nominalTime, actualTime, instanceCount, conf,
+                XmlUtils.prettyPrint(conf).toString(), actionBean);
+    }
+
+    /**
+     * Materialize one instance for specific nominal time, with the job configuration already serialized.
+     *
+     * @param jobId coordinator job id
+     * @param dryrun true if it is dryrun
+     * @param eAction frequency unexploded-job
+     * @param nominalTime materialization time
+     * @param actualTime action actual time
+     * @param instanceCount instance numbers
+     * @param conf job configuration
+     * @param confXml job configuration serialized by {@link XmlUtils#prettyPrint(Configuration)}
+     * @param actionBean CoordinatorActionBean to materialize
+     * @return one materialized action for specific nominal time
+     * @throws Exception when materialization fails due to url checks or evaluation
+     */
+    @SuppressWarnings("unchecked")
+    public static String materializeOneInstance(String jobId, boolean dryrun, Element eAction, Date nominalTime,
+            Date actualTime, int instanceCount, Configuration conf, String confXml, CoordinatorActionBean actionBean)
+            throws Exception {
         String actionId = Services.get().get(UUIDService.class).generateChildId(jobId, instanceCount + "");
         SyncCoordAction appInst = new SyncCoordAction();
         appInst.setActionId(actionId);
@@ -564,8 +588,8 @@ public class CoordCommandUtils {
         eAction.setAttribute("action-actual-time", DateUtils.formatDateOozieTZ(actualTime));
 
         // Setting up action bean
-        actionBean.setCreatedConf(XmlUtils.prettyPrint(conf).toString());
-        actionBean.setRunConf(XmlUtils.prettyPrint(conf).toString());
+        actionBean.setCreatedConf(confXml);
+        actionBean.setRunConf(confXml);
         actionBean.setCreatedTime(actualTime);
         actionBean.setJobId(jobId);
         actionBean.setId(actionId);
@@ -798,11 +822,20 @@ public class CoordCommandUtils {
      * @throws ParseException if parsing time fails
      */
     public static Date getNextValidActionTimeForCronFrequency(Date targetDate, CoordinatorJobBean coordJob) throws ParseException {
+        return getNextValidTimeAfter(parseCronFrequency(coordJob.getFrequency()), targetDate);
+    }
 
-        String freq = coordJob.getFrequency();
+    /**
+     * Parse a cron frequency into the cron expressions matching the nominal times of the actions.
+     *
+     * @param frequency the cron frequency of a coordinator job
+     * @return the cron expressions, the next action time is the earliest of their next times
+     * @throws ParseException if parsing the frequency fails
+     */
+    static CronExpression[] parseCronFrequency(String frequency) throws ParseException {
+        String freq = frequency;
         TimeZone tz = DateUtils.getOozieProcessingTimeZone();
         String[] cronArray = freq.split(" ");
-        Date nextTime = null;
 
         // Current CronExpression doesn't support operations
         // where both date of months and day of weeks are specified.
@@ -826,7 +859,7 @@ public class CoordCommandUtils {
                 // minute basis
                 CronExpression expr = new CronExpression("0 " + freq);
                 expr.setTimeZone(tz);
-                nextTime = expr.getNextValidTimeAfter(targetDate);
+                return new CronExpression[] {expr};
             }
             // If both fields are specified by non-wildcards,
             // we need to split it into two expressions
@@ -847,9 +880,7 @@ public class CoordCommandUtils {
                 expr1.setTimeZone(tz);
                 CronExpression expr2 = new CronExpression("0 " + freq2);
                 expr2.setTimeZone(tz);
-                nextTime = expr1.getNextValidTimeAfter(targetDate);
-                Date nextTime2 = expr2.getNextValidTimeAfter(targetDate);
-                nextTime = nextTime.compareTo(nextTime2) < 0 ? nextTime: nextTime2;
+                return new CronExpression[] {expr1, expr2};
             }
         }
         else {
@@ -858,9 +889,25 @@ public class CoordCommandUtils {
             // minute basis
             CronExpression expr  = new CronExpression("0 " + freq);
             expr.setTimeZone(tz);
-            nextTime = expr.getNextValidTimeAfter(targetDate);
+            return new CronExpression[] {expr};
         }
+    }
 
+    /**
+     * Get the earliest next time of cron expressions after a given time.
+     *
+     * @param exprs the cron expressions returned by {@link #parseCronFrequency(String)}
+     * @param targetDate target date
+     * @return the next valid action time
+     */
+    static Date getNextValidTimeAfter(CronExpression[] exprs, Date targetDate) {
+        Date nextTime = null;
+        for (CronExpression expr : exprs) {
+            Date exprNextTime = expr.getNextValidTimeAfter(targetDate);
+            if (nextTime == null || exprNextTime.compareTo(nextTime) < 0) {
+                nextTime = exprNextTime;
+            }
+        }
         return nextTime;
     }
 
@@ -926,6 +973,47 @@ public class CoordCommandUtils {
         return pathExists(sPath, actionConf, user);
     }
 
+    /**
+     * Check if a list of paths exist in order, letting the URI handlers check the paths of the same directory or table
+     * together.
+     *
+     * @param paths the paths to check
+     * @param actionConf the configuration to access the paths
+     * @param user the user to access the paths as
+     * @param stopOnFirstMissing whether to stop checking at the first missing path
+     * @return the paths checked mapped to true if they exist; if <code>stopOnFirstMissing</code> is set, the paths after
+     * the first missing one are not checked nor in the map
+     * @throws URISyntaxException if a path is not a valid URI
+     * @throws URIHandlerException if the paths can't be accessed
+     */
+    public static Map<String, Boolean> pathsExist(List<String> paths, Configuration actionConf, String user,
+            boolean stopOnFirstMissing) throws URISyntaxException, URIHandlerException {
+        URIHandlerService service = Services.get().get(URIHandlerService.class);
+        Map<String, Boolean> result = new HashMap<String, Boolean>();
+        // the consecutive paths of the same handler are checked together, to keep checking them in order
+        URIHandler runHandler = null;
+        List<URI> run = new ArrayList<URI>();
+        for (int i = 0; i <= paths.size(); i++) {
+            URI uri = i < paths.size() ? new URI(paths.get(i)) : null;
+            URIHandler handler = uri != null ? service.getURIHandler(uri) : null;
+            if (handler != runHandler && !run.isEmpty()) {
+                for (Map.Entry<URI, Boolean> exists : runHandler.exists(run, actionConf, user, stopOnFirstMissing)
+                        .entrySet()) {
+                    result.put(exists.getKey().toString(), exists.getValue());
+                    if (!exists.getValue() && stopOnFirstMissing) {
+                        return result;
+                    }
+                }
+                run.clear();
+            }
+            runHandler = handler;
+            if (uri != null) {
+                run.add(uri);
+            }
+        }
+        return result;
+    }
+
     public static String getFirstMissingDependency(CoordinatorActionBean coordAction) {
         CoordInputDependency coordPullInputDependency = coordAction.getPullInputDependencies();
         CoordInputDependency coordPushInputDependency = coordAction.getPushInputDependencies();
@@ -37,6 +37,8 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String cursor;
+    private boolean count = true;
 
     public CoordJobsXCommand(Map<String, List<String>> filter, int start, int length) {
         super("coord.job.info", "coord.job.info", 1);
@@ -45,6 +47,20 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
         this.len = length;
     }
 
+    /**
+     * The constructor for CoordJobsXCommand getting a page of the list of coordinator jobs paged by keyset
+     *
+     * @param filter the filter string
+     * @param cursor cursor returned with the previous page, empty for the first page
+     * @param length length of the page
+     * @param count whether to count the coordinator jobs matching the filter
+     */
+    public CoordJobsXCommand(Map<String, List<String>> filter, String cursor, int length, boolean count) {
+        this(filter, 1, length);
+        this.cursor = cursor == null ? "" : cursor;
+        this.count = count;
+    }
+
     @Override
     protected boolean isLockRequired() {
         return false;
@@ -69,7 +85,9 @@ public class CoordJobsXCommand extends CoordinatorXCommand<CoordinatorJobInfo> {
             JPAService jpaService = Services.get().get(JPAService.class);
             CoordinatorJobInfo coordInfo = null;
             if (jpaService != null) {
-                coordInfo = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, start, len));
+                coordInfo = jpaService.execute(cursor != null
+                        ? new CoordJobInfoGetJPAExecutor(filter, cursor, len, count)
+                        : new CoordJobInfoGetJPAExecutor(filter, start, len));
             }
             else {
                 LOG.error(ErrorCode.E0610);
@@ -0,0 +1,153 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.command.coord;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Objects;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.command.CommandException;
+import org.apache.oozie.coord.TimeUnit;
+import org.apache.oozie.util.XConfiguration;
+import org.apache.oozie.util.XLog;
+import org.apache.oozie.util.XmlUtils;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.quartz.CronExpression;
+
+/**
+ * The parts of a coordinator job which are the same for all of its actions, parsed once to materialize the actions: the
+ * job definition with its resolved datasets, the job configuration and the cron expressions of the frequency.
+ * <p>
+ * A plan is shared by the commands materializing the actions of the job, so nothing returned by it must be modified;
+ * {@link #newActionElement()} returns a copy of the job definition for each action.
+ */
+public class CoordMaterializationPlan {
+    private static final XLog LOG = XLog.getLog(CoordMaterializationPlan.class);
+
+    private final String jobXml;
+    private final String conf;
+    private final String frequency;
+    private final Element eJob;
+    private final Configuration jobConf;
+    private final String jobConfXml;
+    private final TimeUnit endOfDuration;
+    private final CronExpression[] cronExpressions;
+
+    private CoordMaterializationPlan(CoordinatorJobBean coordJob) throws CommandException, JDOMException, ParseException {
+        jobXml = coordJob.getJobXml();
+        conf = coordJob.getConf();
+        frequency = coordJob.getFrequency();
+        try {
+            jobConf = new XConfiguration(new StringReader(conf));
+        }
+        catch (IOException ioe) {
+            LOG.warn("Configuration parse error. read from DB :" + conf, ioe);
+            throw new CommandException(ErrorCode.E1005, ioe.getMessage(), ioe);
+        }
+        jobConfXml = XmlUtils.prettyPrint(jobConf).toString();
+        eJob = XmlUtils.parseXml(jobXml);
+        endOfDuration = TimeUnit.valueOf(eJob.getAttributeValue("end_of_duration"));
+        CronExpression[] exprs = null;
+        try {
+            Integer.parseInt(frequency);
+        }
+        catch (NumberFormatException e) {
+            exprs = CoordCommandUtils.parseCronFrequency(frequency);
+        }
+        cronExpressions = exprs;
+    }
+
+    /**
+     * Compile the materialization plan of a coordinator job.
+     *
+     * @param coordJob the coordinator job, with its definition and configuration
+     * @return the plan
+     * @throws CommandException if the configuration of the job can't be parsed
+     * @throws JDOMException if the definition of the job can't be parsed
+     * @throws ParseException if the cron frequency of the job can't be parsed
+     */
+    public static CoordMaterializationPlan compile(CoordinatorJobBean coordJob)
+            throws CommandException, JDOMException, ParseException {
+        return new CoordMaterializationPlan(coordJob);
+    }
+
+    /**
+     * Check if this plan was compiled from the current definition of a job.
+     *
+     * @param coordJob the coordinator job
+     * @return true if the definition, configuration and frequency of the job are the ones of the plan
+     */
+    public boolean isCurrent(CoordinatorJobBean coordJob) {
+        return jobXml.equals(coordJob.getJobXml()) && conf.equals(coordJob.getConf())
+                && Objects.equals(frequency, coordJob.getFrequency());
+    }
+
+    /**
+     * @return a copy of the job definition, to materialize an action in
+     */
+    public Element newActionElement() {
+        return (Element) eJob.clone();
+    }
+
+    /**
+     * @return the job configuration, must not be modified
+     */
+    public Configuration getJobConf() {
+        return jobConf;
+    }
+
+    /**
+     * @return the job configuration serialized as the configuration of the actions
+     */
+    public String getJobConfXml() {
+        return jobConfXml;
+    }
+
+    /**
+     * @return the time unit the nominal times are moved to the end of
+     */
+    public TimeUnit getEndOfDuration() {
+        return endOfDuration;
+    }
+
+    /**
+     * @return true if the frequency of the job is a cron expression
+     */
+    public boolean isCronFrequency() {
+        return cronExpressions != null;
+    }
+
+    /**
+     * Get the next action time after a given time, for a job with a cron frequency.
+     *
+     * @param targetDate target date
+     * @return the next valid action time
+     */
+    public Date getNextValidActionTime(Date targetDate) {
+        synchronized (cronExpressions) {
+            return CoordCommandUtils.getNextValidTimeAfter(cronExpressions, targetDate);
+        }
+    }
+}
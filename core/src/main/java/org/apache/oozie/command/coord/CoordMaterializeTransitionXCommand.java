@@ -42,6 +42,7 @@ import org.apache.oozie.executor.jpa.CoordJobQueryExecutor;
 import org.apache.oozie.executor.jpa.CoordJobQueryExecutor.CoordJobQuery;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.service.ConfigurationService;
+import org.apache.oozie.service.CoordMaterializationPlanService;
 import org.apache.oozie.service.CoordMaterializeTriggerService;
 import org.apache.oozie.service.EventHandlerService;
 import org.apache.oozie.service.JPAService;
@@ -53,14 +54,11 @@ import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.LogUtils;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.StatusUtils;
-import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XmlUtils;
 import org.apache.oozie.util.db.SLADbOperations;
 import org.jdom.Element;
 import org.jdom.JDOMException;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.sql.Timestamp;
 import java.util.Calendar;
 import java.util.Date;
@@ -376,22 +374,13 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
      */
     protected String materializeActions(boolean dryrun) throws Exception {
 
-        Configuration jobConf = null;
-        try {
-            jobConf = new XConfiguration(new StringReader(coordJob.getConf()));
-        }
-        catch (IOException ioe) {
-            LOG.warn("Configuration parse error. read from DB :" + coordJob.getConf(), ioe);
-            throw new CommandException(ErrorCode.E1005, ioe.getMessage(), ioe);
-        }
-
-        String jobXml = coordJob.getJobXml();
-        Element eJob = XmlUtils.parseXml(jobXml);
+        CoordMaterializationPlan plan = getMaterializationPlan(dryrun);
+        Configuration jobConf = plan.getJobConf();
         TimeZone appTz = DateUtils.getTimeZone(coordJob.getTimeZone());
 
         String frequency = coordJob.getFrequency();
         TimeUnit freqTU = TimeUnit.valueOf(coordJob.getTimeUnitStr());
-        TimeUnit endOfFlag = TimeUnit.valueOf(eJob.getAttributeValue("end_of_duration"));
+        TimeUnit endOfFlag = plan.getEndOfDuration();
         Calendar start = Calendar.getInstance(appTz);
         start.setTime(startMatdTime);
         DateUtils.moveToEnd(start, endOfFlag);
@@ -427,17 +416,14 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
         LOG.debug("Coordinator job :" + coordJob.getId() + ", maxActionToBeCreated :" + maxActionToBeCreated
                 + ", Mat_Throttle :" + coordJob.getMatThrottling() + ", numWaitingActions :" + numWaitingActions);
 
-        boolean isCronFrequency = false;
+        boolean isCronFrequency = plan.isCronFrequency();
 
         Calendar effStart = (Calendar) start.clone();
-        try {
+        if (!isCronFrequency) {
             int intFrequency = Integer.parseInt(coordJob.getFrequency());
             effStart = (Calendar) origStart.clone();
             effStart.add(freqTU.getCalendarUnit(), lastActionNumber * intFrequency);
         }
-        catch (NumberFormatException e) {
-            isCronFrequency = true;
-        }
 
         boolean firstMater = true;
 
@@ -453,7 +439,7 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
                     effStart.add(Calendar.MINUTE, -1);
                     firstMater = false;
                 }
-                nextTime = CoordCommandUtils.getNextValidActionTimeForCronFrequency(effStart.getTime(), coordJob);
+                nextTime = plan.getNextValidActionTime(effStart.getTime());
                 Date prevTime = new Date(effStart.getTimeInMillis());
                 effStart.setTime(nextTime);
                 addDSTChangeToNominalTime(prevTime, nextTime, coordJob);
@@ -471,11 +457,12 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
                 LOG.debug("Materializing action for time=" + DateUtils.formatDateOozieTZ(effStart.getTime())
                         + ", lastactionnumber=" + lastActionNumber + " timeout=" + timeout + " minutes");
                 Date actualTime = new Date();
-                action = CoordCommandUtils.materializeOneInstance(jobId, dryrun, (Element) eJob.clone(),
-                        nextTime, actualTime, lastActionNumber, jobConf, actionBean);
+                Element eAction = plan.newActionElement();
+                action = CoordCommandUtils.materializeOneInstance(jobId, dryrun, eAction, nextTime, actualTime,
+                        lastActionNumber, jobConf, plan.getJobConfXml(), actionBean);
                 actionBean.setTimeOut(timeout);
                 if (!dryrun) {
-                    storeToDB(actionBean, action, jobConf); // Storing to table
+                    storeToDB(actionBean, action, eAction, jobConf); // Storing to table
 
                 }
                 else {
@@ -538,12 +525,31 @@ public class CoordMaterializeTransitionXCommand extends MaterializeTransitionXCo
         nextTime.setTime(nextTime.getTime() + dstOffset);
     }
 
-    private void storeToDB(CoordinatorActionBean actionBean, String actionXml, Configuration jobConf) throws Exception {
+    private void storeToDB(CoordinatorActionBean actionBean, String actionXml, Element eAction, Configuration jobConf)
+            throws Exception {
         LOG.debug("In storeToDB() coord action id = " + actionBean.getId() + ", size of actionXml = "
                 + actionXml.length());
         actionBean.setActionXml(actionXml);
         insertList.add(actionBean);
-        writeActionSlaRegistration(actionXml, actionBean, jobConf);
+        // only parse the action again for its SLA if it has one
+        if (eAction.getChild("action", eAction.getNamespace()).getChild("info", eAction.getNamespace("sla")) != null) {
+            writeActionSlaRegistration(actionXml, actionBean, jobConf);
+        }
+    }
+
+    /**
+     * Get the materialization plan of the job, cached unless this is a dry run of a job which is not stored yet.
+     *
+     * @param dryrun if this is a dry run
+     * @return the plan
+     * @throws Exception thrown if the definition of the job can't be parsed
+     */
+    private CoordMaterializationPlan getMaterializationPlan(boolean dryrun) throws Exception {
+        CoordMaterializationPlanService planService = Services.get().get(CoordMaterializationPlanService.class);
+        if (dryrun || planService == null) {
+            return CoordMaterializationPlan.compile(coordJob);
+        }
+        return planService.getPlan(coordJob);
     }
 
     private void writeActionSlaRegistration(String actionXml, CoordinatorActionBean actionBean, Configuration jobConf)
@@ -30,6 +30,7 @@ import org.apache.oozie.executor.jpa.WorkflowActionQueryExecutor.WorkflowActionQ
 import org.apache.oozie.service.ActionService;
 import org.apache.oozie.service.CallbackService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.service.YarnApplicationReportService;
 import org.apache.oozie.util.LogUtils;
 import org.apache.oozie.util.ParamChecker;
 
@@ -103,6 +104,10 @@ public class CompletedActionXCommand extends WorkflowXCommand<Void> {
             // this is done because oozie notifications (of sub-wfs) is send
             // every status change, not only on completion.
             if (executor.isCompleted(externalStatus)) {
+                YarnApplicationReportService reportService = Services.get().get(YarnApplicationReportService.class);
+                if (reportService != null) {
+                    reportService.invalidate(this.wfactionBean.getExternalId());
+                }
                 queue(new ActionCheckXCommand(this.wfactionBean.getId(), getPriority(), -1));
             }
         }
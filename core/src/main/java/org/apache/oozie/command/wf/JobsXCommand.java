@@ -26,6 +26,7 @@ import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.WorkflowsInfo;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
 import org.apache.oozie.executor.jpa.WorkflowsJobGetJPAExecutor;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
@@ -34,6 +35,8 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
     private final Map<String, List<String>> filter;
     private final int start;
     private final int len;
+    private final String cursor;
+    private final boolean count;
     private WorkflowsInfo workflows;
 
     /**
@@ -49,6 +52,26 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
         this.filter = filter;
         this.start = start;
         this.len = length;
+        this.cursor = null;
+        this.count = true;
+    }
+
+    /**
+     * Constructor taking the filter information, for a page of the list of workflows paged by keyset
+     *
+     * @param filter Can be name, status, user, group and combination of these
+     * @param cursor cursor returned with the previous page, empty for the first page
+     * @param length number of workflows to be returned from the list of workflows matching the filter and following
+     *        the cursor.
+     * @param count whether to count the workflows matching the filter
+     */
+    public JobsXCommand(Map<String, List<String>> filter, String cursor, int length, boolean count) {
+        super("job.info", "job.info", 1, true);
+        this.filter = filter;
+        this.start = 1;
+        this.len = length;
+        this.cursor = cursor == null ? "" : cursor;
+        this.count = count;
     }
 
     @Override
@@ -56,7 +79,9 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
         try {
             JPAService jpaService = Services.get().get(JPAService.class);
             if (jpaService != null) {
-                this.workflows = jpaService.execute(new WorkflowsJobGetJPAExecutor(this.filter, this.start, this.len));
+                this.workflows = jpaService.execute(this.cursor != null
+                        ? new WorkflowsJobGetJPAExecutor(this.filter, this.cursor, this.len, this.count)
+                        : new WorkflowsJobGetJPAExecutor(this.filter, this.start, this.len));
             }
             else {
                 throw new CommandException(ErrorCode.E0610);
@@ -66,6 +91,9 @@ public class JobsXCommand extends WorkflowXCommand<WorkflowsInfo> {
             }
             return this.workflows;
         }
+        catch (JPAExecutorException ex) {
+            throw new CommandException(ex);
+        }
         catch (Exception ex) {
             throw new CommandException(ErrorCode.E0603, ex.getMessage(), ex);
         }
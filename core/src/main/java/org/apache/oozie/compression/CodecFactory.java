@@ -18,6 +18,7 @@
 
 package org.apache.oozie.compression;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -28,6 +29,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.oozie.util.XLog;
 
 /**
@@ -62,14 +64,17 @@ public class CodecFactory {
             outputCompressionStr = outputCompressionStr.trim();
             isEnabled = true;
         }
+        // built-in codecs are always registered, so data written with any of them can be read
+        REGISTERED.put(GzipCompressionCodec.CODEC_NAME, new GzipCompressionCodec());
+        REGISTERED.put(Lz4CompressionCodec.CODEC_NAME, new Lz4CompressionCodec());
+        REGISTERED.put(ZstdCompressionCodec.CODEC_NAME, ReflectionUtils.newInstance(ZstdCompressionCodec.class, conf));
         String[] outputCompressionCodecs = conf.getStrings(COMPRESSION_CODECS);
-        for (String comp : outputCompressionCodecs) {
-            parseCompressionConfig(comp);
+        if (outputCompressionCodecs != null) {
+            for (String comp : outputCompressionCodecs) {
+                parseCompressionConfig(comp, conf);
+            }
         }
         if (isEnabled) {
-            if (REGISTERED.get(GzipCompressionCodec.CODEC_NAME) == null) {
-                REGISTERED.put(GzipCompressionCodec.CODEC_NAME, new GzipCompressionCodec());
-            }
             outputCompressionCodec = REGISTERED.get(outputCompressionStr);
             if (outputCompressionCodec == null) {
                 throw new RuntimeException("No codec class found for codec " + outputCompressionStr);
@@ -93,12 +98,12 @@ public class CodecFactory {
 
     }
 
-    private static void parseCompressionConfig(String comp) throws Exception {
+    private static void parseCompressionConfig(String comp, Configuration conf) throws Exception {
         String[] compression = comp.split("=", 2);
         if (compression.length == 2) {
             String key = compression[0];
             String value = compression[1];
-            REGISTERED.put(key, (CompressionCodec) Class.forName(value).newInstance());
+            REGISTERED.put(key, (CompressionCodec) ReflectionUtils.newInstance(Class.forName(value), conf));
             LOG.info("Adding [{0}] to list of output compression codecs", key);
         }
         else {
@@ -155,6 +160,27 @@ public class CodecFactory {
         return getCodec(compressionProps.get(COMPRESSION_KEY_HEADER));
     }
 
+    /**
+     * Re-encode a blob with the output compression codec.
+     *
+     * @param rawBlob the blob as stored in the database
+     * @param force if true, re-encode the blob even if it is already compressed with the output codec, for example
+     * to compress it with a new dictionary
+     * @return the re-encoded blob, or <code>null</code> if the blob is already encoded with the output codec
+     * @throws IOException in case of IO error
+     */
+    public static byte[] recompress(byte[] rawBlob, boolean force) throws IOException {
+        DataInputStream dais = new DataInputStream(new ByteArrayInputStream(rawBlob));
+        CompressionCodec codec = getDeCompressionCodec(dais);
+        CompressionCodec targetCodec = isEnabled ? outputCompressionCodec : null;
+        if (codec == targetCodec && (!force || codec == null)) {
+            return null;
+        }
+        byte[] bytes = codec == null ? rawBlob : codec.decompressToBytes(dais);
+        dais.close();
+        return targetCodec == null ? bytes : targetCodec.compressBytes(headerBytes, bytes);
+    }
+
     /**
      * Get output compression codec
      * @return the compression codec
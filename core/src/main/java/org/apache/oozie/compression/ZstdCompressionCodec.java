@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.compression;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdDictCompress;
+import com.github.luben.zstd.ZstdDictDecompress;
+import com.github.luben.zstd.ZstdDictTrainer;
+import com.github.luben.zstd.ZstdException;
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configurable;
+import org.apache.hadoop.conf.Configuration;
+
+/**
+ * Class to compress and decompress data using the Zstandard codec.
+ * <p>
+ * Zstandard compresses better than gzip and decompresses faster. Small payloads like action configurations compress
+ * much better with a dictionary trained on typical payloads, see {@link #CONF_DICTIONARIES}. The compressed data is
+ * written after the header as the length of the uncompressed data followed by a single Zstandard frame, which records
+ * the id of the dictionary it was compressed with.
+ */
+public class ZstdCompressionCodec implements CompressionCodec, Configurable {
+
+    public static final String CODEC_NAME = "zstd";
+
+    public static final String CONF_LEVEL = "oozie.compression.zstd.level";
+
+    /**
+     * Comma separated list of dictionary files. The first one is used to compress, all of them can be used to
+     * decompress, so dictionaries that data has been compressed with must stay in the list.
+     */
+    public static final String CONF_DICTIONARIES = "oozie.compression.zstd.dictionaries";
+
+    public static final int DEFAULT_LEVEL = 3;
+
+    private Configuration conf;
+    private int level = DEFAULT_LEVEL;
+    private ZstdDictCompress compressionDictionary;
+    private final Map<Long, ZstdDictDecompress> decompressionDictionaries = new HashMap<Long, ZstdDictDecompress>();
+
+    @Override
+    public void setConf(Configuration conf) {
+        this.conf = conf;
+        level = conf.getInt(CONF_LEVEL, DEFAULT_LEVEL);
+        compressionDictionary = null;
+        decompressionDictionaries.clear();
+        String[] dictionaries = conf.getTrimmedStrings(CONF_DICTIONARIES);
+        for (int i = 0; i < dictionaries.length; i++) {
+            byte[] dictionary;
+            try {
+                dictionary = Files.readAllBytes(new File(dictionaries[i]).toPath());
+            }
+            catch (IOException ex) {
+                throw new IllegalArgumentException("Could not read zstd dictionary " + dictionaries[i], ex);
+            }
+            long id = Zstd.getDictIdFromDict(dictionary);
+            if (id == 0) {
+                throw new IllegalArgumentException(dictionaries[i] + " is not a zstd dictionary");
+            }
+            if (i == 0) {
+                compressionDictionary = new ZstdDictCompress(dictionary, level);
+            }
+            decompressionDictionaries.put(id, new ZstdDictDecompress(dictionary));
+        }
+    }
+
+    /**
+     * Train a dictionary on typical payloads, like action configurations and workflow definitions.
+     *
+     * @param samples the sample payloads, uncompressed
+     * @param dictionarySize maximum size of the dictionary in bytes
+     * @return the dictionary
+     * @throws IOException if the samples are not sufficient to train a dictionary
+     */
+    public static byte[] trainDictionary(Iterable<byte[]> samples, int dictionarySize) throws IOException {
+        long totalSize = 0;
+        for (byte[] sample : samples) {
+            totalSize += sample.length;
+        }
+        ZstdDictTrainer trainer = new ZstdDictTrainer((int) Math.min(totalSize, Integer.MAX_VALUE), dictionarySize);
+        for (byte[] sample : samples) {
+            trainer.addSample(sample);
+        }
+        try {
+            return trainer.trainSamples();
+        }
+        catch (ZstdException ex) {
+            throw new IOException("Could not train zstd dictionary: " + ex.getMessage(), ex);
+        }
+    }
+
+    @Override
+    public Configuration getConf() {
+        return conf;
+    }
+
+    public byte[] compressBytes(byte[] header, byte[] data) throws IOException {
+        byte[] compressed;
+        try {
+            compressed = compressionDictionary == null ? Zstd.compress(data, level)
+                    : Zstd.compress(data, compressionDictionary);
+        }
+        catch (ZstdException ex) {
+            throw new IOException("Could not compress data: " + ex.getMessage(), ex);
+        }
+        byte[] result = new byte[header.length + 4 + compressed.length];
+        System.arraycopy(header, 0, result, 0, header.length);
+        result[header.length] = (byte) (data.length >>> 24);
+        result[header.length + 1] = (byte) (data.length >>> 16);
+        result[header.length + 2] = (byte) (data.length >>> 8);
+        result[header.length + 3] = (byte) data.length;
+        System.arraycopy(compressed, 0, result, header.length + 4, compressed.length);
+        return result;
+    }
+
+    public byte[] compressString(byte[] header, String data) throws IOException {
+        return compressBytes(header, data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String decompressToString(DataInputStream dais) throws IOException {
+        return new String(decompressToBytes(dais), StandardCharsets.UTF_8);
+    }
+
+    public byte[] decompressToBytes(DataInputStream dais) throws IOException {
+        int length = dais.readInt();
+        byte[] compressed = IOUtils.toByteArray(dais);
+        try {
+            long dictionaryId = Zstd.getDictIdFromFrame(compressed);
+            if (dictionaryId == 0) {
+                return Zstd.decompress(compressed, length);
+            }
+            ZstdDictDecompress dictionary = decompressionDictionaries.get(dictionaryId);
+            if (dictionary == null) {
+                throw new IOException("Data was compressed with zstd dictionary " + dictionaryId
+                        + " which is not listed in " + CONF_DICTIONARIES);
+            }
+            return Zstd.decompress(compressed, dictionary, length);
+        }
+        catch (ZstdException ex) {
+            throw new IOException("Corrupt zstd data: " + ex.getMessage(), ex);
+        }
+    }
+}
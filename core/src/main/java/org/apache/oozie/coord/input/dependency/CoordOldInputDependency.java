@@ -203,10 +203,21 @@ public class CoordOldInputDependency implements CoordInputDependency {
         boolean allExists = true;
         String existSeparator = "", nonExistSeparator = "";
         String user = ParamChecker.notEmpty(conf.get(OozieClient.USER_NAME), OozieClient.USER_NAME);
+        Map<String, Boolean> existing = null;
+        log.debug("checking for the files " + Arrays.toString(uriList));
+        try {
+            existing = CoordCommandUtils.pathsExist(Arrays.asList(uriList), conf, user, true);
+        }
+        catch (URIHandlerException | URISyntaxException e) {
+            // check the paths one by one, to keep the ones available before the path which can't be checked, the
+            // error of the coord action is set by the check failing again
+            log.info("[" + coordAction.getId() + "]::ActionInputCheck:: Checking the paths one by one: " + e);
+        }
         for (int i = 0; i < uriList.length; i++) {
             if (allExists) {
                 try {
-                    allExists = pathExists(coordAction, uriList[i], conf, user);
+                    allExists = existing != null ? existing.get(uriList[i])
+                            : pathExists(coordAction, uriList[i], conf, user);
                 }
                 catch (IOException e){
                     for(int j = i; j < uriList.length; j++){
@@ -237,26 +248,34 @@ public class CoordOldInputDependency implements CoordInputDependency {
             return CoordCommandUtils.pathExists(sPath, actionConf, user);
         }
         catch (URIHandlerException e) {
-            if (coordAction != null) {
-                coordAction.setErrorCode(e.getErrorCode().toString());
-                coordAction.setErrorMessage(e.getMessage());
-            }
-            if (e.getCause() != null && e.getCause() instanceof AccessControlException) {
-                throw (AccessControlException) e.getCause();
-            }
-            else {
-                log.error(e);
-                throw new IOException(e);
-            }
+            throw toIOException(coordAction, e);
         }
         catch (URISyntaxException e) {
-            if (coordAction != null) {
-                coordAction.setErrorCode(ErrorCode.E0906.toString());
-                coordAction.setErrorMessage(e.getMessage());
-            }
+            throw toIOException(coordAction, e);
+        }
+    }
+
+    private IOException toIOException(CoordinatorActionBean coordAction, URIHandlerException e) {
+        if (coordAction != null) {
+            coordAction.setErrorCode(e.getErrorCode().toString());
+            coordAction.setErrorMessage(e.getMessage());
+        }
+        if (e.getCause() != null && e.getCause() instanceof AccessControlException) {
+            return (AccessControlException) e.getCause();
+        }
+        else {
             log.error(e);
-            throw new IOException(e);
+            return new IOException(e);
+        }
+    }
+
+    private IOException toIOException(CoordinatorActionBean coordAction, URISyntaxException e) {
+        if (coordAction != null) {
+            coordAction.setErrorCode(ErrorCode.E0906.toString());
+            coordAction.setErrorMessage(e.getMessage());
         }
+        log.error(e);
+        return new IOException(e);
     }
 
     public boolean isChangeInDependency(StringBuilder nonExistList, String missingDependencies,
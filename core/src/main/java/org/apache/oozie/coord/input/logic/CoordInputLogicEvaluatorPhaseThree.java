@@ -21,7 +21,9 @@ package org.apache.oozie.coord.input.logic;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.CoordinatorActionBean;
@@ -94,6 +96,15 @@ public class CoordInputLogicEvaluatorPhaseThree extends CoordInputLogicEvaluator
         return false;
     }
 
+    protected Map<String, Boolean> pathsExist(List<String> paths, Configuration actionConf,
+            boolean stopOnFirstMissing) {
+        Map<String, Boolean> existing = new HashMap<String, Boolean>();
+        for (String path : paths) {
+            existing.put(path, false);
+        }
+        return existing;
+    }
+
     public boolean isInputWaitElapsed(int timeInMin) {
         return true;
     }
@@ -18,20 +18,19 @@
 
 package org.apache.oozie.dependency;
 
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.command.CommandException;
+import org.apache.oozie.command.coord.CoordCommandUtils;
 import org.apache.oozie.coord.CoordELFunctions;
-import org.apache.oozie.service.Services;
-import org.apache.oozie.service.URIHandlerService;
 import org.apache.oozie.util.ParamChecker;
 import org.apache.oozie.util.XLog;
 
@@ -94,17 +93,15 @@ public class DependencyChecker {
         String user = ParamChecker.notEmpty(actionConf.get(OozieClient.USER_NAME), OozieClient.USER_NAME);
         List<String> missingDeps = new ArrayList<String>();
         List<String> availableDeps = new ArrayList<String>();
-        URIHandlerService uriService = Services.get().get(URIHandlerService.class);
         boolean continueChecking = true;
         try {
+            Map<String, Boolean> existing = CoordCommandUtils.pathsExist(missingDependencies, actionConf, user,
+                    stopOnFirstMissing);
             for (int index = 0; index < missingDependencies.size(); index++) {
                 if (continueChecking) {
                     String dependency = missingDependencies.get(index);
-
-                    URI uri = new URI(dependency);
-                    URIHandler uriHandler = uriService.getURIHandler(uri);
                     LOG.debug("Checking for the availability of dependency [{0}] ", dependency);
-                    if (uriHandler.exists(uri, actionConf, user)) {
+                    if (existing.get(dependency)) {
                         LOG.debug("Dependency [{0}] is available", dependency);
                         availableDeps.add(dependency);
                     }
@@ -18,24 +18,53 @@
 
 package org.apache.oozie.dependency;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.action.hadoop.FSLauncherURIHandler;
 import org.apache.oozie.action.hadoop.LauncherURIHandler;
+import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.HadoopAccessorException;
 import org.apache.oozie.service.HadoopAccessorService;
+import org.apache.oozie.service.Service;
 import org.apache.oozie.service.Services;
 
 public class FSURIHandler implements URIHandler {
 
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "URIHandlerService.fs.";
+
+    /**
+     * Seconds the paths found to exist are cached for, 0 to disable the cache.
+     */
+    public static final String CONF_EXISTS_CACHE_TTL = CONF_PREFIX + "exists.cache.ttl";
+
+    /**
+     * Maximum number of paths cached as existing.
+     */
+    public static final String CONF_EXISTS_CACHE_SIZE = CONF_PREFIX + "exists.cache.size";
+
+    /**
+     * Minimum number of paths checked in the same directory to list the directory instead of checking each path.
+     */
+    public static final String CONF_BULK_EXISTS_MIN_PATHS = CONF_PREFIX + "bulk.exists.min.paths";
+
     private HadoopAccessorService service;
+    private URIExistenceCache existenceCache;
+    private int bulkExistsMinPaths;
     private Set<String> supportedSchemes;
     private List<Class<?>> classesToShip;
 
@@ -44,6 +73,10 @@ public class FSURIHandler implements URIHandler {
         service = Services.get().get(HadoopAccessorService.class);
         supportedSchemes = service.getSupportedSchemes();
         classesToShip = new FSLauncherURIHandler().getClassesForLauncher();
+        long ttl = ConfigurationService.getLong(conf, CONF_EXISTS_CACHE_TTL);
+        existenceCache = ttl > 0 ? new URIExistenceCache(ttl, ConfigurationService.getLong(conf, CONF_EXISTS_CACHE_SIZE))
+                : null;
+        bulkExistsMinPaths = ConfigurationService.getInt(conf, CONF_BULK_EXISTS_MIN_PATHS);
     }
 
     @Override
@@ -85,33 +118,145 @@ public class FSURIHandler implements URIHandler {
 
     @Override
     public boolean exists(URI uri, Context context) throws URIHandlerException {
-        try {
-            FileSystem fs = ((FSContext) context).getFileSystem();
-            return fs.exists(getNormalizedPath(uri));
-        }
-        catch (IOException e) {
-            throw new HadoopAccessorException(ErrorCode.E0902, e);
+        final FileSystem fs = ((FSContext) context).getFileSystem();
+        final Path path = getNormalizedPath(uri);
+        return exists(context.getUser(), path, new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws URIHandlerException {
+                try {
+                    return fs.exists(path);
+                }
+                catch (IOException e) {
+                    throw new HadoopAccessorException(ErrorCode.E0902, e);
+                }
+            }
+        });
+    }
+
+    @Override
+    public boolean exists(final URI uri, final Configuration conf, final String user) throws URIHandlerException {
+        final Path path = getNormalizedPath(uri);
+        return exists(user, path, new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws URIHandlerException {
+                try {
+                    FileSystem fs = getFileSystem(uri, conf, user);
+                    return fs.exists(path);
+                }
+                catch (HadoopAccessorException e) {
+                    if (isMissingHarIndex(e)) {
+                        return false;
+                    }
+                    else {
+                        throw e;
+                    }
+                }
+                catch (IOException e) {
+                    throw new HadoopAccessorException(ErrorCode.E0902, e);
+                }
+            }
+        });
+    }
+
+    private boolean exists(String user, Path path, Callable<Boolean> probe) throws URIHandlerException {
+        if (existenceCache == null || user == null) {
+            try {
+                return probe.call();
+            }
+            catch (URIHandlerException | RuntimeException e) {
+                throw e;
+            }
+            catch (Exception e) {
+                throw new HadoopAccessorException(ErrorCode.E0902, e);
+            }
         }
+        return existenceCache.exists(user, path.toString(), probe);
     }
 
+    /**
+     * Check if a list of paths exist, in order. The paths are grouped by their parent directory; when the first path of
+     * a directory with at least {@link #CONF_BULK_EXISTS_MIN_PATHS} paths to check is reached, the directory is listed
+     * once for all of them, the other paths are checked one by one. The directories after the first missing path are not
+     * listed if <code>stopOnFirstMissing</code> is set.
+     */
     @Override
-    public boolean exists(URI uri, Configuration conf, String user) throws URIHandlerException {
+    public Map<URI, Boolean> exists(List<URI> uris, Configuration conf, String user, boolean stopOnFirstMissing)
+            throws URIHandlerException {
+        Map<URI, Boolean> listed = new HashMap<URI, Boolean>();
+        Map<Path, List<URI>> uncheckedByParent = new HashMap<Path, List<URI>>();
+        for (URI uri : uris) {
+            Path path = getNormalizedPath(uri);
+            if (isCached(path, user)) {
+                listed.put(uri, true);
+            }
+            else if (path.getParent() != null) {
+                List<URI> siblings = uncheckedByParent.get(path.getParent());
+                if (siblings == null) {
+                    siblings = new ArrayList<URI>();
+                    uncheckedByParent.put(path.getParent(), siblings);
+                }
+                siblings.add(uri);
+            }
+        }
+        Map<URI, Boolean> result = new LinkedHashMap<URI, Boolean>();
+        for (URI uri : uris) {
+            Boolean exists = listed.get(uri);
+            if (exists == null) {
+                Path parent = getNormalizedPath(uri).getParent();
+                List<URI> siblings = parent != null ? uncheckedByParent.get(parent) : null;
+                if (siblings != null && siblings.size() >= bulkExistsMinPaths) {
+                    Set<String> children = listChildren(uri, parent, conf, user);
+                    for (URI sibling : siblings) {
+                        Path path = getNormalizedPath(sibling);
+                        boolean found = children.contains(path.getName());
+                        if (found && existenceCache != null) {
+                            existenceCache.put(user, path.toString());
+                        }
+                        listed.put(sibling, found);
+                    }
+                    exists = listed.get(uri);
+                }
+                else {
+                    exists = exists(uri, conf, user);
+                }
+            }
+            result.put(uri, exists);
+            if (!exists && stopOnFirstMissing) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private boolean isCached(Path path, String user) {
+        return existenceCache != null && user != null && existenceCache.isCached(user, path.toString());
+    }
+
+    private Set<String> listChildren(URI uri, Path dir, Configuration conf, String user) throws URIHandlerException {
+        Set<String> children = new HashSet<String>();
         try {
             FileSystem fs = getFileSystem(uri, conf, user);
-            return fs.exists(getNormalizedPath(uri));
+            for (FileStatus status : fs.listStatus(dir)) {
+                children.add(status.getPath().getName());
+            }
+        }
+        catch (FileNotFoundException e) {
+            // the directory does not exist yet, neither do the paths in it
         }
         catch (HadoopAccessorException e) {
-            if (ErrorCode.E0902.equals(e.getErrorCode()) && e.getMessage() != null
-                    && e.getMessage().indexOf("Invalid path for the Har Filesystem. No index file") != -1) {
-                return false;
-            }
-            else {
+            if (!isMissingHarIndex(e)) {
                 throw e;
             }
         }
         catch (IOException e) {
             throw new HadoopAccessorException(ErrorCode.E0902, e);
         }
+        return children;
+    }
+
+    private boolean isMissingHarIndex(HadoopAccessorException e) {
+        return ErrorCode.E0902.equals(e.getErrorCode()) && e.getMessage() != null
+                && e.getMessage().indexOf("Invalid path for the Har Filesystem. No index file") != -1;
     }
 
     @Override
@@ -150,6 +295,7 @@ public class FSURIHandler implements URIHandler {
                     throw new URIHandlerException(ErrorCode.E0907, path.toString());
                 }
             }
+            invalidate(uri);
         }
         catch (IOException e) {
             throw new URIHandlerException(ErrorCode.E0907, path.toString());
@@ -166,11 +312,18 @@ public class FSURIHandler implements URIHandler {
                     throw new URIHandlerException(ErrorCode.E0907, path.toString());
                 }
             }
+            invalidate(uri);
         } catch (IOException e){
             throw new URIHandlerException(ErrorCode.E0907, path.toString());
         }
     }
 
+    private void invalidate(URI uri) {
+        if (existenceCache != null) {
+            existenceCache.invalidate(getNormalizedPath(uri).toString());
+        }
+    }
+
     private Path getNormalizedPath(URI uri) {
         // Normalizes uri path replacing // with / in the path which users specify by mistake
         return new Path(uri.getScheme(), uri.getAuthority(), uri.getPath());
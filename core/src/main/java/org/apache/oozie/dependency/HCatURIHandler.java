@@ -22,10 +22,13 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.PrivilegedExceptionAction;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -171,6 +174,112 @@ public class HCatURIHandler implements URIHandler {
         return exists(uri, client, true);
     }
 
+    /**
+     * Check if a list of partitions exist, in order. When the first partition of a table is reached, the partitions of
+     * the table are checked with a single listing of the partitions having the partition values they share; the
+     * partitions sharing no value with the others of their table are checked one by one. The tables after the first
+     * missing partition are not listed if <code>stopOnFirstMissing</code> is set.
+     */
+    @Override
+    public Map<URI, Boolean> exists(List<URI> uris, Configuration conf, String user, boolean stopOnFirstMissing)
+            throws URIHandlerException {
+        Map<String, List<URI>> byTable = new HashMap<String, List<URI>>();
+        for (URI uri : uris) {
+            String table = getTableKey(uri);
+            List<URI> partitions = byTable.get(table);
+            if (partitions == null) {
+                partitions = new ArrayList<URI>();
+                byTable.put(table, partitions);
+            }
+            partitions.add(uri);
+        }
+        Map<URI, Boolean> listed = new HashMap<URI, Boolean>();
+        Map<URI, Boolean> result = new LinkedHashMap<URI, Boolean>();
+        for (URI uri : uris) {
+            Boolean exists = listed.get(uri);
+            if (exists == null) {
+                List<URI> partitions = byTable.get(getTableKey(uri));
+                Map<String, String> sharedSpec = getSharedPartitionSpec(partitions);
+                if (partitions.size() < 2 || sharedSpec.isEmpty()) {
+                    exists = exists(uri, conf, user);
+                }
+                else {
+                    listed.putAll(listPartitions(partitions, sharedSpec, conf));
+                    exists = listed.get(uri);
+                }
+            }
+            result.put(uri, exists);
+            if (!exists && stopOnFirstMissing) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private Map<URI, Boolean> listPartitions(List<URI> partitions, Map<String, String> sharedSpec, Configuration conf)
+            throws URIHandlerException {
+        HCatURI hcatURI = toHCatURI(partitions.get(0));
+        HCatClient client = getHCatClient(partitions.get(0), conf);
+        List<Map<String, String>> existing = new ArrayList<Map<String, String>>();
+        try {
+            for (HCatPartition partition : client.getPartitions(hcatURI.getDb(), hcatURI.getTable(), sharedSpec)) {
+                existing.add(toLowerCaseKeys(partition.getPartitionKeyValMap()));
+            }
+        }
+        catch (ConnectionFailureException e) {
+            throw new HCatAccessorException(ErrorCode.E1501, e);
+        }
+        catch (HCatException e) {
+            throw new HCatAccessorException(ErrorCode.E0902, e);
+        }
+        finally {
+            closeQuietly(client, null, true);
+        }
+        Map<URI, Boolean> result = new HashMap<URI, Boolean>();
+        for (URI uri : partitions) {
+            Map<String, String> spec = toLowerCaseKeys(toHCatURI(uri).getPartitionMap());
+            boolean found = false;
+            for (Map<String, String> partition : existing) {
+                if (partition.entrySet().containsAll(spec.entrySet())) {
+                    found = true;
+                    break;
+                }
+            }
+            result.put(uri, found);
+        }
+        return result;
+    }
+
+    private String getTableKey(URI uri) throws HCatAccessorException {
+        HCatURI hcatURI = toHCatURI(uri);
+        return hcatURI.getServerEndPoint() + "/" + hcatURI.getDb() + "/" + hcatURI.getTable();
+    }
+
+    private Map<String, String> getSharedPartitionSpec(List<URI> uris) throws HCatAccessorException {
+        Map<String, String> shared = new HashMap<String, String>(toHCatURI(uris.get(0)).getPartitionMap());
+        for (URI uri : uris) {
+            shared.entrySet().retainAll(toHCatURI(uri).getPartitionMap().entrySet());
+        }
+        return shared;
+    }
+
+    private Map<String, String> toLowerCaseKeys(Map<String, String> spec) {
+        Map<String, String> lowerCaseSpec = new HashMap<String, String>();
+        for (Map.Entry<String, String> entry : spec.entrySet()) {
+            lowerCaseSpec.put(entry.getKey().toLowerCase(Locale.ENGLISH), entry.getValue());
+        }
+        return lowerCaseSpec;
+    }
+
+    private HCatURI toHCatURI(URI uri) throws HCatAccessorException {
+        try {
+            return new HCatURI(uri);
+        }
+        catch (URISyntaxException e) {
+            throw new HCatAccessorException(ErrorCode.E0902, e);
+        }
+    }
+
     @Override
     public void delete(URI uri, Context context) throws URIHandlerException {
         HCatClient client = ((HCatContext) context).getHCatClient();
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.dependency;
+
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.service.HadoopAccessorException;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.Pair;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Server-wide cache of the URIs found to exist, shared by all the actions waiting on the same data.
+ * <p>
+ * Only positive results are cached, for a limited time, as data which has been found is not expected to go away while
+ * actions wait for it. Missing URIs are checked again every time, but concurrent checks of the same URI are coalesced:
+ * the threads asking while a check is running wait for its result instead of checking again.
+ * <p>
+ * URIs are cached per user, as a user may not be allowed to see data another user can see.
+ */
+public class URIExistenceCache {
+
+    public static final String INSTRUMENTATION_GROUP = "uri_existence_cache";
+
+    private final Cache<Pair<String, String>, Boolean> existing;
+    private final ConcurrentMap<Pair<String, String>, FutureTask<Boolean>> probes =
+            new ConcurrentHashMap<Pair<String, String>, FutureTask<Boolean>>();
+
+    /**
+     * Create a cache of existing URIs.
+     *
+     * @param ttl seconds an existing URI is cached for
+     * @param size maximum number of cached URIs
+     */
+    public URIExistenceCache(long ttl, long size) {
+        existing = CacheBuilder.newBuilder().expireAfterWrite(ttl, TimeUnit.SECONDS).maximumSize(size).build();
+    }
+
+    /**
+     * Check if a URI exists, using the cached result or the result of a running check of the URI if there is one.
+     *
+     * @param user user checking the URI
+     * @param uri normalized URI, with its done flag
+     * @param probe check of the URI, run if the URI is not cached and not being checked
+     * @return true if the URI exists
+     * @throws URIHandlerException if the URI could not be checked
+     */
+    public boolean exists(String user, String uri, Callable<Boolean> probe) throws URIHandlerException {
+        if (isCached(user, uri)) {
+            return true;
+        }
+        Pair<String, String> key = Pair.of(user, uri);
+        FutureTask<Boolean> task = new FutureTask<Boolean>(probe);
+        FutureTask<Boolean> running = probes.putIfAbsent(key, task);
+        if (running == null) {
+            incr("misses");
+            try {
+                task.run();
+                if (Boolean.TRUE.equals(getResult(task))) {
+                    existing.put(key, Boolean.TRUE);
+                }
+            }
+            finally {
+                probes.remove(key, task);
+            }
+        }
+        else {
+            incr("coalesced");
+            task = running;
+        }
+        return getResult(task);
+    }
+
+    /**
+     * Check if a URI is cached as existing.
+     *
+     * @param user user checking the URI
+     * @param uri normalized URI, with its done flag
+     * @return true if the URI is cached
+     */
+    public boolean isCached(String user, String uri) {
+        if (existing.getIfPresent(Pair.of(user, uri)) != null) {
+            incr("hits");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Cache a URI found to exist by a check made outside of the cache, like a directory listing.
+     *
+     * @param user user who checked the URI
+     * @param uri normalized URI, with its done flag
+     */
+    public void put(String user, String uri) {
+        existing.put(Pair.of(user, uri), Boolean.TRUE);
+    }
+
+    /**
+     * Remove a URI and the URIs under it from the cache, when it is deleted.
+     *
+     * @param uri normalized URI
+     */
+    public void invalidate(String uri) {
+        Iterator<Pair<String, String>> it = existing.asMap().keySet().iterator();
+        while (it.hasNext()) {
+            String cached = it.next().getSecond();
+            if (cached.equals(uri) || cached.startsWith(uri.endsWith("/") ? uri : uri + "/")) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of cached URIs
+     */
+    public long size() {
+        return existing.size();
+    }
+
+    private boolean getResult(FutureTask<Boolean> task) throws URIHandlerException {
+        try {
+            return task.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HadoopAccessorException(ErrorCode.E0902, e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof URIHandlerException) {
+                throw (URIHandlerException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HadoopAccessorException(ErrorCode.E0902, cause);
+        }
+    }
+
+    private void incr(String counter) {
+        InstrumentationService service = Services.get() != null ? Services.get().get(InstrumentationService.class) : null;
+        Instrumentation instr = service != null ? service.get() : null;
+        if (instr != null) {
+            instr.incr(INSTRUMENTATION_GROUP, counter, 1);
+        }
+    }
+}
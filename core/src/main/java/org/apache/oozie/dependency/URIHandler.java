@@ -19,7 +19,9 @@
 package org.apache.oozie.dependency;
 
 import java.net.URI;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.hadoop.conf.Configuration;
@@ -139,6 +141,34 @@ public interface URIHandler {
      */
     boolean exists(URI uri, Configuration conf, String user) throws URIHandlerException;
 
+    /**
+     * Check if the dependencies identified by a list of URIs are available, in the order of the list. Handlers can
+     * check URIs in the same directory or table, like the instances of a dataset range, together; this implementation
+     * checks them one by one.
+     *
+     * @param uris URIs of the dependencies
+     * @param conf Configuration to access the URIs
+     * @param user name of the user the URIs should be accessed as
+     * @param stopOnFirstMissing whether to stop checking at the first missing URI
+     *
+     * @return the URIs checked in the order of the list, mapped to <code>true</code> if they exist. If
+     * <code>stopOnFirstMissing</code> is set, the URIs after the first missing one are not in the map
+     *
+     * @throws URIHandlerException when dependency uri is malformed or resource is inaccessible
+     */
+    default Map<URI, Boolean> exists(List<URI> uris, Configuration conf, String user, boolean stopOnFirstMissing)
+            throws URIHandlerException {
+        Map<URI, Boolean> result = new LinkedHashMap<URI, Boolean>();
+        for (URI uri : uris) {
+            boolean exists = exists(uri, conf, user);
+            result.put(uri, exists);
+            if (!exists && stopOnFirstMissing) {
+                break;
+            }
+        }
+        return result;
+    }
+
     /**
      * Delete a URI
      *
@@ -0,0 +1,545 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.event;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.client.event.Event;
+import org.apache.oozie.service.ConfigurationService;
+import org.apache.oozie.service.EventHandlerService;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XLog;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * An implementation of the EventQueue backed by an append-only journal on the local disk, so that the events survive
+ * a restart of the server and bursts of events are bounded by disk space instead of memory.
+ * <p>
+ * The journal is a sequence of segment files, each memory-mapped while it is written or read. A record is the length
+ * of the serialized event, a state byte and the event. Polling an event marks its record as consumed in place; a
+ * segment is deleted once all its records are consumed and it is not written anymore. On startup, the records not
+ * consumed yet are replayed. Events are not kept on the heap, and at most the segments at both ends of the journal
+ * are mapped at a time. Once the segments reach {@link #CONF_MAX_SIZE} bytes, new events are dropped.
+ * <p>
+ * The mapped pages are written back to the disk by the operating system, so the events are not lost when the server
+ * process dies, but the last ones may be lost if the host itself crashes.
+ */
+public class JournalEventQueue implements EventQueue, Closeable {
+
+    /**
+     * The directory of the journal.
+     */
+    public static final String CONF_DIR = EventHandlerService.CONF_PREFIX + "journal.dir";
+
+    /**
+     * The size, in bytes, of a journal segment.
+     */
+    public static final String CONF_SEGMENT_SIZE = EventHandlerService.CONF_PREFIX + "journal.segment.size";
+
+    /**
+     * The maximum size, in bytes, of the journal.
+     */
+    public static final String CONF_MAX_SIZE = EventHandlerService.CONF_PREFIX + "journal.max.size";
+
+    static final String SEGMENT_PREFIX = "events-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    protected static final String INSTRUMENTATION_GROUP = "event-journal";
+    protected static final String INSTR_APPENDED_COUNTER = "appended";
+    protected static final String INSTR_POLLED_COUNTER = "polled";
+    protected static final String INSTR_DROPPED_COUNTER = "dropped";
+    protected static final String INSTR_REPLAYED_COUNTER = "replayed";
+    protected static final String INSTR_ERRORS_COUNTER = "errors";
+
+    // record length and state
+    private static final int HEADER_SIZE = 5;
+    private static final byte PENDING = 1;
+    private static final byte CONSUMED = 2;
+
+    private static final XLog LOG = XLog.getLog(JournalEventQueue.class);
+
+    // oldest first, the last one is written
+    private final Deque<Segment> segments = new ArrayDeque<Segment>();
+    private File dir;
+    private int segmentSize;
+    private long maxSize;
+    private int batchSize;
+    private long nextSegmentId;
+    private long size;
+    private int pending;
+
+    @Override
+    public synchronized void init(Configuration conf) {
+        dir = new File(ConfigurationService.get(conf, CONF_DIR));
+        long configuredSegmentSize = ConfigurationService.getLong(conf, CONF_SEGMENT_SIZE);
+        if (configuredSegmentSize <= HEADER_SIZE || configuredSegmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(CONF_SEGMENT_SIZE + " must be between " + HEADER_SIZE + " and "
+                    + Integer.MAX_VALUE + ", is " + configuredSegmentSize);
+        }
+        segmentSize = (int) configuredSegmentSize;
+        maxSize = ConfigurationService.getLong(conf, CONF_MAX_SIZE);
+        batchSize = ConfigurationService.getInt(conf, EventHandlerService.CONF_BATCH_SIZE);
+        segments.clear();
+        size = 0;
+        pending = 0;
+        nextSegmentId = 0;
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IOException("Could not create directory " + dir);
+            }
+            replay();
+            addSegment(segmentSize);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not open the event journal in " + dir + ", " + ex.getMessage(), ex);
+        }
+        registerVariables();
+        LOG.info("Journal Event Queue initialized in [{0}] with [{1}] pending events, Segment size = [{2}],"
+                + " Max size = [{3}], Batch drain size = [{4}]", dir, pending, segmentSize, maxSize, batchSize);
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void add(Event e) {
+        byte[] record;
+        try {
+            record = serialize(e);
+        }
+        catch (IOException ex) {
+            incrCounter(INSTR_ERRORS_COUNTER);
+            LOG.warn("Unable to serialize event [{0}], not added, {1}", e, ex.getMessage(), ex);
+            return;
+        }
+        synchronized (this) {
+            if (segments.isEmpty()) {
+                LOG.warn("Event journal is closed. Element [{0}] not added", e);
+                return;
+            }
+            try {
+                Segment tail = segments.getLast();
+                if (tail.writePosition + HEADER_SIZE + record.length > tail.size) {
+                    int newSize = Math.max(segmentSize, HEADER_SIZE + record.length);
+                    if (size + newSize > maxSize) {
+                        incrCounter(INSTR_DROPPED_COUNTER);
+                        LOG.warn("Event journal size [{0}] reached max limit with [{1}] pending events. Element [{2}]"
+                                + " not added", size, pending, e);
+                        return;
+                    }
+                    tail.seal(tail != segments.getFirst());
+                    tail = addSegment(newSize);
+                }
+                ByteBuffer buffer = tail.map().duplicate();
+                int position = tail.writePosition;
+                buffer.position(position + HEADER_SIZE);
+                buffer.put(record);
+                // the length goes last, a record without it is ignored
+                buffer.put(position + 4, PENDING);
+                buffer.putInt(position, record.length);
+                tail.writePosition += HEADER_SIZE + record.length;
+                pending++;
+            }
+            catch (IOException ex) {
+                incrCounter(INSTR_ERRORS_COUNTER);
+                LOG.warn("Unable to write event [{0}] to the journal, not added, {1}", e, ex.getMessage(), ex);
+                return;
+            }
+        }
+        incrCounter(INSTR_APPENDED_COUNTER);
+    }
+
+    @Override
+    public List<Event> pollBatch() {
+        // batch drain
+        List<byte[]> records = new ArrayList<byte[]>();
+        synchronized (this) {
+            for (int i = 0; i < batchSize; i++) {
+                byte[] record = next(true);
+                if (record == null) {
+                    LOG.trace("Current queue size [{0}] less than polling batch size [{1}]", pending, batchSize);
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        List<Event> eventBatch = new ArrayList<Event>(records.size());
+        for (byte[] record : records) {
+            Event event = deserialize(record);
+            if (event != null) {
+                eventBatch.add(event);
+            }
+        }
+        incrCounter(INSTR_POLLED_COUNTER, records.size());
+        return eventBatch;
+    }
+
+    @Override
+    public Event poll() {
+        byte[] record;
+        synchronized (this) {
+            record = next(true);
+        }
+        if (record == null) {
+            return null;
+        }
+        incrCounter(INSTR_POLLED_COUNTER, 1);
+        return deserialize(record);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public synchronized int size() {
+        return pending;
+    }
+
+    @Override
+    public Event peek() {
+        byte[] record;
+        synchronized (this) {
+            record = next(false);
+        }
+        return record == null ? null : deserialize(record);
+    }
+
+    @Override
+    public synchronized void clear() {
+        for (Segment segment : segments) {
+            segment.delete();
+        }
+        segments.clear();
+        size = 0;
+        pending = 0;
+        try {
+            addSegment(segmentSize);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException("Could not open the event journal in " + dir + ", " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Write the journal to the disk and unmap it. The queue cannot be used anymore.
+     */
+    @Override
+    public synchronized void close() {
+        for (Segment segment : segments) {
+            segment.seal(true);
+        }
+        segments.clear();
+    }
+
+    /**
+     * Return the size of the journal.
+     *
+     * @return the size of the segments, in bytes
+     */
+    public synchronized long getJournalSize() {
+        return size;
+    }
+
+    @VisibleForTesting
+    synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Return the next pending record, skipping the consumed ones and deleting the segments read to the end.
+     */
+    private byte[] next(boolean consume) {
+        while (!segments.isEmpty()) {
+            Segment head = segments.getFirst();
+            ByteBuffer buffer;
+            try {
+                buffer = head.map();
+            }
+            catch (IOException ex) {
+                incrCounter(INSTR_ERRORS_COUNTER);
+                LOG.warn("Unable to read the event journal segment [{0}], {1}", head.file, ex.getMessage(), ex);
+                return null;
+            }
+            int position = head.readPosition;
+            int length = head.getRecordLength(buffer, position);
+            if (length < 0) {
+                if (head == segments.getLast()) {
+                    return null;
+                }
+                segments.removeFirst();
+                size -= head.size;
+                head.delete();
+                continue;
+            }
+            if (buffer.get(position + 4) != PENDING) {
+                head.readPosition += HEADER_SIZE + length;
+                continue;
+            }
+            byte[] record = new byte[length];
+            ByteBuffer read = buffer.duplicate();
+            read.position(position + HEADER_SIZE);
+            read.get(record);
+            if (consume) {
+                buffer.put(position + 4, CONSUMED);
+                head.readPosition += HEADER_SIZE + length;
+                pending--;
+            }
+            return record;
+        }
+        return null;
+    }
+
+    /**
+     * Scan the segments left by a previous run, deleting the consumed ones and queueing the pending records of the
+     * others.
+     */
+    private void replay() throws IOException {
+        File[] files = dir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File parent, String name) {
+                return getSegmentId(name) >= 0;
+            }
+        });
+        long[] ids = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            ids[i] = getSegmentId(files[i].getName());
+        }
+        Arrays.sort(ids);
+        int replayed = 0;
+        for (long id : ids) {
+            nextSegmentId = id + 1;
+            File file = new File(dir, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+            if (file.length() > Integer.MAX_VALUE) {
+                LOG.warn("Event journal segment [{0}] is too large, ignoring it", file);
+                continue;
+            }
+            Segment segment = new Segment(file, (int) file.length());
+            ByteBuffer buffer = segment.map();
+            int firstPending = -1;
+            int count = 0;
+            int position = 0;
+            for (int length = segment.getRecordLength(buffer, position); length >= 0;
+                    length = segment.getRecordLength(buffer, position)) {
+                if (buffer.get(position + 4) == PENDING) {
+                    firstPending = firstPending < 0 ? position : firstPending;
+                    count++;
+                }
+                position += HEADER_SIZE + length;
+            }
+            if (count == 0) {
+                segment.delete();
+            }
+            else {
+                segment.readPosition = firstPending;
+                segment.seal(!segments.isEmpty());
+                segments.add(segment);
+                size += segment.size;
+                replayed += count;
+            }
+        }
+        pending = replayed;
+        if (replayed > 0) {
+            incrCounter(INSTR_REPLAYED_COUNTER, replayed);
+            LOG.info("Replaying [{0}] events from the event journal", replayed);
+        }
+    }
+
+    private Segment addSegment(int newSize) throws IOException {
+        Segment segment = new Segment(new File(dir, SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX), newSize);
+        segment.map();
+        segments.add(segment);
+        size += newSize;
+        return segment;
+    }
+
+    private static long getSegmentId(String name) {
+        if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+            try {
+                return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+            }
+            catch (NumberFormatException ex) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] serialize(Event event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new EventQueueElement(event));
+        }
+        return bytes.toByteArray();
+    }
+
+    private Event deserialize(byte[] record) {
+        try (ObjectInputStream in = new EventInputStream(new ByteArrayInputStream(record))) {
+            return ((EventQueueElement) in.readObject()).event;
+        }
+        catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            incrCounter(INSTR_ERRORS_COUNTER);
+            LOG.warn("Unable to read event from the journal, skipping it, {0}", ex.getMessage(), ex);
+            return null;
+        }
+    }
+
+    private void registerVariables() {
+        InstrumentationService instrumentationService = Services.get() == null ? null
+                : Services.get().get(InstrumentationService.class);
+        if (instrumentationService != null) {
+            instrumentationService.get().addVariable(INSTRUMENTATION_GROUP, "pending",
+                    new Instrumentation.Variable<Integer>() {
+                        @Override
+                        public Integer getValue() {
+                            return size();
+                        }
+                    });
+            instrumentationService.get().addVariable(INSTRUMENTATION_GROUP, "size",
+                    new Instrumentation.Variable<Long>() {
+                        @Override
+                        public Long getValue() {
+                            return getJournalSize();
+                        }
+                    });
+        }
+    }
+
+    private void incrCounter(String name) {
+        incrCounter(name, 1);
+    }
+
+    private void incrCounter(String name, long count) {
+        InstrumentationService instrumentationService = Services.get() == null ? null
+                : Services.get().get(InstrumentationService.class);
+        if (instrumentationService != null && count > 0) {
+            instrumentationService.get().incr(INSTRUMENTATION_GROUP, name, count);
+        }
+    }
+
+    /**
+     * A journal segment file, mapped while it is written or read.
+     */
+    private static class Segment {
+        private final File file;
+        private final int size;
+        private MappedByteBuffer buffer;
+        private int readPosition;
+        private int writePosition;
+
+        private Segment(File file, int size) {
+            this.file = file;
+            this.size = size;
+        }
+
+        private MappedByteBuffer map() throws IOException {
+            if (buffer == null) {
+                try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                }
+            }
+            return buffer;
+        }
+
+        /**
+         * Return the length of the record at a position, or -1 if there is none.
+         */
+        private int getRecordLength(ByteBuffer mapped, int position) {
+            if (position + HEADER_SIZE > size) {
+                return -1;
+            }
+            int length = mapped.getInt(position);
+            if (length <= 0) {
+                return -1;
+            }
+            if (position + HEADER_SIZE + length > size) {
+                LOG.warn("Truncated record at [{0}] in event journal segment [{1}], ignoring the rest of it",
+                        position, file);
+                return -1;
+            }
+            return length;
+        }
+
+        /**
+         * Stop writing to the segment, flushing it to the disk and optionally unmapping it until it is read.
+         */
+        private void seal(boolean unmap) {
+            writePosition = size;
+            if (buffer != null) {
+                buffer.force();
+                if (unmap) {
+                    buffer = null;
+                }
+            }
+        }
+
+        private void delete() {
+            buffer = null;
+            if (file.exists() && !file.delete()) {
+                LOG.warn("Could not delete event journal segment [{0}]", file);
+            }
+        }
+    }
+
+    /**
+     * Resolves the classes of the events with the class loader of the queue rather than the caller's.
+     */
+    private static class EventInputStream extends ObjectInputStream {
+
+        private EventInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, JournalEventQueue.class.getClassLoader());
+            }
+            catch (ClassNotFoundException ex) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+}
@@ -130,6 +130,22 @@ public class BatchQueryExecutor {
             }
         }
         jpaService.executeBatchInsertUpdateDelete(insertList, queryList, deleteList, em);
+        if (updateList != null) {
+            for (UpdateEntry entry : updateList) {
+                JsonBean bean = entry.getBean();
+                if (bean instanceof CoordinatorJobBean) {
+                    CoordJobQueryExecutor.recordStatusChange((CoordJobQuery) entry.getQueryName(),
+                            (CoordinatorJobBean) bean);
+                }
+                else if (bean instanceof CoordinatorActionBean) {
+                    CoordActionQueryExecutor.recordStatusChange((CoordActionQuery) entry.getQueryName(),
+                            (CoordinatorActionBean) bean);
+                }
+                else if (bean instanceof BundleActionBean) {
+                    BundleActionQueryExecutor.recordStatusChange((BundleActionBean) bean);
+                }
+            }
+        }
     }
 
 }
@@ -29,6 +29,7 @@ import org.apache.oozie.BundleActionBean;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.service.StatusTransitService;
 
 /**
  * Query Executor that provides API to run query for Bundle Action
@@ -117,6 +118,7 @@ public class BundleActionQueryExecutor extends
         EntityManager em = jpaService.getEntityManager();
         Query query = getUpdateQuery(namedQuery, jobBean, em);
         int ret = jpaService.executeUpdate(namedQuery.name(), query, em);
+        recordStatusChange(jobBean);
         return ret;
     }
 
@@ -195,4 +197,12 @@ public class BundleActionQueryExecutor extends
         return bean;
     }
 
+    /**
+     * Record the bundle job of an updated action for the {@link StatusTransitService}.
+     *
+     * @param actionBean updated action
+     */
+    static void recordStatusChange(BundleActionBean actionBean) {
+        StatusTransitService.bundleChanged(actionBean.getBundleId());
+    }
 }
@@ -49,6 +49,8 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
     private Map<String, List<String>> filter;
     private int start = 1;
     private int len = 50;
+    private String cursor;
+    private boolean count = true;
 
     /**
      * The constructor for BundleJobInfoGetJPAExecutor
@@ -63,6 +65,32 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
         this.len = len;
     }
 
+    /**
+     * The constructor for BundleJobInfoGetJPAExecutor
+     *
+     * @param filter the filter string
+     * @param start start location for paging
+     * @param len total length to get
+     * @param count whether to count the bundle jobs matching the filter
+     */
+    public BundleJobInfoGetJPAExecutor(Map<String, List<String>> filter, int start, int len, boolean count) {
+        this(filter, start, len);
+        this.count = count;
+    }
+
+    /**
+     * The constructor for BundleJobInfoGetJPAExecutor getting a page of a list paged by keyset, see {@link JobsCursor}.
+     *
+     * @param filter the filter string
+     * @param cursor cursor returned with the previous page, null or empty for the first page
+     * @param len length of the page
+     * @param count whether to count the bundle jobs matching the filter
+     */
+    public BundleJobInfoGetJPAExecutor(Map<String, List<String>> filter, String cursor, int len, boolean count) {
+        this(filter, 1, len, count);
+        this.cursor = cursor == null ? "" : cursor;
+    }
+
     @Override
     public String getName() {
         return "BundleJobInfoGetJPAExecutor";
@@ -82,29 +110,45 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
         orderBy = StoreStatusFilter.getSortBy(filter, orderBy);
 
         int realLen = 0;
+        boolean keyset = cursor != null;
+        JobsCursor position = null;
+        if (keyset) {
+            JobsCursor.checkOrder(orderBy, DEFAULT_ORDER_BY);
+            position = JobsCursor.parse(cursor);
+        }
 
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0 && orderBy.equals(DEFAULT_ORDER_BY)) {
+        if (!keyset && orArray.size() == 0 && orderBy.equals(DEFAULT_ORDER_BY)) {
             q = em.createNamedQuery("GET_BUNDLE_JOBS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_BUNDLE_JOBS_COUNT");
+            qTotal = count ? em.createNamedQuery("GET_BUNDLE_JOBS_COUNT") : null;
         }
         else {
             sb = sb.toString().trim().length() == 0 ? sb.append(StoreStatusFilter.bundleSeletStr) : sb;
             String sbTotal = sb.toString();
-            sb.append(orderBy);
+            if (position != null) {
+                position.appendCondition(sb, StoreStatusFilter.bundleSeletStr);
+            }
+            sb.append(keyset ? JobsCursor.ORDER_BY : orderBy);
             q = em.createQuery(sb.toString());
-            q.setFirstResult(start - 1);
+            if (!keyset) {
+                q.setFirstResult(start - 1);
+            }
             q.setMaxResults(len);
-            qTotal = em.createQuery(sbTotal.replace(StoreStatusFilter.bundleSeletStr,
-                                                                          StoreStatusFilter.bundleCountStr));
+            qTotal = count ? em.createQuery(sbTotal.replace(StoreStatusFilter.bundleSeletStr,
+                                                                          StoreStatusFilter.bundleCountStr)) : null;
         }
 
         for (int i = 0; i < orArray.size(); i++) {
             q.setParameter(colArray.get(i), valArray.get(i));
-            qTotal.setParameter(colArray.get(i), valArray.get(i));
+            if (qTotal != null) {
+                qTotal.setParameter(colArray.get(i), valArray.get(i));
+            }
+        }
+        if (position != null) {
+            position.setParameters(q);
         }
 
         OpenJPAQuery kq = OpenJPAPersistence.cast(q);
@@ -122,8 +166,13 @@ public class BundleJobInfoGetJPAExecutor implements JPAExecutor<BundleJobInfo> {
             bundleBeansList.add(bean);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        realLen = qTotal != null ? ((Long) qTotal.getSingleResult()).intValue() : -1;
 
+        if (keyset) {
+            BundleJobBean last = bundleBeansList.size() < len ? null : bundleBeansList.get(bundleBeansList.size() - 1);
+            return new BundleJobInfo(bundleBeansList, len, realLen,
+                    last == null ? null : JobsCursor.format(last.getCreatedTime(), last.getId()));
+        }
         return new BundleJobInfo(bundleBeansList, start, len, realLen);
     }
 
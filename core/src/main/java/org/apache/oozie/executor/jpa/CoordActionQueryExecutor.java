@@ -32,6 +32,7 @@ import org.apache.oozie.StringBlob;
 import org.apache.oozie.client.CoordinatorAction;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.service.StatusTransitService;
 import org.apache.oozie.util.DateUtils;
 
 /**
@@ -228,6 +229,7 @@ public class CoordActionQueryExecutor extends
         EntityManager em = jpaService.getEntityManager();
         Query query = getUpdateQuery(namedQuery, jobBean, em);
         int ret = jpaService.executeUpdate(namedQuery.name(), query, em);
+        recordStatusChange(namedQuery, jobBean);
         return ret;
     }
 
@@ -380,4 +382,25 @@ public class CoordActionQueryExecutor extends
         }
         return ret;
     }
+
+    /**
+     * Record the coordinator job of an updated action for the {@link StatusTransitService}, if the update may change the
+     * status of the job.
+     *
+     * @param namedQuery update query
+     * @param actionBean updated action
+     */
+    static void recordStatusChange(CoordActionQuery namedQuery, CoordinatorActionBean actionBean) {
+        switch (namedQuery) {
+            case UPDATE_COORD_ACTION_DEPENDENCIES:
+            case UPDATE_COORD_ACTION_FOR_MODIFIED_DATE:
+                break;
+            default:
+                String jobId = actionBean.getJobId();
+                if (jobId == null && actionBean.getId() != null && actionBean.getId().contains("@")) {
+                    jobId = actionBean.getId().substring(0, actionBean.getId().indexOf('@'));
+                }
+                StatusTransitService.coordChanged(jobId);
+        }
+    }
 }
@@ -31,6 +31,7 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.StringBlob;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
+import org.apache.oozie.service.StatusTransitService;
 import org.apache.oozie.util.DateUtils;
 
 /**
@@ -254,6 +255,7 @@ public class CoordJobQueryExecutor extends QueryExecutor<CoordinatorJobBean, Coo
         EntityManager em = jpaService.getEntityManager();
         Query query = getUpdateQuery(namedQuery, jobBean, em);
         int ret = jpaService.executeUpdate(namedQuery.name(), query, em);
+        recordStatusChange(namedQuery, jobBean);
         return ret;
     }
 
@@ -449,4 +451,24 @@ public class CoordJobQueryExecutor extends QueryExecutor<CoordinatorJobBean, Coo
         CoordinatorJobBean bean = constructBean(namedQuery, ret, parameters);
         return bean;
     }
+
+    /**
+     * Record an updated coordinator job for the {@link StatusTransitService}, if the update may change the status the
+     * job gets from its actions.
+     *
+     * @param namedQuery update query
+     * @param jobBean updated job
+     */
+    static void recordStatusChange(CoordJobQuery namedQuery, CoordinatorJobBean jobBean) {
+        switch (namedQuery) {
+            case UPDATE_COORD_JOB_MATERIALIZE:
+            case UPDATE_COORD_JOB_CHANGE:
+            case UPDATE_COORD_JOB_STATUS_PENDING:
+            case UPDATE_COORD_JOB_STATUS_PENDING_TIME:
+                StatusTransitService.coordChanged(jobBean.getId());
+                break;
+            default:
+                break;
+        }
+    }
 }
@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.client.rest.RestConstants;
+
+/**
+ * Position in a jobs list paged by keyset instead of by offset.
+ * <p>
+ * The jobs are ordered by creation time and id, both descending, and a page starts after the last job of the previous
+ * page, so the database can seek to it with the index on the creation time instead of reading and skipping all the
+ * jobs before the offset. The cursor is the creation time in milliseconds and the id of the last job of the page,
+ * separated by a comma; clients should treat it as opaque.
+ */
+public class JobsCursor {
+
+    /**
+     * Order of the jobs of the jobs queries with alias <code>w</code> paged by keyset.
+     */
+    public static final String ORDER_BY = " order by w.createdTimestamp desc, w.id desc ";
+
+    private static final String CONDITION = "(w.createdTimestamp < :cursorTime"
+            + " or (w.createdTimestamp = :cursorTime and w.id < :cursorId))";
+
+    private final Timestamp createdTime;
+    private final String id;
+
+    private JobsCursor(Timestamp createdTime, String id) {
+        this.createdTime = createdTime;
+        this.id = id;
+    }
+
+    /**
+     * Parse a cursor.
+     *
+     * @param cursor the cursor, empty for the first page
+     * @return the position, or null for the first page
+     * @throws JPAExecutorException if the cursor is invalid
+     */
+    public static JobsCursor parse(String cursor) throws JPAExecutorException {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        int separator = cursor.indexOf(',');
+        if (separator < 1 || separator == cursor.length() - 1) {
+            throw new JPAExecutorException(ErrorCode.E0302, RestConstants.JOBS_CURSOR_PARAM + "=" + cursor);
+        }
+        try {
+            return new JobsCursor(new Timestamp(Long.parseLong(cursor.substring(0, separator))),
+                    cursor.substring(separator + 1));
+        }
+        catch (NumberFormatException ex) {
+            throw new JPAExecutorException(ErrorCode.E0302, RestConstants.JOBS_CURSOR_PARAM + "=" + cursor);
+        }
+    }
+
+    /**
+     * Return the cursor of the page following a job.
+     *
+     * @param createdTime creation time of the last job of the page
+     * @param id id of the last job of the page
+     * @return the cursor
+     */
+    public static String format(Date createdTime, String id) {
+        return createdTime.getTime() + "," + id;
+    }
+
+    /**
+     * Restrict a jobs query to the jobs after this position.
+     *
+     * @param sb the query, empty or with the select clause and conditions
+     * @param selectStr the select clause of the query
+     */
+    void appendCondition(StringBuilder sb, String selectStr) {
+        if (sb.toString().trim().length() == 0) {
+            sb.append(selectStr).append(" where ");
+        }
+        else {
+            sb.append(sb.indexOf(" where ") >= 0 ? " and " : " where ");
+        }
+        sb.append(CONDITION);
+    }
+
+    /**
+     * Set the parameters of the condition added by {@link #appendCondition}.
+     *
+     * @param q the query
+     */
+    void setParameters(Query q) {
+        q.setParameter("cursorTime", createdTime);
+        q.setParameter("cursorId", id);
+    }
+
+    /**
+     * Check that the jobs are not sorted by something else than their creation time, which the keyset is made of.
+     *
+     * @param orderBy the order of the query
+     * @param defaultOrderBy the default order of the query, by creation time
+     * @throws JPAExecutorException if the order is different
+     */
+    static void checkOrder(String orderBy, String defaultOrderBy) throws JPAExecutorException {
+        if (!orderBy.equals(defaultOrderBy)) {
+            throw new JPAExecutorException(ErrorCode.E0302, "sortby cannot be combined with "
+                    + RestConstants.JOBS_CURSOR_PARAM);
+        }
+    }
+}
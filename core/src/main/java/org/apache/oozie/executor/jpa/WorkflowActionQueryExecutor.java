@@ -342,6 +342,7 @@ public class WorkflowActionQueryExecutor extends
                 bean.setStatusStr((String) arr[2]);
                 bean.setType((String) arr[3]);
                 bean.setLogToken((String) arr[4]);
+                bean.setExternalId((String) arr[5]);
                 break;
             case GET_RUNNING_ACTIONS:
                 bean = new WorkflowActionBean();
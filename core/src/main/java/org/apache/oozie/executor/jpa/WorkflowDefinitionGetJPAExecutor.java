@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.executor.jpa;
+
+import java.util.List;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowDefinitionBean;
+
+/**
+ * Load a workflow definition or configuration by its content digest, return <code>null</code> if it does not exist.
+ */
+public class WorkflowDefinitionGetJPAExecutor implements JPAExecutor<WorkflowDefinitionBean> {
+
+    private final String id;
+
+    public WorkflowDefinitionGetJPAExecutor(String id) {
+        this.id = Objects.requireNonNull(id, "id cannot be null");
+    }
+
+    @Override
+    public String getName() {
+        return "WorkflowDefinitionGetJPAExecutor";
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public WorkflowDefinitionBean execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Query q = em.createNamedQuery("GET_WF_DEFINITION");
+            q.setParameter("id", id);
+            List<WorkflowDefinitionBean> beans = q.getResultList();
+            return beans.isEmpty() ? null : beans.get(0);
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.Objects;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.WorkflowDefinitionBean;
+
+/**
+ * Persist a workflow definition or configuration unless a row with the same content digest exists, in which case
+ * only its last used time is updated.
+ */
+public class WorkflowDefinitionStoreJPAExecutor implements JPAExecutor<Boolean> {
+
+    private final String id;
+    private final byte[] data;
+
+    public WorkflowDefinitionStoreJPAExecutor(String id, byte[] data) {
+        this.id = Objects.requireNonNull(id, "id cannot be null");
+        this.data = Objects.requireNonNull(data, "data cannot be null");
+    }
+
+    @Override
+    public String getName() {
+        return "WorkflowDefinitionStoreJPAExecutor";
+    }
+
+    /**
+     * @return <code>true</code> if a new row was inserted.
+     */
+    @Override
+    public Boolean execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Date now = new Date();
+            Query q = em.createNamedQuery("UPDATE_WF_DEFINITION_LAST_USED");
+            q.setParameter("id", id);
+            q.setParameter("lastUsedTime", new Timestamp(now.getTime()));
+            if (q.executeUpdate() > 0) {
+                return false;
+            }
+            em.persist(new WorkflowDefinitionBean(id, data, now));
+            return true;
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e.getMessage(), e);
+        }
+    }
+}
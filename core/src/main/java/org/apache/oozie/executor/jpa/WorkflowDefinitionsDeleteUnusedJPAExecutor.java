@@ -0,0 +1,64 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.executor.jpa;
+
+import java.sql.Timestamp;
+import java.util.Date;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.apache.oozie.ErrorCode;
+
+/**
+ * Delete the workflow definitions and configurations which can no longer be referenced by any workflow job.
+ * <p>
+ * A workflow job refreshes the last used time of its definition and configuration when it is created, so a row whose
+ * last used time is before the creation time of the oldest workflow job in the database is not referenced anymore.
+ * The grace period covers workflow jobs which are being created, and the interval the last used time is refreshed in.
+ */
+public class WorkflowDefinitionsDeleteUnusedJPAExecutor implements JPAExecutor<Integer> {
+
+    private final long gracePeriodMs;
+
+    public WorkflowDefinitionsDeleteUnusedJPAExecutor(long gracePeriodMs) {
+        this.gracePeriodMs = gracePeriodMs;
+    }
+
+    @Override
+    public String getName() {
+        return "WorkflowDefinitionsDeleteUnusedJPAExecutor";
+    }
+
+    @Override
+    public Integer execute(EntityManager em) throws JPAExecutorException {
+        try {
+            Query minCreated = em.createNamedQuery("GET_WORKFLOWS_MIN_CREATED_TIME");
+            Timestamp oldestWorkflow = (Timestamp) minCreated.getSingleResult();
+            long limit = (oldestWorkflow == null ? new Date().getTime() : oldestWorkflow.getTime()) - gracePeriodMs;
+
+            Query delete = em.createNamedQuery("DELETE_WF_DEFINITIONS_NOT_USED_SINCE");
+            delete.setParameter("lastUsedTime", new Timestamp(limit));
+            return delete.executeUpdate();
+        }
+        catch (Exception e) {
+            throw new JPAExecutorException(ErrorCode.E0603, e.getMessage(), e);
+        }
+    }
+}
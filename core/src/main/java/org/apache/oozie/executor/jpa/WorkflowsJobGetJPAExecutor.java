@@ -52,6 +52,8 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
     private final Map<String, List<String>> filter;
     private final int start;
     private final int len;
+    private final String cursor;
+    private final boolean count;
 
     /**
      * This JPA Executor gets the workflows info for the range.
@@ -61,9 +63,39 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
      * @param len length of range
      */
     public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, int start, int len) {
+        this(filter, start, len, true);
+    }
+
+    /**
+     * This JPA Executor gets the workflows info for the range.
+     *
+     * @param filter filter
+     * @param start start element of range
+     * @param len length of range
+     * @param count whether to count the workflows matching the filter
+     */
+    public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, int start, int len, boolean count) {
         this.filter = filter;
         this.start = start;
         this.len = len;
+        this.cursor = null;
+        this.count = count;
+    }
+
+    /**
+     * This JPA Executor gets the workflows info for a page of a list paged by keyset, see {@link JobsCursor}.
+     *
+     * @param filter filter
+     * @param cursor cursor returned with the previous page, null or empty for the first page
+     * @param len length of the page
+     * @param count whether to count the workflows matching the filter
+     */
+    public WorkflowsJobGetJPAExecutor(Map<String, List<String>> filter, String cursor, int len, boolean count) {
+        this.filter = filter;
+        this.start = 1;
+        this.len = len;
+        this.cursor = cursor == null ? "" : cursor;
+        this.count = count;
     }
 
     @SuppressWarnings("unchecked")
@@ -283,27 +315,43 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
 
         orderBy = StoreStatusFilter.getSortBy(filter, orderBy);
         int realLen = 0;
+        boolean keyset = cursor != null;
+        JobsCursor position = null;
+        if (keyset) {
+            JobsCursor.checkOrder(orderBy, DEFAULT_ORDER_BY);
+            position = JobsCursor.parse(cursor);
+        }
 
         Query q = null;
         Query qTotal = null;
-        if (orArray.size() == 0 && orderBy.equals(DEFAULT_ORDER_BY)) {
+        if (!keyset && orArray.size() == 0 && orderBy.equals(DEFAULT_ORDER_BY)) {
             q = em.createNamedQuery("GET_WORKFLOWS_COLUMNS");
             q.setFirstResult(start - 1);
             q.setMaxResults(len);
-            qTotal = em.createNamedQuery("GET_WORKFLOWS_COUNT");
+            qTotal = count ? em.createNamedQuery("GET_WORKFLOWS_COUNT") : null;
         }
         else {
             sb = sb.toString().trim().length() == 0 ? sb.append(seletStr) : sb;
             String sbTotal = sb.toString();
-            sb.append(orderBy);
+            if (position != null) {
+                position.appendCondition(sb, seletStr);
+            }
+            sb.append(keyset ? JobsCursor.ORDER_BY : orderBy);
             q = em.createQuery(sb.toString());
-            q.setFirstResult(start - 1);
+            if (!keyset) {
+                q.setFirstResult(start - 1);
+            }
             q.setMaxResults(len);
-            qTotal = em.createQuery(sbTotal.replace(seletStr, countStr));
+            qTotal = count ? em.createQuery(sbTotal.replace(seletStr, countStr)) : null;
 
             for (int i = 0; i < orArray.size(); i++) {
                 q.setParameter(colArray.get(i), valArray.get(i));
-                qTotal.setParameter(colArray.get(i), valArray.get(i));
+                if (qTotal != null) {
+                    qTotal.setParameter(colArray.get(i), valArray.get(i));
+                }
+            }
+            if (position != null) {
+                position.setParameters(q);
             }
         }
 
@@ -322,8 +370,13 @@ public class WorkflowsJobGetJPAExecutor implements JPAExecutor<WorkflowsInfo> {
             wfBeansList.add(ww);
         }
 
-        realLen = ((Long) qTotal.getSingleResult()).intValue();
+        realLen = qTotal != null ? ((Long) qTotal.getSingleResult()).intValue() : -1;
 
+        if (keyset) {
+            WorkflowJobBean last = wfBeansList.size() < len ? null : wfBeansList.get(wfBeansList.size() - 1);
+            return new WorkflowsInfo(wfBeansList, len, realLen,
+                    last == null ? null : JobsCursor.format(last.getCreatedTime(), last.getId()));
+        }
         return new WorkflowsInfo(wfBeansList, start, len, realLen);
     }
 
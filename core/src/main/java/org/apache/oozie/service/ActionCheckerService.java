@@ -37,7 +37,8 @@ import org.apache.oozie.util.XLog;
  * The Action Checker Service queue ActionCheckCommands to check the status of
  * running actions and CoordActionCheckCommands to check the status of
  * coordinator actions. The delay between checks on the same action can be
- * configured.
+ * configured. Before queuing the workflow action checks the launcher reports
+ * are fetched in bulk by the {@link YarnApplicationReportService}.
  */
 public class ActionCheckerService implements Service {
 
@@ -132,6 +133,13 @@ public class ActionCheckerService implements Service {
 
             msg.append(" WF_ACTIONS : ").append(actionIds.size());
 
+            if (!actionIds.isEmpty()) {
+                YarnApplicationReportService reportService = Services.get().get(YarnApplicationReportService.class);
+                if (reportService != null) {
+                    reportService.poll();
+                }
+            }
+
             for (String actionId : actionIds) {
                 Services.get().get(InstrumentationService.class).get().incr(INSTRUMENTATION_GROUP,
                         INSTR_CHECK_ACTIONS_COUNTER, 1);
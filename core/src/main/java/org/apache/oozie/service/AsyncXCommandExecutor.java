@@ -34,6 +34,7 @@ import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -41,6 +42,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.oozie.service.CallableQueueService.CallableWrapper;
 import org.apache.oozie.util.NamedThreadFactory;
+import org.apache.oozie.util.TimingWheelScheduler;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
 import org.eclipse.jetty.util.ConcurrentHashSet;
@@ -56,7 +58,8 @@ public class AsyncXCommandExecutor {
     public static final long ANTI_STARVATION_INTERVAL = 500;
     private static XLog log = XLog.getLog(AsyncXCommandExecutor.class);
     private final ThreadPoolExecutor executor;
-    private final ScheduledThreadPoolExecutor scheduledExecutor;
+    private final ScheduledThreadPoolExecutor scheduledExecutor;  // null if timingWheelScheduler is set
+    private final TimingWheelScheduler timingWheelScheduler;  // if set, used instead of scheduledExecutor
     private final boolean needConcurrencyCheck;
     private final CallableQueueService callableQueueService;
     private final AtomicInteger activeCommands;
@@ -74,19 +77,21 @@ public class AsyncXCommandExecutor {
     @SuppressFBWarnings( value = "SIC_INNER_SHOULD_BE_STATIC_ANON",
         justification = "Unnecessary to refactor innen classes defined here")
     public AsyncXCommandExecutor(int threads,
+            ThreadFactory threadFactory,
             int delayedCallableThreads,
             boolean needConcurrencyCheck,
             CallableQueueService callableAccess,
             long maxActiveCommands,
             long maxWait,
             int priorities,
-            int awaitTerminationTimeoutSeconds) {
+            int awaitTerminationTimeoutSeconds,
+            TimingWheelScheduler timingWheelScheduler) {
 
         priorityBlockingQueue = new PriorityBlockingQueue<CallableWrapper<?>>(100, new PriorityComparator());
 
         executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
                 (BlockingQueue) priorityBlockingQueue,
-                new NamedThreadFactory("CallableQueue")) {
+                threadFactory) {
             protected void beforeExecute(Thread t, Runnable r) {
                 XLog.Info.get().clear();
             }
@@ -96,19 +101,25 @@ public class AsyncXCommandExecutor {
             }
         };
 
-        this.scheduledExecutor = new ScheduledThreadPoolExecutor(delayedCallableThreads,
-                new NamedThreadFactory("ScheduledCallable")) {
-            protected <V> RunnableScheduledFuture<V> decorateTask(
-                    Runnable runnable, RunnableScheduledFuture<V> task) {
+        if (timingWheelScheduler == null) {
+            this.scheduledExecutor = new ScheduledThreadPoolExecutor(delayedCallableThreads,
+                    new NamedThreadFactory("ScheduledCallable")) {
+                protected <V> RunnableScheduledFuture<V> decorateTask(
+                        Runnable runnable, RunnableScheduledFuture<V> task) {
 
-                    AccessibleRunnableScheduledFuture<V> arsf =
-                            new AccessibleRunnableScheduledFuture<>(task, runnable);
+                        AccessibleRunnableScheduledFuture<V> arsf =
+                                new AccessibleRunnableScheduledFuture<>(task, runnable);
 
-                    return arsf;
-            }
-        };
+                        return arsf;
+                }
+            };
+            this.delayWorkQueue = (BlockingQueue) scheduledExecutor.getQueue();
+        } else {
+            this.scheduledExecutor = null;
+            this.delayWorkQueue = null;
+        }
 
-        this.delayWorkQueue = (BlockingQueue) scheduledExecutor.getQueue();
+        this.timingWheelScheduler = timingWheelScheduler;
         this.needConcurrencyCheck = needConcurrencyCheck;
         this.callableQueueService = callableAccess;
         this.maxActiveCommands = maxActiveCommands;
@@ -141,6 +152,7 @@ public class AsyncXCommandExecutor {
         this.pendingCommandsPerType = pendingCommandsPerType;
         this.executor = executor;
         this.scheduledExecutor = scheduledExecutor;
+        this.timingWheelScheduler = null;
         this.needConcurrencyCheck = needConcurrencyCheck;
         this.callableQueueService = callableAccess;
         this.maxActiveCommands = maxActiveCommands;
@@ -150,15 +162,14 @@ public class AsyncXCommandExecutor {
         this.awaitTerminationTimeoutSeconds = awaitTerminationTimeoutSeconds;
     }
 
-    public synchronized boolean queue(CallableWrapper<?> wrapper, boolean ignoreQueueSize) {
+    public boolean queue(CallableWrapper<?> wrapper, boolean ignoreQueueSize) {
+        // not synchronized: concurrent callers may overshoot maxActiveCommands by at most the number of queuing threads
         if (!ignoreQueueSize && activeCommands.get() >= maxActiveCommands) {
             log.warn("queue full, ignoring queuing for [{0}]", wrapper.getElement().getKey());
             return false;
         }
 
         if (wrapper.filterDuplicates()) {
-            wrapper.addToUniqueCallables();
-
             int priority = wrapper.getPriority();
             long initialDelay = wrapper.getInitialDelay();
 
@@ -172,8 +183,12 @@ public class AsyncXCommandExecutor {
                 } else {
                     ScheduledXCallable scheduledXCallable = new ScheduledXCallable(wrapper);
                     long schedDelay = wrapper.getDelay(TimeUnit.MILLISECONDS);
-                    scheduledExecutor.schedule(scheduledXCallable,
-                            schedDelay, TimeUnit.MILLISECONDS);
+                    if (timingWheelScheduler != null) {
+                        timingWheelScheduler.schedule(scheduledXCallable, schedDelay, TimeUnit.MILLISECONDS);
+                    } else {
+                        scheduledExecutor.schedule(scheduledXCallable,
+                                schedDelay, TimeUnit.MILLISECONDS);
+                    }
                 }
 
                 activeCommands.incrementAndGet();
@@ -188,6 +203,7 @@ public class AsyncXCommandExecutor {
 
     public void handleConcurrencyExceeded(CallableWrapper<?> command) {
         String type = command.getElement().getType();
+        command.admissionDenied();
 
         Set<CallableWrapper<?>> commandsForType = pendingCommandsPerType.get(type);
         if (commandsForType == null) {
@@ -267,17 +283,30 @@ public class AsyncXCommandExecutor {
     public void shutdown() {
         try {
             shutdownExecutor(executor, "executor");
-            shutdownExecutor(scheduledExecutor, "scheduled executor");
+            if (timingWheelScheduler != null) {
+                timingWheelScheduler.shutdown();
+                if (!timingWheelScheduler.awaitTermination(this.awaitTerminationTimeoutSeconds, TimeUnit.SECONDS)) {
+                    log.warn("Gave up, continuing without waiting for timing wheel scheduler to shutdown");
+                }
+            } else {
+                shutdownExecutor(scheduledExecutor, "scheduled executor");
+            }
         } catch (InterruptedException e) {
             log.warn("Interrupted while waiting for executor shutdown");
         }
     }
 
     public boolean isShutDown() {
+        if (timingWheelScheduler != null) {
+            return executor.isShutdown() || timingWheelScheduler.isShutdown();
+        }
         return executor.isShutdown() || scheduledExecutor.isShutdown();
     }
 
     public boolean isTerminated() {
+        if (timingWheelScheduler != null) {
+            return executor.isTerminated() || timingWheelScheduler.isTerminated();
+        }
         return executor.isTerminated() || scheduledExecutor.isTerminated();
     }
 
@@ -296,10 +325,16 @@ public class AsyncXCommandExecutor {
             queueDump.add(wrapper.toString());
         }
 
-        // Safe to iterate
-        for (final AccessibleRunnableScheduledFuture<ScheduledXCallable> future : delayWorkQueue) {
-            ScheduledXCallable delayedXCallable = (ScheduledXCallable) future.getTask();
-            queueDump.add(delayedXCallable.getCallableWrapper().toString());
+        if (timingWheelScheduler != null) {
+            for (final Runnable task : timingWheelScheduler.getScheduled()) {
+                queueDump.add(((ScheduledXCallable) task).getCallableWrapper().toString());
+            }
+        } else {
+            // Safe to iterate
+            for (final AccessibleRunnableScheduledFuture<ScheduledXCallable> future : delayWorkQueue) {
+                ScheduledXCallable delayedXCallable = (ScheduledXCallable) future.getTask();
+                queueDump.add(delayedXCallable.getCallableWrapper().toString());
+            }
         }
 
         for (final CallableWrapper<?> wrapper : copyOfPending) {
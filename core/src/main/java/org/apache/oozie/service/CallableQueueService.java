@@ -21,11 +21,9 @@ package org.apache.oozie.service;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
@@ -33,6 +31,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -46,6 +45,8 @@ import org.apache.oozie.util.PollablePriorityDelayQueue;
 import org.apache.oozie.util.PriorityDelayQueue;
 import org.apache.oozie.util.PriorityDelayQueue.QueueElement;
 import org.apache.oozie.util.StringUtils;
+import org.apache.oozie.util.TimingWheelScheduler;
+import org.apache.oozie.util.VirtualThreadFactory;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
 
@@ -71,11 +72,16 @@ import com.google.common.collect.ImmutableSet;
  * of threads is reached, commands remain the queue until threads become available. Sets up a priority queue for the
  * execution of Commands via a ThreadPool. Sets up a Delayed Queue to handle actions which will be ready for execution
  * sometime in the future.
+ * <p>
+ * {@link #CONF_VIRTUAL_THREADS} if true and the JDK supports it, the thread-pool consists of
+ * {@link #CONF_VIRTUAL_THREADS_MAX} virtual threads instead, so that callables blocked on the database, HDFS or YARN do
+ * not hold on to a platform thread. Priorities and concurrency limits are applied the same way.
  */
 @SuppressWarnings("deprecation")
 public class CallableQueueService implements Service, Instrumentable {
     private static final String INSTRUMENTATION_GROUP = "callablequeue";
     private static final String INSTR_IN_QUEUE_TIME_TIMER = "time.in.queue";
+    private static final String INSTR_ADMISSION_WAIT_TIME_TIMER = "time.waiting.admission";
     private static final String INSTR_EXECUTED_COUNTER = "executed";
     private static final String INSTR_FAILED_COUNTER = "failed";
     private static final String INSTR_QUEUED_COUNTER = "queued";
@@ -89,7 +95,12 @@ public class CallableQueueService implements Service, Instrumentable {
     public static final String CONF_NEWIMPL = CONF_PREFIX + "queue.newImpl";
     public static final String CONF_QUEUE_AWAIT_TERMINATION_TIMEOUT_SECONDS =
             CONF_PREFIX + "queue.awaitTermination.timeout.seconds";
+    public static final String CONF_VIRTUAL_THREADS = CONF_PREFIX + "virtualThreads";
+    public static final String CONF_VIRTUAL_THREADS_MAX = CONF_PREFIX + "virtualThreads.max";
     public static final String CONF_DELAYED_CALLABLE_THREADS = CONF_PREFIX + "delayedcallable.threads";
+    public static final String CONF_DELAYED_CALLABLE_TIMING_WHEEL = CONF_PREFIX + "delayedcallable.timingwheel.enabled";
+    public static final String CONF_DELAYED_CALLABLE_TIMING_WHEEL_TICK_MS = CONF_PREFIX + "delayedcallable.timingwheel.tick.ms";
+    public static final String CONF_DELAYED_CALLABLE_TIMING_WHEEL_SIZE = CONF_PREFIX + "delayedcallable.timingwheel.size";
     public static final String CONF_CALLABLE_CONCURRENCY = CONF_PREFIX + "callable.concurrency";
     public static final String CONF_CALLABLE_NEXT_ELIGIBLE = CONF_PREFIX + "callable.next.eligible";
     public static final String CONF_CALLABLE_INTERRUPT_TYPES = CONF_PREFIX + "InterruptTypes";
@@ -100,9 +111,11 @@ public class CallableQueueService implements Service, Instrumentable {
     public static final int MAX_CALLABLE_WAITTIME_MS = 30_000;
     public static final int PRIORITIES = 3;
 
-    private final Map<String, AtomicInteger> activeCallables = new HashMap<String, AtomicInteger>();
+    // per type counters of running callables, updated without a global monitor so that worker threads only contend
+    // with threads running callables of the same type
+    private final ConcurrentHashMap<String, AtomicInteger> activeCallables = new ConcurrentHashMap<>();
 
-    private final Map<String, Date> uniqueCallables = new ConcurrentHashMap<String, Date>();
+    private final ConcurrentHashMap<String, Date> uniqueCallables = new ConcurrentHashMap<String, Date>();
 
     private final ConcurrentHashMap<String, Set<XCallable<?>>> interruptCommandsMap = new ConcurrentHashMap<>();
 
@@ -114,31 +127,28 @@ public class CallableQueueService implements Service, Instrumentable {
 
     private int queueAwaitTerminationTimeoutSeconds;
 
-    private boolean callableBegin(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                counter = new AtomicInteger(1);
-                activeCallables.put(callable.getType(), counter);
-                return true;
-            }
-            else {
-                int i = counter.incrementAndGet();
-                return i <= maxCallableConcurrency;
+    private AtomicInteger getActiveCounter(String type) {
+        AtomicInteger counter = activeCallables.get(type);
+        if (counter == null) {
+            counter = new AtomicInteger(0);
+            AtomicInteger existing = activeCallables.putIfAbsent(type, counter);
+            if (existing != null) {
+                counter = existing;
             }
         }
+        return counter;
+    }
+
+    private boolean callableBegin(XCallable<?> callable) {
+        return getActiveCounter(callable.getType()).incrementAndGet() <= maxCallableConcurrency;
     }
 
     private void callableEnd(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                throw new IllegalStateException("Counter value should not be null");
-            }
-            else {
-                counter.decrementAndGet();
-            }
+        AtomicInteger counter = activeCallables.get(callable.getType());
+        if (counter == null) {
+            throw new IllegalStateException("Counter value should not be null");
         }
+        counter.decrementAndGet();
 
         if (newImpl) {
             asyncXCommandExecutor.commandFinished();
@@ -147,31 +157,13 @@ public class CallableQueueService implements Service, Instrumentable {
     }
 
     private boolean callableReachMaxConcurrency(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                return true;
-            }
-            else {
-                int i = counter.get();
-                return i < maxCallableConcurrency;
-            }
-        }
+        AtomicInteger counter = activeCallables.get(callable.getType());
+        return counter == null || counter.get() < maxCallableConcurrency;
     }
 
     public boolean canSubmitCallable(XCallable<?> callable) {
-        synchronized (activeCallables) {
-            AtomicInteger counter = activeCallables.get(callable.getType());
-            if (counter == null) {
-                counter = new AtomicInteger(1);
-                activeCallables.put(callable.getType(), counter);
-                return true;
-            }
-            else {
-                int i = counter.get();
-                return i <= maxCallableConcurrency;
-            }
-        }
+        AtomicInteger counter = activeCallables.get(callable.getType());
+        return counter == null || counter.get() < maxCallableConcurrency;
     }
 
     // Callables are wrapped with the this wrapper for execution, for logging
@@ -180,6 +172,7 @@ public class CallableQueueService implements Service, Instrumentable {
     // executor and a priority queue.
     public class CallableWrapper<E> extends PriorityDelayQueue.QueueElement<E> implements Runnable, Callable<E> {
         private Instrumentation.Cron cron;
+        private volatile Instrumentation.Cron admissionCron;
 
         public CallableWrapper(XCallable<E> callable, long delay) {
             super(callable, callable.getPriority(), delay, TimeUnit.MILLISECONDS);
@@ -202,6 +195,10 @@ public class CallableQueueService implements Service, Instrumentable {
                 if (callableBegin(callable)) {
                     cron.stop();
                     addInQueueCron(cron);
+                    if (admissionCron != null) {
+                        admissionCron.stop();
+                        addAdmissionWaitCron(admissionCron);
+                    }
                     XLog log = XLog.getLog(getClass());
                     log.trace("executing callable [{0}]", callable.getName());
 
@@ -221,7 +218,7 @@ public class CallableQueueService implements Service, Instrumentable {
                             .getType(), CONCURRENCY_DELAY);
                     setDelay(CONCURRENCY_DELAY, TimeUnit.MILLISECONDS);
                     queue(this, true);
-                    incrCounter(callable.getType() + "#exceeded.concurrency", 1);
+                    admissionDenied();
                 }
             }
             catch (Throwable t) {
@@ -236,12 +233,30 @@ public class CallableQueueService implements Service, Instrumentable {
             }
         }
 
+        /**
+         * Record that the callable could not be started because its type reached the maximum concurrency.
+         * <p>
+         * The time from the first refusal until the callable is started is reported as the admission wait time.
+         */
+        public void admissionDenied() {
+            if (admissionCron == null) {
+                Instrumentation.Cron waitCron = new Instrumentation.Cron();
+                waitCron.start();
+                admissionCron = waitCron;
+            }
+            incrCounter(getElement().getType() + "#exceeded.concurrency", 1);
+        }
+
         /**
          * Filter the duplicate callables from the list before queue this.
          * <p>
-         * If it is single callable, checking if key is in unique map or not.
+         * If it is single callable, the key is added to the unique map if it is not there yet.
          * <p>
-         * If it is composite callable, remove duplicates callables from the composite.
+         * If it is composite callable, remove duplicates callables from the composite and add the keys of the
+         * remaining ones to the unique map.
+         * <p>
+         * The check and the registration of the keys are done atomically, so concurrent queuing of the same callable
+         * does not need to be synchronized by the caller.
          *
          * @return true if this callable should be queued
          */
@@ -251,20 +266,7 @@ public class CallableQueueService implements Service, Instrumentable {
                 return ((CompositeCallable) callable).removeDuplicates();
             }
             else {
-                return uniqueCallables.containsKey(callable.getKey()) == false;
-            }
-        }
-
-        /**
-         * Add the keys to the set
-         */
-        public void addToUniqueCallables() {
-            XCallable<?> callable = getElement();
-            if (callable instanceof CompositeCallable) {
-                ((CompositeCallable) callable).addToUniqueCallables();
-            }
-            else {
-                ((ConcurrentHashMap<String, Date>) uniqueCallables).putIfAbsent(callable.getKey(), new Date());
+                return uniqueCallables.putIfAbsent(callable.getKey(), new Date()) == null;
             }
         }
 
@@ -397,20 +399,20 @@ public class CallableQueueService implements Service, Instrumentable {
         }
 
         /**
-         * Remove the duplicate callables from the list before queue them
+         * Remove the duplicate callables from the list before queue them, the keys of the remaining callables are
+         * added to the unique map.
          *
          * @return true if callables should be queued
          */
         public boolean removeDuplicates() {
-            Set<String> set = new HashSet<String>();
             List<XCallable<?>> filteredCallables = new ArrayList<XCallable<?>>();
             if (callables.size() == 0) {
                 return false;
             }
+            Date now = new Date();
             for (XCallable<?> callable : callables) {
-                if (!uniqueCallables.containsKey(callable.getKey()) && !set.contains(callable.getKey())) {
+                if (uniqueCallables.putIfAbsent(callable.getKey(), now) == null) {
                     filteredCallables.add(callable);
-                    set.add(callable.getKey());
                 }
             }
             callables = filteredCallables;
@@ -420,15 +422,6 @@ public class CallableQueueService implements Service, Instrumentable {
             return true;
         }
 
-        /**
-         * Add the keys to the set
-         */
-        public void addToUniqueCallables() {
-            for (XCallable<?> callable : callables) {
-                ((ConcurrentHashMap<String, Date>) uniqueCallables).putIfAbsent(callable.getKey(), new Date());
-            }
-        }
-
         /**
          * Remove the keys from the set
          */
@@ -466,6 +459,12 @@ public class CallableQueueService implements Service, Instrumentable {
         }
     }
 
+    private void addAdmissionWaitCron(Instrumentation.Cron cron) {
+        if (instrumentation != null) {
+            instrumentation.addCron(INSTRUMENTATION_GROUP, INSTR_ADMISSION_WAIT_TIME_TIMER, cron);
+        }
+    }
+
     /**
      * Initialize the command queue service.
      *
@@ -478,6 +477,18 @@ public class CallableQueueService implements Service, Instrumentable {
 
         queueSize = ConfigurationService.getInt(conf, CONF_QUEUE_SIZE);
         int threads = ConfigurationService.getInt(conf, CONF_THREADS);
+        ThreadFactory threadFactory = new NamedThreadFactory("CallableQueue");
+        if (ConfigurationService.getBoolean(conf, CONF_VIRTUAL_THREADS)) {
+            if (VirtualThreadFactory.isSupported()) {
+                threads = ConfigurationService.getInt(conf, CONF_VIRTUAL_THREADS_MAX);
+                threadFactory = VirtualThreadFactory.create("CallableQueue");
+                log.info("Executing callables on [{0}] virtual threads", threads);
+            }
+            else {
+                log.warn("Virtual threads are not supported by Java [{0}], using [{1}] platform threads",
+                        System.getProperty("java.version"), threads);
+            }
+        }
         boolean callableNextEligible = ConfigurationService.getBoolean(conf, CONF_CALLABLE_NEXT_ELIGIBLE);
 
         interruptTypes = new HashSet<>();
@@ -535,20 +546,29 @@ public class CallableQueueService implements Service, Instrumentable {
 
         if (newImpl) {
             int delayedCallableThreads = ConfigurationService.getInt(CONF_DELAYED_CALLABLE_THREADS, 1);
+            TimingWheelScheduler timingWheelScheduler = null;
+            if (ConfigurationService.getBoolean(conf, CONF_DELAYED_CALLABLE_TIMING_WHEEL)) {
+                int tickMs = ConfigurationService.getInt(conf, CONF_DELAYED_CALLABLE_TIMING_WHEEL_TICK_MS);
+                int wheelSize = ConfigurationService.getInt(conf, CONF_DELAYED_CALLABLE_TIMING_WHEEL_SIZE);
+                log.info("Using timing wheel for delayed callables, tick [{0}] ms, size [{1}]", tickMs, wheelSize);
+                timingWheelScheduler = new TimingWheelScheduler(tickMs, wheelSize, "ScheduledCallable");
+            }
 
             asyncXCommandExecutor = new AsyncXCommandExecutor(threads,
+                    threadFactory,
                     delayedCallableThreads,
                     callableNextEligible,
                     this,
                     queueSize,
                     MAX_CALLABLE_WAITTIME_MS,
                     PRIORITIES,
-                    queueAwaitTerminationTimeoutSeconds);
+                    queueAwaitTerminationTimeoutSeconds,
+                    timingWheelScheduler);
 
             executor = asyncXCommandExecutor.getExecutorService();
         } else {
             executor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, (BlockingQueue) queue,
-                    new NamedThreadFactory("CallableQueue")) {
+                    threadFactory) {
                 protected void beforeExecute(Thread t, Runnable r) {
                     super.beforeExecute(t,r);
                     XLog.Info.get().clear();
@@ -627,11 +647,11 @@ public class CallableQueueService implements Service, Instrumentable {
     /**
      * @return int size of queue
      */
-    public synchronized int queueSize() {
+    public int queueSize() {
         return newImpl ? asyncXCommandExecutor.getSize() : queue.size();
     }
 
-    private synchronized boolean queue(CallableWrapper<?> wrapper, boolean ignoreQueueSize) {
+    private boolean queue(CallableWrapper<?> wrapper, boolean ignoreQueueSize) {
         if (newImpl) {
             if (asyncXCommandExecutor.isShutDown() || asyncXCommandExecutor.isTerminated()) {
                 log.warn("Async executor shutting down, ignoring queueing of [{0}]", wrapper.getElement().getKey());
@@ -646,7 +666,6 @@ public class CallableQueueService implements Service, Instrumentable {
             }
             if (!executor.isShutdown()) {
                 if (wrapper.filterDuplicates()) {
-                    wrapper.addToUniqueCallables();
                     try {
                         executor.execute(wrapper);
                     }
@@ -698,7 +717,7 @@ public class CallableQueueService implements Service, Instrumentable {
      * @return <code>true</code> if the callable was queued, <code>false</code>
      *         if the queue is full and the callable was not queued.
      */
-    public synchronized boolean queue(XCallable<?> callable, long delay) {
+    public boolean queue(XCallable<?> callable, long delay) {
         if (callable == null) {
             return true;
         }
@@ -731,7 +750,7 @@ public class CallableQueueService implements Service, Instrumentable {
      * @return <code>true</code> if the callables were queued, <code>false</code> if the queue is full and the callables
      *         were not queued.
      */
-    public synchronized boolean queueSerial(List<? extends XCallable<?>> callables, long delay) {
+    public boolean queueSerial(List<? extends XCallable<?>> callables, long delay) {
         boolean queued;
         if (callables == null || callables.size() == 0) {
             queued = true;
@@ -19,12 +19,23 @@
 package org.apache.oozie.service;
 
 import org.apache.oozie.util.ParamChecker;
+import org.apache.commons.codec.binary.Hex;
 import org.apache.hadoop.conf.Configuration;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
 import java.text.MessageFormat;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
 /**
  * Service that generates and parses callback URLs.
@@ -37,8 +48,19 @@ public class CallbackService implements Service {
 
     public static final String CONF_EARLY_REQUEUE_MAX_RETRIES = CONF_PREFIX + "early.requeue.max.retries";
 
+    public static final String CONF_ACTION_DATA_MAX_SIZE = CONF_PREFIX + "action.data.max.size";
+
+    public static final String CONF_ACTION_DATA_SECRET = CONF_PREFIX + "action.data.secret";
+
+    public static final String CONF_ACTION_DATA_CACHE_SIZE = CONF_PREFIX + "action.data.cache.size";
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
     private Configuration oozieConf;
     private int earlyRequeueMaxRetries;
+    private int actionDataMaxSize;
+    private byte[] actionDataSecret;
+    private Cache<String, Map<String, String>> actionData;
 
     /**
      * Initialize the service.
@@ -48,12 +70,27 @@ public class CallbackService implements Service {
     public void init(Services services) {
         oozieConf = services.getConf();
         earlyRequeueMaxRetries = ConfigurationService.getInt(CONF_EARLY_REQUEUE_MAX_RETRIES);
+        actionDataMaxSize = ConfigurationService.getInt(oozieConf, CONF_ACTION_DATA_MAX_SIZE);
+        String secret = ConfigurationService.getPassword(oozieConf, CONF_ACTION_DATA_SECRET, "").trim();
+        if (secret.isEmpty()) {
+            actionDataSecret = new byte[32];
+            new SecureRandom().nextBytes(actionDataSecret);
+        }
+        else {
+            actionDataSecret = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        // the action data file is always written too, evicted action data is read from it
+        actionData = CacheBuilder.newBuilder()
+                .maximumSize(ConfigurationService.getLong(oozieConf, CONF_ACTION_DATA_CACHE_SIZE)).build();
     }
 
     /**
      * Destroy the service.
      */
     public void destroy() {
+        if (actionData != null) {
+            actionData.invalidateAll();
+        }
     }
 
     /**
@@ -140,4 +177,73 @@ public class CallbackService implements Service {
     public int getEarlyRequeueMaxRetries() {
         return earlyRequeueMaxRetries;
     }
+
+    /**
+     * @return the maximum size, in characters, of the action data the launchers can send with their callback, 0 if they
+     * can't send it
+     */
+    public int getActionDataMaxSize() {
+        return actionDataMaxSize;
+    }
+
+    /**
+     * Create the token the launcher of an action sends with its action data, for the callback to be able to tell that
+     * the action data comes from the launcher of the action.
+     *
+     * @param actionId action ID
+     * @return the token
+     */
+    public String createActionDataToken(String actionId) {
+        ParamChecker.notEmpty(actionId, "actionId");
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(actionDataSecret, HMAC_ALGORITHM));
+            return Hex.encodeHexString(mac.doFinal(actionId.getBytes(StandardCharsets.UTF_8)));
+        }
+        catch (GeneralSecurityException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    /**
+     * Check the token sent with the action data of an action.
+     *
+     * @param actionId action ID
+     * @param token token sent with the action data
+     * @return <code>true</code> if the token is the one given to the launcher of the action
+     */
+    public boolean isValidActionDataToken(String actionId, String token) {
+        return token != null && MessageDigest.isEqual(createActionDataToken(actionId).getBytes(StandardCharsets.UTF_8),
+                token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Keep the action data sent with the callback of an action until the action is checked, or until it is evicted by
+     * the action data of other actions. The action data file of the action is read in that case.
+     *
+     * @param actionId action ID
+     * @param data action data
+     */
+    public void putActionData(String actionId, Map<String, String> data) {
+        actionData.put(actionId, data);
+    }
+
+    /**
+     * Return the action data sent with the callback of an action.
+     *
+     * @param actionId action ID
+     * @return the action data, <code>null</code> if it was not sent with the callback or is already removed
+     */
+    public Map<String, String> getActionData(String actionId) {
+        return actionData.getIfPresent(actionId);
+    }
+
+    /**
+     * Remove the action data sent with the callback of an action, once the action has been checked.
+     *
+     * @param actionId action ID
+     */
+    public void removeActionData(String actionId) {
+        actionData.invalidate(actionId);
+    }
 }
@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.service;
+
+import java.text.ParseException;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.command.CommandException;
+import org.apache.oozie.command.coord.CoordMaterializationPlan;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.jdom.JDOMException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Caches the {@link CoordMaterializationPlan} of the recently materialized coordinator jobs, so that the definition and
+ * the configuration of a job are parsed once instead of every time actions are materialized.
+ * <p>
+ * The plan of a job is compiled again when the definition, the configuration or the frequency of the job changes.
+ * {@link #CONF_CACHE_SIZE} sets the number of cached plans.
+ */
+public class CoordMaterializationPlanService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "CoordMaterializationPlanService.";
+
+    public static final String CONF_CACHE_SIZE = CONF_PREFIX + "cache.size";
+
+    private static final String INSTRUMENTATION_GROUP = "coord_materialization_plans";
+
+    private Cache<String, CoordMaterializationPlan> plans;
+
+    @Override
+    public void init(Services services) throws ServiceException {
+        plans = CacheBuilder.newBuilder().maximumSize(ConfigurationService.getInt(services.getConf(), CONF_CACHE_SIZE))
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        plans.invalidateAll();
+    }
+
+    @Override
+    public Class<? extends Service> getInterface() {
+        return CoordMaterializationPlanService.class;
+    }
+
+    @Override
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP, "size", new Instrumentation.Variable<Long>() {
+            @Override
+            public Long getValue() {
+                return plans.size();
+            }
+        });
+    }
+
+    /**
+     * Get the materialization plan of a coordinator job, compiling it if it is not cached or out of date.
+     *
+     * @param coordJob the coordinator job, with its definition and configuration
+     * @return the plan
+     * @throws CommandException if the configuration of the job can't be parsed
+     * @throws JDOMException if the definition of the job can't be parsed
+     * @throws ParseException if the cron frequency of the job can't be parsed
+     */
+    public CoordMaterializationPlan getPlan(CoordinatorJobBean coordJob)
+            throws CommandException, JDOMException, ParseException {
+        CoordMaterializationPlan plan = plans.getIfPresent(coordJob.getId());
+        if (plan == null || !plan.isCurrent(coordJob)) {
+            plan = CoordMaterializationPlan.compile(coordJob);
+            plans.put(coordJob.getId(), plan);
+        }
+        return plan;
+    }
+}
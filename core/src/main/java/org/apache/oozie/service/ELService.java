@@ -29,6 +29,7 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The ELService creates {@link ELEvaluator} instances preconfigured with constants and functions defined in the
@@ -36,7 +37,9 @@ import java.util.List;
  * of constant definitions to be available for EL evaluations. <p> {@link #CONF_FUNCTIONS} list of function definitions
  * to be available for EL evalations. <p> Definitions must be separated by a comma, definitions are trimmed. <p> The
  * syntax for a constant definition is <code>PREFIX:NAME=CLASS_NAME#CONSTANT_NAME</code>. <p> The syntax for a constant
- * definition is <code>PREFIX:NAME=CLASS_NAME#METHOD_NAME</code>.
+ * definition is <code>PREFIX:NAME=CLASS_NAME#METHOD_NAME</code>. <p> The constants and functions of each group are
+ * shared by the evaluators of the group, which also share the expressions parsed with them. {@link #CONF_CACHE_SIZE}
+ * sets the number of parsed expressions kept per group.
  */
 public class ELService implements Service {
 
@@ -52,12 +55,16 @@ public class ELService implements Service {
 
     public static final String CONF_GROUPS = CONF_PREFIX + "groups";
 
+    public static final String CONF_CACHE_SIZE = CONF_PREFIX + "expression.cache.size";
+
     private final XLog log = XLog.getLog(getClass());
 
     //<Group Name>, <List of constants>
     private HashMap<String, List<ELConstant>> constants;
     //<Group Name>, <List of functions>
     private HashMap<String, List<ELFunction>> functions;
+    //<Group Name>, <Constants and functions of the group>
+    private HashMap<String, ELEvaluator.Group> groups;
 
     private static class ELConstant {
         private String name;
@@ -135,6 +142,20 @@ public class ELService implements Service {
             tmpFunctions.addAll(extractFunctions(services.getConf(), CONF_EXT_FUNCTIONS + group));
             functions.put(group, tmpFunctions);
         }
+        int cacheSize = ConfigurationService.getInt(services.getConf(), CONF_CACHE_SIZE);
+        groups = new HashMap<String, ELEvaluator.Group>();
+        for (String group : groupList) {
+            Map<String, Object> groupConstants = new HashMap<String, Object>();
+            for (ELConstant constant : constants.get(group)) {
+                groupConstants.put(constant.name, constant.value);
+            }
+            Map<String, Method> groupFunctions = new HashMap<String, Method>();
+            for (ELFunction function : functions.get(group)) {
+                String name = (function.prefix.length() > 0) ? function.prefix + ":" + function.name : function.name;
+                groupFunctions.put(name, function.method);
+            }
+            groups.put(group, new ELEvaluator.Group(groupConstants, groupFunctions, cacheSize));
+        }
     }
 
     /**
@@ -144,6 +165,7 @@ public class ELService implements Service {
     public void destroy() {
         constants = null;
         functions = null;
+        groups = null;
     }
 
     /**
@@ -164,24 +186,11 @@ public class ELService implements Service {
      * @return ELEvaluator a preconfigured {@link ELEvaluator}.
      */
     public ELEvaluator createEvaluator(String group) {
-        ELEvaluator.Context context = new ELEvaluator.Context();
-        boolean groupDefined = false;
-        if (constants.containsKey(group)) {
-            for (ELConstant constant : constants.get(group)) {
-                context.setVariable(constant.name, constant.value);
-            }
-            groupDefined = true;
-        }
-        if (functions.containsKey(group)) {
-            for (ELFunction function : functions.get(group)) {
-                context.addFunction(function.prefix, function.name, function.method);
-            }
-            groupDefined = true;
-        }
-        if (groupDefined == false) {
+        ELEvaluator.Group elGroup = groups.get(group);
+        if (elGroup == null) {
             throw new IllegalArgumentException("Group " + group + " is not defined");
         }
-        return new ELEvaluator(context);
+        return new ELEvaluator(new ELEvaluator.Context(elGroup));
     }
 
     private static String[] parseDefinition(String str) throws ServiceException {
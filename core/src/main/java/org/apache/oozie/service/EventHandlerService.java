@@ -19,6 +19,8 @@
 package org.apache.oozie.service;
 
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -185,6 +187,14 @@ public class EventHandlerService implements Service {
                 }
             }
         }
+        if (eventQueue instanceof Closeable) {
+            try {
+                ((Closeable) eventQueue).close();
+            }
+            catch (IOException ex) {
+                LOG.warn("Could not close event queue, " + ex);
+            }
+        }
     }
 
     @Override
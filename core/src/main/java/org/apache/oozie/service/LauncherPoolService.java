@@ -0,0 +1,444 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.oozie.service;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.apache.oozie.action.hadoop.LauncherAM;
+import org.apache.oozie.action.hadoop.PooledLauncherAM;
+import org.apache.oozie.client.WorkflowAction;
+import org.apache.oozie.util.Instrumentable;
+import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.XLog;
+
+/**
+ * Keeps pools of launcher AMs running the short actions one after the other ({@link PooledLauncherAM}), so that these
+ * actions don't wait for a new YARN application each.
+ * <p>
+ * The service is enabled by adding it to <code>oozie.services.ext</code>, and an action uses the pool if its type is in
+ * {@link #CONF_ACTION_TYPES} and it sets <code>oozie.launcher.pool</code> to true. Actions with credentials or archives
+ * always get their own launcher.
+ * <p>
+ * There is a pool for each user, queue, launcher settings and name nodes the delegation tokens are obtained for. A
+ * launcher runs one action at a time: if all the launchers of the pool are busy a new one is started, up to
+ * {@link #CONF_MAX_LAUNCHERS}, and a regular launcher is used after that. The idle launchers which exited or are about to
+ * exit are removed from their pool when it is used. The pools are kept in memory; the launchers left after a restart exit
+ * once they are idle.
+ */
+public class LauncherPoolService implements Service, Instrumentable {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "LauncherPoolService.";
+
+    public static final String CONF_ACTION_TYPES = CONF_PREFIX + "action.types";
+
+    public static final String CONF_MAX_LAUNCHERS = CONF_PREFIX + "max.launchers";
+
+    public static final String CONF_IDLE_TIMEOUT = CONF_PREFIX + "idle.timeout";
+
+    public static final String CONF_MAX_ACTIONS = CONF_PREFIX + "max.actions";
+
+    public static final String CONF_MAX_LIFETIME = CONF_PREFIX + "max.lifetime";
+
+    public static final String CONF_DIR = CONF_PREFIX + "dir";
+
+    public static final String APPLICATION_TYPE = "Oozie Launcher Pool";
+
+    private static final String INSTRUMENTATION_GROUP = "launcher_pool";
+
+    private static final String TMP_DIR = "_tmp";
+
+    private static final XLog LOG = XLog.getLog(LauncherPoolService.class);
+
+    private Set<String> actionTypes;
+    private int maxLaunchers;
+    private long idleTimeout;
+    private int maxActions;
+    private long maxLifetime;
+    private String dir;
+    private final Map<String, List<PooledLauncher>> pools = new HashMap<>();
+    private final Map<String, PooledLauncher> busyLaunchers = new HashMap<>();
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong unavailable = new AtomicLong();
+    private final AtomicLong coldDelay = new AtomicLong();
+    private final AtomicLong coldActions = new AtomicLong();
+    private final AtomicLong warmDelay = new AtomicLong();
+    private final AtomicLong warmActions = new AtomicLong();
+
+    /**
+     * A launcher of a pool.
+     */
+    public static class PooledLauncher {
+        private final String key;
+        private final long startTime;
+        private String appId;
+        private Path dir;
+        private String actionId;
+        private int actions;
+        private long idleTime;
+
+        private PooledLauncher(String key, String actionId) {
+            this.key = key;
+            this.actionId = actionId;
+            this.actions = 1;
+            this.startTime = System.currentTimeMillis();
+        }
+
+        /**
+         * @return the YARN application ID of the launcher
+         */
+        public String getAppId() {
+            return appId;
+        }
+
+        /**
+         * @return the directory the actions are handed over in
+         */
+        public Path getDir() {
+            return dir;
+        }
+    }
+
+    @Override
+    public void init(Services services) throws ServiceException {
+        Configuration conf = services.getConf();
+        actionTypes = new HashSet<>();
+        for (String type : ConfigurationService.getStrings(conf, CONF_ACTION_TYPES)) {
+            actionTypes.add(type.trim());
+        }
+        maxLaunchers = ConfigurationService.getInt(conf, CONF_MAX_LAUNCHERS);
+        idleTimeout = TimeUnit.SECONDS.toMillis(ConfigurationService.getLong(conf, CONF_IDLE_TIMEOUT));
+        maxActions = ConfigurationService.getInt(conf, CONF_MAX_ACTIONS);
+        maxLifetime = TimeUnit.SECONDS.toMillis(ConfigurationService.getLong(conf, CONF_MAX_LIFETIME));
+        dir = ConfigurationService.get(conf, CONF_DIR);
+    }
+
+    @Override
+    public synchronized void destroy() {
+        pools.clear();
+        busyLaunchers.clear();
+    }
+
+    @Override
+    public Class<? extends Service> getInterface() {
+        return LauncherPoolService.class;
+    }
+
+    @Override
+    public void instrument(Instrumentation instr) {
+        instr.addVariable(INSTRUMENTATION_GROUP, "launchers", new Instrumentation.Variable<Integer>() {
+            @Override
+            public Integer getValue() {
+                synchronized (LauncherPoolService.this) {
+                    int launchers = 0;
+                    for (List<PooledLauncher> pool : pools.values()) {
+                        launchers += pool.size();
+                    }
+                    return launchers;
+                }
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "busy", new Instrumentation.Variable<Integer>() {
+            @Override
+            public Integer getValue() {
+                synchronized (LauncherPoolService.this) {
+                    return busyLaunchers.size();
+                }
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "started", new Instrumentation.Variable<Long>() {
+            @Override
+            public Long getValue() {
+                return started.get();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "reused", new Instrumentation.Variable<Long>() {
+            @Override
+            public Long getValue() {
+                return reused.get();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "unavailable", new Instrumentation.Variable<Long>() {
+            @Override
+            public Long getValue() {
+                return unavailable.get();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "reuse.rate", new Instrumentation.Variable<Double>() {
+            @Override
+            public Double getValue() {
+                return getReuseRate();
+            }
+        });
+        instr.addVariable(INSTRUMENTATION_GROUP, "latency.saved.ms", new Instrumentation.Variable<Long>() {
+            @Override
+            public Long getValue() {
+                return getLatencySaved();
+            }
+        });
+    }
+
+    /**
+     * Check if an action can run in a pooled launcher.
+     *
+     * @param actionType the type of the action
+     * @param action the action
+     * @param launcherConf the launcher configuration of the action
+     * @return true if the action opted in for the pool and can share a launcher with other actions
+     */
+    public boolean isPoolable(String actionType, WorkflowAction action, Configuration launcherConf) {
+        return actionTypes.contains(actionType) && launcherConf.getBoolean(LauncherAM.OOZIE_LAUNCHER_POOL_PROPERTY, false)
+                && (action.getCred() == null || action.getCred().trim().isEmpty())
+                && launcherConf.getTrimmedStrings(MRJobConfig.CACHE_ARCHIVES).length == 0;
+    }
+
+    /**
+     * Take an idle launcher of a pool to run an action.
+     *
+     * @param key the key of the pool
+     * @param actionId the action to run
+     * @return the launcher, or null if there is no idle launcher
+     */
+    public synchronized PooledLauncher acquire(String key, String actionId) {
+        List<PooledLauncher> pool = removeStale(key);
+        if (pool != null) {
+            for (PooledLauncher launcher : pool) {
+                if (launcher.actionId == null && launcher.appId != null) {
+                    launcher.actionId = actionId;
+                    launcher.actions++;
+                    busyLaunchers.put(actionId, launcher);
+                    return launcher;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add a launcher to a pool to run an action, unless the pool is full.
+     *
+     * @param key the key of the pool
+     * @param actionId the action to run
+     * @return the launcher, to be started with {@link #setApplication(PooledLauncher, String, Path)}, or null if the pool
+     * is full
+     */
+    public synchronized PooledLauncher reserve(String key, String actionId) {
+        List<PooledLauncher> pool = removeStale(key);
+        if (pool == null) {
+            pool = new ArrayList<>();
+            pools.put(key, pool);
+        }
+        if (pool.size() >= maxLaunchers) {
+            unavailable.incrementAndGet();
+            return null;
+        }
+        PooledLauncher launcher = new PooledLauncher(key, actionId);
+        pool.add(launcher);
+        busyLaunchers.put(actionId, launcher);
+        return launcher;
+    }
+
+    /**
+     * Remove the idle launchers of a pool which can't take an action anymore: the launchers which ran their maximum
+     * number of actions or reached their maximum lifetime exit, and the ones idle for the idle timeout close themselves,
+     * the margin keeping clear of that.
+     */
+    private List<PooledLauncher> removeStale(String key) {
+        List<PooledLauncher> pool = pools.get(key);
+        if (pool != null) {
+            long now = System.currentTimeMillis();
+            Iterator<PooledLauncher> it = pool.iterator();
+            while (it.hasNext()) {
+                PooledLauncher launcher = it.next();
+                if (launcher.actionId == null && (launcher.actions >= maxActions
+                        || now - launcher.startTime >= maxLifetime || now - launcher.idleTime >= idleTimeout / 2)) {
+                    LOG.debug("Removing stale pooled launcher [{0}]", launcher.appId);
+                    it.remove();
+                }
+            }
+            if (pool.isEmpty()) {
+                pools.remove(key);
+                pool = null;
+            }
+        }
+        return pool;
+    }
+
+    /**
+     * Set the application of a launcher being started.
+     *
+     * @param launcher the launcher
+     * @param appId the YARN application ID of the launcher
+     * @param launcherDir the directory the actions are handed over in
+     */
+    public synchronized void setApplication(PooledLauncher launcher, String appId, Path launcherDir) {
+        launcher.appId = appId;
+        launcher.dir = launcherDir;
+        started.incrementAndGet();
+    }
+
+    /**
+     * Release the launcher of an action once the action is done.
+     *
+     * @param actionId the action
+     * @param delay the time the action waited for the launcher in milliseconds, or null if unknown
+     */
+    public synchronized void release(String actionId, Long delay) {
+        PooledLauncher launcher = busyLaunchers.remove(actionId);
+        if (launcher != null) {
+            launcher.actionId = null;
+            launcher.idleTime = System.currentTimeMillis();
+            if (launcher.actions > 1) {
+                reused.incrementAndGet();
+            }
+            if (delay != null) {
+                // the first action of a launcher waits for the launcher to start
+                if (launcher.actions == 1) {
+                    coldDelay.addAndGet(delay);
+                    coldActions.incrementAndGet();
+                }
+                else {
+                    warmDelay.addAndGet(delay);
+                    warmActions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Remove a launcher which is not running anymore, or couldn't be started.
+     *
+     * @param launcher the launcher
+     */
+    public synchronized void remove(PooledLauncher launcher) {
+        List<PooledLauncher> pool = pools.get(launcher.key);
+        if (pool != null) {
+            pool.remove(launcher);
+            if (pool.isEmpty()) {
+                pools.remove(launcher.key);
+            }
+        }
+        if (launcher.actionId != null) {
+            busyLaunchers.remove(launcher.actionId);
+        }
+    }
+
+    /**
+     * Remove a launcher which is not running anymore.
+     *
+     * @param appId the YARN application ID of the launcher
+     */
+    public synchronized void remove(String appId) {
+        List<PooledLauncher> launchers = new ArrayList<>();
+        for (List<PooledLauncher> pool : pools.values()) {
+            for (PooledLauncher launcher : pool) {
+                if (appId.equals(launcher.appId)) {
+                    launchers.add(launcher);
+                }
+            }
+        }
+        for (PooledLauncher launcher : launchers) {
+            remove(launcher);
+        }
+    }
+
+    /**
+     * Hand an action over to a launcher, by moving a task file with the action directory into the directory of the
+     * launcher. The move fails if the launcher closed its directory.
+     *
+     * @param fs the file system of the user
+     * @param launcher the launcher
+     * @param actionId the action
+     * @param actionDir the action directory, with the launcher and action configurations
+     * @return true if the launcher took the action
+     * @throws IOException if the task file can't be written
+     */
+    public boolean handOver(FileSystem fs, PooledLauncher launcher, String actionId, Path actionDir) throws IOException {
+        Path tmpFile = new Path(new Path(launcher.getDir().getParent(), TMP_DIR), actionId);
+        try (Writer writer = new OutputStreamWriter(fs.create(tmpFile, true), StandardCharsets.UTF_8)) {
+            writer.write(fs.makeQualified(actionDir).toString());
+        }
+        if (fs.rename(tmpFile, new Path(launcher.getDir(), actionId))) {
+            return true;
+        }
+        LOG.debug("Launcher [{0}] closed, could not hand over action [{1}]", launcher.getAppId(), actionId);
+        fs.delete(tmpFile, false);
+        return false;
+    }
+
+    /**
+     * @param fs the file system of the user
+     * @return the directory of the launcher directories of the user
+     */
+    public Path getDir(FileSystem fs) {
+        return new Path(fs.getHomeDirectory(), dir);
+    }
+
+    /**
+     * Set the properties of a pooled launcher in its launcher configuration.
+     *
+     * @param launcherConf the launcher configuration
+     * @param launcherDir the directory the actions are handed over in
+     */
+    public void configure(Configuration launcherConf, Path launcherDir) {
+        launcherConf.set(PooledLauncherAM.OOZIE_LAUNCHER_POOL_DIR, launcherDir.toString());
+        launcherConf.setLong(PooledLauncherAM.OOZIE_LAUNCHER_POOL_IDLE_TIMEOUT, idleTimeout);
+        launcherConf.setInt(PooledLauncherAM.OOZIE_LAUNCHER_POOL_MAX_ACTIONS, maxActions);
+        launcherConf.setLong(PooledLauncherAM.OOZIE_LAUNCHER_POOL_MAX_LIFETIME, maxLifetime);
+    }
+
+    /**
+     * @return the percentage of the pooled actions run by a launcher which ran an action before
+     */
+    public double getReuseRate() {
+        long reusedActions = reused.get();
+        long total = reusedActions + started.get();
+        return total == 0 ? 0 : 100.0 * reusedActions / total;
+    }
+
+    /**
+     * @return the estimated time saved by the actions run by a launcher which ran an action before, in milliseconds: the
+     * difference between the average wait of the first and of the next actions of the launchers, for each reused launcher
+     */
+    public long getLatencySaved() {
+        long cold = coldActions.get();
+        long warm = warmActions.get();
+        if (cold == 0 || warm == 0) {
+            return 0;
+        }
+        return Math.max(0, coldDelay.get() / cold - warmDelay.get() / warm) * reused.get();
+    }
+}
@@ -41,6 +41,18 @@ public class PurgeService implements Service {
     public static final String CONF_PURGE_INTERVAL = CONF_PREFIX + "purge.interval";
     public static final String PURGE_LIMIT = CONF_PREFIX + "purge.limit";
     public static final String PURGE_COMMAND_ENABLED = CONF_PREFIX + "enable.command.line";
+    /**
+     * Number of items deleted at a time in chunked mode, 0 to delete them in batches of {@link #PURGE_LIMIT}.
+     */
+    public static final String CHUNK_SIZE = CONF_PREFIX + "chunk.size";
+    /**
+     * Minimum time, in milliseconds, between the deletion of two chunks.
+     */
+    public static final String CHUNK_INTERVAL = CONF_PREFIX + "chunk.interval";
+    /**
+     * URI of the directory the purged jobs are archived in, empty to not archive them.
+     */
+    public static final String ARCHIVE_DIR = CONF_PREFIX + "archive.dir";
 
     /**
      * PurgeRunnable is the runnable which is scheduled to run at the configured interval. PurgeCommand is queued to
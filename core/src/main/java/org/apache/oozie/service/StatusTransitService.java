@@ -18,10 +18,13 @@
 
 package org.apache.oozie.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.BundleJobBean;
@@ -47,10 +50,16 @@ import org.apache.oozie.util.XLog;
  * It is to update job's status according to its child actions' status. If all child actions' pending flag equals 0 (job
  * done), we reset the job's pending flag to 0. If all child actions are succeeded, we set the job's status to
  * SUCCEEDED.
+ * <p>
+ * While the service is running, the coordinator and bundle jobs whose actions are updated by this server are recorded as
+ * they change, and each run only updates the status of these jobs. The jobs changed since the last scan are looked up
+ * in the database every {@link #CONF_RECONCILIATION_INTERVAL} seconds only, to catch the changes made by other servers or
+ * outside of the query executors.
  */
 public class StatusTransitService implements Service {
     private static final String CONF_PREFIX = Service.CONF_PREFIX + "StatusTransitService.";
     private static final String CONF_STATUSTRANSIT_INTERVAL = CONF_PREFIX + "statusTransit.interval";
+    public static final String CONF_RECONCILIATION_INTERVAL = CONF_PREFIX + "statusTransit.reconciliation.interval";
     public static final String CONF_BACKWARD_SUPPORT_FOR_COORD_STATUS = CONF_PREFIX
             + "backward.support.for.coord.status";
     public static final String CONF_BACKWARD_SUPPORT_FOR_STATES_WITHOUT_ERROR = CONF_PREFIX
@@ -59,6 +68,42 @@ public class StatusTransitService implements Service {
     public static Date lastInstanceStartTime = null;
     public final static XLog LOG = XLog.getLog(StatusTransitRunnable.class);
 
+    private static volatile boolean trackChanges = false;
+    private static final Set<String> changedCoordIds = ConcurrentHashMap.newKeySet();
+    private static final Set<String> changedBundleIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Record that the actions of a coordinator job changed, so that the status of the job is updated by the next run.
+     *
+     * @param coordId coordinator job id
+     */
+    public static void coordChanged(String coordId) {
+        if (trackChanges && coordId != null) {
+            changedCoordIds.add(coordId);
+        }
+    }
+
+    /**
+     * Record that the actions of a bundle job changed, so that the status of the job is updated by the next run.
+     *
+     * @param bundleId bundle job id
+     */
+    public static void bundleChanged(String bundleId) {
+        if (trackChanges && bundleId != null) {
+            changedBundleIds.add(bundleId);
+        }
+    }
+
+    private static Set<String> drain(Set<String> changedIds) {
+        Set<String> ids = new HashSet<String>();
+        Iterator<String> it = changedIds.iterator();
+        while (it.hasNext()) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
     /**
      * StateTransitRunnable is the runnable which is scheduled to run at the configured interval.
      * <p>
@@ -69,6 +114,7 @@ public class StatusTransitService implements Service {
     public static class StatusTransitRunnable implements Runnable {
         private JPAService jpaService = null;
         private LockToken lock;
+        private Date lastReconciliationTime;
 
         private Set<String> coordFailedIds = new HashSet<String>();
         private Set<String> bundleFailedIds = new HashSet<String>();
@@ -94,9 +140,13 @@ public class StatusTransitService implements Service {
                 }
                 else {
                     LOG.info("Acquired lock for [{0}]", StatusTransitService.class.getName());
-                    coordTransit();
-                    bundleTransit();
-                    lastInstanceStartTime = curDate;
+                    boolean reconcile = isReconciliationDue(curDate);
+                    coordTransit(reconcile);
+                    bundleTransit(reconcile);
+                    if (reconcile) {
+                        lastInstanceStartTime = curDate;
+                        lastReconciliationTime = curDate;
+                    }
                 }
             }
             catch (Exception ex) {
@@ -110,17 +160,37 @@ public class StatusTransitService implements Service {
             }
         }
 
+        /**
+         * Check if the jobs changed since the last scan have to be looked up in the database. They are looked up at
+         * every run if the changes are not recorded as they happen.
+         *
+         * @param curDate start time of this run
+         * @return true if the database has to be scanned
+         */
+        private boolean isReconciliationDue(Date curDate) {
+            if (!trackChanges || lastReconciliationTime == null) {
+                return true;
+            }
+            long interval = ConfigurationService.getLong(CONF_RECONCILIATION_INTERVAL) * 1000;
+            return curDate.getTime() - lastReconciliationTime.getTime() >= interval;
+        }
+
         /**
          * Aggregate bundle actions' status to bundle jobs
          *
+         * @param reconcile true to look up the jobs changed since the last scan in the database
          * @throws JPAExecutorException thrown if failed in db updates or retrievals
          * @throws CommandException thrown if failed to run commands
          */
-        private void bundleTransit() throws JPAExecutorException, CommandException {
+        private void bundleTransit(boolean reconcile) throws JPAExecutorException, CommandException {
             List<BundleJobBean> pendingJobCheckList;
-            final Set<String> bundleIds = new HashSet<String>();
+            final Set<String> bundleIds = drain(changedBundleIds);
 
-            if (lastInstanceStartTime == null) {
+            if (!reconcile) {
+                LOG.info("Running bundle status service for [{0}] changed jobs", bundleIds.size());
+                pendingJobCheckList = new ArrayList<BundleJobBean>();
+            }
+            else if (lastInstanceStartTime == null) {
                 LOG.info("Running bundle status service first instance");
                 // This is the first instance, we need to check for all pending or running jobs;
                 // TODO currently limit is = -1. Need to do actual batching
@@ -160,13 +230,18 @@ public class StatusTransitService implements Service {
         /**
          * Aggregate coordinator actions' status to coordinator jobs
          *
+         * @param reconcile true to look up the jobs changed since the last scan in the database
          * @throws JPAExecutorException thrown if failed in db updates or retrievals
          * @throws CommandException thrown if failed to run commands
          */
-        private void coordTransit() throws JPAExecutorException, CommandException {
+        private void coordTransit(boolean reconcile) throws JPAExecutorException, CommandException {
             List<CoordinatorJobBean> pendingJobCheckList = null;
-            final Set<String> coordIds = new HashSet<String>();
-            if (lastInstanceStartTime == null) {
+            final Set<String> coordIds = drain(changedCoordIds);
+            if (!reconcile) {
+                LOG.info("Running coordinator status service for [{0}] changed jobs", coordIds.size());
+                pendingJobCheckList = new ArrayList<CoordinatorJobBean>();
+            }
+            else if (lastInstanceStartTime == null) {
                 LOG.info("Running coordinator status service first instance");
                 // this is the first instance, we need to check for all pending jobs;
                 pendingJobCheckList = jpaService.execute(new CoordJobsGetPendingJPAExecutor(limit));
@@ -218,6 +293,7 @@ public class StatusTransitService implements Service {
         Runnable stateTransitRunnable = new StatusTransitRunnable();
         services.get(SchedulerService.class).schedule(stateTransitRunnable, 10,
                 ConfigurationService.getInt(conf, CONF_STATUSTRANSIT_INTERVAL), SchedulerService.Unit.SEC);
+        trackChanges = true;
     }
 
     /**
@@ -225,6 +301,9 @@ public class StatusTransitService implements Service {
      */
     @Override
     public void destroy() {
+        trackChanges = false;
+        changedCoordIds.clear();
+        changedBundleIds.clear();
     }
 
     /**
@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.service;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.codec.binary.Hex;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.WorkflowDefinitionBean;
+import org.apache.oozie.executor.jpa.JPAExecutorException;
+import org.apache.oozie.executor.jpa.WorkflowDefinitionGetJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowDefinitionStoreJPAExecutor;
+import org.apache.oozie.executor.jpa.WorkflowDefinitionsDeleteUnusedJPAExecutor;
+import org.apache.oozie.util.XLog;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Stores the immutable parts of workflow instances, the workflow definition and the job configuration, once in the
+ * <code>WF_DEFINITIONS</code> table keyed by their SHA-256 digest.
+ * <p>
+ * If {@link #CONF_ENABLED} is true, workflow instances only carry the digests, so updating a workflow job does not
+ * rewrite its definition and configuration. Workflow instances written in the previous format can always be read and
+ * are converted when they are written the next time.
+ * <p>
+ * Recently used entries are cached, {@link #CONF_CACHE_SIZE} sets the number of cached entries.
+ */
+public class WorkflowDefinitionService implements Service {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "WorkflowDefinitionService.";
+
+    public static final String CONF_ENABLED = CONF_PREFIX + "enabled";
+
+    public static final String CONF_CACHE_SIZE = CONF_PREFIX + "cache.size";
+
+    /**
+     * Interval in seconds the last used time of an entry is refreshed in.
+     */
+    public static final String CONF_REFRESH_INTERVAL = CONF_PREFIX + "last.used.refresh.interval";
+
+    private static final XLog LOG = XLog.getLog(WorkflowDefinitionService.class);
+    private static final long GRACE_PERIOD_MS = TimeUnit.DAYS.toMillis(1);
+
+    private boolean enabled;
+    private long refreshIntervalMs;
+    private Cache<String, byte[]> contents;
+    private Cache<String, Boolean> recentlyUsed;
+
+    @Override
+    public void init(Services services) throws ServiceException {
+        Configuration conf = services.getConf();
+        enabled = ConfigurationService.getBoolean(conf, CONF_ENABLED);
+        refreshIntervalMs = TimeUnit.SECONDS.toMillis(ConfigurationService.getLong(conf, CONF_REFRESH_INTERVAL));
+        contents = CacheBuilder.newBuilder().maximumSize(ConfigurationService.getInt(conf, CONF_CACHE_SIZE)).build();
+        recentlyUsed = CacheBuilder.newBuilder().expireAfterWrite(refreshIntervalMs, TimeUnit.MILLISECONDS).build();
+        LOG.info("Storing workflow definitions separately from workflow instances: [{0}]", enabled);
+    }
+
+    @Override
+    public void destroy() {
+        contents.invalidateAll();
+        recentlyUsed.invalidateAll();
+    }
+
+    @Override
+    public Class<? extends Service> getInterface() {
+        return WorkflowDefinitionService.class;
+    }
+
+    /**
+     * @return <code>true</code> if workflow instances should be written with references to stored definitions.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Store data unless it is already stored, and mark it as used.
+     *
+     * @param data serialized definition or configuration.
+     * @return the id of the data.
+     * @throws IOException thrown if the data could not be stored.
+     */
+    public String store(byte[] data) throws IOException {
+        String id = digest(data);
+        if (recentlyUsed.getIfPresent(id) == null) {
+            JPAService jpaService = Services.get().get(JPAService.class);
+            try {
+                jpaService.execute(new WorkflowDefinitionStoreJPAExecutor(id, data));
+            }
+            catch (JPAExecutorException e) {
+                // another server may have inserted the same content in the meantime
+                LOG.debug("Could not store workflow definition [{0}], checking if it exists: {1}", id, e.getMessage());
+                if (!exists(jpaService, id)) {
+                    throw new IOException("Could not store workflow definition [" + id + "]", e);
+                }
+            }
+            recentlyUsed.put(id, Boolean.TRUE);
+        }
+        contents.put(id, data);
+        return id;
+    }
+
+    private static boolean exists(JPAService jpaService, String id) {
+        try {
+            return jpaService.execute(new WorkflowDefinitionGetJPAExecutor(id)) != null;
+        }
+        catch (JPAExecutorException e) {
+            LOG.warn("Could not read workflow definition [{0}]: {1}", id, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Get stored data.
+     *
+     * @param id id of the data.
+     * @return the data.
+     * @throws IOException thrown if the data does not exist or could not be read.
+     */
+    public byte[] get(String id) throws IOException {
+        byte[] data = contents.getIfPresent(id);
+        if (data == null) {
+            WorkflowDefinitionBean bean;
+            try {
+                bean = Services.get().get(JPAService.class).execute(new WorkflowDefinitionGetJPAExecutor(id));
+            }
+            catch (JPAExecutorException e) {
+                throw new IOException("Could not read workflow definition [" + id + "]", e);
+            }
+            if (bean == null) {
+                throw new IOException("Workflow definition [" + id + "] does not exist");
+            }
+            data = bean.getData();
+            contents.put(id, data);
+        }
+        return data;
+    }
+
+    /**
+     * Delete the stored data which is not referenced by any workflow job anymore.
+     *
+     * @return the number of deleted entries.
+     * @throws JPAExecutorException thrown if the entries could not be deleted.
+     */
+    public int purgeUnused() throws JPAExecutorException {
+        int deleted = Services.get().get(JPAService.class).execute(
+                new WorkflowDefinitionsDeleteUnusedJPAExecutor(refreshIntervalMs + GRACE_PERIOD_MS));
+        contents.invalidateAll();
+        return deleted;
+    }
+
+    static String digest(byte[] data) {
+        try {
+            return Hex.encodeHexString(MessageDigest.getInstance("SHA-256").digest(data));
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
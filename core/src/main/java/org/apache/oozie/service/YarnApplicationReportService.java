@@ -0,0 +1,258 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.service;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.client.api.YarnClient;
+import org.apache.oozie.action.hadoop.JavaActionExecutor;
+import org.apache.oozie.util.XLog;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * The YARN application report service fetches the reports of the running Oozie launcher applications with one request
+ * per ResourceManager and user, so that the periodic action checks do not have to ask the ResourceManager for every
+ * launcher separately.
+ * <p>
+ * {@link JavaActionExecutor#check} registers the ResourceManager and the user of the action and looks up the report of
+ * the launcher here first, falling back to a request of its own if it is not found, as for the finished launchers,
+ * which are not polled. The {@link ActionCheckerService} calls {@link #poll()} before it queues the action checks. A
+ * ResourceManager is polled as the user, keeping the reports of the launchers of the user only, as YARN ACLs trim the
+ * reports of the applications of other users. The reports are kept for {@link #CONF_TTL} seconds; terminal states are
+ * final, so a stale report can only make a finished launcher look running until the next check. The report of an
+ * application is dropped when its completion callback arrives.
+ */
+public class YarnApplicationReportService implements Service {
+
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "YarnApplicationReportService.";
+
+    /**
+     * Whether the action checks use the polled reports.
+     */
+    public static final String CONF_ENABLED = CONF_PREFIX + "enabled";
+
+    /**
+     * The time, in seconds, the polled reports are used for.
+     */
+    public static final String CONF_TTL = CONF_PREFIX + "ttl";
+
+    public static final String LAUNCHER_APPLICATION_TYPE = "Oozie Launcher";
+
+    protected static final EnumSet<YarnApplicationState> POLLED_STATES = EnumSet.of(YarnApplicationState.NEW,
+            YarnApplicationState.NEW_SAVING, YarnApplicationState.SUBMITTED, YarnApplicationState.ACCEPTED,
+            YarnApplicationState.RUNNING);
+
+    protected static final String INSTRUMENTATION_GROUP = "yarn-reports";
+    protected static final String INSTR_POLLS_COUNTER = "polls";
+    protected static final String INSTR_POLL_ERRORS_COUNTER = "poll.errors";
+    protected static final String INSTR_HITS_COUNTER = "hits";
+    protected static final String INSTR_MISSES_COUNTER = "misses";
+
+    private static final XLog LOG = XLog.getLog(YarnApplicationReportService.class);
+
+    private final Map<String, ResourceManager> resourceManagers = new ConcurrentHashMap<String, ResourceManager>();
+    private final Map<String, CachedReport> reports = new ConcurrentHashMap<String, CachedReport>();
+    private boolean enabled;
+    private long ttl;
+    private long resourceManagerExpiry;
+
+    @Override
+    public void init(Services services) throws ServiceException {
+        enabled = ConfigurationService.getBoolean(services.getConf(), CONF_ENABLED);
+        ttl = TimeUnit.SECONDS.toMillis(ConfigurationService.getLong(services.getConf(), CONF_TTL));
+        resourceManagerExpiry = 2 * TimeUnit.SECONDS.toMillis(ConfigurationService.getInt(services.getConf(),
+                ActionCheckerService.CONF_ACTION_CHECK_DELAY));
+        resourceManagers.clear();
+        reports.clear();
+    }
+
+    @Override
+    public void destroy() {
+        resourceManagers.clear();
+        reports.clear();
+    }
+
+    @Override
+    public Class<? extends Service> getInterface() {
+        return YarnApplicationReportService.class;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Register the ResourceManager and the user of an action, so that the launchers of the user are included in the next
+     * poll. The ResourceManager is polled as the user as long as it is registered at least every other action check
+     * delay.
+     *
+     * @param user the user of the action, the ResourceManager is polled as
+     * @param conf the configuration of the action, with the address of the ResourceManager
+     */
+    public void register(String user, Configuration conf) {
+        if (!enabled) {
+            return;
+        }
+        String address = conf.get(JavaActionExecutor.HADOOP_YARN_RM);
+        String key = address + "," + user;
+        ResourceManager resourceManager = resourceManagers.get(key);
+        if (resourceManager == null) {
+            resourceManager = resourceManagers.putIfAbsent(key, new ResourceManager(address, user, conf));
+        }
+        if (resourceManager != null) {
+            resourceManager.lastUsed = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Return the polled report of an application.
+     *
+     * @param applicationId the application
+     * @return the report, or null if the application was not seen by the last poll or the report is too old
+     */
+    public ApplicationReport getApplicationReport(ApplicationId applicationId) {
+        if (!enabled) {
+            return null;
+        }
+        CachedReport cached = reports.get(applicationId.toString());
+        if (cached != null && cached.time + ttl > System.currentTimeMillis()) {
+            incrCounter(INSTR_HITS_COUNTER);
+            return cached.report;
+        }
+        incrCounter(INSTR_MISSES_COUNTER);
+        return null;
+    }
+
+    /**
+     * Drop the polled report of an application, to be called when the application notifies Oozie of its completion.
+     *
+     * @param applicationId the application
+     */
+    public void invalidate(String applicationId) {
+        if (applicationId != null) {
+            reports.remove(applicationId);
+        }
+    }
+
+    /**
+     * Fetch the reports of the launcher applications of every registered ResourceManager and user, one request each.
+     */
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Iterator<Map.Entry<String, ResourceManager>> it = resourceManagers.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<String, ResourceManager> entry = it.next();
+            ResourceManager resourceManager = entry.getValue();
+            if (resourceManager.lastUsed + resourceManagerExpiry < now) {
+                LOG.debug("No action of user [{0}] checked on ResourceManager [{1}] lately, not polling it anymore",
+                        resourceManager.user, resourceManager.address);
+                it.remove();
+                continue;
+            }
+            try {
+                List<ApplicationReport> polled = getLauncherReports(resourceManager);
+                long time = System.currentTimeMillis();
+                int kept = 0;
+                for (ApplicationReport report : polled) {
+                    // the reports of the applications of other users may lack details
+                    if (resourceManager.user.equals(report.getUser())) {
+                        reports.put(report.getApplicationId().toString(), new CachedReport(report, time));
+                        kept++;
+                    }
+                }
+                incrCounter(INSTR_POLLS_COUNTER);
+                LOG.debug("Polled [{0}] launcher reports of user [{1}] from ResourceManager [{2}]", kept,
+                        resourceManager.user, resourceManager.address);
+            }
+            catch (Exception ex) {
+                incrCounter(INSTR_POLL_ERRORS_COUNTER);
+                LOG.warn("Could not poll launcher reports of user [{0}] from ResourceManager [{1}], actions will be checked"
+                        + " one by one, {2}", resourceManager.user, resourceManager.address, ex.getMessage(), ex);
+            }
+        }
+        for (Iterator<CachedReport> it = reports.values().iterator(); it.hasNext();) {
+            if (it.next().time + ttl <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    protected List<ApplicationReport> getLauncherReports(ResourceManager resourceManager) throws Exception {
+        YarnClient yarnClient = Services.get().get(HadoopAccessorService.class).createYarnClient(resourceManager.user,
+                resourceManager.conf);
+        try {
+            Set<String> types = Collections.singleton(LAUNCHER_APPLICATION_TYPE);
+            return yarnClient.getApplications(types, POLLED_STATES);
+        }
+        finally {
+            IOUtils.closeQuietly(yarnClient);
+        }
+    }
+
+    @VisibleForTesting
+    int getReportCount() {
+        return reports.size();
+    }
+
+    private void incrCounter(String name) {
+        InstrumentationService instrumentationService = Services.get().get(InstrumentationService.class);
+        if (instrumentationService != null) {
+            instrumentationService.get().incr(INSTRUMENTATION_GROUP, name, 1);
+        }
+    }
+
+    protected static class ResourceManager {
+        private final String address;
+        private final String user;
+        private final Configuration conf;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private ResourceManager(String address, String user, Configuration conf) {
+            this.address = address;
+            this.user = user;
+            this.conf = conf;
+        }
+    }
+
+    private static class CachedReport {
+        private final ApplicationReport report;
+        private final long time;
+
+        private CachedReport(ApplicationReport report, long time) {
+            this.report = report;
+            this.time = time;
+        }
+    }
+}
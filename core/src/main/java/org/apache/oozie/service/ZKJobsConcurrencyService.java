@@ -19,8 +19,10 @@ package org.apache.oozie.service;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,6 +33,7 @@ import org.apache.curator.x.discovery.ServiceInstance;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.event.listener.ZKConnectionListener;
+import org.apache.oozie.util.ConsistentHashRing;
 import org.apache.oozie.util.IOUtils;
 import org.apache.oozie.util.Instrumentable;
 import org.apache.oozie.util.Instrumentation;
@@ -44,7 +47,10 @@ import org.apache.oozie.util.ZKUtils;
  * Servers try to process the same job at the same time.  However, this will make Oozie slower (more waiting on locks) and will
  * place additional stress on ZooKeeper and the Database.  By "assigning" different Oozie servers to process different jobs, we can
  * improve this situation.  This is particularly necessary for Services like the {@link RecoveryService}, which could duplicate jobs
- * otherwise.  We can assign jobs to servers by doing a mod of the jobs' id and the number of servers.
+ * otherwise.  Jobs are assigned to servers by consistent hashing of the jobs' id number (see {@link ConsistentHashRing}), so
+ * when a server joins or leaves, only the jobs of about one server change owner.  The ring is rebuilt only when the servers
+ * seen in the service discovery cache change.  Setting {@link #CONF_VIRTUAL_NODES} to 0 assigns the jobs by doing a mod of the
+ * jobs' id and the number of servers instead, as older versions do.
  * <p>
  * The leader server is elected by all of the Oozie servers, so there can only be one at a time.  This is useful for tasks that
  * require (or are better off) being done by only one server (e.g. database purging).  Note that the leader server isn't a
@@ -53,9 +59,17 @@ import org.apache.oozie.util.ZKUtils;
  */
 public class ZKJobsConcurrencyService extends JobsConcurrencyService implements Service, Instrumentable {
 
+    /**
+     * The number of positions of each server on the consistent hashing ring, or 0 to assign jobs by id mod number of servers.
+     */
+    public static final String CONF_VIRTUAL_NODES = Service.CONF_PREFIX + "ZKJobsConcurrencyService.virtual.nodes";
+
     @VisibleForTesting
     ZKUtils zk;
 
+    private int virtualNodes;
+    private volatile ConsistentHashRing ring;
+
     // This pattern gives us the id number without the extra stuff
     private static final Pattern ID_PATTERN = Pattern.compile("(\\d{7})-.*");
 
@@ -70,6 +84,8 @@ public class ZKJobsConcurrencyService extends JobsConcurrencyService implements
     @Override
     public void init(Services services) throws ServiceException {
         super.init(services);
+        virtualNodes = ConfigurationService.getInt(services.getConf(), CONF_VIRTUAL_NODES);
+        ring = null;
         try {
 
             zk = ZKUtils.register(this);
@@ -118,8 +134,9 @@ public class ZKJobsConcurrencyService extends JobsConcurrencyService implements
     }
 
     /**
-     * Check to see if jobId should be processed by this server.  This implementation only returns true if the index of this server
-     * in ZooKeeper's list of servers is equal to the id of the job mod the number of servers.
+     * Check to see if jobId should be processed by this server.  This implementation only returns true if the id of the job is
+     * assigned to this server on the consistent hashing ring of the servers in ZooKeeper's list of servers, or, without virtual
+     * nodes, if the index of this server in ZooKeeper's list of servers is equal to the id of the job mod the number of servers.
      *
      * @param jobId The jobId to check
      * @return true if this server should process this jobId; false if not
@@ -128,14 +145,19 @@ public class ZKJobsConcurrencyService extends JobsConcurrencyService implements
     @Override
     public boolean isJobIdForThisServer(String jobId) throws ServiceException {
         List<ServiceInstance<Map>> oozies = getServiceInstances();
+        if (virtualNodes > 0) {
+            return checkJobIdForServer(jobId, getRing(oozies));
+        }
         int numOozies = oozies.size();
         int myIndex = zk.getZKIdIndex(oozies);
         return checkJobIdForServer(jobId, numOozies, myIndex);
     }
 
     /**
-     * Filter out any job ids that should not be processed by this server.  This implementation only preserves jobs such that the
-     * index of this server in ZooKeeper's list of servers is equal to the id of the job mod the number of servers.
+     * Filter out any job ids that should not be processed by this server.  This implementation only preserves jobs that are
+     * assigned to this server on the consistent hashing ring of the servers in ZooKeeper's list of servers, or, without virtual
+     * nodes, such that the index of this server in ZooKeeper's list of servers is equal to the id of the job mod the number of
+     * servers.
      *
      * @param ids The list of job ids to check
      * @return filteredIds a filtered list of job ids that this server should process
@@ -145,6 +167,15 @@ public class ZKJobsConcurrencyService extends JobsConcurrencyService implements
     public List<String> getJobIdsForThisServer(List<String> ids) throws ServiceException {
         List<String> filteredIds = new ArrayList<>();
         List<ServiceInstance<Map>> oozies = getServiceInstances();
+        if (virtualNodes > 0) {
+            ConsistentHashRing currentRing = getRing(oozies);
+            for (String id : ids) {
+                if (checkJobIdForServer(id, currentRing)) {
+                    filteredIds.add(id);
+                }
+            }
+            return filteredIds;
+        }
         int numOozies = oozies.size();
         int myIndex = zk.getZKIdIndex(oozies);
         for(String id : ids) {
@@ -163,6 +194,41 @@ public class ZKJobsConcurrencyService extends JobsConcurrencyService implements
         return oozies;
     }
 
+    /**
+     * Return the consistent hashing ring of the servers, rebuilding it if the servers have changed since it was built.
+     *
+     * @param oozies The servers in ZooKeeper's list of servers
+     * @return the ring
+     */
+    private ConsistentHashRing getRing(List<ServiceInstance<Map>> oozies) {
+        Set<String> ids = new HashSet<String>();
+        for (ServiceInstance<Map> oozie : oozies) {
+            ids.add(oozie.getId());
+        }
+        ConsistentHashRing currentRing = ring;
+        if (currentRing == null || !currentRing.getMembers().equals(ids)) {
+            currentRing = new ConsistentHashRing(ids, virtualNodes);
+            ring = currentRing;
+        }
+        return currentRing;
+    }
+
+    /**
+     * Check if the jobId should be processed by this server according to the consistent hashing ring.
+     *
+     * @param jobId The jobId to check
+     * @param currentRing The consistent hashing ring of the servers
+     * @return true if the jobId should be processed by this server, false if not
+     */
+    private boolean checkJobIdForServer(String jobId, ConsistentHashRing currentRing) {
+        boolean belongs = true;
+        Matcher m = ID_PATTERN.matcher(jobId);
+        if (m.matches() && m.groupCount() == 1) {
+            belongs = currentRing.getOwner(m.group(1)).equals(zk.getZKId());
+        }
+        return belongs;
+    }
+
     /**
      * Check if the jobId should be processed by the server with index myIndex when there are numOozies servers.
      *
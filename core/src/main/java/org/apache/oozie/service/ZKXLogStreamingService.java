@@ -19,6 +19,7 @@ package org.apache.oozie.service;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.Writer;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
@@ -26,7 +27,13 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -37,9 +44,11 @@ import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.util.AuthUrlClient;
 import org.apache.oozie.util.Instrumentable;
 import org.apache.oozie.util.Instrumentation;
+import org.apache.oozie.util.NamedThreadFactory;
 import org.apache.oozie.util.SimpleTimestampedMessageParser;
 import org.apache.oozie.util.TimestampedMessageParser;
 import org.apache.oozie.util.XLog;
+import org.apache.oozie.util.XLogFilter;
 import org.apache.oozie.util.XLogStreamer;
 import org.apache.oozie.util.ZKUtils;
 
@@ -49,8 +58,23 @@ import org.apache.oozie.util.ZKUtils;
  */
 public class ZKXLogStreamingService extends XLogStreamingService implements Service, Instrumentable {
 
+    public static final String CONF_PREFIX = Service.CONF_PREFIX + "ZKXLogStreamingService.";
+
+    /**
+     * Number of log messages of each server buffered while collating the logs.
+     */
+    public static final String CONF_BUFFER_SIZE = CONF_PREFIX + "collate.buffer.size";
+
+    /**
+     * Whether to ask the other servers to compress their logs with gzip.
+     */
+    public static final String CONF_GZIP = CONF_PREFIX + "collate.gzip";
+
     private ZKUtils zk;
     private XLog log;
+    private ExecutorService executor;
+    private int bufferSize;
+    private boolean gzip;
 
     /**
      * Initialize the log streaming service.
@@ -68,6 +92,10 @@ public class ZKXLogStreamingService extends XLogStreamingService implements Serv
             throw new ServiceException(ErrorCode.E1700, ex.getMessage(), ex);
         }
         log = XLog.getLog(this.getClass());
+        bufferSize = Math.max(1, ConfigurationService.getInt(services.getConf(), CONF_BUFFER_SIZE));
+        gzip = ConfigurationService.getBoolean(services.getConf(), CONF_GZIP);
+        // the threads only live as long as the log requests, which are already bounded by the servlet container
+        executor = Executors.newCachedThreadPool(new NamedThreadFactory("ZKXLogStreamingService"));
     }
 
     /**
@@ -79,6 +107,10 @@ public class ZKXLogStreamingService extends XLogStreamingService implements Serv
             zk.unregister(this);
         }
         zk = null;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        executor = null;
         super.destroy();
     }
 
@@ -123,6 +155,9 @@ public class ZKXLogStreamingService extends XLogStreamingService implements Serv
      * Writer.  It will make sure to not read all of the log messages into memory at the same time to not use up the heap.  If there
      * is a problem talking to one of the other servers, it will ignore that server and prepend a message to the Writer about it.
      * For getting the logs from this server, it won't use the REST API and instead get them directly to be more efficient.
+     * <p>
+     * The logs of each server are fetched and filtered by a separate thread, which puts the messages in a bounded queue, so
+     * that the servers are contacted and read in parallel; this thread only merges the heads of the queues by timestamp.
      *
      * @param logStreamer the XLogStreamer
      * @param startTime the job start time
@@ -139,119 +174,267 @@ public class ZKXLogStreamingService extends XLogStreamingService implements Serv
         catch (Exception ex) {
             throw new IOException("Issue communicating with ZooKeeper: " + ex.getMessage(), ex);
         }
-        List<TimestampedMessageParser> parsers = new ArrayList<TimestampedMessageParser>(oozies.size());
+        // If it's just the one server (this server), then we don't need to do any more processing and can just copy it directly
+        if (oozies.size() == 1 && oozies.get(0).getPayload().get(ZKUtils.ZKMetadataKeys.OOZIE_ID).equals(zk.getZKId())) {
+            TimestampedMessageParser parser = new TimestampedMessageParser(logStreamer.makeReader(startTime, endTime),
+                    logStreamer.getXLogFilter());
+            try {
+                writeHeader(logStreamer, badOozies, writer);
+                parser.processRemaining(writer, logStreamer);
+            }
+            finally {
+                parser.closeReader();
+            }
+            return;
+        }
+
+        List<LogSource> sources = new ArrayList<LogSource>(oozies.size());
+        List<Future<?>> futures = new ArrayList<Future<?>>(oozies.size());
         try {
-            // Create a BufferedReader for getting the logs of each server and put them in a TimestampedMessageParser
             for (ServiceInstance<Map> oozie : oozies) {
                 Map<String, String> oozieMeta = oozie.getPayload();
                 String otherId = oozieMeta.get(ZKUtils.ZKMetadataKeys.OOZIE_ID);
                 // If it's this server, we can just get them directly
                 if (otherId.equals(zk.getZKId())) {
-                    BufferedReader reader = logStreamer.makeReader(startTime,
-                            endTime);
-                    parsers.add(new TimestampedMessageParser(reader, logStreamer.getXLogFilter()));
+                    BufferedReader reader = logStreamer.makeReader(startTime, endTime);
+                    sources.add(new LogSource(sources.size(), otherId, null,
+                            new TimestampedMessageParser(reader, logStreamer.getXLogFilter()), logStreamer.getXLogFilter()));
                 }
                 // If it's another server, we'll have to use the REST API
                 else {
-                    String otherUrl = oozieMeta.get(ZKUtils.ZKMetadataKeys.OOZIE_URL);
-                    String jobId = logStreamer.getXLogFilter().getFilterParams().get(DagXLogInfoService.JOB);
-                    try {
-                     // It's important that we specify ALL_SERVERS_PARAM=false in the GET request to prevent the other Oozie
-                     // Server from trying aggregate logs from the other Oozie servers (and creating an infinite recursion)
-                        final String url = otherUrl + "/v" + OozieClient.WS_PROTOCOL_VERSION + "/" + RestConstants.JOB
-                                + "/" + jobId + "?" + RestConstants.JOB_SHOW_PARAM + "=" + logStreamer.getLogType()
-                                + "&" + RestConstants.ALL_SERVER_REQUEST + "=false"
-                                + AuthUrlClient.getQueryParamString(logStreamer.getRequestParam());
-                        // remove doAs from url to avoid failure while fetching
-                        // logs in case of HA mode
-                        String key = "doAs";
-                        String[] value = null;
-                        if (logStreamer.getRequestParam() != null) {
-                            value = logStreamer.getRequestParam().get(key);
-                        }
-                        String urlWithoutdoAs = null;
-                        if (value != null && value.length > 0 && value[0] != null && value[0].length() > 0) {
-                            urlWithoutdoAs = url.replace("&" + key + "=" + URLEncoder.encode(value[0],
-                                    StandardCharsets.UTF_8.name()), "");
-                        }
-                        else {
-                            urlWithoutdoAs = url;
-                        }
-                        BufferedReader reader = AuthUrlClient.callServer(urlWithoutdoAs);
-                        parsers.add(new SimpleTimestampedMessageParser(reader, logStreamer.getXLogFilter()));
-                    }
-                    catch(IOException ioe) {
-                        log.warn("Failed to retrieve logs for job [" + jobId + "] from Oozie server with ID [" + otherId
-                                + "] at [" + otherUrl + "]; log information may be incomplete", ioe);
-                        badOozies.add(otherId);
-                    }
+                    sources.add(new LogSource(sources.size(), otherId, getLogUrl(logStreamer, oozieMeta), null,
+                            logStreamer.getXLogFilter()));
                 }
             }
-
-            //If log param debug is set, we need to write start date and end date to outputstream.
-            if(!StringUtils.isEmpty(logStreamer.getXLogFilter().getTruncatedMessage())){
-                writer.write(StringEscapeUtils.escapeHtml4(logStreamer.getXLogFilter().getTruncatedMessage()));
+            for (LogSource source : sources) {
+                futures.add(executor.submit(source));
             }
 
-            if (logStreamer.getXLogFilter().isDebugMode()) {
-                writer.write(StringEscapeUtils.escapeHtml4(logStreamer.getXLogFilter().getDebugMessage()));
+            // Wait for the first message of each server, to know which ones could be contacted
+            PriorityQueue<LogSource> heads = new PriorityQueue<LogSource>(sources.size());
+            for (LogSource source : sources) {
+                if (source.next()) {
+                    heads.add(source);
+                }
+                else if (source.isUnreachable()) {
+                    badOozies.add(source.oozieId);
+                }
             }
-            // Add a message about any servers we couldn't contact
-            if (!badOozies.isEmpty()) {
-                writer.write("Unable to contact the following Oozie Servers for logs (log information may be incomplete):\n");
-                for (String badOozie : badOozies) {
-                    writer.write("     ");
-                    writer.write(badOozie);
-                    writer.write("\n");
+            writeHeader(logStreamer, badOozies, writer);
+
+            // Within each server, the logs should already be in the correct order, so we only have to keep writing the earliest
+            // of the messages read from each server.  Servers are ordered by their position for the messages with the same
+            // timestamp, to not lose any of them.
+            while (!heads.isEmpty()) {
+                LogSource earliest = heads.poll();
+                String message = earliest.getMessage().text;
+                writer.write(StringEscapeUtils.escapeHtml4(message));
+                if (logStreamer.shouldFlushOutput(message.length())) {
+                    writer.flush();
+                }
+                if (earliest.next()) {
+                    heads.add(earliest);
                 }
+            }
+            writer.flush();
+        }
+        finally {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            for (LogSource source : sources) {
+                source.closeIfNotStarted();
+            }
+        }
+    }
+
+    private String getLogUrl(XLogStreamer logStreamer, Map<String, String> oozieMeta) throws IOException {
+        String otherUrl = oozieMeta.get(ZKUtils.ZKMetadataKeys.OOZIE_URL);
+        String jobId = logStreamer.getXLogFilter().getFilterParams().get(DagXLogInfoService.JOB);
+        // It's important that we specify ALL_SERVERS_PARAM=false in the GET request to prevent the other Oozie
+        // Server from trying aggregate logs from the other Oozie servers (and creating an infinite recursion)
+        final String url = otherUrl + "/v" + OozieClient.WS_PROTOCOL_VERSION + "/" + RestConstants.JOB
+                + "/" + jobId + "?" + RestConstants.JOB_SHOW_PARAM + "=" + logStreamer.getLogType()
+                + "&" + RestConstants.ALL_SERVER_REQUEST + "=false"
+                + AuthUrlClient.getQueryParamString(logStreamer.getRequestParam());
+        // remove doAs from url to avoid failure while fetching
+        // logs in case of HA mode
+        String key = "doAs";
+        String[] value = null;
+        if (logStreamer.getRequestParam() != null) {
+            value = logStreamer.getRequestParam().get(key);
+        }
+        if (value != null && value.length > 0 && value[0] != null && value[0].length() > 0) {
+            return url.replace("&" + key + "=" + URLEncoder.encode(value[0], StandardCharsets.UTF_8.name()), "");
+        }
+        return url;
+    }
+
+    private void writeHeader(XLogStreamer logStreamer, List<String> badOozies, Writer writer) throws IOException {
+        //If log param debug is set, we need to write start date and end date to outputstream.
+        if(!StringUtils.isEmpty(logStreamer.getXLogFilter().getTruncatedMessage())){
+            writer.write(StringEscapeUtils.escapeHtml4(logStreamer.getXLogFilter().getTruncatedMessage()));
+        }
+
+        if (logStreamer.getXLogFilter().isDebugMode()) {
+            writer.write(StringEscapeUtils.escapeHtml4(logStreamer.getXLogFilter().getDebugMessage()));
+        }
+        // Add a message about any servers we couldn't contact
+        if (!badOozies.isEmpty()) {
+            writer.write("Unable to contact the following Oozie Servers for logs (log information may be incomplete):\n");
+            for (String badOozie : badOozies) {
+                writer.write("     ");
+                writer.write(badOozie);
                 writer.write("\n");
-                writer.flush();
             }
+            writer.write("\n");
+            writer.flush();
+        }
+    }
 
-            // If it's just the one server (this server), then we don't need to do any more processing and can just copy it directly
-            if (parsers.size() == 1) {
-                TimestampedMessageParser parser = parsers.get(0);
-                parser.processRemaining(writer, logStreamer);
+    /**
+     * A log message read from a server, or the end of the logs of the server.
+     */
+    private static class Message {
+        private static final Message END = new Message(null, null, null);
+        private static final Message UNREACHABLE = new Message(null, null, null);
+
+        private final String timestamp;
+        private final String text;
+        private final IOException error;
+
+        private Message(String timestamp, String text, IOException error) {
+            this.timestamp = timestamp != null ? timestamp : "";
+            this.text = text;
+            this.error = error;
+        }
+    }
+
+    /**
+     * Reads and filters the logs of a server in a thread of the executor, and queues the messages until they are merged.
+     */
+    private class LogSource implements Runnable, Comparable<LogSource> {
+        private final int position;
+        private final String oozieId;
+        private final String url;
+        private final XLogFilter filter;
+        private final BlockingQueue<Message> queue = new ArrayBlockingQueue<Message>(bufferSize);
+        private final AtomicBoolean started = new AtomicBoolean();
+        private TimestampedMessageParser parser;
+        private Message message;
+
+        /**
+         * @param position the position of the server, to order the messages with the same timestamp
+         * @param oozieId the ID of the server
+         * @param url the URL to get the logs of another server from, or null for this server
+         * @param parser the parser of the logs of this server, or null for another server
+         * @param filter the filter
+         */
+        LogSource(int position, String oozieId, String url, TimestampedMessageParser parser, XLogFilter filter) {
+            this.position = position;
+            this.oozieId = oozieId;
+            this.url = url;
+            this.parser = parser;
+            this.filter = filter;
+        }
+
+        @Override
+        public void run() {
+            if (!started.compareAndSet(false, true)) {
+                return;
             }
-            else {
-                // Now that we have a Reader for each server to get the logs from that server, we have to collate them.  Within each
-                // server, the logs should already be in the correct order, so we can take advantage of that.  We'll use the
-                // BufferedReaders to read the messages from the logs of each server and put them in order without having to bring
-                // every message into memory at the same time.
-                TreeMap<String, TimestampedMessageParser> timestampMap = new TreeMap<String, TimestampedMessageParser>();
-                // populate timestampMap with initial values
-                for (TimestampedMessageParser parser : parsers) {
-                    if (parser.increment()) {
-                        timestampMap.put(parser.getLastTimestamp(), parser);
+            try {
+                if (parser == null) {
+                    BufferedReader reader;
+                    try {
+                        reader = AuthUrlClient.callServer(url, gzip);
+                        if (reader == null) {
+                            throw new IOException("No response from [" + url + "]");
+                        }
                     }
-                }
-                while (timestampMap.size() > 1) {
-                    // The first entry will be the earliest based on the timestamp (also removes it) from the map
-                    TimestampedMessageParser earliestParser = timestampMap.pollFirstEntry().getValue();
-                    // Write the message from that parser at that timestamp
-                    writer.write(StringEscapeUtils.escapeHtml4(earliestParser.getLastMessage()));
-                    if (logStreamer.shouldFlushOutput(earliestParser.getLastMessage().length())) {
-                        writer.flush();
+                    catch (IOException ioe) {
+                        log.warn("Failed to retrieve logs for job [" + filter.getFilterParams().get(DagXLogInfoService.JOB)
+                                + "] from Oozie server with ID [" + oozieId + "] at [" + url
+                                + "]; log information may be incomplete", ioe);
+                        queue.put(Message.UNREACHABLE);
+                        return;
                     }
-                    // Increment that parser to read the next message
-                    if (earliestParser.increment()) {
-                        // If it still has messages left, put it back in the map with the new last timestamp for it
-                        timestampMap.put(earliestParser.getLastTimestamp(), earliestParser);
+                    // the parsers set the pattern of the shared filter when they are created
+                    synchronized (filter) {
+                        parser = new SimpleTimestampedMessageParser(reader, filter);
                     }
                 }
-                // If there's only one parser left in the map, then we can simply copy the rest of its lines directly to be faster
-                if (timestampMap.size() == 1) {
-                    TimestampedMessageParser parser = timestampMap.values().iterator().next();
-                    // don't forget the last message read by the parser
-                    writer.write(StringEscapeUtils.escapeHtml4(parser.getLastMessage()));
-                    parser.processRemaining(writer, logStreamer);
+                try {
+                    while (parser.increment()) {
+                        queue.put(new Message(parser.getLastTimestamp(), parser.getLastMessage(), null));
+                    }
+                    queue.put(Message.END);
                 }
+                catch (IOException ioe) {
+                    queue.put(new Message(null, null, ioe));
+                }
+            }
+            catch (InterruptedException ex) {
+                // the logs are not needed anymore
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                close();
             }
         }
-        finally {
-            for (TimestampedMessageParser parser : parsers) {
-                parser.closeReader();
+
+        /**
+         * Take the next message of the server from the queue, waiting for it to be read.
+         *
+         * @return true if there is a next message, false if there are no more messages or the server can't be contacted
+         * @throws IOException if the logs of the server can't be read
+         */
+        boolean next() throws IOException {
+            try {
+                message = queue.take();
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading the logs of Oozie server [" + oozieId + "]");
+            }
+            if (message.error != null) {
+                throw message.error;
+            }
+            return message != Message.END && message != Message.UNREACHABLE;
+        }
+
+        Message getMessage() {
+            return message;
+        }
+
+        boolean isUnreachable() {
+            return message == Message.UNREACHABLE;
+        }
+
+        /**
+         * Close the parser of this server if its thread never started.
+         */
+        void closeIfNotStarted() {
+            if (started.compareAndSet(false, true)) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (parser != null) {
+                try {
+                    parser.closeReader();
+                }
+                catch (IOException ex) {
+                    log.warn("Failed to close the logs of Oozie server [" + oozieId + "]", ex);
+                }
             }
         }
+
+        @Override
+        public int compareTo(LogSource other) {
+            int result = message.timestamp.compareTo(other.message.timestamp);
+            return result != 0 ? result : Integer.compare(position, other.position);
+        }
     }
 }
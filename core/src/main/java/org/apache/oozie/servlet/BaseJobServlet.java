@@ -308,7 +308,7 @@ public abstract class BaseJobServlet extends JsonRestServlet {
                 throw new XServletException(HttpServletResponse.SC_BAD_REQUEST, e);
             }
             startCron();
-            sendJsonResponse(response, HttpServletResponse.SC_OK, job, timeZoneId);
+            sendJsonResponse(request, response, HttpServletResponse.SC_OK, job, timeZoneId);
         }
         else if (show.equals(RestConstants.ALL_WORKFLOWS_FOR_COORD_ACTION)) {
             stopCron();
@@ -327,15 +327,21 @@ public abstract class BaseJobServlet extends JsonRestServlet {
 
         else if (show.equals(RestConstants.JOB_SHOW_LOG)) {
             response.setContentType(TEXT_UTF8);
-            streamJobLog(request, response);
+            GzipServletResponse logResponse = new GzipServletResponse(request, response);
+            streamJobLog(request, logResponse);
+            logResponse.finish();
         }
         else if (show.equals(RestConstants.JOB_SHOW_ERROR_LOG)) {
             response.setContentType(TEXT_UTF8);
-            streamJobErrorLog(request, response);
+            GzipServletResponse logResponse = new GzipServletResponse(request, response);
+            streamJobErrorLog(request, logResponse);
+            logResponse.finish();
         }
         else if (show.equals(RestConstants.JOB_SHOW_AUDIT_LOG)) {
             response.setContentType(TEXT_UTF8);
-            streamJobAuditLog(request, response);
+            GzipServletResponse logResponse = new GzipServletResponse(request, response);
+            streamJobAuditLog(request, logResponse);
+            logResponse.finish();
         }
 
         else if (show.equals(RestConstants.JOB_SHOW_DEFINITION)) {
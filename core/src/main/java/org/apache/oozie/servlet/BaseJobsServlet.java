@@ -163,7 +163,7 @@ public abstract class BaseJobsServlet extends JsonRestServlet {
             stopCron();
             JSONObject json = getJobs(request);
             startCron();
-            sendJsonResponse(response, HttpServletResponse.SC_OK, json);
+            sendJsonResponse(request, response, HttpServletResponse.SC_OK, json);
         }
     }
 
@@ -21,6 +21,8 @@ package org.apache.oozie.servlet;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 import javax.servlet.ServletException;
@@ -30,6 +32,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.oozie.DagEngine;
 import org.apache.oozie.DagEngineException;
 import org.apache.oozie.ErrorCode;
+import org.apache.oozie.action.hadoop.LauncherAMCallbackNotifier;
 import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.service.CallbackService;
 import org.apache.oozie.service.ConfigurationService;
@@ -113,10 +116,25 @@ public class CallbackServlet extends JsonRestServlet {
         log.debug("Received a CallbackServlet.doPost() with query string " + queryString);
 
         validateContentType(request, RestConstants.TEXT_CONTENT_TYPE);
+        String actionDataToken = request.getHeader(LauncherAMCallbackNotifier.ACTION_DATA_TOKEN_HEADER);
+        if (actionDataToken != null && (callbackService.getActionDataMaxSize() <= 0
+                || !callbackService.isValidActionDataToken(actionId, actionDataToken))) {
+            throw new XServletException(HttpServletResponse.SC_FORBIDDEN, ErrorCode.E0403, "invalid action data token");
+        }
         try {
             log.info(XLog.STD, "callback for action [{0}]", actionId);
-            String data = IOUtils.getReaderAsString(request.getReader(), maxDataLen);
+            String data = IOUtils.getReaderAsString(request.getReader(),
+                    actionDataToken != null ? callbackService.getActionDataMaxSize() : maxDataLen);
             Properties props = PropertiesUtils.stringToProperties(data);
+            if (actionDataToken != null) {
+                // the action data of the launcher, kept for the check of the action to not read it from HDFS
+                Map<String, String> actionData = new HashMap<String, String>();
+                for (String name : props.stringPropertyNames()) {
+                    actionData.put(name, props.getProperty(name));
+                }
+                callbackService.putActionData(actionId, actionData);
+                props = null;
+            }
             DagEngine dagEngine = Services.get().get(DagEngineService.class).getSystemDagEngine();
             dagEngine.processCallback(actionId, callbackService.getExternalStatus(queryString), props);
         }
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.servlet;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Response which compresses its body with gzip if the client accepts it, used to stream the job logs.
+ * <p>
+ * The <code>Content-Encoding</code> header is only set when the body is written, so that errors sent before that are not
+ * compressed. {@link #finish()} must be called once the body has been written.
+ */
+public class GzipServletResponse extends HttpServletResponseWrapper {
+    static final String ACCEPT_ENCODING = "Accept-Encoding";
+    static final String CONTENT_ENCODING = "Content-Encoding";
+    static final String GZIP = "gzip";
+
+    private final boolean gzip;
+    private GZIPOutputStream gzipStream;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public GzipServletResponse(HttpServletRequest request, HttpServletResponse response) {
+        super(response);
+        String acceptEncoding = request.getHeader(ACCEPT_ENCODING);
+        gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ENGLISH).contains(GZIP);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (!gzip) {
+            return super.getOutputStream();
+        }
+        if (writer != null) {
+            throw new IllegalStateException("getWriter() has already been called");
+        }
+        return getGzipStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (!gzip) {
+            return super.getWriter();
+        }
+        if (writer == null) {
+            if (outputStream != null) {
+                throw new IllegalStateException("getOutputStream() has already been called");
+            }
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            writer = new PrintWriter(new OutputStreamWriter(getGzipStream(), encoding));
+        }
+        return writer;
+    }
+
+    private ServletOutputStream getGzipStream() throws IOException {
+        if (outputStream == null) {
+            setHeader(CONTENT_ENCODING, GZIP);
+            gzipStream = new GZIPOutputStream(super.getOutputStream(), true);
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    gzipStream.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    gzipStream.write(b, off, len);
+                }
+
+                @Override
+                public void flush() throws IOException {
+                    gzipStream.flush();
+                }
+
+                @Override
+                public void close() throws IOException {
+                    gzipStream.close();
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        if (!gzip) {
+            super.setContentLength(len);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (gzipStream != null) {
+            gzipStream.flush();
+        }
+        super.flushBuffer();
+    }
+
+    /**
+     * Write the end of the compressed body, if the body was compressed.
+     *
+     * @throws IOException if the body can't be written
+     */
+    public void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (gzipStream != null) {
+            gzipStream.finish();
+            gzipStream.flush();
+        }
+    }
+}
@@ -30,6 +30,7 @@ import org.apache.oozie.service.XLogService;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.LogUtils;
 import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.StreamingJsonBean;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.ErrorCode;
 import org.json.simple.JSONObject;
@@ -392,6 +393,44 @@ public abstract class JsonRestServlet extends HttpServlet {
         json.writeJSONString(response.getWriter());
     }
 
+    /**
+     * Sends a JSON response of a bean, compressed with gzip if the client accepts it.
+     * <p>
+     * The child beans of a {@link StreamingJsonBean}, like the actions of a coordinator job, are converted to JSON while
+     * the response is written.
+     *
+     * @param request servlet request.
+     * @param response servlet response.
+     * @param statusCode HTTP status code.
+     * @param bean bean to send as JSON response.
+     * @param timeZoneId time zone to use for dates in the JSON response.
+     * @throws java.io.IOException thrown if the bean could not be serialized to the response output stream.
+     */
+    protected void sendJsonResponse(HttpServletRequest request, HttpServletResponse response, int statusCode,
+            JsonBean bean, String timeZoneId) throws IOException {
+        JSONObject json = (bean instanceof StreamingJsonBean) ? ((StreamingJsonBean) bean).toStreamingJSONObject(timeZoneId)
+                : bean.toJSONObject(timeZoneId);
+        sendJsonResponse(request, response, statusCode, json);
+    }
+
+    /**
+     * Sends a JSON response, compressed with gzip if the client accepts it.
+     *
+     * @param request servlet request.
+     * @param response servlet response.
+     * @param statusCode HTTP status code, a successful one.
+     * @param json JSON to send as response, written to the response as it is serialized.
+     * @throws java.io.IOException thrown if the JSON could not be serialized to the response output stream.
+     */
+    protected void sendJsonResponse(HttpServletRequest request, HttpServletResponse response, int statusCode,
+            JSONStreamAware json) throws IOException {
+        response.setStatus(statusCode);
+        response.setContentType(JSON_UTF8);
+        GzipServletResponse gzipResponse = new GzipServletResponse(request, response);
+        json.writeJSONString(gzipResponse.getWriter());
+        gzipResponse.finish();
+    }
+
     /**
      * Sends a error response.
      *
@@ -470,8 +470,10 @@ public class V1JobsServlet extends BaseJobsServlet {
             int len = (lenStr != null) ? Integer.parseInt(lenStr) : 50;
             len = (len < 1) ? 50 : len;
             DagEngine dagEngine = Services.get().get(DagEngineService.class).getDagEngine(getUser(request));
-            WorkflowsInfo jobs = dagEngine.getJobs(filter, start, len);
-            json = OozieJsonFactory.getWFJSONObject(jobs, timeZoneId);
+            String cursor = request.getParameter(RestConstants.JOBS_CURSOR_PARAM);
+            WorkflowsInfo jobs = cursor != null ? dagEngine.getJobs(filter, cursor, len, isCount(request))
+                    : dagEngine.getJobs(filter, start, len);
+            json = OozieJsonFactory.getWFJSONObject(jobs, timeZoneId, true);
         }
         catch (DagEngineException ex) {
             throw new XServletException(HttpServletResponse.SC_BAD_REQUEST, ex);
@@ -499,8 +501,10 @@ public class V1JobsServlet extends BaseJobsServlet {
             len = (len < 1) ? 50 : len;
             CoordinatorEngine coordEngine = Services.get().get(CoordinatorEngineService.class).getCoordinatorEngine(
                     getUser(request));
-            CoordinatorJobInfo jobs = coordEngine.getCoordJobs(filter, start, len);
-            json = OozieJsonFactory.getCoordJSONObject(jobs, timeZoneId);
+            String cursor = request.getParameter(RestConstants.JOBS_CURSOR_PARAM);
+            CoordinatorJobInfo jobs = cursor != null ? coordEngine.getCoordJobs(filter, cursor, len, isCount(request))
+                    : coordEngine.getCoordJobs(filter, start, len);
+            json = OozieJsonFactory.getCoordJSONObject(jobs, timeZoneId, true);
         }
         catch (CoordinatorEngineException ex) {
             throw new XServletException(HttpServletResponse.SC_BAD_REQUEST, ex);
@@ -523,8 +527,10 @@ public class V1JobsServlet extends BaseJobsServlet {
             len = (len < 1) ? 50 : len;
 
             BundleEngine bundleEngine = Services.get().get(BundleEngineService.class).getBundleEngine(getUser(request));
-            BundleJobInfo jobs = bundleEngine.getBundleJobs(filter, start, len);
-            json = OozieJsonFactory.getBundleJSONObject(jobs, timeZoneId);
+            String cursor = request.getParameter(RestConstants.JOBS_CURSOR_PARAM);
+            BundleJobInfo jobs = cursor != null ? bundleEngine.getBundleJobs(filter, cursor, len, isCount(request))
+                    : bundleEngine.getBundleJobs(filter, start, len);
+            json = OozieJsonFactory.getBundleJSONObject(jobs, timeZoneId, true);
         }
         catch (BundleEngineException ex) {
             throw new XServletException(HttpServletResponse.SC_BAD_REQUEST, ex);
@@ -532,6 +538,13 @@ public class V1JobsServlet extends BaseJobsServlet {
         return json;
     }
 
+    /**
+     * Return whether the jobs matching the filter are to be counted, they are unless the request says otherwise
+     */
+    private static boolean isCount(HttpServletRequest request) {
+        return !"false".equalsIgnoreCase(request.getParameter(RestConstants.JOBS_COUNT_PARAM));
+    }
+
     @SuppressWarnings("unchecked")
     private JSONObject getBulkJobs(HttpServletRequest request) throws XServletException, IOException {
         JSONObject json = new JSONObject();
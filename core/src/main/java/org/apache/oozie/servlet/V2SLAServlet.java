@@ -75,7 +75,7 @@ public class V2SLAServlet extends SLAServlet {
             stopCron();
             JSONObject json = getSLASummaryList(request);
             startCron();
-            sendJsonResponse(response, HttpServletResponse.SC_OK, json);
+            sendJsonResponse(request, response, HttpServletResponse.SC_OK, json);
         }
         catch (CommandException ce) {
             XLog.getLog(getClass()).error("Command exception ", ce);
@@ -111,7 +111,8 @@ public class V2SLAServlet extends SLAServlet {
 
         try {
             ListMultimap<String, String> filterParams = FilterParser.parseFilter(filterString);
-            return getSLASummaryListByFilterParams(timeZoneId, numMaxResults, filterParams, sortbyString, isDescendingOrder);
+            return getSLASummaryListByFilterParams(timeZoneId, numMaxResults, filterParams, sortbyString, isDescendingOrder,
+                    true);
         }
         catch (XException ex) {
             throw new CommandException(ex);
@@ -137,6 +138,12 @@ public class V2SLAServlet extends SLAServlet {
     JSONObject getSLASummaryListByFilterParams(String timeZoneId, int numMaxResults, ListMultimap<String, String> filterList,
                                                String sortbyColumn, boolean isDescendingOrder) throws
             ServletException, ParseException, IllegalArgumentException, JPAExecutorException {
+        return getSLASummaryListByFilterParams(timeZoneId, numMaxResults, filterList, sortbyColumn, isDescendingOrder, false);
+    }
+
+    private JSONObject getSLASummaryListByFilterParams(String timeZoneId, int numMaxResults,
+            ListMultimap<String, String> filterList, String sortbyColumn, boolean isDescendingOrder, boolean streaming)
+            throws ServletException, ParseException, IllegalArgumentException, JPAExecutorException {
         SLASummaryGetForFilterJPAExecutor slaSummaryGetForFilterJPAExecutor =
                 createSlaSummaryGetForFilterJPAExecutor(numMaxResults, filterList, sortbyColumn, isDescendingOrder);
         List<SLASummaryBean> slaSummaryList = filterForSlaSummaryBeans(slaSummaryGetForFilterJPAExecutor);
@@ -154,7 +161,8 @@ public class V2SLAServlet extends SLAServlet {
         for(SLARegistrationBean registrationBean : SLARegistrationList){
             jobIdSLAConfigMap.put(registrationBean.getId(), registrationBean.getSLAConfigMap());
         }
-        return SLASummaryBean.toJSONObject(slaSummaryList, jobIdSLAConfigMap, timeZoneId);
+        return streaming ? SLASummaryBean.toStreamingJSONObject(slaSummaryList, jobIdSLAConfigMap, timeZoneId)
+                : SLASummaryBean.toJSONObject(slaSummaryList, jobIdSLAConfigMap, timeZoneId);
     }
 
     private List<SLASummaryBean> filterForSlaSummaryBeans(SLASummaryGetForFilterJPAExecutor slaSummaryGetForFilterJPAExecutor)
@@ -33,6 +33,8 @@ import org.apache.oozie.util.XLog;
  */
 public class SLACalcStatus extends SLAEvent {
 
+    private static final long serialVersionUID = 1L;
+
     public static String SLA_ENTITYKEY_PREFIX = "sla-";
     private SLARegistrationBean regBean;
     private SLASummaryBean summary;
@@ -47,7 +49,7 @@ public class SLACalcStatus extends SLAEvent {
     private String jobId;
     private int retryCount = 0;
 
-    private XLog LOG;
+    private transient XLog LOG;
 
     public SLACalcStatus(SLARegistrationBean reg) {
         this();
@@ -22,12 +22,16 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.AppType;
@@ -68,13 +72,20 @@ import org.apache.oozie.util.XLog;
 
 /**
  * Implementation class for SLACalculator that calculates SLA related to
- * start/end/duration of jobs using a memory-based map
+ * start/end/duration of jobs using a memory-based map.
+ * <p>
+ * The jobs of the map are also kept in a schedule ordered by the time of their next expected start, end or duration,
+ * so that the periodic check only looks at the jobs whose deadline has passed and the jobs whose SLA summary has been
+ * modified since the previous check, by this or by another server, and reads their SLA summaries in batches.
  */
 public class SLACalculatorMemory implements SLACalculator {
 
     private static XLog LOG = XLog.getLog(SLACalculatorMemory.class);
-    // TODO optimization priority based insertion/processing/bumping up-down
     private Map<String, SLACalcStatus> slaMap;
+    private NavigableSet<ScheduledCheck> checkSchedule;
+    private Map<String, ScheduledCheck> scheduledChecks;
+    private volatile Date lastCheckTime;
+    private int checkBatchSize;
     protected Set<String> historySet;
     private static int capacity;
     private static JPAService jpaService;
@@ -91,7 +102,11 @@ public class SLACalculatorMemory implements SLACalculator {
         capacity = ConfigurationService.getInt(conf, SLAService.CONF_CAPACITY);
         jobEventLatency = ConfigurationService.getInt(conf, SLAService.CONF_JOB_EVENT_LATENCY);
         maxRetryCount = ConfigurationService.getInt(conf, SLAService.CONF_MAXIMUM_RETRY_COUNT);
+        checkBatchSize = ConfigurationService.getInt(conf, SLAService.CONF_SLA_CHECK_BATCH_SIZE);
         slaMap = new ConcurrentHashMap<String, SLACalcStatus>();
+        checkSchedule = new ConcurrentSkipListSet<ScheduledCheck>();
+        scheduledChecks = new ConcurrentHashMap<String, ScheduledCheck>();
+        lastCheckTime = new Date();
         historySet = Collections.synchronizedSet(new HashSet<String>());
         jpaService = Services.get().get(JPAService.class);
         eventHandler = Services.get().get(EventHandlerService.class);
@@ -215,6 +230,8 @@ public class SLACalculatorMemory implements SLACalculator {
     public void clear() {
         final int originalSize = slaMap.size();
         slaMap.clear();
+        checkSchedule.clear();
+        scheduledChecks.clear();
         historySet.clear();
         instrumentation.decr(INSTRUMENTATION_GROUP, SLA_MAP, originalSize);
     }
@@ -228,6 +245,32 @@ public class SLACalculatorMemory implements SLACalculator {
      * @param jobId the workflow or coordinator job or action ID the SLA is tracked against
      */
     void updateJobSla(String jobId) throws Exception {
+        Map<String, SLASummaryBean> summaries = new HashMap<String, SLASummaryBean>();
+        Map<String, JPAExecutorException> errors = new HashMap<String, JPAExecutorException>();
+        try {
+            summaries.put(jobId, SLASummaryQueryExecutor.getInstance()
+                    .get(SLASummaryQuery.GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED, jobId));
+        }
+        catch (final JPAExecutorException e) {
+            errors.put(jobId, e);
+        }
+        try {
+            updateJobSla(jobId, summaries, errors);
+        }
+        finally {
+            scheduleCheck(jobId);
+        }
+    }
+
+    /**
+     * Update the SLA of a job with its SLA summary read from the database.
+     *
+     * @param jobId the workflow or coordinator job or action ID the SLA is tracked against
+     * @param summaries the event processed and last modified time of the SLA summaries read, by job ID
+     * @param errors the errors of reading the SLA summaries, by job ID
+     */
+    private void updateJobSla(String jobId, Map<String, SLASummaryBean> summaries,
+            Map<String, JPAExecutorException> errors) throws Exception {
         SLACalcStatus slaCalc = slaMap.get(jobId);
 
         if (slaCalc == null) {
@@ -236,13 +279,12 @@ public class SLACalculatorMemory implements SLACalculator {
         }
         boolean firstCheckAfterRetstart = checkAndUpdateSLACalcAfterRestart(slaCalc);
         // get eventProcessed on DB for validation in HA
-        SLASummaryBean summaryBean = null;
-        try {
-            summaryBean = SLASummaryQueryExecutor.getInstance()
-                    .get(SLASummaryQuery.GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED, jobId);
-            resetRetryCount(jobId);
-        }
-        catch (final JPAExecutorException e) {
+        SLASummaryBean summaryBean = summaries.get(jobId);
+        if (summaryBean == null) {
+            JPAExecutorException e = errors.get(jobId);
+            if (e == null) {
+                e = new JPAExecutorException(ErrorCode.E0604, jobId);
+            }
             if (e.getErrorCode().equals(ErrorCode.E0603)
                     || e.getErrorCode().equals(ErrorCode.E0604)
                     || e.getErrorCode().equals(ErrorCode.E0605)) {
@@ -252,6 +294,7 @@ public class SLACalculatorMemory implements SLACalculator {
             }
             throw e;
         }
+        resetRetryCount(jobId);
         byte eventProc = summaryBean.getEventProcessed();
         slaCalc.setEventProcessed(eventProc);
         if (eventProc >= 7) {
@@ -323,6 +366,44 @@ public class SLACalculatorMemory implements SLACalculator {
         return false;
     }
 
+    /**
+     * Return the time after which {@link #isChanged(SLACalcStatus)} becomes true for a job, unless an event of the job
+     * is received before.
+     *
+     * @param slaCalc the SLA of the job
+     * @return the time in milliseconds, 0 if the job has to be checked right away, or {@link Long#MAX_VALUE} if it
+     * only has to be checked when an event of the job is received
+     */
+    private long getNextCheckTime(SLACalcStatus slaCalc) {
+        SLARegistrationBean reg = slaCalc.getSLARegistrationBean();
+        if (reg == null || slaCalc.getRetryCount() > 0) {
+            // not reloaded yet after restart, or failed to be read from DB
+            return 0;
+        }
+        byte eventProc = slaCalc.getEventProcessed();
+        long nextCheckTime = Long.MAX_VALUE;
+
+        if ((eventProc & 1) == 0) {
+            if (reg.getExpectedStart() == null) {
+                return 0;
+            }
+            nextCheckTime = Math.min(nextCheckTime, reg.getExpectedStart().getTime() + jobEventLatency);
+        }
+        if (eventProc != 8 && ((eventProc >> 1) & 1) == 0) {
+            if (reg.getExpectedDuration() == -1) {
+                return 0;
+            }
+            else if (slaCalc.getActualStart() != null) {
+                nextCheckTime = Math.min(nextCheckTime,
+                        slaCalc.getActualStart().getTime() + reg.getExpectedDuration() + jobEventLatency);
+            }
+        }
+        if (eventProc < 4 && reg.getExpectedEnd() != null) {
+            nextCheckTime = Math.min(nextCheckTime, reg.getExpectedEnd().getTime() + jobEventLatency);
+        }
+        return nextCheckTime;
+    }
+
     @SuppressWarnings("rawtypes")
     private void updateDBSlaConfig(SLACalcStatus slaCalc, List<UpdateEntry> updateList) throws JPAExecutorException {
         updateList.add(new UpdateEntry<SLARegQuery>(SLARegQuery.UPDATE_SLA_CONFIG, slaCalc.getSLARegistrationBean()));
@@ -347,24 +428,154 @@ public class SLACalculatorMemory implements SLACalculator {
     }
 
     /**
-     * Periodically run by the SLAService worker threads to update SLA status by
-     * iterating through all the jobs in the map
+     * Periodically run by the SLAService worker threads to update SLA status of the jobs in the map whose deadline has
+     * passed or whose SLA summary has been modified since the previous run
      */
     @Override
     public void updateAllSlaStatus() {
         LOG.info("Running periodic SLA check");
-        Iterator<String> iterator = slaMap.keySet().iterator();
-        while (iterator.hasNext()) {
-            String jobId = iterator.next();
+        Date checkTime = new Date();
+        Set<String> jobIds = pollDueChecks(checkTime.getTime());
+        Map<String, SLASummaryBean> summaries = new HashMap<String, SLASummaryBean>();
+        Map<String, JPAExecutorException> errors = new HashMap<String, JPAExecutorException>();
+        try {
+            // the SLA events of the job might have been processed or its SLA changed by another server in HA
+            List<SLASummaryBean> modified = SLASummaryQueryExecutor.getInstance().getList(
+                    SLASummaryQuery.GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_SINCE,
+                    new Date(lastCheckTime.getTime() - jobEventLatency));
+            for (SLASummaryBean summaryBean : modified) {
+                if (slaMap.containsKey(summaryBean.getId())) {
+                    jobIds.add(summaryBean.getId());
+                    summaries.put(summaryBean.getId(), summaryBean);
+                }
+            }
+            lastCheckTime = checkTime;
+        }
+        catch (JPAExecutorException e) {
+            LOG.warn("Failed to retrieve modified SLASummary records", e);
+        }
+        List<String> batch = new ArrayList<String>();
+        for (String jobId : jobIds) {
+            if (!summaries.containsKey(jobId)) {
+                batch.add(jobId);
+                if (batch.size() >= checkBatchSize) {
+                    loadSummaries(batch, summaries, errors);
+                    batch = new ArrayList<String>();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            loadSummaries(batch, summaries, errors);
+        }
+        LOG.debug("Checking SLA of {0} jobs out of {1}", jobIds.size(), slaMap.size());
+        for (String jobId : jobIds) {
             try {
                 LOG.trace("Processing SLA for jobid={0}", jobId);
-                updateJobSla(jobId);
+                updateJobSla(jobId, summaries, errors);
             }
             catch (Exception e) {
                 setLogPrefix(jobId);
                 LOG.error("Exception in SLA processing for job [{0}]", jobId, e);
                 LogUtils.clearLogPrefix();
             }
+            finally {
+                scheduleCheck(jobId);
+            }
+        }
+    }
+
+    private void loadSummaries(List<String> jobIds, Map<String, SLASummaryBean> summaries,
+            Map<String, JPAExecutorException> errors) {
+        try {
+            for (SLASummaryBean summaryBean : SLASummaryQueryExecutor.getInstance().getList(
+                    SLASummaryQuery.GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_FOR_IDS, jobIds)) {
+                summaries.put(summaryBean.getId(), summaryBean);
+            }
+        }
+        catch (JPAExecutorException e) {
+            for (String jobId : jobIds) {
+                errors.put(jobId, e);
+            }
+        }
+    }
+
+    /**
+     * Remove the jobs whose deadline is before a time from the schedule.
+     *
+     * @param time the time in milliseconds
+     * @return the IDs of the jobs
+     */
+    private Set<String> pollDueChecks(long time) {
+        Set<String> jobIds = new LinkedHashSet<String>();
+        Iterator<ScheduledCheck> iterator = checkSchedule.iterator();
+        while (iterator.hasNext()) {
+            ScheduledCheck check = iterator.next();
+            if (check.time >= time) {
+                break;
+            }
+            iterator.remove();
+            // a check replaced concurrently is skipped
+            if (scheduledChecks.remove(check.jobId, check)) {
+                jobIds.add(check.jobId);
+            }
+        }
+        return jobIds;
+    }
+
+    /**
+     * Schedule the next check of a job of the map according to its current SLA, replacing the previous one.
+     *
+     * @param jobId the job ID
+     */
+    private void scheduleCheck(String jobId) {
+        SLACalcStatus slaCalc = slaMap.get(jobId);
+        long time = slaCalc == null ? Long.MAX_VALUE : getNextCheckTime(slaCalc);
+        ScheduledCheck check = time == Long.MAX_VALUE ? null : new ScheduledCheck(time, jobId);
+        ScheduledCheck previous = check == null ? scheduledChecks.remove(jobId) : scheduledChecks.put(jobId, check);
+        if (previous != null) {
+            checkSchedule.remove(previous);
+        }
+        if (check != null) {
+            checkSchedule.add(check);
+        }
+    }
+
+    @VisibleForTesting
+    Long getScheduledCheckTime(String jobId) {
+        ScheduledCheck check = scheduledChecks.get(jobId);
+        return check == null ? null : check.time;
+    }
+
+    /**
+     * Next check of the SLA of a job, ordered by time and job ID.
+     */
+    private static final class ScheduledCheck implements Comparable<ScheduledCheck> {
+        private final long time;
+        private final String jobId;
+
+        private ScheduledCheck(long time, String jobId) {
+            this.time = time;
+            this.jobId = jobId;
+        }
+
+        @Override
+        public int compareTo(ScheduledCheck other) {
+            int result = Long.compare(time, other.time);
+            return result != 0 ? result : jobId.compareTo(other.jobId);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ScheduledCheck)) {
+                return false;
+            }
+            ScheduledCheck other = (ScheduledCheck) obj;
+            return time == other.time && jobId.equals(other.jobId);
+        }
+
+        @Override
+        public int hashCode() {
+            return jobId.hashCode() * 31 + Long.hashCode(time);
         }
     }
 
@@ -517,6 +728,9 @@ public class SLACalculatorMemory implements SLACalculator {
                 LOG.error(e);
                 throw new ServiceException(e);
             }
+            finally {
+                scheduleCheck(jobId);
+            }
             return true;
         }
         else {
@@ -627,6 +841,9 @@ public class SLACalculatorMemory implements SLACalculator {
             isJobFound = true;
         }
         executeBatchQuery(updateList);
+        for (Pair<String, Map<String, String>> jobIdSLAPair : jobIdsSLAPair) {
+            scheduleCheck(jobIdSLAPair.getFirst());
+        }
         return isJobFound;
     }
 
@@ -679,7 +896,9 @@ public class SLACalculatorMemory implements SLACalculator {
     }
 
     private boolean putAndIncrement(final String jobId, final SLACalcStatus newStatus) {
-        if (slaMap.put(jobId, newStatus) == null) {
+        final boolean added = slaMap.put(jobId, newStatus) == null;
+        scheduleCheck(jobId);
+        if (added) {
             LOG.trace("Added a new item to SLA map. [jobId={0}]", jobId);
             instrumentation.incr(INSTRUMENTATION_GROUP, SLA_MAP, 1);
             return true;
@@ -691,6 +910,7 @@ public class SLACalculatorMemory implements SLACalculator {
 
     private boolean removeAndDecrement(final String jobId) {
         if (slaMap.remove(jobId) != null) {
+            scheduleCheck(jobId);
             LOG.trace("Removed an existing item from SLA map. [jobId={0}]", jobId);
             instrumentation.decr(INSTRUMENTATION_GROUP, SLA_MAP, 1);
             return true;
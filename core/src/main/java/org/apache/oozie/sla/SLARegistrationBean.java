@@ -17,6 +17,7 @@
  */
 package org.apache.oozie.sla;
 
+import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Date;
@@ -74,7 +75,9 @@ import org.json.simple.JSONObject;
  @NamedQuery(name = "GET_SLA_REGISTRATIONS", query = "select OBJECT(w) from SLARegistrationBean w")
  })
 
-public class SLARegistrationBean implements JsonBean {
+public class SLARegistrationBean implements JsonBean, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     @Id
     @Basic
@@ -18,6 +18,7 @@
 
 package org.apache.oozie.sla;
 
+import java.io.Serializable;
 import java.sql.Timestamp;
 import java.util.Date;
 import java.util.HashMap;
@@ -40,6 +41,7 @@ import org.apache.oozie.client.rest.JsonBean;
 import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.client.rest.JsonUtils;
 import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.StreamingJSONArray;
 import org.apache.openjpa.persistence.jdbc.Index;
 import org.json.simple.JSONArray;
 import org.json.simple.JSONObject;
@@ -84,6 +86,12 @@ import org.json.simple.JSONObject;
  @NamedQuery(name = "GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED",
          query = "select w.eventProcessed, w.lastModifiedTS from SLASummaryBean w where w.jobId = :id"),
 
+ @NamedQuery(name = "GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_FOR_IDS", query = "select w.jobId, w.eventProcessed,"
+         + " w.lastModifiedTS from SLASummaryBean w where w.jobId IN (:ids)"),
+
+ @NamedQuery(name = "GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_SINCE", query = "select w.jobId, w.eventProcessed,"
+         + " w.lastModifiedTS from SLASummaryBean w where w.lastModifiedTS >= :lastModifiedTime"),
+
  @NamedQuery(name = "GET_SLA_SUMMARY_ALL", query = "select OBJECT(w) from SLASummaryBean w")
 
 })
@@ -91,7 +99,9 @@ import org.json.simple.JSONObject;
 /**
  * Class to store all the SLA related details (summary) per job
  */
-public class SLASummaryBean implements JsonBean {
+public class SLASummaryBean implements JsonBean, Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     @Id
     @Basic
@@ -553,17 +563,44 @@ public class SLASummaryBean implements JsonBean {
         JSONArray array = new JSONArray();
         if (slaSummaryList != null) {
             for (SLASummaryBean summary : slaSummaryList) {
-                JSONObject slaJson = summary.toJSONObject(timeZoneId);
-                String slaAlertStatus = "";
-                if (slaConfigMap.containsKey(summary.getId())) {
-                    slaAlertStatus = slaConfigMap.get(summary.getId()).containsKey(OozieClient.SLA_DISABLE_ALERT) ? "Disabled"
-                            : "Enabled";
-                }
-                slaJson.put(JsonTags.SLA_ALERT_STATUS, slaAlertStatus);
-                array.add(slaJson);
+                array.add(toJSONObject(summary, slaConfigMap, timeZoneId));
             }
         }
         json.put(JsonTags.SLA_SUMMARY_LIST, array);
         return json;
     }
+
+    /**
+     * Return the JSON representation of a list of SLA summaries, converted to JSON while the JSON object is written.
+     *
+     * @param slaSummaryList the SLA summaries
+     * @param slaConfigMap the SLA configuration of the jobs, by job id
+     * @param timeZoneId time zone to use for dates in the JSON object
+     * @return the JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public static JSONObject toStreamingJSONObject(List<? extends SLASummaryBean> slaSummaryList,
+            final Map<String, Map<String, String>> slaConfigMap, String timeZoneId) {
+        JSONObject json = new JSONObject();
+        json.put(JsonTags.SLA_SUMMARY_LIST, new StreamingJSONArray(slaSummaryList, timeZoneId) {
+            @Override
+            protected JSONObject toJSONObject(JsonBean bean, String timeZoneId) {
+                return SLASummaryBean.toJSONObject((SLASummaryBean) bean, slaConfigMap, timeZoneId);
+            }
+        });
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JSONObject toJSONObject(SLASummaryBean summary, Map<String, Map<String, String>> slaConfigMap,
+            String timeZoneId) {
+        JSONObject slaJson = summary.toJSONObject(timeZoneId);
+        String slaAlertStatus = "";
+        if (slaConfigMap.containsKey(summary.getId())) {
+            slaAlertStatus = slaConfigMap.get(summary.getId()).containsKey(OozieClient.SLA_DISABLE_ALERT) ? "Disabled"
+                    : "Enabled";
+        }
+        slaJson.put(JsonTags.SLA_ALERT_STATUS, slaAlertStatus);
+        return slaJson;
+    }
 }
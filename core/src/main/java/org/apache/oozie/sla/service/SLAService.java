@@ -51,6 +51,8 @@ public class SLAService implements Service {
     //Time interval, in seconds, at which SLA Worker will be scheduled to run
     public static final String CONF_SLA_CHECK_INTERVAL = CONF_PREFIX + "check.interval";
     public static final String CONF_SLA_CHECK_INITIAL_DELAY = CONF_PREFIX + "check.initial.delay";
+    //Maximum number of jobs whose SLA summary is read in a single query by the SLA Worker
+    public static final String CONF_SLA_CHECK_BATCH_SIZE = CONF_PREFIX + "check.batch.size";
     public static final String CONF_SLA_CALC_LOCK_TIMEOUT = CONF_PREFIX + "oozie.sla.calc.default.lock.timeout";
     public static final String CONF_SLA_HISTORY_PURGE_INTERVAL = CONF_PREFIX + "history.purge.interval";
     public static final String CONF_MAXIMUM_RETRY_COUNT = CONF_PREFIX + "maximum.retry.count";
@@ -29,6 +29,7 @@ import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.security.PrivilegedExceptionAction;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.security.authentication.client.AuthenticatedURL;
@@ -58,7 +59,7 @@ public class AuthUrlClient {
         }
     }
 
-    private static HttpURLConnection getConnection(URL url) throws IOException {
+    private static HttpURLConnection getConnection(URL url, boolean gzip) throws IOException {
         AuthenticatedURL.Token token = new AuthenticatedURL.Token();
         HttpURLConnection conn;
         try {
@@ -67,6 +68,9 @@ public class AuthUrlClient {
         catch (AuthenticationException | InstantiationException | IllegalAccessException ex) {
             throw new IOException("Could not authenticate, " + ex.getMessage(), ex);
         }
+        if (gzip) {
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+        }
         if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
             throw new IOException("Unexpected response code [" + conn.getResponseCode() + "], message ["
                     + conn.getResponseMessage() + "]");
@@ -113,6 +117,19 @@ public class AuthUrlClient {
      * @throws IOException Signals that an I/O exception has occurred.
      */
     public static BufferedReader callServer(String server) throws IOException {
+        return callServer(server, false);
+    }
+
+    /**
+     * Calls other Oozie server over HTTP, asking for a gzip compressed response if <code>gzip</code> is true. The response
+     * is read uncompressed either way, as the other server may not compress it.
+     *
+     * @param server The URL of the other Oozie server
+     * @param gzip true to accept a gzip compressed response
+     * @return BufferedReader of inputstream.
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public static BufferedReader callServer(String server, final boolean gzip) throws IOException {
 
         if (AuthenticatorClass == null) {
             throw new IOException(errorMsg);
@@ -124,11 +141,14 @@ public class AuthUrlClient {
             reader = UserGroupInformation.getLoginUser().doAs(new PrivilegedExceptionAction<BufferedReader>() {
                 @Override
                 public BufferedReader run() throws IOException {
-                    HttpURLConnection conn = getConnection(url);
+                    HttpURLConnection conn = getConnection(url, gzip);
                     conn.setConnectTimeout(ConfigurationService.getInt(SERVER_SERVER_CONNECTION_TIMEOUT_SECONDS, 180));
                     BufferedReader reader = null;
                     if ((conn.getResponseCode() == HttpURLConnection.HTTP_OK)) {
                         InputStream is = conn.getInputStream();
+                        if ("gzip".equalsIgnoreCase(conn.getContentEncoding())) {
+                            is = new GZIPInputStream(is);
+                        }
                         reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
                     }
                     return reader;
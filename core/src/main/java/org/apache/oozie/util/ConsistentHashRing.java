@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Assigns keys to members with consistent hashing.
+ * <p>
+ * Every member is placed on a ring of hash values at a number of pseudo random positions, its virtual nodes. A key
+ * belongs to the member of the first virtual node at or after the hash of the key. When a member joins or leaves, only
+ * the keys between its virtual nodes and the preceding ones change owner, about 1/N of them with N members, while the
+ * virtual nodes even out the share of each member. The assignment only depends on the set of members, so every
+ * process seeing the same members assigns the keys the same way.
+ * <p>
+ * The ring is immutable and can be shared between threads.
+ */
+public class ConsistentHashRing {
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final Set<String> members;
+    private final long[] positions;
+    private final String[] owners;
+
+    /**
+     * Create a ring.
+     *
+     * @param members the members, must not be empty
+     * @param virtualNodes number of virtual nodes of each member, must be positive
+     */
+    public ConsistentHashRing(Collection<String> members, int virtualNodes) {
+        Preconditions.checkArgument(!members.isEmpty(), "No members");
+        Preconditions.checkArgument(virtualNodes > 0, "Number of virtual nodes must be positive");
+        this.members = Collections.unmodifiableSet(new HashSet<String>(members));
+        SortedMap<Long, String> ring = new TreeMap<Long, String>();
+        for (String member : this.members) {
+            for (int i = 0; i < virtualNodes; i++) {
+                long position = hash(member + "#" + i);
+                String other = ring.get(position);
+                // resolve the unlikely collisions the same way everywhere
+                if (other == null || other.compareTo(member) > 0) {
+                    ring.put(position, member);
+                }
+            }
+        }
+        positions = new long[ring.size()];
+        owners = new String[ring.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entry : ring.entrySet()) {
+            positions[i] = entry.getKey();
+            owners[i] = entry.getValue();
+            i++;
+        }
+    }
+
+    /**
+     * @return the members of the ring
+     */
+    public Set<String> getMembers() {
+        return members;
+    }
+
+    /**
+     * Return the member a key belongs to.
+     *
+     * @param key the key
+     * @return the member
+     */
+    public String getOwner(String key) {
+        long hash = hash(key);
+        int low = 0;
+        int high = positions.length;
+        // find the first position at or after the hash, wrapping around to the first one
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < hash) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return owners[low == positions.length ? 0 : low];
+    }
+
+    private static long hash(String value) {
+        return HASH.hashBytes(value.getBytes(StandardCharsets.UTF_8)).asLong();
+    }
+}
@@ -22,14 +22,19 @@ import javax.el.ELException;
 import org.apache.jasper.el.ExpressionEvaluatorImpl;
 
 import javax.el.ExpressionFactory;
+import javax.servlet.jsp.el.Expression;
 import javax.servlet.jsp.el.ExpressionEvaluator;
 import javax.servlet.jsp.el.FunctionMapper;
 import javax.servlet.jsp.el.VariableResolver;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * JSP Expression Language Evaluator. <p> It provides a more convenient way of using the JSP EL Evaluator.
  */
@@ -37,22 +42,103 @@ public class ELEvaluator {
 
     public static final XLog LOG = XLog.getLog(ELEvaluator.class);
 
+    private static final ExpressionEvaluator EVALUATOR = new ExpressionEvaluatorImpl(ExpressionFactory.newInstance());
+
+    /**
+     * Immutable constants and functions of a group of EL evaluators, shared by all the evaluators of the group. <p> The
+     * expressions are parsed once per group: the parsed expressions are kept in a bounded cache, as they only depend on
+     * the functions of the group and not on the variables of the evaluators.
+     */
+    public static class Group implements FunctionMapper {
+        private final Map<String, Object> constants;
+        private final Map<String, Method> functions;
+        private final Cache<Pair<String, Class<?>>, Expression> expressions;
+
+        /**
+         * Create a group of EL evaluators. <p>
+         *
+         * @param constants constants of the group, by name.
+         * @param functions functions of the group, by prefix:name.
+         * @param cacheSize maximum number of parsed expressions to keep, 0 to parse the expressions at each evaluation.
+         */
+        public Group(Map<String, Object> constants, Map<String, Method> functions, int cacheSize) {
+            this.constants = Collections.unmodifiableMap(new HashMap<>(constants));
+            this.functions = Collections.unmodifiableMap(new HashMap<>(functions));
+            expressions = (cacheSize > 0) ? CacheBuilder.newBuilder().maximumSize(cacheSize)
+                    .<Pair<String, Class<?>>, Expression>build() : null;
+        }
+
+        /**
+         * Resolve a function prefix:name. Used by the EL evaluator implementation. <p>
+         *
+         * @param prefix function prefix.
+         * @param name function name.
+         * @return the method associated to the function.
+         */
+        @Override
+        public Method resolveFunction(String prefix, String name) {
+            if (prefix.length() > 0) {
+                name = prefix + ":" + name;
+            }
+            return functions.get(name);
+        }
+
+        /**
+         * Return the number of parsed expressions kept by the group. <p>
+         *
+         * @return the number of cached expressions.
+         */
+        public long getCachedExpressions() {
+            return (expressions != null) ? expressions.size() : 0;
+        }
+
+        private Expression getExpression(String expr, Class<?> clazz) throws javax.servlet.jsp.el.ELException {
+            if (expressions == null) {
+                return EVALUATOR.parseExpression(expr, clazz, this);
+            }
+            Pair<String, Class<?>> key = Pair.<String, Class<?>>of(expr, clazz);
+            Expression expression = expressions.getIfPresent(key);
+            if (expression == null) {
+                expression = EVALUATOR.parseExpression(expr, clazz, this);
+                expressions.put(key, expression);
+            }
+            return expression;
+        }
+    }
+
     /**
      * Provides functions and variables for the EL evaluator. <p> All functions and variables in the context of an EL
      * evaluator are accessible from EL expressions.
      */
     public static class Context implements VariableResolver, FunctionMapper {
         private Map<String, Object> vars;
+        private Map<String, Object> constants;
         private Map<String, Method> functions;
+        private Group group;
 
         /**
          * Create an empty context.
          */
         public Context() {
             vars = new HashMap<>();
+            constants = Collections.emptyMap();
             functions = new HashMap<>();
         }
 
+        /**
+         * Create a context with the constants and functions of a group. <p> The variables of the context hide the
+         * constants of the group with the same name. The functions of the group are copied only if a function is added
+         * to the context, the expressions evaluated in the context are then no longer cached by the group.
+         *
+         * @param group group of the context.
+         */
+        public Context(Group group) {
+            vars = new HashMap<>();
+            constants = group.constants;
+            functions = group.functions;
+            this.group = group;
+        }
+
         /**
          * Add variables to the context. <p>
          *
@@ -79,7 +165,7 @@ public class ELEvaluator {
          * @return the variable value.
          */
         public Object getVariable(String name) {
-            return vars.get(name);
+            return vars.containsKey(name) ? vars.get(name) : constants.get(name);
         }
 
         /**
@@ -94,6 +180,10 @@ public class ELEvaluator {
                 throw new IllegalArgumentException(XLog.format("Method[{0}] must be public and static", method));
             }
             prefix = (prefix.length() > 0) ? prefix + ":" : "";
+            if (group != null) {
+                functions = new HashMap<>(functions);
+                group = null;
+            }
             functions.put(prefix + functionName, method);
         }
 
@@ -105,10 +195,13 @@ public class ELEvaluator {
          * @throws ELException thrown if the variable is not defined in the context.
          */
         public Object resolveVariable(String name) throws ELException {
-            if (!vars.containsKey(name)) {
+            if (vars.containsKey(name)) {
+                return vars.get(name);
+            }
+            if (!constants.containsKey(name)) {
                 throw new ELException(XLog.format("variable [{0}] cannot be resolved", name));
             }
-            return vars.get(name);
+            return constants.get(name);
         }
 
         /**
@@ -126,7 +219,9 @@ public class ELEvaluator {
         }
 
         public String toString() {
-            return vars.toString() + " "+functions.toString();
+            Map<String, Object> variables = new HashMap<>(constants);
+            variables.putAll(vars);
+            return variables.toString() + " "+functions.toString();
         }
     }
 
@@ -146,9 +241,6 @@ public class ELEvaluator {
 
     private Context context;
 
-    private ExpressionFactory factory = ExpressionFactory.newInstance();
-    private ExpressionEvaluator evaluator = new ExpressionEvaluatorImpl(factory);
-
     /**
      * Creates an ELEvaluator with no functions and no variables defined.
      */
@@ -209,7 +301,10 @@ public class ELEvaluator {
         ELEvaluator existing = current.get();
         try {
             current.set(this);
-            return (T) evaluator.evaluate(expr, clazz, context, context);
+            if (context.group != null) {
+                return (T) context.group.getExpression(expr, clazz).evaluate(context);
+            }
+            return (T) EVALUATOR.evaluate(expr, clazz, context, context);
         }
         catch (RuntimeException ex) {
             if (ex.getCause() instanceof Exception) {
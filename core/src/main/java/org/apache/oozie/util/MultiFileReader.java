@@ -35,10 +35,15 @@ import java.util.zip.GZIPInputStream;
  */
 public class MultiFileReader extends Reader {
 
+    private static final XLog LOG = XLog.getLog(MultiFileReader.class);
+
     private ArrayList<File> files;
     private int index;
     private Reader reader;
     private boolean closed;
+    private XLogIndex logIndex;
+    private String jobId;
+    private String activeFileName;
 
     /**
      * Constructs the MultiFileReader with the given files.  The files will be read in the order given in the ArrayList.
@@ -47,7 +52,25 @@ public class MultiFileReader extends Reader {
      * @throws IOException If there was a problem opening the first file
      */
     public MultiFileReader(ArrayList<File> files) throws IOException {
+        this(files, null, null, null);
+    }
+
+    /**
+     * Constructs the MultiFileReader with the given files, only reading the parts of the rotated files with the messages
+     * of a job according to their {@link XLogIndex}.
+     *
+     * @param files The files to read
+     * @param logIndex The index of the rotated files, null to read the files entirely
+     * @param jobId The job ID to look up in the index
+     * @param activeFileName The name of the file being written, which is always read entirely
+     * @throws IOException If there was a problem opening the first file
+     */
+    public MultiFileReader(ArrayList<File> files, XLogIndex logIndex, String jobId, String activeFileName)
+            throws IOException {
         this.files = files;
+        this.logIndex = logIndex;
+        this.jobId = jobId;
+        this.activeFileName = activeFileName;
         closed = false;
         index = 0;
         reader = null;
@@ -77,13 +100,14 @@ public class MultiFileReader extends Reader {
 
     private void openNextReader() throws IOException {
         if (index < files.size()) {
+            reader = openIndexedReader(files.get(index));
             // gzip files
-            if (files.get(index).getName().endsWith(".gz")) {
+            if (reader == null && files.get(index).getName().endsWith(".gz")) {
                 GZIPInputStream gzipInputStream = new GZIPInputStream(new FileInputStream(files.get(index)));
                 reader = new InputStreamReader(gzipInputStream, StandardCharsets.UTF_8);
             }
             // regular files
-            else {
+            else if (reader == null) {
                 reader = new InputStreamReader(new FileInputStream(files.get(index)), StandardCharsets.UTF_8);
             }
             index++;
@@ -92,4 +116,16 @@ public class MultiFileReader extends Reader {
             closed = true;
         }
     }
+
+    private Reader openIndexedReader(File file) {
+        if (logIndex != null && !file.getName().equals(activeFileName)) {
+            try {
+                return logIndex.openReader(file, jobId);
+            }
+            catch (IOException ex) {
+                LOG.warn("Could not use the log index of [{0}], reading it entirely", file, ex);
+            }
+        }
+        return null;
+    }
 }
@@ -160,7 +160,9 @@ public class OozieRollingPolicy extends RollingPolicyBase implements TriggeringP
             Collections.sort(fileList);
 
             for (int i = maxHistory; i < fileList.size(); i++) {
-                new File(fileList.get(i).getFileName()).delete();
+                File file = new File(fileList.get(i).getFileName());
+                file.delete();
+                XLogIndex.getIndexFile(file).delete();
             }
         }
     }
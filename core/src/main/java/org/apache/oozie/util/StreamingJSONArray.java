@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.oozie.client.rest.JsonBean;
+import org.json.simple.JSONAware;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONStreamAware;
+
+/**
+ * JSON array of beans which converts the beans to JSON one at a time while the array is written.
+ * <p>
+ * A JSON array of thousands of jobs or actions is written without building the JSON objects of all the beans first: only
+ * the JSON object of the bean being written is kept in memory. The array can be put in a {@link JSONObject}, which
+ * writes it when the object is written.
+ */
+public class StreamingJSONArray implements JSONStreamAware, JSONAware {
+    private final List<? extends JsonBean> beans;
+    private final String timeZoneId;
+
+    /**
+     * Create a JSON array of beans.
+     *
+     * @param beans beans of the array, <code>null</code> for an empty array
+     * @param timeZoneId time zone to use for dates in the JSON array
+     */
+    public StreamingJSONArray(List<? extends JsonBean> beans, String timeZoneId) {
+        this.beans = (beans != null) ? beans : Collections.<JsonBean>emptyList();
+        this.timeZoneId = timeZoneId;
+    }
+
+    /**
+     * Convert a bean of the array to JSON, called when the bean is written.
+     *
+     * @param bean bean of the array
+     * @param timeZoneId time zone to use for dates in the JSON object
+     * @return the JSON object of the bean
+     */
+    protected JSONObject toJSONObject(JsonBean bean, String timeZoneId) {
+        return bean.toJSONObject(timeZoneId);
+    }
+
+    @Override
+    public void writeJSONString(Writer out) throws IOException {
+        out.write('[');
+        boolean first = true;
+        for (JsonBean bean : beans) {
+            if (!first) {
+                out.write(',');
+            }
+            first = false;
+            toJSONObject(bean, timeZoneId).writeJSONString(out);
+        }
+        out.write(']');
+    }
+
+    @Override
+    public String toJSONString() {
+        StringWriter writer = new StringWriter();
+        try {
+            writeJSONString(writer);
+        }
+        catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+        return writer.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJSONString();
+    }
+}
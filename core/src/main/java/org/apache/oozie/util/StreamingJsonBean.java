@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import org.apache.oozie.client.rest.JsonBean;
+import org.json.simple.JSONObject;
+
+/**
+ * Bean with a JSON representation whose list of child beans, like the actions of a job, is converted to JSON while the
+ * representation is written.
+ */
+public interface StreamingJsonBean extends JsonBean {
+
+    /**
+     * Return the JSON representation of the bean, with its child beans in a {@link StreamingJSONArray}.
+     * <p>
+     * The representation is meant to be written right away, it must not be modified.
+     *
+     * @param timeZoneId time zone to use for dates in the JSON object
+     * @return the JSON object
+     */
+    JSONObject toStreamingJSONObject(String timeZoneId);
+}
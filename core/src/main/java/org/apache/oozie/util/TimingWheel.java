@@ -0,0 +1,188 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Hierarchical timing wheel.
+ * <p>
+ * Elements are hashed into buckets by their expiration time, so insertion and expiration are O(1) regardless of the
+ * number of elements held. Each level of the wheel has <code>wheelSize</code> buckets of <code>tickMs</code> width;
+ * elements which expire beyond the span of a level are put into a lazily created overflow level whose tick is the
+ * span of the level below. When time advances into an overflow bucket, its elements are cascaded down into the finer
+ * level.
+ * <p>
+ * An element is never reported expired before its expiration time, but it can be reported up to one tick later.
+ * <p>
+ * This class is not thread-safe.
+ *
+ * @param <E> the element type
+ */
+public class TimingWheel<E> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<E>>> buckets;
+    private long currentTime;
+    private int size;
+    private TimingWheel<E> overflowWheel;
+
+    /**
+     * Create a timing wheel.
+     *
+     * @param tickMs width of a bucket in milliseconds.
+     * @param wheelSize number of buckets per level.
+     * @param startMs the current time in milliseconds.
+     */
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        Preconditions.checkArgument(tickMs > 0, "tickMs must be >0");
+        Preconditions.checkArgument(wheelSize > 1, "wheelSize must be >1");
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<Entry<E>>());
+        }
+        this.currentTime = startMs - (startMs % tickMs);
+    }
+
+    /**
+     * Add an element to the wheel.
+     *
+     * @param element the element.
+     * @param expirationMs the absolute expiration time in milliseconds.
+     * @return <code>false</code> if the wheel has already advanced past <code>expirationMs</code>, in which case the
+     * element is not added and should be handled by the caller right away.
+     */
+    public boolean add(E element, long expirationMs) {
+        if (expirationMs < currentTime) {
+            return false;
+        }
+        addEntry(new Entry<>(element, expirationMs));
+        size++;
+        return true;
+    }
+
+    private void addEntry(Entry<E> entry) {
+        if (entry.expirationMs < currentTime + interval) {
+            buckets.get(bucketIndex(entry.expirationMs)).add(entry);
+        }
+        else {
+            getOverflowWheel().addEntry(entry);
+        }
+    }
+
+    /**
+     * Advance the wheel to the given time.
+     *
+     * @param nowMs the current time in milliseconds.
+     * @return the elements which expired, in the order of their buckets.
+     */
+    public List<E> advance(long nowMs) {
+        List<E> expired = new ArrayList<>();
+        if (size == 0) {
+            // nothing to expire, so there is no need to walk the empty buckets one by one
+            if (nowMs >= currentTime + tickMs) {
+                resetTo(nowMs);
+            }
+            return expired;
+        }
+        while (nowMs >= currentTime + tickMs) {
+            List<Entry<E>> bucket = buckets.get(bucketIndex(currentTime));
+            for (Entry<E> entry : bucket) {
+                expired.add(entry.element);
+            }
+            size -= bucket.size();
+            bucket.clear();
+            currentTime += tickMs;
+            if (overflowWheel != null && currentTime % interval == 0) {
+                overflowWheel.cascadeInto(currentTime, this);
+            }
+        }
+        return expired;
+    }
+
+    private void cascadeInto(long timeMs, TimingWheel<E> lower) {
+        currentTime = timeMs;
+        if (overflowWheel != null && currentTime % interval == 0) {
+            overflowWheel.cascadeInto(timeMs, this);
+        }
+        List<Entry<E>> bucket = buckets.get(bucketIndex(timeMs));
+        for (Entry<E> entry : bucket) {
+            lower.addEntry(entry);
+        }
+        bucket.clear();
+    }
+
+    private void resetTo(long nowMs) {
+        currentTime = nowMs - (nowMs % tickMs);
+        if (overflowWheel != null) {
+            overflowWheel.resetTo(nowMs);
+        }
+    }
+
+    private TimingWheel<E> getOverflowWheel() {
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflowWheel;
+    }
+
+    private int bucketIndex(long timeMs) {
+        return (int) ((timeMs / tickMs) % wheelSize);
+    }
+
+    /**
+     * @return the number of elements in the wheel.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return a snapshot of the elements in the wheel, in no particular order.
+     */
+    public List<E> getElements() {
+        List<E> elements = new ArrayList<>(size);
+        for (TimingWheel<E> level = this; level != null; level = level.overflowWheel) {
+            for (List<Entry<E>> bucket : level.buckets) {
+                for (Entry<E> entry : bucket) {
+                    elements.add(entry.element);
+                }
+            }
+        }
+        return elements;
+    }
+
+    private static class Entry<E> {
+        private final E element;
+        private final long expirationMs;
+
+        private Entry(E element, long expirationMs) {
+            this.element = element;
+            this.expirationMs = expirationMs;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Runs delayed tasks using a {@link TimingWheel}.
+ * <p>
+ * Scheduling only appends to a lock-free inbox, a single ticker thread moves the inbox into the wheel and runs the
+ * expired tasks once every tick. Tasks are executed on the ticker thread, so they must be short, e.g. hand the real
+ * work over to an executor.
+ * <p>
+ * Tasks which are still waiting when the scheduler is shut down are discarded.
+ */
+public class TimingWheelScheduler {
+    private static final XLog LOG = XLog.getLog(TimingWheelScheduler.class);
+
+    private final long tickMs;
+    private final TimingWheel<Runnable> wheel;
+    private final ConcurrentLinkedQueue<ScheduledTask> inbox = new ConcurrentLinkedQueue<>();
+    private final Thread ticker;
+    private volatile boolean shutdown;
+
+    /**
+     * Create and start a scheduler.
+     *
+     * @param tickMs resolution of the scheduler in milliseconds.
+     * @param wheelSize number of buckets per wheel level.
+     * @param threadName name prefix of the ticker thread.
+     */
+    public TimingWheelScheduler(long tickMs, int wheelSize, String threadName) {
+        Preconditions.checkArgument(tickMs > 0, "tickMs must be >0");
+        this.tickMs = tickMs;
+        this.wheel = new TimingWheel<>(tickMs, wheelSize, System.currentTimeMillis());
+        this.ticker = new NamedThreadFactory(threadName).newThread(new Runnable() {
+            @Override
+            public void run() {
+                tickLoop();
+            }
+        });
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Schedule a task.
+     *
+     * @param task the task to run.
+     * @param delay delay of the task.
+     * @param unit unit of the delay.
+     * @throws RejectedExecutionException thrown if the scheduler is shut down.
+     */
+    public void schedule(Runnable task, long delay, TimeUnit unit) {
+        Preconditions.checkNotNull(task, "task");
+        if (shutdown) {
+            throw new RejectedExecutionException("Scheduler is shut down");
+        }
+        inbox.add(new ScheduledTask(task, System.currentTimeMillis() + unit.toMillis(delay)));
+    }
+
+    private void tickLoop() {
+        while (!shutdown) {
+            try {
+                Thread.sleep(tickMs);
+            }
+            catch (InterruptedException e) {
+                if (shutdown) {
+                    break;
+                }
+            }
+            for (Runnable task : collectExpired(System.currentTimeMillis())) {
+                try {
+                    task.run();
+                }
+                catch (Throwable t) {
+                    LOG.warn("Error running scheduled task: {0}", t.getMessage(), t);
+                }
+            }
+        }
+    }
+
+    private List<Runnable> collectExpired(long now) {
+        List<Runnable> expired = new ArrayList<>();
+        synchronized (wheel) {
+            ScheduledTask scheduled;
+            while ((scheduled = inbox.poll()) != null) {
+                if (!wheel.add(scheduled.task, scheduled.expirationMs)) {
+                    expired.add(scheduled.task);
+                }
+            }
+            expired.addAll(wheel.advance(now));
+        }
+        return expired;
+    }
+
+    /**
+     * @return a snapshot of the tasks waiting to be run, in no particular order.
+     */
+    public List<Runnable> getScheduled() {
+        List<Runnable> scheduled = new ArrayList<>();
+        // the ticker moves tasks from the inbox to the wheel while holding the lock, so that none is seen twice
+        synchronized (wheel) {
+            for (ScheduledTask task : inbox) {
+                scheduled.add(task.task);
+            }
+            scheduled.addAll(wheel.getElements());
+        }
+        return scheduled;
+    }
+
+    /**
+     * Stop the ticker thread. Tasks which have not been run yet are discarded.
+     */
+    public void shutdown() {
+        shutdown = true;
+        ticker.interrupt();
+    }
+
+    /**
+     * Wait for the ticker thread to finish after {@link #shutdown()}.
+     *
+     * @param timeout maximum time to wait.
+     * @param unit unit of the timeout.
+     * @return <code>true</code> if the ticker thread has finished.
+     * @throws InterruptedException thrown if interrupted while waiting.
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        ticker.join(unit.toMillis(timeout));
+        return !ticker.isAlive();
+    }
+
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    public boolean isTerminated() {
+        return shutdown && !ticker.isAlive();
+    }
+
+    private static class ScheduledTask {
+        private final Runnable task;
+        private final long expirationMs;
+
+        private ScheduledTask(Runnable task, long expirationMs) {
+            this.task = task;
+            this.expirationMs = expirationMs;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates {@link ThreadFactory} instances for virtual threads.
+ * <p>
+ * Oozie is compiled for Java 8, so the <code>Thread.ofVirtual()</code> API is looked up reflectively. On JDKs without
+ * virtual threads (or where they are a preview feature that is not enabled) {@link #isSupported()} returns
+ * <code>false</code>.
+ */
+public class VirtualThreadFactory {
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_FACTORY;
+
+    static {
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderFactory = null;
+        try {
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            builderName = builderClass.getMethod("name", String.class, long.class);
+            builderFactory = builderClass.getMethod("factory");
+            // preview JDKs throw UnsupportedOperationException here
+            ofVirtual.invoke(null);
+        }
+        catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException
+                | InvocationTargetException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_FACTORY = builderFactory;
+    }
+
+    private VirtualThreadFactory() {
+    }
+
+    /**
+     * @return <code>true</code> if the running JDK can create virtual threads.
+     */
+    public static boolean isSupported() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Create a factory of virtual threads named <code>&lt;threadPrefix&gt;-&lt;n&gt;</code>.
+     *
+     * @param threadPrefix prefix of the thread names.
+     * @return the thread factory.
+     * @throws UnsupportedOperationException thrown if the running JDK does not support virtual threads.
+     */
+    public static ThreadFactory create(String threadPrefix) {
+        ParamChecker.notEmpty(threadPrefix, "threadPrefix");
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not supported by Java "
+                    + System.getProperty("java.version"));
+        }
+        try {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = BUILDER_NAME.invoke(builder, threadPrefix + "-", 0L);
+            return (ThreadFactory) BUILDER_FACTORY.invoke(builder);
+        }
+        catch (IllegalAccessException | InvocationTargetException e) {
+            throw new UnsupportedOperationException("Could not create virtual thread factory: " + e.getMessage(), e);
+        }
+    }
+}
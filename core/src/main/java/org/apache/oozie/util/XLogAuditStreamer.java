@@ -50,6 +50,12 @@ public class XLogAuditStreamer extends XLogStreamer {
         // no validate
     }
 
+    @Override
+    protected String getIndexedJobId() {
+        // audit log lines have no JOB[] to index
+        return null;
+    }
+
     @Override
     public boolean isLogEnabled() {
         return Services.get().get(XLogService.class).isAuditLogEnabled();
@@ -0,0 +1,337 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.oozie.service.DagXLogInfoService;
+
+/**
+ * Sidecar index of a rotated log file, telling in which blocks of the file the messages of each job are.
+ * <p>
+ * The file is split in blocks of about {@link #CONF_BLOCK_SIZE} bytes, which always start with the first line of a log
+ * message, so that the multi-line messages are not split. The index lists the uncompressed byte offsets of the blocks,
+ * and for each value of <code>JOB[]</code> the blocks it appears in. Reading the log of a job then only has to go
+ * through these blocks, skipping the rest of the file, instead of matching every line of the file against the filter.
+ * <p>
+ * The index of a log file is written next to it, as a hidden file, by the first request reading the file once it has
+ * been rotated, and is rewritten if the log file is modified.
+ */
+public class XLogIndex {
+    private static final XLog LOG = XLog.getLog(XLogIndex.class);
+
+    public static final String CONF_ENABLED = XLogStreamer.CONF_PREFIX + "index.enabled";
+    public static final String CONF_BLOCK_SIZE = XLogStreamer.CONF_PREFIX + "index.block.size";
+
+    private static final String HEADER = "oozie-log-index-1";
+    private static final String INDEX_PREFIX = ".";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final Pattern TIMESTAMP_PATTERN =
+            Pattern.compile("\\d\\d\\d\\d-\\d\\d-\\d\\d \\d\\d:\\d\\d:\\d\\d,\\d\\d\\d\\s");
+    private static final Pattern JOB_PATTERN = Pattern.compile(" " + DagXLogInfoService.JOB + "\\[([^\\]]*)\\] ");
+    private static final Pattern JOB_ID_PATTERN = Pattern.compile("[\\w\\-@]+");
+
+    private final int blockSize;
+
+    /**
+     * Create an index reader and writer.
+     *
+     * @param blockSize the minimum size of a block in bytes
+     */
+    public XLogIndex(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * Return the index file of a log file.
+     *
+     * @param logFile the log file
+     * @return the index file
+     */
+    public static File getIndexFile(File logFile) {
+        return new File(logFile.getParentFile(), INDEX_PREFIX + logFile.getName() + INDEX_SUFFIX);
+    }
+
+    /**
+     * Tell if a filter value of <code>JOB[]</code> is a job ID that can be looked up in the index, and not a pattern.
+     *
+     * @param jobId the filter value
+     * @return true if it is a job ID
+     */
+    public static boolean isJobId(String jobId) {
+        return jobId != null && JOB_ID_PATTERN.matcher(jobId).matches();
+    }
+
+    /**
+     * Open a reader of the blocks of a log file with the messages of a job, writing the index of the file first if it
+     * is missing or out of date.
+     *
+     * @param logFile the log file, must not be written anymore
+     * @param jobId the job ID
+     * @return the reader
+     * @throws IOException if the log file or the index can't be read
+     */
+    public Reader openReader(File logFile, String jobId) throws IOException {
+        List<Long> ranges = getRanges(logFile, jobId);
+        if (ranges == null) {
+            build(logFile);
+            ranges = getRanges(logFile, jobId);
+            if (ranges == null) {
+                throw new IOException("Log index of " + logFile + " is invalid");
+            }
+        }
+        return new InputStreamReader(new RangeInputStream(open(logFile), ranges), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the byte ranges of a log file with the messages of a job from the index.
+     *
+     * @param logFile the log file
+     * @param jobId the job ID
+     * @return the start and end offsets of the ranges, or null if the index is missing or out of date
+     * @throws IOException if the index can't be read
+     */
+    List<Long> getRanges(File logFile, String jobId) throws IOException {
+        File indexFile = getIndexFile(logFile);
+        if (!indexFile.exists()) {
+            return null;
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile),
+                StandardCharsets.UTF_8));
+        try {
+            if (!HEADER.equals(reader.readLine())
+                    || !(logFile.length() + "\t" + logFile.lastModified()).equals(reader.readLine())) {
+                return null;
+            }
+            String offsetsLine = reader.readLine();
+            if (offsetsLine == null) {
+                return null;
+            }
+            String prefix = jobId + "\t";
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(prefix)) {
+                    return toRanges(offsetsLine.split(","), line.substring(prefix.length()).split(","));
+                }
+            }
+            return new ArrayList<Long>();
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    private static List<Long> toRanges(String[] offsets, String[] blocks) {
+        List<Long> ranges = new ArrayList<Long>();
+        for (String block : blocks) {
+            int i = Integer.parseInt(block);
+            long start = Long.parseLong(offsets[i]);
+            long end = Long.parseLong(offsets[i + 1]);
+            // merge the consecutive blocks
+            if (!ranges.isEmpty() && ranges.get(ranges.size() - 1).longValue() == start) {
+                ranges.set(ranges.size() - 1, end);
+            }
+            else {
+                ranges.add(start);
+                ranges.add(end);
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Write the index of a log file.
+     *
+     * @param logFile the log file, must not be written anymore
+     * @throws IOException if the log file can't be read or the index can't be written
+     */
+    void build(File logFile) throws IOException {
+        long length = logFile.length();
+        long lastModified = logFile.lastModified();
+        List<Long> offsets = new ArrayList<Long>();
+        Map<String, StringBuilder> jobBlocks = new LinkedHashMap<String, StringBuilder>();
+        Map<String, Integer> lastBlocks = new LinkedHashMap<String, Integer>();
+        InputStream is = open(logFile);
+        try {
+            byte[] buffer = new byte[64 * 1024];
+            byte[] line = new byte[1024];
+            int lineLength = 0;
+            long offset = 0;
+            offsets.add(0L);
+            int n;
+            do {
+                n = is.read(buffer);
+                for (int i = 0; i < n || (n == -1 && i == 0 && lineLength > 0); i++) {
+                    if (n != -1) {
+                        if (lineLength == line.length) {
+                            line = Arrays.copyOf(line, line.length * 2);
+                        }
+                        line[lineLength++] = buffer[i];
+                        if (buffer[i] != '\n') {
+                            continue;
+                        }
+                    }
+                    // ISO-8859-1 keeps one char per byte, the prefix of the message is ASCII
+                    String text = new String(line, 0, lineLength, StandardCharsets.ISO_8859_1);
+                    if (offset - offsets.get(offsets.size() - 1) >= blockSize
+                            && TIMESTAMP_PATTERN.matcher(text).lookingAt()) {
+                        offsets.add(offset);
+                    }
+                    Matcher matcher = JOB_PATTERN.matcher(text);
+                    if (matcher.find() && !matcher.group(1).equals("-")) {
+                        addBlock(jobBlocks, lastBlocks, matcher.group(1), offsets.size() - 1);
+                    }
+                    offset += lineLength;
+                    lineLength = 0;
+                }
+            } while (n != -1);
+            offsets.add(offset);
+        }
+        finally {
+            is.close();
+        }
+
+        File indexFile = getIndexFile(logFile);
+        File tmpFile = new File(indexFile.getParentFile(), indexFile.getName() + "." + Thread.currentThread().getId());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmpFile), StandardCharsets.UTF_8));
+        try {
+            writer.write(HEADER + "\n");
+            writer.write(length + "\t" + lastModified + "\n");
+            for (int i = 0; i < offsets.size(); i++) {
+                writer.write((i > 0 ? "," : "") + offsets.get(i));
+            }
+            writer.write("\n");
+            for (Map.Entry<String, StringBuilder> entry : jobBlocks.entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue() + "\n");
+            }
+        }
+        finally {
+            writer.close();
+        }
+        if (!tmpFile.renameTo(indexFile)) {
+            indexFile.delete();
+            if (!tmpFile.renameTo(indexFile)) {
+                tmpFile.delete();
+                throw new IOException("Could not write log index " + indexFile);
+            }
+        }
+        LOG.debug("Wrote log index of [{0}], [{1}] blocks, [{2}] jobs", logFile, offsets.size() - 1, jobBlocks.size());
+    }
+
+    private static void addBlock(Map<String, StringBuilder> jobBlocks, Map<String, Integer> lastBlocks, String jobId,
+            int block) {
+        Integer lastBlock = lastBlocks.put(jobId, block);
+        if (lastBlock == null) {
+            jobBlocks.put(jobId, new StringBuilder().append(block));
+        }
+        else if (lastBlock != block) {
+            jobBlocks.get(jobId).append(',').append(block);
+        }
+    }
+
+    private static InputStream open(File logFile) throws IOException {
+        InputStream is = new FileInputStream(logFile);
+        if (logFile.getName().endsWith(".gz")) {
+            is = new GZIPInputStream(is);
+        }
+        return new BufferedInputStream(is);
+    }
+
+    /**
+     * Stream of the byte ranges of another stream, skipping the bytes in between.
+     */
+    static class RangeInputStream extends FilterInputStream {
+        private final List<Long> ranges;
+        private int range;
+        private long position;
+
+        RangeInputStream(InputStream in, List<Long> ranges) {
+            super(in);
+            this.ranges = ranges;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            while (range < ranges.size() && position >= ranges.get(range + 1)) {
+                range += 2;
+            }
+            if (range >= ranges.size()) {
+                return -1;
+            }
+            long start = ranges.get(range);
+            while (position < start) {
+                long skipped = in.skip(start - position);
+                if (skipped <= 0) {
+                    return -1;
+                }
+                position += skipped;
+            }
+            int n = in.read(b, off, (int) Math.min(len, ranges.get(range + 1) - position));
+            if (n > 0) {
+                position += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] b = new byte[(int) Math.min(n, 8192)];
+            int read = read(b, 0, b.length);
+            return read == -1 ? 0 : read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return 0;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.command.CommandException;
 import org.apache.oozie.service.ConfigurationService;
+import org.apache.oozie.service.DagXLogInfoService;
 import org.apache.oozie.service.Service;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.XLogService;
@@ -140,7 +141,27 @@ public class XLogStreamer {
 
     private MultiFileReader getReader(Date startTime, Date endTime) throws IOException {
         calculateAndValidateDateRange(startTime, endTime);
-        return new MultiFileReader(getFileList(logFilter.getStartDate(), logFilter.getEndDate()));
+        ArrayList<File> files = getFileList(logFilter.getStartDate(), logFilter.getEndDate());
+        String jobId = getIndexedJobId();
+        if (jobId != null) {
+            XLogIndex logIndex = new XLogIndex(ConfigurationService.getInt(XLogIndex.CONF_BLOCK_SIZE));
+            return new MultiFileReader(files, logIndex, jobId, logFile);
+        }
+        return new MultiFileReader(files);
+    }
+
+    /**
+     * Returns the job ID to look up in the index of the rotated log files, if the index is enabled and the log is
+     * filtered by a single job.
+     *
+     * @return the job ID, or null to read the log files entirely
+     */
+    protected String getIndexedJobId() {
+        if (!ConfigurationService.getBoolean(XLogIndex.CONF_ENABLED)) {
+            return null;
+        }
+        String jobId = logFilter.getFilterParams().get(DagXLogInfoService.JOB);
+        return XLogIndex.isJobId(jobId) ? jobId : null;
     }
 
     protected void calculateAndValidateDateRange(Date startTime, Date endTime) throws IOException {
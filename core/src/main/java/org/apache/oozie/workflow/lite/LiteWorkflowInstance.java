@@ -24,9 +24,12 @@ import org.apache.hadoop.util.ReflectionUtils;
 import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.service.DagXLogInfoService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.service.WorkflowDefinitionService;
 import org.apache.oozie.service.XLogService;
 import org.apache.oozie.util.StringSerializationUtil;
 import org.apache.oozie.util.ParamChecker;
+import org.apache.oozie.util.WritableUtils;
 import org.apache.oozie.util.XConfiguration;
 import org.apache.oozie.util.XLog;
 import org.apache.oozie.workflow.WorkflowApp;
@@ -36,6 +39,7 @@ import org.apache.oozie.workflow.WorkflowInstance;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInput;
+import java.io.DataInputStream;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -48,6 +52,10 @@ import java.util.Objects;
 public class LiteWorkflowInstance implements Writable, WorkflowInstance {
     private static final String TRANSITION_TO = "transition.to";
 
+    // written in place of the length of the instance id, which is never this long, if the configuration and the
+    // definition are kept in WorkflowDefinitionService
+    private static final int STORED_DEFINITION_MARKER = 0xFFFF;
+
     private XLog log = XLog.getLog(getClass());
 
     private static String PATH_SEPARATOR = "/";
@@ -153,6 +161,9 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
     private Map<String, NodeInstance> executionPaths = new HashMap<String, NodeInstance>();
     private Map<String, String> persistentVars = new HashMap<String, String>();
     private Map<String, Object> transientVars = new HashMap<String, Object>();
+    // ids of the configuration and definition in WorkflowDefinitionService, once stored there
+    private String confId;
+    private String defId;
 
     protected LiteWorkflowInstance() {
         log = XLog.getLog(getClass());
@@ -552,20 +563,45 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         this.status = status;
     }
 
+    /**
+     * Store the definition and the configuration of the instance with the {@link WorkflowDefinitionService}, if it is
+     * enabled, so that the instance is written with their ids instead of their content. Otherwise the instance is written
+     * with its definition and configuration. To be called when the instance is about to be persisted.
+     *
+     * @throws IOException thrown if the definition or the configuration could not be stored.
+     */
+    public void storeDefinition() throws IOException {
+        WorkflowDefinitionService definitionService = getDefinitionService();
+        if (definitionService != null && definitionService.isEnabled()) {
+            if (confId == null) {
+                confId = definitionService.store(serializeConf());
+            }
+            if (defId == null) {
+                defId = definitionService.store(WritableUtils.toByteArray(def));
+            }
+        }
+        else {
+            confId = null;
+            defId = null;
+        }
+    }
+
     @Override
     public void write(DataOutput dOut) throws IOException {
+        if (confId != null && defId != null) {
+            dOut.writeShort(STORED_DEFINITION_MARKER);
+            dOut.writeUTF(instanceId);
+            dOut.writeUTF(confId);
+            dOut.writeUTF(defId);
+        }
+        else {
+            dOut.writeUTF(instanceId);
+            byte[] array = serializeConf();
+            dOut.writeInt(array.length);
+            dOut.write(array);
+            def.write(dOut);
+        }
 
-        dOut.writeUTF(instanceId);
-
-        //Hadoop Configuration has to get its act right
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        conf.writeXml(baos);
-        baos.close();
-        byte[] array = baos.toByteArray();
-        dOut.writeInt(array.length);
-        dOut.write(array);
-
-        def.write(dOut);
         dOut.writeUTF(status.toString());
         dOut.writeInt(executionPaths.size());
         for (Map.Entry<String, NodeInstance> entry : executionPaths.entrySet()) {
@@ -580,19 +616,42 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         }
     }
 
+    private byte[] serializeConf() throws IOException {
+        //Hadoop Configuration has to get its act right
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        conf.writeXml(baos);
+        baos.close();
+        return baos.toByteArray();
+    }
+
     @Override
     public void readFields(DataInput dIn) throws IOException {
-        instanceId = dIn.readUTF();
+        int idLength = dIn.readUnsignedShort();
+        if (idLength == STORED_DEFINITION_MARKER) {
+            instanceId = dIn.readUTF();
+            confId = dIn.readUTF();
+            defId = dIn.readUTF();
+            WorkflowDefinitionService definitionService = getDefinitionService();
+            if (definitionService == null) {
+                throw new IOException("WorkflowDefinitionService is required to read workflow instance " + instanceId);
+            }
+            conf = new XConfiguration(new ByteArrayInputStream(definitionService.get(confId)));
+            def = new LiteWorkflowApp();
+            def.readFields(new DataInputStream(new ByteArrayInputStream(definitionService.get(defId))));
+        }
+        else {
+            instanceId = readUTF(dIn, idLength);
 
-        //Hadoop Configuration has to get its act right
-        int len = dIn.readInt();
-        byte[] array = new byte[len];
-        dIn.readFully(array);
-        ByteArrayInputStream bais = new ByteArrayInputStream(array);
-        conf = new XConfiguration(bais);
-
-        def = new LiteWorkflowApp();
-        def.readFields(dIn);
+            //Hadoop Configuration has to get its act right
+            int len = dIn.readInt();
+            byte[] array = new byte[len];
+            dIn.readFully(array);
+            ByteArrayInputStream bais = new ByteArrayInputStream(array);
+            conf = new XConfiguration(bais);
+
+            def = new LiteWorkflowApp();
+            def.readFields(dIn);
+        }
         status = Status.valueOf(dIn.readUTF());
         int numExPaths = dIn.readInt();
         for (int x = 0; x < numExPaths; x++) {
@@ -611,6 +670,20 @@ public class LiteWorkflowInstance implements Writable, WorkflowInstance {
         refreshLog();
     }
 
+    // reads the rest of a string written by DataOutput.writeUTF() whose length has already been read
+    private static String readUTF(DataInput dIn, int length) throws IOException {
+        byte[] bytes = new byte[length + 2];
+        bytes[0] = (byte) (length >>> 8);
+        bytes[1] = (byte) length;
+        dIn.readFully(bytes, 2, length);
+        return new DataInputStream(new ByteArrayInputStream(bytes)).readUTF();
+    }
+
+    private static WorkflowDefinitionService getDefinitionService() {
+        Services services = Services.get();
+        return services == null ? null : services.get(WorkflowDefinitionService.class);
+    }
+
     @Override
     public Configuration getConf() {
         return conf;
@@ -25,16 +25,29 @@ import java.io.IOException;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 
+import org.apache.oozie.action.hadoop.LauncherAMCallbackNotifier;
+import org.apache.oozie.util.IOUtils;
+
 /**
- * Servlet that keeps track of the last query string it recieved
+ * Servlet that keeps track of the last query string it recieved, and of the last action data posted to it
  */
 public class QueryServlet extends HttpServlet {
 
     public static String lastQueryString = null;
+    public static String lastData = null;
+    public static String lastActionDataToken = null;
+    public static int postStatus = HttpServletResponse.SC_OK;
 
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
         lastQueryString = URLDecoder.decode(request.getQueryString(), StandardCharsets.UTF_8.name());
         response.setStatus(HttpServletResponse.SC_OK);
     }
 
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        lastQueryString = URLDecoder.decode(request.getQueryString(), StandardCharsets.UTF_8.name());
+        lastActionDataToken = request.getHeader(LauncherAMCallbackNotifier.ACTION_DATA_TOKEN_HEADER);
+        lastData = IOUtils.getReaderAsString(request.getReader(), -1);
+        response.setStatus(postStatus);
+    }
+
 }
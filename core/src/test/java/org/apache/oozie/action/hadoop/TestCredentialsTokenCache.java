@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.oozie.action.hadoop;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.io.Text;
+import org.apache.hadoop.mapreduce.security.token.delegation.DelegationTokenIdentifier;
+import org.apache.hadoop.security.Credentials;
+import org.apache.hadoop.security.token.Token;
+import org.apache.oozie.action.ActionExecutor.Context;
+import org.apache.oozie.client.WorkflowJob;
+import org.junit.Test;
+
+public class TestCredentialsTokenCache {
+
+    @Test
+    public void testCache() throws Exception {
+        CredentialsTokenCache cache = new CredentialsTokenCache(Collections.singleton("abc"), 0.5f, 3600, 100);
+        CountingProvider provider = new CountingProvider(0);
+        assertSame(provider, cache.wrap("other", provider));
+        CredentialsProvider cachingProvider = cache.wrap("abc", provider);
+        assertNotSame(provider, cachingProvider);
+
+        CredentialsProperties props = newProperties("thrift://metastore:9083");
+        Credentials credentials = new Credentials();
+        cachingProvider.updateCredentials(credentials, new Configuration(false), props, newContext("user1"));
+        assertNotNull(credentials.getToken(new Text("token")));
+        assertEquals(1, provider.calls);
+
+        // the same user with the same properties gets the cached token
+        Credentials cachedCredentials = new Credentials();
+        cachingProvider.updateCredentials(cachedCredentials, new Configuration(false), newProperties("thrift://metastore:9083"),
+                newContext("user1"));
+        assertSame(credentials.getToken(new Text("token")), cachedCredentials.getToken(new Text("token")));
+        assertEquals(1, provider.calls);
+        assertEquals(1, cache.size());
+
+        // another user or another service gets a new token
+        cachingProvider.updateCredentials(new Credentials(), new Configuration(false), props, newContext("user2"));
+        assertEquals(2, provider.calls);
+        cachingProvider.updateCredentials(new Credentials(), new Configuration(false), newProperties("thrift://other:9083"),
+                newContext("user1"));
+        assertEquals(3, provider.calls);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testRenewal() throws Exception {
+        // tokens living 200 ms are reused for 100 ms
+        CredentialsTokenCache cache = new CredentialsTokenCache(Collections.singleton("abc"), 0.5f, 3600, 100);
+        CountingProvider provider = new CountingProvider(200);
+        CredentialsProvider cachingProvider = cache.wrap("abc", provider);
+        CredentialsProperties props = newProperties("thrift://metastore:9083");
+        cachingProvider.updateCredentials(new Credentials(), new Configuration(false), props, newContext("user1"));
+        assertEquals(1, provider.calls);
+        Thread.sleep(150);
+        Credentials credentials = new Credentials();
+        cachingProvider.updateCredentials(credentials, new Configuration(false), props, newContext("user1"));
+        assertEquals(2, provider.calls);
+        assertNotNull(credentials.getToken(new Text("token")));
+
+        // the maximum lifetime applies to the tokens living longer
+        cache = new CredentialsTokenCache(Collections.singleton("abc"), 0.5f, 0, 100);
+        provider = new CountingProvider(3600 * 1000);
+        cachingProvider = cache.wrap("abc", provider);
+        cachingProvider.updateCredentials(new Credentials(), new Configuration(false), props, newContext("user1"));
+        cachingProvider.updateCredentials(new Credentials(), new Configuration(false), props, newContext("user1"));
+        assertEquals(2, provider.calls);
+    }
+
+    @Test
+    public void testCachedHbaseTokensStillUpdateConf() throws Exception {
+        CredentialsTokenCache cache = new CredentialsTokenCache(Collections.singleton("hbase"), 0.5f, 3600, 100);
+        final CountingProvider counting = new CountingProvider(0);
+        CredentialsProvider cachingProvider = cache.wrap("hbase", new HbaseCredentials() {
+            @Override
+            public void updateCredentials(Credentials credentials, Configuration config, CredentialsProperties props,
+                    Context context) throws Exception {
+                copyHbaseConfToJobConf(config, props);
+                counting.updateCredentials(credentials, config, props, context);
+            }
+        });
+        CredentialsProperties props = newProperties("thrift://metastore:9083");
+        props.getProperties().put("hbase.zookeeper.quorum", "zk1,zk2");
+        cachingProvider.updateCredentials(new Credentials(), new Configuration(false), props, newContext("user1"));
+
+        // the action getting the cached token still gets the hbase configuration
+        Configuration config = new Configuration(false);
+        Credentials credentials = new Credentials();
+        cachingProvider.updateCredentials(credentials, config, props, newContext("user1"));
+        assertEquals(1, counting.calls);
+        assertNotNull(credentials.getToken(new Text("token")));
+        assertEquals("zk1,zk2", config.get("hbase.zookeeper.quorum"));
+        assertNotNull(config.get("hbase.client.retries.number"));
+    }
+
+    private CredentialsProperties newProperties(String uri) {
+        CredentialsProperties props = new CredentialsProperties("name", "abc");
+        props.getProperties().put("hcat.metastore.uri", uri);
+        return props;
+    }
+
+    private Context newContext(String user) {
+        WorkflowJob workflow = mock(WorkflowJob.class);
+        when(workflow.getUser()).thenReturn(user);
+        Context context = mock(Context.class);
+        when(context.getWorkflow()).thenReturn(workflow);
+        return context;
+    }
+
+    private static class CountingProvider implements CredentialsProvider {
+        private final long lifetime;
+        private int calls;
+
+        private CountingProvider(long lifetime) {
+            this.lifetime = lifetime;
+        }
+
+        @Override
+        public void updateCredentials(Credentials credentials, Configuration config, CredentialsProperties props,
+                Context context) throws Exception {
+            calls++;
+            DelegationTokenIdentifier identifier = new DelegationTokenIdentifier(new Text(context.getWorkflow().getUser()),
+                    new Text("oozie"), new Text("oozie"));
+            long now = System.currentTimeMillis();
+            identifier.setIssueDate(now);
+            identifier.setMaxDate(now + lifetime);
+            credentials.addToken(new Text("token"), new Token<>(identifier.getBytes(), new byte[0], identifier.getKind(),
+                    new Text(props.getProperties().get("hcat.metastore.uri"))));
+        }
+    }
+}
@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
@@ -68,6 +69,7 @@ import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.local.LocalOozie;
+import org.apache.oozie.service.CallbackService;
 import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.HadoopAccessorService;
 import org.apache.oozie.service.LiteWorkflowStoreService;
@@ -440,6 +442,35 @@ public class TestJavaActionExecutor extends ActionExecutorTestCase {
     }
 
 
+    public void testOutputFromCallbackActionData() throws Exception {
+        String actionXml = "<java>" +
+                "<job-tracker>" + getJobTrackerUri() + "</job-tracker>" +
+                "<name-node>" + getNameNodeUri() + "</name-node>" +
+                "<main-class>" + LauncherMainTester.class.getName() + "</main-class>" +
+                "<capture-output/>" +
+                "</java>";
+        Context context = createContext(actionXml, null);
+        final String runningJob = submitAction(context);
+        waitUntilYarnAppDoneAndAssertSuccess(runningJob);
+
+        // the action data sent with the callback is used instead of the action data file
+        CallbackService callbackService = Services.get().get(CallbackService.class);
+        Map<String, String> actionData = new HashMap<>();
+        actionData.put(LauncherAM.ACTION_DATA_FINAL_STATUS, FinalApplicationStatus.SUCCEEDED.toString());
+        actionData.put(LauncherAM.ACTION_DATA_OUTPUT_PROPS, "b=B\n");
+        callbackService.putActionData(context.getAction().getId(), actionData);
+        ActionExecutor ae = new JavaActionExecutor();
+        ae.check(context, context.getAction());
+        assertEquals("SUCCEEDED", context.getAction().getExternalStatus());
+        Properties props = new Properties();
+        props.load(new StringReader(context.getAction().getData()));
+        assertEquals("B", props.get("b"));
+        assertNull(callbackService.getActionData(context.getAction().getId()));
+
+        ae.end(context, context.getAction());
+        assertEquals(WorkflowAction.Status.OK, context.getAction().getStatus());
+    }
+
     public void testIdSwapSubmitOK() throws Exception {
         String actionXml = "<java>" +
                 "<job-tracker>" + getJobTrackerUri() + "</job-tracker>" +
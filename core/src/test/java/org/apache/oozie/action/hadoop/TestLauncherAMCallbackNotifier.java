@@ -25,14 +25,17 @@ import org.apache.oozie.action.hadoop.LauncherAM.OozieActionResult;
 import org.apache.oozie.command.wf.HangServlet;
 import org.apache.oozie.test.EmbeddedServletContainer;
 import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.PropertiesUtils;
 import org.junit.Assert;
 import org.mockito.Mockito;
 
 import java.net.Proxy;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Properties;
 
 import javax.servlet.Servlet;
+import javax.servlet.http.HttpServletResponse;
 
 // A lot of this adapted from org.apache.hadoop.mapreduce.v2.app.TestJobEndNotifier and org.apache.hadoop.mapred.TestJobEndNotifier
 public class TestLauncherAMCallbackNotifier extends XTestCase {
@@ -42,6 +45,9 @@ public class TestLauncherAMCallbackNotifier extends XTestCase {
     public void setUp() throws Exception {
         super.setUp();
         QueryServlet.lastQueryString = null;
+        QueryServlet.lastData = null;
+        QueryServlet.lastActionDataToken = null;
+        QueryServlet.postStatus = HttpServletResponse.SC_OK;
     }
 
     @Override
@@ -172,6 +178,39 @@ public class TestLauncherAMCallbackNotifier extends XTestCase {
         waitForCallbackAndCheckResult(FinalApplicationStatus.FAILED.toString());
     }
 
+    public void testNotifyWithActionData() throws Exception {
+        Configuration conf = setupEmbeddedContainer(QueryServlet.class, "/count/*", "/count/?status=$jobStatus", null);
+        conf.setInt(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE, 1024);
+        conf.set(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_TOKEN, "token");
+        Map<String, String> actionData = new HashMap<String, String>();
+        actionData.put(LauncherAM.ACTION_DATA_FINAL_STATUS, OozieActionResult.SUCCEEDED.toString());
+        actionData.put(LauncherAM.ACTION_DATA_OUTPUT_PROPS, "a=A\nb=B\n");
+
+        LauncherAMCallbackNotifier cn = new LauncherAMCallbackNotifier(conf);
+        assertTrue(cn.notifyURLWithActionData(OozieActionResult.SUCCEEDED, actionData));
+        assertEquals("status=" + OozieActionResult.SUCCEEDED, QueryServlet.lastQueryString);
+        assertEquals("token", QueryServlet.lastActionDataToken);
+        Properties props = PropertiesUtils.stringToProperties(QueryServlet.lastData);
+        assertEquals(actionData, new HashMap<Object, Object>(props));
+
+        // background actions, too large action data or action data refused by the server are uploaded to HDFS
+        QueryServlet.lastQueryString = null;
+        assertFalse(cn.notifyURLWithActionData(OozieActionResult.RUNNING, actionData));
+        conf.setInt(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE, 10);
+        assertFalse(new LauncherAMCallbackNotifier(conf).notifyURLWithActionData(OozieActionResult.SUCCEEDED, actionData));
+        assertNull(QueryServlet.lastQueryString);
+        conf.setInt(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE, 1024);
+        QueryServlet.postStatus = HttpServletResponse.SC_FORBIDDEN;
+        assertFalse(new LauncherAMCallbackNotifier(conf).notifyURLWithActionData(OozieActionResult.SUCCEEDED, actionData));
+
+        // no action data is sent if the server didn't give a token
+        conf.unset(LauncherAMCallbackNotifier.OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_TOKEN);
+        QueryServlet.postStatus = HttpServletResponse.SC_OK;
+        QueryServlet.lastQueryString = null;
+        assertFalse(new LauncherAMCallbackNotifier(conf).notifyURLWithActionData(OozieActionResult.SUCCEEDED, actionData));
+        assertNull(QueryServlet.lastQueryString);
+    }
+
     private Configuration setupEmbeddedContainer(Class<? extends Servlet> servletClass, String servletEndPoint,
             String servletUrl, Map<String, String> params) throws Exception {
         container = new EmbeddedServletContainer("test");
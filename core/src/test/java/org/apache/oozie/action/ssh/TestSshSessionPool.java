@@ -0,0 +1,199 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.action.ssh;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.oozie.test.XTestCase;
+
+public class TestSshSessionPool extends XTestCase {
+
+    private static class FakeConnection implements SshSessionPool.Connection {
+        private final String userHost;
+        private CountDownLatch release;
+        private boolean connected = true;
+        private int commands;
+
+        private FakeConnection(String userHost, CountDownLatch release) {
+            this.userHost = userHost;
+            this.release = release;
+        }
+
+        @Override
+        public synchronized boolean isConnected() {
+            return connected;
+        }
+
+        @Override
+        public SshSessionPool.Result exec(String command, byte[] input, int maxLen) throws IOException {
+            synchronized (this) {
+                commands++;
+            }
+            try {
+                release.await();
+            }
+            catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return new SshSessionPool.Result(0, new StringBuffer(userHost + ":" + command), new StringBuffer());
+        }
+
+        @Override
+        public synchronized void close() {
+            connected = false;
+        }
+    }
+
+    private static class FakeConnectionFactory implements SshSessionPool.ConnectionFactory {
+        private final List<FakeConnection> connections = new ArrayList<FakeConnection>();
+        private CountDownLatch release = new CountDownLatch(0);
+        private int attempts;
+
+        @Override
+        public synchronized SshSessionPool.Connection connect(String user, String host)
+                throws SshSessionPool.ConnectionException {
+            attempts++;
+            if (host.equals("unreachable")) {
+                throw new SshSessionPool.ConnectionException("Could not connect", null);
+            }
+            FakeConnection connection = new FakeConnection(user + "@" + host, release);
+            connections.add(connection);
+            return connection;
+        }
+    }
+
+    public void testSessionReused() throws Exception {
+        FakeConnectionFactory factory = new FakeConnectionFactory();
+        SshSessionPool pool = new SshSessionPool(factory, 2, 300, 300);
+        assertEquals("test@host1:ps -p 1", pool.exec("test@host1", "ps -p 1", null, 100).getOutput().toString());
+        assertEquals("test@host1:ps -p 2", pool.exec("test@host1", "ps -p 2", null, 100).getOutput().toString());
+        assertEquals("other@host1:ls", pool.exec("other@host1", "ls", null, 100).getOutput().toString());
+        assertEquals(2, factory.connections.size());
+        assertEquals(2, factory.connections.get(0).commands);
+        assertEquals(2, pool.getSessionCount());
+
+        // a disconnected session is replaced
+        factory.connections.get(0).close();
+        pool.exec("test@host1", "ps -p 3", null, 100);
+        assertEquals(3, factory.connections.size());
+        assertEquals(2, pool.getSessionCount());
+
+        pool.close();
+        assertEquals(0, pool.getSessionCount());
+        for (FakeConnection connection : factory.connections) {
+            assertFalse(connection.isConnected());
+        }
+    }
+
+    public void testChannelsPerSession() throws Exception {
+        final FakeConnectionFactory factory = new FakeConnectionFactory();
+        factory.release = new CountDownLatch(1);
+        final SshSessionPool pool = new SshSessionPool(factory, 2, 300, 300);
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<SshSessionPool.Result>> results = new ArrayList<Future<SshSessionPool.Result>>();
+            for (int i = 0; i < 5; i++) {
+                final String command = "ps -p " + i;
+                results.add(executor.submit(new Callable<SshSessionPool.Result>() {
+                    @Override
+                    public SshSessionPool.Result call() throws Exception {
+                        return pool.exec("test@host1", command, null, 100);
+                    }
+                }));
+            }
+            waitFor(5000, new Predicate() {
+                @Override
+                public boolean evaluate() throws Exception {
+                    return pool.getSessionCount() == 3;
+                }
+            });
+            // 5 concurrent commands with 2 channels per session
+            assertEquals(3, pool.getSessionCount());
+            factory.release.countDown();
+            for (Future<SshSessionPool.Result> result : results) {
+                assertEquals(0, result.get().getExitValue());
+            }
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        pool.exec("test@host1", "ls", null, 100);
+        assertEquals(3, factory.connections.size());
+    }
+
+    public void testIdleSessionsClosed() throws Exception {
+        FakeConnectionFactory factory = new FakeConnectionFactory();
+        SshSessionPool pool = new SshSessionPool(factory, 2, 1, 300);
+        pool.exec("test@host1", "ls", null, 100);
+        Thread.sleep(1100);
+        pool.exec("test@host2", "ls", null, 100);
+        assertEquals(1, pool.getSessionCount());
+        assertFalse(factory.connections.get(0).isConnected());
+        assertTrue(factory.connections.get(1).isConnected());
+    }
+
+    public void testConnectionFailure() throws Exception {
+        SshSessionPool pool = new SshSessionPool(new FakeConnectionFactory(), 2, 300, 300);
+        try {
+            pool.exec("test@unreachable", "ls", null, 100);
+            fail("Expected exception");
+        }
+        catch (SshSessionPool.ConnectionException e) {
+            assertEquals("Could not connect", e.getMessage());
+        }
+        assertEquals(0, pool.getSessionCount());
+    }
+
+    public void testFailedHostNotRetriedDuringBackoff() throws Exception {
+        FakeConnectionFactory factory = new FakeConnectionFactory();
+        SshSessionPool pool = new SshSessionPool(factory, 2, 300, 300);
+        for (int i = 0; i < 3; i++) {
+            try {
+                pool.exec("test@unreachable", "ls", null, 100);
+                fail("Expected exception");
+            }
+            catch (SshSessionPool.ConnectionException e) {
+                // expected
+            }
+        }
+        assertEquals(1, factory.attempts);
+        // the other hosts are still connected to
+        pool.exec("test@host1", "ls", null, 100);
+        assertEquals(2, factory.attempts);
+
+        pool = new SshSessionPool(factory, 2, 300, 0);
+        for (int i = 0; i < 2; i++) {
+            try {
+                pool.exec("test@unreachable", "ls", null, 100);
+                fail("Expected exception");
+            }
+            catch (SshSessionPool.ConnectionException e) {
+                // expected
+            }
+        }
+        assertEquals(4, factory.attempts);
+    }
+}
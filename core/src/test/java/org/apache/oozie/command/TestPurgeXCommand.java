@@ -34,6 +34,7 @@ import org.apache.oozie.client.OozieClient;
 import org.apache.oozie.client.WorkflowAction;
 import org.apache.oozie.client.WorkflowJob;
 import org.apache.oozie.client.rest.JsonBean;
+import org.apache.oozie.client.rest.JsonTags;
 import org.apache.oozie.executor.jpa.BundleActionGetJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.BundleJobInsertJPAExecutor;
@@ -49,7 +50,9 @@ import org.apache.oozie.executor.jpa.WorkflowJobGetJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobInsertJPAExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobQueryExecutor;
 import org.apache.oozie.executor.jpa.WorkflowJobQueryExecutor.WorkflowJobQuery;
+import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.PurgeService;
 import org.apache.oozie.service.LiteWorkflowStoreService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.UUIDService;
@@ -66,8 +69,22 @@ import org.apache.oozie.workflow.lite.EndNodeDef;
 import org.apache.oozie.workflow.lite.LiteWorkflowApp;
 import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
 import org.apache.oozie.workflow.lite.StartNodeDef;
-
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilenameFilter;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 public class TestPurgeXCommand extends XDataTestCase {
     private JPAService jpaService;
@@ -620,6 +637,94 @@ public class TestPurgeXCommand extends XDataTestCase {
         assertWorkflowActionsPurged(wfActions);
     }
 
+    /**
+     * Test : Purge runs started in the same second write their own archive files
+     *
+     * @throws Exception if cannot insert records to the database
+     */
+    public void testArchivesOfConcurrentPurges() throws Exception {
+        File archiveDir = new File(getTestCaseDir(), "archive");
+        WorkflowJobBean wfJob = addRecordToWfJobTable(WorkflowJob.Status.SUCCEEDED, WorkflowInstance.Status.SUCCEEDED);
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Date purgeTime = new Date();
+        PurgeArchiver archiver1 = new PurgeArchiver(jpaService, archiveDir.toURI().toString(), purgeTime);
+        PurgeArchiver archiver2 = new PurgeArchiver(jpaService, archiveDir.toURI().toString(), purgeTime);
+        try {
+            assertEquals(1, archiver1.archive(PurgeArchiver.WORKFLOWS, Collections.singletonList(wfJob.getId())));
+            assertEquals(1, archiver2.archive(PurgeArchiver.WORKFLOWS, Collections.singletonList(wfJob.getId())));
+        }
+        finally {
+            archiver1.close();
+            archiver2.close();
+        }
+        File[] archives = archiveDir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".gz");
+            }
+        });
+        assertNotNull(archives);
+        assertEquals(2, archives.length);
+    }
+
+    /**
+     * Test : The bundle, coordinators and workflows get purged in chunks, and archived before they are deleted
+     *
+     * @throws Exception if cannot insert records to the database
+     */
+    public void testChunkedPurgeWithArchive() throws Exception {
+        File archiveDir = new File(getTestCaseDir(), "archive");
+        ConfigurationService.set(PurgeService.CHUNK_SIZE, "2");
+        ConfigurationService.set(PurgeService.CHUNK_INTERVAL, "10");
+        ConfigurationService.set(PurgeService.ARCHIVE_DIR, archiveDir.toURI().toString());
+        BundleJobBean bundleJob = addRecordToBundleJobTable(Job.Status.SUCCEEDED, DateUtils.parseDateOozieTZ("2011-01-01T01:00Z"));
+        CoordinatorJobBean[] coordJobs = new CoordinatorJobBean[TEST_CHILD_NUM];
+        WorkflowJobBean[] wfJobs = new WorkflowJobBean[TEST_CHILD_NUM];
+        WorkflowActionBean[] wfActions = new WorkflowActionBean[TEST_CHILD_NUM];
+        CoordinatorActionBean[] coordActions = new CoordinatorActionBean[TEST_CHILD_NUM];
+        for (int i = 0; i < TEST_CHILD_NUM; ++i) {
+            coordJobs[i] = addRecordToCoordJobTable(CoordinatorJob.Status.SUCCEEDED, false, false);
+            wfJobs[i] = addRecordToWfJobTable(WorkflowJob.Status.SUCCEEDED, WorkflowInstance.Status.SUCCEEDED);
+            wfActions[i] = addRecordToWfActionTable(wfJobs[i].getId(), "1", WorkflowAction.Status.OK);
+            coordActions[i] = addRecordToCoordActionTable(coordJobs[i].getId(), 1, CoordinatorAction.Status.SUCCEEDED,
+                    "coord-action-get.xml", wfJobs[i].getId(), "SUCCEEDED", 0);
+            addRecordToBundleActionTable(bundleJob.getId(), coordJobs[i].getId(), "coord" + i, 0, Job.Status.SUCCEEDED);
+        }
+
+        purgeWithDefaultParameters();
+
+        assertBundleJobPurged(bundleJob);
+        assertCoordinatorJobsPurged(coordJobs);
+        assertCoordinatorActionsPurged(coordActions);
+        assertWorkflowJobsPurged(wfJobs);
+        assertWorkflowActionsPurged(wfActions);
+
+        File[] archives = archiveDir.listFiles();
+        assertNotNull(archives);
+        Map<String, List<JSONObject>> archived = new HashMap<>();
+        for (File archive : archives) {
+            if (archive.getName().endsWith(".gz")) {
+                List<JSONObject> jobs = new ArrayList<>();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(new FileInputStream(archive)), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        jobs.add((JSONObject) JSONValue.parse(line));
+                    }
+                }
+                archived.put(archive.getName().replaceAll("^purge-[0-9]{8}-[0-9]{6}-[0-9a-f]{8}-|\\.json\\.gz$", ""), jobs);
+            }
+        }
+        assertEquals(4, archived.size());
+        assertEquals(TEST_CHILD_NUM, archived.get(PurgeArchiver.WORKFLOWS).size());
+        JSONObject wfJson = archived.get(PurgeArchiver.WORKFLOWS).get(0);
+        assertEquals(1, ((List<?>) wfJson.get(JsonTags.WORKFLOW_ACTIONS)).size());
+        assertEquals(TEST_CHILD_NUM, archived.get(PurgeArchiver.COORD_ACTIONS).size());
+        assertEquals(TEST_CHILD_NUM, archived.get(PurgeArchiver.COORDINATORS).size());
+        assertEquals(1, archived.get(PurgeArchiver.BUNDLES).size());
+        assertEquals(bundleJob.getId(), archived.get(PurgeArchiver.BUNDLES).get(0).get(JsonTags.BUNDLE_JOB_ID));
+    }
+
     /**
      * Test : The subworkflow should get purged, but the workflow parent shouldn't get purged --> neither will get purged
      *
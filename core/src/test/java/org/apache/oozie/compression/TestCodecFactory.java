@@ -22,8 +22,12 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.BinaryBlob;
@@ -106,4 +110,90 @@ public class TestCodecFactory extends XTestCase {
             // expected
         }
     }
+
+    @Test
+    public void testBuiltInCodecs() throws Exception {
+        String data = XML_PAYLOAD + XML_PAYLOAD;
+        for (String codecName : new String[] {GzipCompressionCodec.CODEC_NAME, Lz4CompressionCodec.CODEC_NAME,
+                ZstdCompressionCodec.CODEC_NAME}) {
+            Configuration conf = services.getConf();
+            conf.set(CodecFactory.COMPRESSION_OUTPUT_CODEC, codecName);
+            CodecFactory.initialize(conf);
+            BinaryBlob binaryBlob = new BinaryBlob(data.getBytes(StandardCharsets.UTF_8), true);
+            byte[] rawBlob = binaryBlob.getRawBlob();
+            assertTrue(codecName, rawBlob.length < data.length());
+            assertEquals(codecName, data, new String(new BinaryBlob(rawBlob, false).getBytes(), StandardCharsets.UTF_8));
+            StringBlob stringBlob = new StringBlob(data);
+            assertEquals(codecName, data, new StringBlob(stringBlob.getRawBlob()).getString());
+            assertEquals(codecName, "", new StringBlob(new StringBlob("").getRawBlob()).getString());
+        }
+    }
+
+    @Test
+    public void testRecompress() throws Exception {
+        Configuration conf = services.getConf();
+        byte[] uncompressed = XML_PAYLOAD.getBytes(StandardCharsets.UTF_8);
+        byte[] gzipped = new BinaryBlob(uncompressed, true).getRawBlob();
+        assertNull(CodecFactory.recompress(gzipped, false));
+
+        conf.set(CodecFactory.COMPRESSION_OUTPUT_CODEC, ZstdCompressionCodec.CODEC_NAME);
+        CodecFactory.initialize(conf);
+        byte[] recompressed = CodecFactory.recompress(gzipped, false);
+        assertEquals(ZstdCompressionCodec.class, getCodec(recompressed).getClass());
+        assertEquals(XML_PAYLOAD, new String(new BinaryBlob(recompressed, false).getBytes(), StandardCharsets.UTF_8));
+        assertNull(CodecFactory.recompress(recompressed, false));
+        assertNotNull(CodecFactory.recompress(recompressed, true));
+        assertNotNull(CodecFactory.recompress(uncompressed, false));
+
+        conf.set(CodecFactory.COMPRESSION_OUTPUT_CODEC, "none");
+        CodecFactory.initialize(conf);
+        assertEquals(XML_PAYLOAD, new String(CodecFactory.recompress(recompressed, false), StandardCharsets.UTF_8));
+        assertNull(CodecFactory.recompress(uncompressed, true));
+    }
+
+    @Test
+    public void testZstdDictionary() throws Exception {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        for (int i = 0; i < 2000; i++) {
+            samples.add(XML_PAYLOAD.replace("0000001", String.format("%07d", i)).getBytes(StandardCharsets.UTF_8));
+        }
+        File dictionaryFile = new File(getTestCaseDir(), "zstd.dict");
+        Files.write(dictionaryFile.toPath(), ZstdCompressionCodec.trainDictionary(samples, 4096));
+
+        Configuration conf = services.getConf();
+        conf.set(CodecFactory.COMPRESSION_OUTPUT_CODEC, ZstdCompressionCodec.CODEC_NAME);
+        CodecFactory.initialize(conf);
+        byte[] withoutDictionary = new BinaryBlob(samples.get(1000), true).getRawBlob();
+
+        conf.set(ZstdCompressionCodec.CONF_DICTIONARIES, dictionaryFile.getAbsolutePath());
+        CodecFactory.initialize(conf);
+        byte[] withDictionary = new BinaryBlob(samples.get(1000), true).getRawBlob();
+        assertTrue(withDictionary.length < withoutDictionary.length);
+        assertEquals(new String(samples.get(1000), StandardCharsets.UTF_8),
+                new String(new BinaryBlob(withDictionary, false).getBytes(), StandardCharsets.UTF_8));
+        // data compressed without a dictionary can still be read
+        assertEquals(new String(samples.get(1000), StandardCharsets.UTF_8),
+                new String(new BinaryBlob(withoutDictionary, false).getBytes(), StandardCharsets.UTF_8));
+
+        conf.set(ZstdCompressionCodec.CONF_DICTIONARIES, "");
+        CodecFactory.initialize(conf);
+        try {
+            new BinaryBlob(withDictionary, false).getBytes();
+            fail("Data compressed with an unknown dictionary should not be readable");
+        }
+        catch (RuntimeException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(ZstdCompressionCodec.CONF_DICTIONARIES));
+        }
+    }
+
+    private static CompressionCodec getCodec(byte[] rawBlob) throws IOException {
+        return CodecFactory.getDeCompressionCodec(new DataInputStream(new ByteArrayInputStream(rawBlob)));
+    }
+
+    private static final String XML_PAYLOAD = "<configuration>"
+            + "<property><name>mapreduce.job.queuename</name><value>default</value></property>"
+            + "<property><name>oozie.action.id</name><value>0000001-191001000000000-oozie-oozi-W@java</value></property>"
+            + "<property><name>oozie.launcher.mapreduce.map.memory.mb</name><value>2048</value></property>"
+            + "<property><name>user.name</name><value>test</value></property>"
+            + "</configuration>";
 }
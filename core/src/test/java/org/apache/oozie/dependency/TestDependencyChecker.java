@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.dependency;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.oozie.client.OozieClient;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XFsTestCase;
+
+public class TestDependencyChecker extends XFsTestCase {
+
+    private Services services;
+    private JobConf conf;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        conf = createJobConf();
+        conf.set(OozieClient.USER_NAME, getTestUser());
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testDoneFlagsAreProbedUpToFirstMissing() throws Exception {
+        List<String> dependencies = createInstances("stop", "/_SUCCESS");
+
+        long readOps = getReadOps();
+        ActionDependency dependency = DependencyChecker.checkForAvailability(dependencies, conf, true);
+        // the two available instances and the first missing one
+        assertEquals(3, getReadOps() - readOps);
+        assertEquals(dependencies.subList(0, 2), dependency.getAvailableDependencies());
+        assertEquals(dependencies.subList(2, 5), dependency.getMissingDependencies());
+
+        dependencies = createInstances("all", "/_SUCCESS");
+        readOps = getReadOps();
+        dependency = DependencyChecker.checkForAvailability(dependencies, conf, false);
+        assertEquals(5, getReadOps() - readOps);
+        assertEquals(dependencies.subList(0, 2), dependency.getAvailableDependencies());
+        assertEquals(dependencies.subList(2, 5), dependency.getMissingDependencies());
+    }
+
+    public void testInstancesOfADirectoryAreListedOnce() throws Exception {
+        List<String> dependencies = createInstances("list", "");
+
+        long readOps = getReadOps();
+        ActionDependency dependency = DependencyChecker.checkForAvailability(dependencies, conf, true);
+        assertEquals(1, getReadOps() - readOps);
+        assertEquals(dependencies.subList(0, 2), dependency.getAvailableDependencies());
+        assertEquals(dependencies.subList(2, 5), dependency.getMissingDependencies());
+    }
+
+    /**
+     * Create a dataset with 5 instances, of which the first 2 are available.
+     */
+    private List<String> createInstances(String dataset, String doneFlag) throws Exception {
+        Path dir = new Path(getFsTestCaseDir(), dataset);
+        List<String> dependencies = new ArrayList<String>();
+        for (int i = 1; i <= 5; i++) {
+            Path instance = new Path(dir, "0" + i);
+            if (i <= 2) {
+                getFileSystem().create(new Path(instance, "_SUCCESS")).close();
+            }
+            dependencies.add(instance.toUri().toString() + doneFlag);
+        }
+        return dependencies;
+    }
+
+    private long getReadOps() throws Exception {
+        return FileSystem.getStatistics(getFileSystem().getUri().getScheme(), getFileSystem().getClass()).getReadOps();
+    }
+}
@@ -19,9 +19,14 @@
 package org.apache.oozie.dependency;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapred.JobConf;
+import org.apache.oozie.service.InstrumentationService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.URIHandlerService;
 import org.apache.oozie.test.XFsTestCase;
@@ -62,4 +67,59 @@ public class TestFSURIHandler extends XFsTestCase {
 
     }
 
+    @Test
+    public void testExistsCache() throws Exception {
+        Path path = new Path(getFsTestCaseDir() + "/2012/12/02/");
+        URIHandler handler = uriService.getURIHandler(path.toUri());
+        assertFalse(handler.exists(path.toUri(), conf, getTestUser()));
+        // missing paths are not cached
+        getFileSystem().mkdirs(path);
+        assertTrue(handler.exists(path.toUri(), conf, getTestUser()));
+
+        // existing paths are cached until deleted through the handler
+        getFileSystem().delete(path, true);
+        assertTrue(handler.exists(path.toUri(), conf, getTestUser()));
+        URIHandler.Context context = handler.getContext(path.toUri(), conf, getTestUser(), false);
+        assertTrue(handler.exists(path.toUri(), context));
+        getFileSystem().mkdirs(path);
+        handler.delete(new Path(getFsTestCaseDir() + "/2012").toUri(), conf, getTestUser());
+        assertFalse(handler.exists(path.toUri(), conf, getTestUser()));
+        assertEquals(2, services.get(InstrumentationService.class).get().getCounters()
+                .get(URIExistenceCache.INSTRUMENTATION_GROUP).get("hits").getValue().longValue());
+    }
+
+    @Test
+    public void testExistsCacheDisabled() throws Exception {
+        services.destroy();
+        setSystemProperty(FSURIHandler.CONF_EXISTS_CACHE_TTL, "0");
+        services = new Services();
+        services.init();
+        uriService = services.get(URIHandlerService.class);
+        Path path = new Path(getFsTestCaseDir() + "/2012/12/02/");
+        getFileSystem().mkdirs(path);
+        URIHandler handler = uriService.getURIHandler(path.toUri());
+        assertTrue(handler.exists(path.toUri(), conf, getTestUser()));
+        getFileSystem().delete(path, true);
+        assertFalse(handler.exists(path.toUri(), conf, getTestUser()));
+    }
+
+    @Test
+    public void testBulkExists() throws Exception {
+        Path dir = new Path(getFsTestCaseDir() + "/2012/12");
+        getFileSystem().mkdirs(new Path(dir, "02"));
+        getFileSystem().create(new Path(dir, "03/_SUCCESS")).close();
+        List<URI> uris = new ArrayList<URI>();
+        for (String path : new String[] {"01", "02", "03", "03/_SUCCESS", "04/_SUCCESS", "../../2013/01/01"}) {
+            uris.add(new Path(dir, path).toUri());
+        }
+        URIHandler handler = uriService.getURIHandler(uris.get(0));
+        Map<URI, Boolean> existing = handler.exists(uris, conf, getTestUser(), false);
+        assertEquals(uris, new ArrayList<URI>(existing.keySet()));
+        assertEquals(Arrays.asList(false, true, true, true, false, false), new ArrayList<Boolean>(existing.values()));
+
+        // the existing paths are cached
+        getFileSystem().delete(dir, true);
+        existing = handler.exists(uris, conf, getTestUser(), false);
+        assertEquals(Arrays.asList(false, true, true, true, false, false), new ArrayList<Boolean>(existing.values()));
+    }
 }
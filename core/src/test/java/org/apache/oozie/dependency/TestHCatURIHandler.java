@@ -19,6 +19,10 @@
 package org.apache.oozie.dependency;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.oozie.service.HCatAccessorService;
@@ -108,6 +112,32 @@ public class TestHCatURIHandler extends XHCatTestCase {
         dropTestTable(false);
     }
 
+    @Test
+    public void testBulkExists() throws Exception {
+        setSystemProperty(XTestCase.TEST_USER1_PROP, System.getProperty("user.name"));
+        createTestTable();
+
+        addPartition(db, table, "year=2012;month=12;dt=02;country=us");
+        addPartition(db, table, "year=2012;month=12;dt=03;country=us");
+        addPartition(db, table, "year=2012;month=11;dt=03;country=us");
+
+        List<URI> uris = Arrays.asList(getHCatURI(db, table, "year=2012;month=12;dt=01;country=us"),
+                getHCatURI(db, table, "year=2012;month=12;dt=02;country=us"),
+                getHCatURI(db, table, "year=2012;month=12;dt=03;country=us"),
+                getHCatURI(db, table, "year=2012;month=12;dt=03"),
+                getHCatURI(db, table, "dt=03"),
+                getHCatURI(db, table, "dt=04"));
+        URIHandler handler = uriService.getURIHandler(uris.get(0));
+        Map<URI, Boolean> existing = handler.exists(uris, conf, getTestUser(), false);
+        assertEquals(uris, new ArrayList<URI>(existing.keySet()));
+        for (URI uri : uris) {
+            assertEquals(uri.toString(), handler.exists(uri, conf, getTestUser()), existing.get(uri).booleanValue());
+        }
+        assertEquals(Arrays.asList(false, true, true, true, true, false), new ArrayList<Boolean>(existing.values()));
+
+        dropTestTable(false);
+    }
+
     public void testDeleteTable() throws Exception {
         try {
             createTestTable();
@@ -0,0 +1,139 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.dependency;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.oozie.ErrorCode;
+import org.apache.oozie.service.HadoopAccessorException;
+import org.apache.oozie.test.XTestCase;
+
+public class TestURIExistenceCache extends XTestCase {
+
+    public void testExists() throws Exception {
+        URIExistenceCache cache = new URIExistenceCache(60, 100);
+        CountingProbe probe = new CountingProbe(false);
+        assertFalse(cache.exists("user", "hdfs://nn/a/_SUCCESS", probe));
+        assertFalse(cache.exists("user", "hdfs://nn/a/_SUCCESS", probe));
+        assertEquals(2, probe.calls.get());
+        assertEquals(0, cache.size());
+
+        probe = new CountingProbe(true);
+        assertTrue(cache.exists("user", "hdfs://nn/a/_SUCCESS", probe));
+        assertTrue(cache.exists("user", "hdfs://nn/a/_SUCCESS", probe));
+        assertEquals(1, probe.calls.get());
+        // another user checks the path again
+        assertTrue(cache.exists("other", "hdfs://nn/a/_SUCCESS", probe));
+        assertEquals(2, probe.calls.get());
+
+        cache.exists("user", "hdfs://nn/ab", probe);
+        cache.invalidate("hdfs://nn/a");
+        assertEquals(1, cache.size());
+        assertTrue(cache.exists("user", "hdfs://nn/ab", probe));
+        assertEquals(3, probe.calls.get());
+    }
+
+    public void testExpiry() throws Exception {
+        URIExistenceCache cache = new URIExistenceCache(1, 100);
+        CountingProbe probe = new CountingProbe(true);
+        assertTrue(cache.exists("user", "hdfs://nn/a", probe));
+        Thread.sleep(1100);
+        assertTrue(cache.exists("user", "hdfs://nn/a", probe));
+        assertEquals(2, probe.calls.get());
+    }
+
+    public void testFailure() throws Exception {
+        URIExistenceCache cache = new URIExistenceCache(60, 100);
+        try {
+            cache.exists("user", "hdfs://nn/a", new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    throw new HadoopAccessorException(ErrorCode.E0902, "failure");
+                }
+            });
+            fail("Expected exception");
+        }
+        catch (HadoopAccessorException e) {
+            assertEquals(ErrorCode.E0902, e.getErrorCode());
+        }
+        assertEquals(0, cache.size());
+    }
+
+    public void testCoalescedProbes() throws Exception {
+        final URIExistenceCache cache = new URIExistenceCache(60, 100);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        final Callable<Boolean> probe = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                return false;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 5; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        return cache.exists("user", "hdfs://nn/a", probe);
+                    }
+                }));
+                if (i == 0) {
+                    started.await();
+                }
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Boolean> result : results) {
+                assertFalse(result.get());
+            }
+            assertEquals(1, calls.get());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static class CountingProbe implements Callable<Boolean> {
+        private final boolean exists;
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CountingProbe(boolean exists) {
+            this.exists = exists;
+        }
+
+        @Override
+        public Boolean call() {
+            calls.incrementAndGet();
+            return exists;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.event;
+
+import java.io.File;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.oozie.AppType;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.client.event.Event;
+import org.apache.oozie.client.event.Event.MessageType;
+import org.apache.oozie.client.event.SLAEvent.EventStatus;
+import org.apache.oozie.client.event.SLAEvent.SLAStatus;
+import org.apache.oozie.service.EventHandlerService;
+import org.apache.oozie.service.InstrumentationService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.sla.SLACalcStatus;
+import org.apache.oozie.sla.SLARegistrationBean;
+import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.Instrumentation;
+
+public class TestJournalEventQueue extends XTestCase {
+    private Services services;
+    private Configuration conf;
+    private JournalEventQueue queue;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        conf = new Configuration(services.getConf());
+        conf.set(JournalEventQueue.CONF_DIR, new File(getTestCaseDir(), "journal").getAbsolutePath());
+        conf.setInt(EventHandlerService.CONF_BATCH_SIZE, 3);
+        queue = new JournalEventQueue();
+        queue.init(conf);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        queue.close();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testQueueOperations() throws Exception {
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        assertNull(queue.peek());
+        assertEquals(3, queue.getBatchSize());
+        for (int i = 0; i < 10; i++) {
+            queue.add(event(i));
+        }
+        assertEquals(10, queue.size());
+
+        assertEquals("0000000-W", ((WorkflowJobEvent) queue.peek()).getId());
+        assertEquals(10, queue.size());
+        List<Event> batch = queue.pollBatch();
+        assertEquals(3, batch.size());
+        for (int i = 0; i < 3; i++) {
+            WorkflowJobEvent event = (WorkflowJobEvent) batch.get(i);
+            assertEquals(String.format("%07d-W", i), event.getId());
+            assertEquals(MessageType.JOB, event.getMsgType());
+            assertEquals(AppType.WORKFLOW_JOB, event.getAppType());
+            assertEquals(WorkflowJob.Status.RUNNING, event.getStatus());
+            assertEquals(new Date(i), event.getStartTime());
+        }
+        assertEquals("0000003-W", ((WorkflowJobEvent) queue.poll()).getId());
+        assertEquals(6, queue.size());
+
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+        queue.add(event(1));
+        assertEquals(1, queue.size());
+        assertEquals(4, getCounter(JournalEventQueue.INSTR_POLLED_COUNTER));
+        assertEquals(11, getCounter(JournalEventQueue.INSTR_APPENDED_COUNTER));
+    }
+
+    public void testReplay() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            queue.add(event(i));
+        }
+        assertEquals(3, queue.pollBatch().size());
+        queue.close();
+
+        queue = new JournalEventQueue();
+        queue.init(conf);
+        assertEquals(2, queue.size());
+        assertEquals("0000003-W", ((WorkflowJobEvent) queue.poll()).getId());
+        queue.add(event(5));
+        queue.close();
+
+        queue = new JournalEventQueue();
+        queue.init(conf);
+        assertEquals(2, queue.size());
+        List<Event> batch = queue.pollBatch();
+        assertEquals(2, batch.size());
+        assertEquals("0000004-W", ((WorkflowJobEvent) batch.get(0)).getId());
+        assertEquals("0000005-W", ((WorkflowJobEvent) batch.get(1)).getId());
+        assertEquals(MessageType.JOB, batch.get(0).getMsgType());
+        assertEquals(4, getCounter(JournalEventQueue.INSTR_REPLAYED_COUNTER));
+        queue.close();
+
+        // consumed segments are deleted
+        queue = new JournalEventQueue();
+        queue.init(conf);
+        assertTrue(queue.isEmpty());
+        assertEquals(1, queue.getSegmentCount());
+        assertEquals(1, new File(conf.get(JournalEventQueue.CONF_DIR)).list().length);
+    }
+
+    public void testSegments() throws Exception {
+        queue.close();
+        conf.setInt(JournalEventQueue.CONF_SEGMENT_SIZE, 4096);
+        conf.setInt(JournalEventQueue.CONF_MAX_SIZE, 4096 * 4);
+        queue = new JournalEventQueue();
+        queue.init(conf);
+        int added = 0;
+        while (getCounter(JournalEventQueue.INSTR_DROPPED_COUNTER) == 0) {
+            queue.add(event(added++));
+        }
+        // the journal is full
+        assertEquals(4, queue.getSegmentCount());
+        assertEquals(4096 * 4, queue.getJournalSize());
+        assertEquals(added - 1, queue.size());
+
+        int polled = 0;
+        Event event;
+        while ((event = queue.poll()) != null) {
+            assertEquals(String.format("%07d-W", polled++), ((WorkflowJobEvent) event).getId());
+        }
+        assertEquals(added - 1, polled);
+        assertEquals(1, queue.getSegmentCount());
+        assertEquals(1, new File(conf.get(JournalEventQueue.CONF_DIR)).list().length);
+
+        // larger events get a segment of their own
+        WorkflowJobEvent large = event(0);
+        large.setErrorMessage(new String(new char[10000]).replace('\0', 'x'));
+        queue.add(large);
+        assertEquals(10000, ((WorkflowJobEvent) queue.poll()).getErrorMessage().length());
+    }
+
+    public void testSLAEvent() throws Exception {
+        SLARegistrationBean reg = new SLARegistrationBean();
+        reg.setId("0000001-W");
+        reg.setAppName("app");
+        reg.setAppType(AppType.WORKFLOW_JOB);
+        reg.setExpectedEnd(new Date(1000));
+        reg.setAlertContact("alert@example.com");
+        SLACalcStatus slaEvent = new SLACalcStatus(reg);
+        slaEvent.setSLAStatus(SLAStatus.MISS);
+        slaEvent.setEventStatus(EventStatus.END_MISS);
+        queue.add(slaEvent);
+
+        SLACalcStatus polled = (SLACalcStatus) queue.poll();
+        assertEquals(MessageType.SLA, polled.getMsgType());
+        assertEquals("0000001-W", polled.getId());
+        assertEquals("app", polled.getAppName());
+        assertEquals(new Date(1000), polled.getExpectedEnd());
+        assertEquals("alert@example.com", polled.getSLARegistrationBean().getAlertContact());
+        assertEquals(SLAStatus.MISS, polled.getSLAStatus());
+        assertEquals(EventStatus.END_MISS, polled.getEventStatus());
+    }
+
+    private static WorkflowJobEvent event(int i) {
+        return new WorkflowJobEvent(String.format("%07d-W", i), null, WorkflowJob.Status.RUNNING, "user", "app",
+                new Date(i), null);
+    }
+
+    private static long getCounter(String name) {
+        Map<String, Instrumentation.Element<Long>> counters = Services.get().get(InstrumentationService.class).get()
+                .getCounters().get(JournalEventQueue.INSTRUMENTATION_GROUP);
+        return counters == null || !counters.containsKey(name) ? 0 : counters.get(name).getValue();
+    }
+}
@@ -366,6 +366,38 @@ public class TestBundleJobInfoGetJPAExecutor extends XDataTestCase {
         compareBundleJobs(bundleJob1, ret.getBundleJobs().get(0));
     }
 
+    public void testBundleJobsGetByCursor() throws Exception {
+        BundleJobBean bundleJob1 = addRecordToBundleJobTable(Job.Status.RUNNING, false);
+        BundleJobBean bundleJob2 = addRecordToBundleJobTable(Job.Status.KILLED, false);
+        BundleJobBean bundleJob3 = addRecordToBundleJobTable(Job.Status.RUNNING, false);
+        bundleJob1.setCreatedTime(DateUtils.parseDateUTC("2012-01-03T10:00Z"));
+        BundleJobQueryExecutor.getInstance().executeUpdate(BundleJobQueryExecutor.BundleJobQuery.UPDATE_BUNDLE_JOB, bundleJob1);
+        bundleJob2.setCreatedTime(DateUtils.parseDateUTC("2012-01-02T10:00Z"));
+        BundleJobQueryExecutor.getInstance().executeUpdate(BundleJobQueryExecutor.BundleJobQuery.UPDATE_BUNDLE_JOB, bundleJob2);
+        bundleJob3.setCreatedTime(DateUtils.parseDateUTC("2012-01-01T10:00Z"));
+        BundleJobQueryExecutor.getInstance().executeUpdate(BundleJobQueryExecutor.BundleJobQuery.UPDATE_BUNDLE_JOB, bundleJob3);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        BundleJobInfo ret = jpaService.execute(new BundleJobInfoGetJPAExecutor(filter, "", 2, true));
+        assertEquals(3, ret.getTotal());
+        assertEquals(2, ret.getBundleJobs().size());
+        compareBundleJobs(bundleJob1, ret.getBundleJobs().get(0));
+        compareBundleJobs(bundleJob2, ret.getBundleJobs().get(1));
+        ret = jpaService.execute(new BundleJobInfoGetJPAExecutor(filter, ret.getCursor(), 2, false));
+        assertEquals(-1, ret.getTotal());
+        assertEquals(1, ret.getBundleJobs().size());
+        compareBundleJobs(bundleJob3, ret.getBundleJobs().get(0));
+        assertNull(ret.getCursor());
+
+        filter.put(OozieClient.FILTER_STATUS, Arrays.asList(Job.Status.RUNNING.toString()));
+        ret = jpaService.execute(new BundleJobInfoGetJPAExecutor(filter, "", 1, true));
+        assertEquals(2, ret.getTotal());
+        compareBundleJobs(bundleJob1, ret.getBundleJobs().get(0));
+        ret = jpaService.execute(new BundleJobInfoGetJPAExecutor(filter, ret.getCursor(), 1, true));
+        compareBundleJobs(bundleJob3, ret.getBundleJobs().get(0));
+    }
+
     private void compareBundleJobs(BundleJobBean bundleJobBean, BundleJobBean retBundleJobBean) {
         assertEquals(bundleJobBean.getId(), retBundleJobBean.getId());
         assertEquals(bundleJobBean.getCreatedTime(), retBundleJobBean.getCreatedTime());
@@ -452,6 +452,38 @@ public class TestCoordJobInfoGetJPAExecutor extends XDataTestCase {
         compareCoordJobs(coordinatorJob1, ret.getCoordJobs().get(0));
     }
 
+    public void testCoordGetJobsByCursor() throws Exception {
+        CoordinatorJobBean coordinatorJob1 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        CoordinatorJobBean coordinatorJob2 = addRecordToCoordJobTable(CoordinatorJob.Status.KILLED, false, false);
+        CoordinatorJobBean coordinatorJob3 = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, false, false);
+        coordinatorJob1.setCreatedTime(DateUtils.parseDateUTC("2012-01-03T10:00Z"));
+        CoordJobQueryExecutor.getInstance().executeUpdate(CoordJobQueryExecutor.CoordJobQuery.UPDATE_COORD_JOB, coordinatorJob1);
+        coordinatorJob2.setCreatedTime(DateUtils.parseDateUTC("2012-01-02T10:00Z"));
+        CoordJobQueryExecutor.getInstance().executeUpdate(CoordJobQueryExecutor.CoordJobQuery.UPDATE_COORD_JOB, coordinatorJob2);
+        coordinatorJob3.setCreatedTime(DateUtils.parseDateUTC("2012-01-01T10:00Z"));
+        CoordJobQueryExecutor.getInstance().executeUpdate(CoordJobQueryExecutor.CoordJobQuery.UPDATE_COORD_JOB, coordinatorJob3);
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        CoordinatorJobInfo ret = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, "", 2, true));
+        assertEquals(3, ret.getTotal());
+        assertEquals(2, ret.getCoordJobs().size());
+        compareCoordJobs(coordinatorJob1, ret.getCoordJobs().get(0));
+        compareCoordJobs(coordinatorJob2, ret.getCoordJobs().get(1));
+        ret = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, ret.getCursor(), 2, false));
+        assertEquals(-1, ret.getTotal());
+        assertEquals(1, ret.getCoordJobs().size());
+        compareCoordJobs(coordinatorJob3, ret.getCoordJobs().get(0));
+        assertNull(ret.getCursor());
+
+        filter.put(OozieClient.FILTER_STATUS, Arrays.asList(CoordinatorJob.Status.RUNNING.toString()));
+        ret = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, "", 1, true));
+        assertEquals(2, ret.getTotal());
+        compareCoordJobs(coordinatorJob1, ret.getCoordJobs().get(0));
+        ret = jpaService.execute(new CoordJobInfoGetJPAExecutor(filter, ret.getCursor(), 1, true));
+        compareCoordJobs(coordinatorJob3, ret.getCoordJobs().get(0));
+    }
+
     public void testGetJobInfoForBundleId() throws Exception {
         String bundleId = "0000000-171003192756908-oozie-test-B";
         String coordId = "0000000-171003192756999-oozie-test-C";
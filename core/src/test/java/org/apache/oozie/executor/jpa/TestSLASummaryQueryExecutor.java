@@ -18,7 +18,11 @@
 
 package org.apache.oozie.executor.jpa;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.Query;
@@ -156,7 +160,31 @@ public class TestSLASummaryQueryExecutor extends XDataTestCase {
         assertEquals(bean.getEventProcessed(), ((Byte)ret).byteValue());
     }
     public void testGetList() throws Exception {
-        // TODO
+        SLASummaryBean bean1 = addRecordToSLASummaryTable("test-sla-summary-1", SLAStatus.IN_PROCESS);
+        SLASummaryBean bean2 = addRecordToSLASummaryTable("test-sla-summary-2", SLAStatus.IN_PROCESS);
+        addRecordToSLASummaryTable("test-sla-summary-3", SLAStatus.IN_PROCESS);
+        // GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_FOR_IDS
+        List<SLASummaryBean> beans = SLASummaryQueryExecutor.getInstance().getList(
+                SLASummaryQuery.GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_FOR_IDS,
+                Arrays.asList(bean1.getId(), bean2.getId(), "test-sla-summary-missing"));
+        assertEquals(2, beans.size());
+        Map<String, SLASummaryBean> beanMap = new HashMap<String, SLASummaryBean>();
+        for (SLASummaryBean bean : beans) {
+            beanMap.put(bean.getId(), bean);
+        }
+        assertEquals(bean1.getEventProcessed(), beanMap.get(bean1.getId()).getEventProcessed());
+        assertEquals(bean1.getLastModifiedTimestamp(), beanMap.get(bean1.getId()).getLastModifiedTimestamp());
+        assertEquals(bean2.getEventProcessed(), beanMap.get(bean2.getId()).getEventProcessed());
+
+        // GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_SINCE
+        Date lastModifiedTime = new Date();
+        bean2.setLastModifiedTime(new Date(lastModifiedTime.getTime() + 1000));
+        SLASummaryQueryExecutor.getInstance().executeUpdate(SLASummaryQuery.UPDATE_SLA_SUMMARY_LAST_MODIFIED_TIME, bean2);
+        beans = SLASummaryQueryExecutor.getInstance().getList(
+                SLASummaryQuery.GET_SLA_SUMMARY_EVENTPROCESSED_LAST_MODIFIED_SINCE, lastModifiedTime);
+        assertEquals(1, beans.size());
+        assertEquals(bean2.getId(), beans.get(0).getId());
+        assertEquals(bean2.getLastModifiedTimestamp(), beans.get(0).getLastModifiedTimestamp());
     }
 
     public void testInsert() throws Exception {
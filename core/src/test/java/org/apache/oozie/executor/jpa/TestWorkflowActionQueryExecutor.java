@@ -307,6 +307,7 @@ public class TestWorkflowActionQueryExecutor extends XDataTestCase {
         assertEquals(bean.getStatusStr(), retBean.getStatusStr());
         assertEquals(bean.getType(), retBean.getType());
         assertEquals(bean.getLogToken(), retBean.getLogToken());
+        assertEquals(bean.getExternalId(), retBean.getExternalId());
         assertNull(retBean.getSlaXml());
         assertNull(retBean.getConf());
         assertNull(retBean.getData());
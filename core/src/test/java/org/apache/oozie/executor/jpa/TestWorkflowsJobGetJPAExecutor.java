@@ -19,6 +19,7 @@
 package org.apache.oozie.executor.jpa;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -430,4 +431,81 @@ public class TestWorkflowsJobGetJPAExecutor extends XDataTestCase {
             assertEquals(ErrorCode.E0302, e.getErrorCode());
         }
     }
+
+    public void testWfJobsGetByCursor() throws Exception {
+        List<String> ids = new ArrayList<String>();
+        Date createdTime = DateUtils.parseDateUTC("2012-01-01T10:00Z");
+        for (int i = 0; i < 5; i++) {
+            WorkflowJobBean workflowJob = addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+            // two jobs created at the same time, the id breaks the tie
+            workflowJob.setCreatedTime(new Date(createdTime.getTime() + Math.min(i, 3) * 60000));
+            WorkflowJobQueryExecutor.getInstance().executeUpdate(WorkflowJobQuery.UPDATE_WORKFLOW, workflowJob);
+            ids.add(workflowJob.getId());
+        }
+        // newest first
+        boolean tieOrder = ids.get(4).compareTo(ids.get(3)) > 0;
+        List<String> expected = Arrays.asList(ids.get(tieOrder ? 4 : 3), ids.get(tieOrder ? 3 : 4), ids.get(2),
+                ids.get(1), ids.get(0));
+
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        List<String> pagedIds = new ArrayList<String>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            WorkflowsInfo wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, cursor, 2, true));
+            assertEquals(5, wfInfo.getTotal());
+            for (WorkflowJobBean bean : wfInfo.getWorkflows()) {
+                pagedIds.add(bean.getId());
+            }
+            cursor = wfInfo.getCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(3, pages);
+        assertEquals(expected, pagedIds);
+
+        // a full last page is followed by an empty one
+        WorkflowsInfo wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, "", 5, false));
+        assertEquals(5, wfInfo.getWorkflows().size());
+        assertEquals(-1, wfInfo.getTotal());
+        wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, wfInfo.getCursor(), 5, false));
+        assertEquals(0, wfInfo.getWorkflows().size());
+        assertNull(wfInfo.getCursor());
+
+        // the cursor combines with the filter
+        List<String> idList = new ArrayList<String>();
+        idList.add(ids.get(0));
+        idList.add(ids.get(1));
+        filter.put(OozieClient.FILTER_ID, idList);
+        wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, "", 1, true));
+        assertEquals(2, wfInfo.getTotal());
+        assertEquals(ids.get(1), wfInfo.getWorkflows().get(0).getId());
+        wfInfo = jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, wfInfo.getCursor(), 1, true));
+        assertEquals(ids.get(0), wfInfo.getWorkflows().get(0).getId());
+    }
+
+    public void testWfJobsGetByInvalidCursor() throws Exception {
+        JPAService jpaService = Services.get().get(JPAService.class);
+        Map<String, List<String>> filter = new HashMap<String, List<String>>();
+        for (String cursor : new String[] {"abc", "123", ",0000000-000000000000000-oozie-oozi-W", "x,y"}) {
+            try {
+                jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, cursor, 10, true));
+                fail("WorkflowsJobGetJPAExecutor should have thrown E0302 exception for cursor " + cursor);
+            }
+            catch (XException e) {
+                assertEquals(ErrorCode.E0302, e.getErrorCode());
+            }
+        }
+
+        List<String> list = new ArrayList<String>();
+        list.add("lastModifiedTime");
+        filter.put(OozieClient.FILTER_SORT_BY, list);
+        try {
+            jpaService.execute(new WorkflowsJobGetJPAExecutor(filter, "", 10, true));
+            fail("WorkflowsJobGetJPAExecutor should have thrown E0302 exception.");
+        }
+        catch (XException e) {
+            assertEquals(ErrorCode.E0302, e.getErrorCode());
+        }
+    }
 }
@@ -27,6 +27,8 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.oozie.servlet.GzipServletResponse;
+
 /**
  * Used by {@link TestZKXLogStreamingService} to stream logs from another Oozie "server".
  * Due to the way the servlet gets loaded, it has to be its own class instead of an inner class.
@@ -35,13 +37,17 @@ public class DummyLogStreamingServlet extends HttpServlet {
 
     public static String lastQueryString = null;
     public static String logs = null;
+    public static String lastAcceptEncoding = null;
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
         lastQueryString = URLDecoder.decode(request.getQueryString(), StandardCharsets.UTF_8.name());
+        lastAcceptEncoding = request.getHeader("Accept-Encoding");
         response.setStatus(HttpServletResponse.SC_OK);
-        Writer writer = response.getWriter();
+        GzipServletResponse gzipResponse = new GzipServletResponse(request, response);
+        Writer writer = gzipResponse.getWriter();
         writer.append(logs);
+        gzipResponse.finish();
         writer.close();
     }
 }
@@ -34,6 +34,8 @@ import org.apache.oozie.service.AsyncXCommandExecutor.AccessibleRunnableSchedule
 import org.apache.oozie.service.AsyncXCommandExecutor.PriorityComparator;
 import org.apache.oozie.service.AsyncXCommandExecutor.ScheduledXCallable;
 import org.apache.oozie.service.CallableQueueService.CallableWrapper;
+import org.apache.oozie.util.NamedThreadFactory;
+import org.apache.oozie.util.TimingWheelScheduler;
 import org.apache.oozie.util.XCallable;
 import org.junit.Before;
 import org.junit.Test;
@@ -418,6 +420,22 @@ public class TestAsyncXCommandExecutor {
         verify(scheduledExecutor).awaitTermination(eq(1000L), eq(TimeUnit.MILLISECONDS));
     }
 
+    @Test
+    public void testShutDownWithTimingWheel() {
+        TimingWheelScheduler timingWheelScheduler = new TimingWheelScheduler(10, 16, "TestTimingWheel");
+        asyncExecutor = new AsyncXCommandExecutor(1, new NamedThreadFactory("TestCallable"), 1,
+                DEFAULT_ENABLE_CONCURRENCY_CHECK, callableQueueService, DEFAULT_MAX_ACTIVE_COMMANDS, DEFAULT_MAXWAIT,
+                TEST_PRIORITIES, AWAIT_TERMINATION_TIMEOUT_SECONDS, timingWheelScheduler);
+        assertFalse(asyncExecutor.isShutDown());
+        assertFalse(asyncExecutor.isTerminated());
+
+        asyncExecutor.shutdown();
+
+        assertTrue(timingWheelScheduler.isTerminated());
+        assertTrue(asyncExecutor.isShutDown());
+        assertTrue(asyncExecutor.isTerminated());
+    }
+
     @Test
     public void testPriorityHandling() {
         asyncExecutor = createExecutor(DEFAULT_ENABLE_CONCURRENCY_CHECK, 100, DEFAULT_MAXWAIT, 100,
@@ -24,6 +24,8 @@ import org.apache.oozie.command.CommandException;
 import org.apache.oozie.command.PreconditionException;
 import org.apache.oozie.command.XCommand;
 import org.apache.oozie.test.XTestCase;
+import org.apache.oozie.util.MetricsInstrumentation;
+import org.apache.oozie.util.VirtualThreadFactory;
 import org.apache.oozie.util.XCallable;
 import org.apache.oozie.util.XLog;
 
@@ -31,7 +33,10 @@ import com.google.common.collect.Multimap;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -238,6 +243,75 @@ public class TestCallableQueueService extends XTestCase {
         assertTrue(callable.executed >= scheduled + 1000);
     }
 
+    public void testDelayedQueuingWithTimingWheel() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(CallableQueueService.CONF_DELAYED_CALLABLE_TIMING_WHEEL, "true");
+        new Services().init();
+        CallableQueueService queueservice = Services.get().get(CallableQueueService.class);
+
+        final MyCallable callable = new MyCallable();
+        final MyCallable longDelayCallable = new MyCallable();
+        long scheduled = System.currentTimeMillis();
+        queueservice.queue(callable, 1000);
+        // beyond the span of the first wheel level with the default tick and size
+        queueservice.queue(longDelayCallable, 6000);
+        assertEquals(2, queueservice.getQueueDump().size());
+
+        waitFor(10000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return callable.executed != 0 && longDelayCallable.executed != 0;
+            }
+        });
+        assertTrue(callable.executed >= scheduled + 1000);
+        assertTrue(longDelayCallable.executed >= scheduled + 6000);
+        assertEquals(0, queueservice.getQueueDump().size());
+    }
+
+    public void testVirtualThreads() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(CallableQueueService.CONF_VIRTUAL_THREADS, "true");
+        setSystemProperty(CallableQueueService.CONF_VIRTUAL_THREADS_MAX, "50");
+        new Services().init();
+        CallableQueueService queueservice = Services.get().get(CallableQueueService.class);
+
+        final List<MyCallable> callables = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            callables.add(new MyCallable(0, 100));
+        }
+        final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+        for (final MyCallable callable : callables) {
+            queueservice.queue(new MyCallable("thread", 0, 0) {
+                @Override
+                public Void call() throws Exception {
+                    threads.add(Thread.currentThread());
+                    return callable.call();
+                }
+            });
+        }
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                for (MyCallable callable : callables) {
+                    if (callable.executed == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+
+        for (MyCallable callable : callables) {
+            assertTrue("Callable not executed", callable.executed > 0);
+        }
+        boolean expectVirtual = VirtualThreadFactory.isSupported();
+        for (Thread thread : threads) {
+            assertTrue(thread.getName().startsWith("CallableQueue-"));
+            if (expectVirtual) {
+                assertTrue("Expected virtual thread: " + thread,
+                        (Boolean) Thread.class.getMethod("isVirtual").invoke(thread));
+            }
+        }
+    }
+
     public void testPriorityExecution() throws Exception {
         EXEC_ORDER = new AtomicLong();
         Services.get().destroy();
@@ -975,6 +1049,87 @@ public class TestCallableQueueService extends XTestCase {
         assertEquals("Not all callables have been executed", counter.get(), taskCount);
     }
 
+    public void testConcurrentQueuingWithSameKey() throws Exception {
+        EXEC_ORDER = new AtomicLong();
+        final CallableQueueService queueservice = Services.get().get(CallableQueueService.class);
+        final int threadCount = 10;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<MyCallable> callables = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+
+        for (int i = 0; i < threadCount; i++) {
+            final MyCallable callable = new MyCallable("ConcurrentSameKey", "ConcurrentSameKey", 0, 0);
+            callables.add(callable);
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        queueservice.queue(callable, 500);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        waitFor(3000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                return queueservice.queueSize() == 0;
+            }
+        });
+        sleep(200);
+
+        int executed = 0;
+        for (MyCallable callable : callables) {
+            if (callable.executed != 0) {
+                executed++;
+            }
+        }
+        assertEquals("Only one of the concurrently queued callables with the same key should run", 1, executed);
+    }
+
+    public void testAdmissionWaitTimeInstrumented() throws Exception {
+        final CallableQueueService queueservice = Services.get().get(CallableQueueService.class);
+        final int callableCount = 10;
+        final List<MyCallable> callables = new ArrayList<>();
+        for (int i = 0; i < callableCount; i++) {
+            callables.add(new MyCallable("AdmissionWait", 0, 100));
+        }
+        for (MyCallable callable : callables) {
+            queueservice.queue(callable, 10);
+        }
+
+        waitFor(5000, new Predicate() {
+            public boolean evaluate() throws Exception {
+                for (MyCallable callable : callables) {
+                    if (callable.executed == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        });
+
+        MetricsInstrumentation instrumentation =
+                (MetricsInstrumentation) Services.get().get(InstrumentationService.class).get();
+        com.codahale.metrics.Timer admissionTimer =
+                instrumentation.getMetricRegistry().getTimers().get("callablequeue.time.waiting.admission.timer");
+        assertNotNull("Admission wait time should be instrumented", admissionTimer);
+        assertTrue("Callables over the concurrency limit should have waited for admission",
+                admissionTimer.getCount() > 0);
+        assertTrue("Exceeded concurrency should be counted",
+                instrumentation.getCounters().get("callablequeue").get("AdmissionWait#exceeded.concurrency")
+                        .getValue() > 0);
+    }
+
     public void testQueueSizeWithDelayedElements() throws InterruptedException {
         final int taskCount = 10_000;
 
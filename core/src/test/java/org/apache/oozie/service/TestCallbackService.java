@@ -18,6 +18,8 @@
 
 package org.apache.oozie.service;
 
+import java.util.Collections;
+
 import org.apache.oozie.service.Services;
 import org.apache.oozie.service.CallbackService;
 import org.apache.oozie.test.XTestCase;
@@ -53,4 +55,31 @@ public class TestCallbackService extends XTestCase {
         assertEquals("OK", cs.getExternalStatus(callback));
     }
 
+    public void testActionData() throws Exception {
+        Services.get().destroy();
+        setSystemProperty(CallbackService.CONF_ACTION_DATA_CACHE_SIZE, "2");
+        new Services().init();
+        CallbackService cs = Services.get().get(CallbackService.class);
+        String token = cs.createActionDataToken("a");
+        assertTrue(cs.isValidActionDataToken("a", token));
+        assertFalse(cs.isValidActionDataToken("b", token));
+
+        cs.putActionData("a", Collections.singletonMap("k", "a"));
+        assertEquals("a", cs.getActionData("a").get("k"));
+        cs.removeActionData("a");
+        assertNull(cs.getActionData("a"));
+
+        // the action data is dropped beyond the cache size
+        for (int i = 0; i < 10; i++) {
+            cs.putActionData("action-" + i, Collections.singletonMap("k", "" + i));
+        }
+        int kept = 0;
+        for (int i = 0; i < 10; i++) {
+            if (cs.getActionData("action-" + i) != null) {
+                kept++;
+            }
+        }
+        assertTrue(kept > 0 && kept <= 2);
+    }
+
 }
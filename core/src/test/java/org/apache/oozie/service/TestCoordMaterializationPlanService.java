@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.service;
+
+import java.io.StringReader;
+import java.util.Date;
+
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.command.coord.CoordCommandUtils;
+import org.apache.oozie.command.coord.CoordMaterializationPlan;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.DateUtils;
+import org.apache.oozie.util.XConfiguration;
+import org.apache.oozie.util.XmlUtils;
+import org.jdom.Element;
+
+public class TestCoordMaterializationPlanService extends XDataTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testGetPlan() throws Exception {
+        CoordMaterializationPlanService service = services.get(CoordMaterializationPlanService.class);
+        CoordinatorJobBean job = createCoordJob(CoordinatorJob.Status.RUNNING, false, false);
+        job.setId("0000001-200101000000000-oozie-C");
+        CoordMaterializationPlan plan = service.getPlan(job);
+        assertSame(plan, service.getPlan(job));
+        assertFalse(plan.isCronFrequency());
+        assertEquals(XmlUtils.prettyPrint(new XConfiguration(new StringReader(job.getConf()))).toString(),
+                plan.getJobConfXml());
+
+        // the actions get their own copy of the definition
+        Element eAction = plan.newActionElement();
+        eAction.setAttribute("instance-number", "1");
+        assertNull(plan.newActionElement().getAttribute("instance-number"));
+
+        // a new plan is compiled when the job is updated
+        XConfiguration conf = new XConfiguration(new StringReader(job.getConf()));
+        conf.set("newProperty", "value");
+        job.setConf(XmlUtils.prettyPrint(conf).toString());
+        CoordMaterializationPlan updatedPlan = service.getPlan(job);
+        assertNotSame(plan, updatedPlan);
+        assertEquals("value", updatedPlan.getJobConf().get("newProperty"));
+        assertSame(updatedPlan, service.getPlan(job));
+    }
+
+    public void testCronFrequency() throws Exception {
+        CoordinatorJobBean job = createCoordJob(CoordinatorJob.Status.RUNNING, false, false);
+        job.setId("0000002-200101000000000-oozie-C");
+        CoordMaterializationPlan plan = services.get(CoordMaterializationPlanService.class).getPlan(job);
+        assertFalse(plan.isCronFrequency());
+
+        for (String frequency : new String[] {"0/10 * * * *", "30 1 1-10 * MON", "0 0 * * ?"}) {
+            job.setFrequency(frequency);
+            plan = services.get(CoordMaterializationPlanService.class).getPlan(job);
+            assertTrue(plan.isCronFrequency());
+            Date date = DateUtils.parseDateOozieTZ("2020-01-01T10:05Z");
+            for (int i = 0; i < 5; i++) {
+                Date next = plan.getNextValidActionTime(date);
+                assertEquals(CoordCommandUtils.getNextValidActionTimeForCronFrequency(date, job), next);
+                date = next;
+            }
+        }
+    }
+}
@@ -52,4 +52,20 @@ public class TestELService extends XTestCase {
         assertNotNull(eval.evaluate("${urlEncode('abc')}", String.class));
     }
 
+    public void testEvaluatorsOfGroup() throws Exception {
+        ELService service = Services.get().get(ELService.class);
+        ELEvaluator eval = service.createEvaluator("workflow");
+        eval.setVariable("KB", 1L);
+        assertEquals(1L, (long) eval.evaluate("${KB}", Long.class));
+        assertEquals(1024L, (long) service.createEvaluator("workflow").evaluate("${KB}", Long.class));
+        assertEquals("ab", service.createEvaluator("workflow").evaluate("${concat('a', 'b')}", String.class));
+        try {
+            service.createEvaluator("undefined");
+            fail();
+        }
+        catch (IllegalArgumentException ex) {
+            //nop
+        }
+    }
+
 }
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.oozie.service;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapreduce.MRJobConfig;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.action.hadoop.LauncherAM;
+import org.apache.oozie.action.hadoop.PooledLauncherAM;
+import org.apache.oozie.test.XFsTestCase;
+
+public class TestLauncherPoolService extends XFsTestCase {
+    private static final String KEY = "test|rm|default|2048|1";
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.getConf().set(Services.CONF_SERVICE_EXT_CLASSES, LauncherPoolService.class.getName());
+        services.getConf().setInt(LauncherPoolService.CONF_MAX_LAUNCHERS, 2);
+        services.getConf().setInt(LauncherPoolService.CONF_MAX_ACTIONS, 3);
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testIsPoolable() throws Exception {
+        LauncherPoolService launcherPool = services.get(LauncherPoolService.class);
+        WorkflowActionBean action = new WorkflowActionBean();
+        Configuration launcherConf = new Configuration(false);
+        assertFalse(launcherPool.isPoolable("java", action, launcherConf));
+
+        launcherConf.setBoolean(LauncherAM.OOZIE_LAUNCHER_POOL_PROPERTY, true);
+        assertTrue(launcherPool.isPoolable("java", action, launcherConf));
+        assertTrue(launcherPool.isPoolable("shell", action, launcherConf));
+        assertFalse(launcherPool.isPoolable("pig", action, launcherConf));
+
+        action.setCred("hcat");
+        assertFalse(launcherPool.isPoolable("java", action, launcherConf));
+        action.setCred(null);
+        launcherConf.set(MRJobConfig.CACHE_ARCHIVES, "hdfs:///app/lib/archive.zip#archive");
+        assertFalse(launcherPool.isPoolable("java", action, launcherConf));
+    }
+
+    public void testPool() throws Exception {
+        LauncherPoolService launcherPool = services.get(LauncherPoolService.class);
+        assertNull(launcherPool.acquire(KEY, "action-1"));
+
+        // new launchers are started until the pool is full
+        LauncherPoolService.PooledLauncher launcher1 = launcherPool.reserve(KEY, "action-1");
+        assertNotNull(launcher1);
+        assertNotNull(launcherPool.reserve(KEY, "action-2"));
+        assertNull(launcherPool.reserve(KEY, "action-3"));
+        assertNotNull(launcherPool.reserve("other", "action-3"));
+        // a launcher without application is not used
+        launcherPool.release("action-2", null);
+        assertNull(launcherPool.acquire(KEY, "action-4"));
+
+        // an idle launcher runs the next actions until it ran the max number of actions
+        launcherPool.setApplication(launcher1, "application_1_0001", new Path("/pool/application_1_0001"));
+        assertNull(launcherPool.acquire(KEY, "action-4"));
+        launcherPool.release("action-1", 10000L);
+        assertSame(launcher1, launcherPool.acquire(KEY, "action-4"));
+        assertNull(launcherPool.acquire(KEY, "action-5"));
+        launcherPool.release("action-4", 1000L);
+        assertSame(launcher1, launcherPool.acquire(KEY, "action-5"));
+        launcherPool.release("action-5", 3000L);
+        assertNull(launcherPool.acquire(KEY, "action-6"));
+
+        assertEquals(200.0 / 3, launcherPool.getReuseRate(), 0.01);
+        // each reused launcher saved the difference between the average cold and warm delays
+        assertEquals(2 * (10000 - 2000), launcherPool.getLatencySaved());
+
+        launcherPool.remove("application_1_0001");
+        assertNotNull(launcherPool.reserve(KEY, "action-6"));
+    }
+
+    public void testStaleLaunchersRemoved() throws Exception {
+        LauncherPoolService launcherPool = services.get(LauncherPoolService.class);
+        // a full pool of launchers which ran their max number of actions
+        for (int i = 1; i <= 2; i++) {
+            LauncherPoolService.PooledLauncher launcher = launcherPool.reserve(KEY, "action-" + i);
+            launcherPool.setApplication(launcher, "application_1_000" + i, new Path("/pool/application_1_000" + i));
+            launcherPool.release("action-" + i, null);
+            for (int j = 2; j <= 3; j++) {
+                assertSame(launcher, launcherPool.acquire(KEY, "action-" + i + j));
+                launcherPool.release("action-" + i + j, null);
+            }
+        }
+        assertNotNull(launcherPool.reserve(KEY, "action-3"));
+
+        // a full pool of launchers which reached their max lifetime
+        services.destroy();
+        services = new Services();
+        services.getConf().set(Services.CONF_SERVICE_EXT_CLASSES, LauncherPoolService.class.getName());
+        services.getConf().setInt(LauncherPoolService.CONF_MAX_LAUNCHERS, 2);
+        services.getConf().setLong(LauncherPoolService.CONF_MAX_LIFETIME, 1);
+        services.init();
+        launcherPool = services.get(LauncherPoolService.class);
+        for (int i = 1; i <= 2; i++) {
+            LauncherPoolService.PooledLauncher launcher = launcherPool.reserve(KEY, "action-" + i);
+            launcherPool.setApplication(launcher, "application_1_000" + i, new Path("/pool/application_1_000" + i));
+            launcherPool.release("action-" + i, null);
+        }
+        assertNull(launcherPool.reserve(KEY, "action-3"));
+        Thread.sleep(1100);
+        assertNull(launcherPool.acquire(KEY, "action-3"));
+        assertNotNull(launcherPool.reserve(KEY, "action-3"));
+        assertNotNull(launcherPool.reserve(KEY, "action-4"));
+    }
+
+    public void testHandOver() throws Exception {
+        LauncherPoolService launcherPool = services.get(LauncherPoolService.class);
+        FileSystem fs = getFileSystem();
+        Path launcherDir = new Path(getFsTestCaseDir(), "application_1_0001");
+        fs.mkdirs(launcherDir);
+        Path actionDir = new Path(getFsTestCaseDir(), "action-1");
+        LauncherPoolService.PooledLauncher launcher = launcherPool.reserve(KEY, "action-1");
+        launcherPool.setApplication(launcher, "application_1_0001", launcherDir);
+
+        assertTrue(launcherPool.handOver(fs, launcher, "action-1", actionDir));
+        try (InputStream is = fs.open(new Path(launcherDir, "action-1"))) {
+            assertEquals(fs.makeQualified(actionDir).toString(), IOUtils.toString(is, StandardCharsets.UTF_8));
+        }
+
+        // the launcher closes its directory before exiting
+        fs.rename(launcherDir, new Path(getFsTestCaseDir(), "application_1_0001" + PooledLauncherAM.CLOSED_SUFFIX));
+        assertFalse(launcherPool.handOver(fs, launcher, "action-2", actionDir));
+        assertFalse(fs.exists(new Path(launcherDir, "action-2")));
+
+        Configuration launcherConf = new Configuration(false);
+        launcherPool.configure(launcherConf, launcherDir);
+        assertEquals(launcherDir.toString(), launcherConf.get(PooledLauncherAM.OOZIE_LAUNCHER_POOL_DIR));
+        assertEquals(3, launcherConf.getInt(PooledLauncherAM.OOZIE_LAUNCHER_POOL_MAX_ACTIONS, 0));
+        assertEquals(300000L, launcherConf.getLong(PooledLauncherAM.OOZIE_LAUNCHER_POOL_IDLE_TIMEOUT, 0));
+    }
+}
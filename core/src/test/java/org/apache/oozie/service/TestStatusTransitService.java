@@ -114,6 +114,43 @@ public class TestStatusTransitService extends XDataTestCase {
         assertEquals(CoordinatorJob.Status.SUCCEEDED, coordJob.getStatus());
     }
 
+    /**
+     * Tests that the runs in between the reconciliations only update the status of the jobs whose actions changed.
+     *
+     * @throws Exception
+     */
+    public void testCoordStatusTransitServiceChangedJobs() throws Exception {
+        services.destroy();
+        setSystemProperty(StatusTransitService.CONF_RECONCILIATION_INTERVAL, "3600");
+        services = new Services();
+        setClassesToBeExcluded(services.getConf(), new String[] {"org.apache.oozie.service.PauseTransitService",
+                "org.apache.oozie.service.CoordMaterializeTriggerService", "org.apache.oozie.service.RecoveryService"});
+        services.init();
+
+        Runnable runnable = new StatusTransitRunnable();
+        runnable.run();
+
+        String currentDatePlusMonth = XDataTestCase.getCurrentDateafterIncrementingInMonths(1);
+        Date start = DateUtils.parseDateOozieTZ(currentDatePlusMonth);
+        Date end = DateUtils.parseDateOozieTZ(currentDatePlusMonth);
+        CoordinatorJobBean job = addRecordToCoordJobTable(CoordinatorJob.Status.RUNNING, start, end, true, true, 2);
+        addRecordToCoordActionTable(job.getId(), 1, CoordinatorAction.Status.SUCCEEDED, "coord-action-get.xml", 0);
+        CoordinatorActionBean action = addRecordToCoordActionTable(job.getId(), 2, CoordinatorAction.Status.RUNNING,
+                "coord-action-get.xml", 0);
+
+        // the actions were inserted without the query executors, the job is only found by the next reconciliation
+        runnable.run();
+        CoordinatorJobBean coordJob = CoordJobQueryExecutor.getInstance().get(CoordJobQuery.GET_COORD_JOB, job.getId());
+        assertEquals(CoordinatorJob.Status.RUNNING, coordJob.getStatus());
+
+        action.setStatus(CoordinatorAction.Status.SUCCEEDED);
+        CoordActionQueryExecutor.getInstance().executeUpdate(CoordActionQuery.UPDATE_COORD_ACTION_STATUS_PENDING_TIME,
+                action);
+        runnable.run();
+        coordJob = CoordJobQueryExecutor.getInstance().get(CoordJobQuery.GET_COORD_JOB, job.getId());
+        assertEquals(CoordinatorJob.Status.SUCCEEDED, coordJob.getStatus());
+    }
+
     /**
      * Tests functionality of the StatusTransitService Runnable command. </p> Insert a coordinator job with RUNNING and
      * pending true and coordinator actions with pending false, but one of action is KILLED.
@@ -0,0 +1,156 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+import org.apache.oozie.WorkflowDefinitionBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.executor.jpa.WorkflowJobQueryExecutor;
+import org.apache.oozie.executor.jpa.WorkflowJobQueryExecutor.WorkflowJobQuery;
+import org.apache.oozie.test.XDataTestCase;
+import org.apache.oozie.util.WritableUtils;
+import org.apache.oozie.workflow.WorkflowInstance;
+import org.apache.oozie.workflow.lite.LiteWorkflowInstance;
+
+public class TestWorkflowDefinitionService extends XDataTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        setSystemProperty(WorkflowDefinitionService.CONF_ENABLED, "true");
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testStoreAndGet() throws Exception {
+        WorkflowDefinitionService service = services.get(WorkflowDefinitionService.class);
+        assertTrue(service.isEnabled());
+        byte[] data = "<workflow-app/>".getBytes(StandardCharsets.UTF_8);
+        String id = service.store(data);
+        assertEquals(64, id.length());
+        assertEquals(id, service.store(data));
+        assertEquals(1, getDefinitions().size());
+
+        // read it back from the database, bypassing the cache
+        service.destroy();
+        service.init(services);
+        assertEquals(new String(data, StandardCharsets.UTF_8), new String(service.get(id), StandardCharsets.UTF_8));
+
+        try {
+            service.get("missing");
+            fail("Missing workflow definitions should not be found");
+        }
+        catch (IOException ex) {
+            // expected
+        }
+    }
+
+    public void testWorkflowInstancesShareDefinition() throws Exception {
+        WorkflowJobBean job1 = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        WorkflowJobBean job2 = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        // one definition and one configuration, both jobs have the same app and conf
+        assertEquals(2, getDefinitions().size());
+
+        WorkflowJobBean read = WorkflowJobQueryExecutor.getInstance().get(WorkflowJobQuery.GET_WORKFLOW, job2.getId());
+        WorkflowInstance instance = read.getWorkflowInstance();
+        assertEquals(job2.getId(), instance.getId());
+        assertEquals(WorkflowInstance.Status.RUNNING, instance.getStatus());
+        assertEquals(job1.getWorkflowInstance().getApp().getName(), instance.getApp().getName());
+        assertEquals(getTestUser(), instance.getConf().get("user.name"));
+        assertTrue(read.getWfInstanceBlob().getBytes().length < getLegacyBytes(instance).length);
+    }
+
+    public void testReadLegacyWorkflowInstance() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        byte[] legacy = getLegacyBytes(job.getWorkflowInstance());
+
+        LiteWorkflowInstance instance = WritableUtils.fromByteArray(legacy, LiteWorkflowInstance.class);
+        assertEquals(job.getId(), instance.getId());
+        assertEquals(getTestUser(), instance.getConf().get("user.name"));
+        assertEquals(job.getWorkflowInstance().getApp().getName(), instance.getApp().getName());
+
+        // writing the instance does not store anything
+        int definitions = getDefinitions().size();
+        assertEquals(legacy.length, WritableUtils.toByteArray(instance).length);
+        assertEquals(definitions, getDefinitions().size());
+
+        // written back with references to the stored definition
+        instance.storeDefinition();
+        byte[] converted = WritableUtils.toByteArray(instance);
+        assertTrue(converted.length < legacy.length);
+        assertEquals(job.getId(), WritableUtils.fromByteArray(converted, LiteWorkflowInstance.class).getId());
+    }
+
+    public void testPurgeUnused() throws Exception {
+        WorkflowJobBean job = addRecordToWfJobTable(WorkflowJob.Status.RUNNING, WorkflowInstance.Status.RUNNING);
+        assertEquals(2, getDefinitions().size());
+
+        EntityManager em = services.get(JPAService.class).getEntityManager();
+        em.getTransaction().begin();
+        em.persist(new WorkflowDefinitionBean("unused", new byte[] {1, 2, 3}, new Date(System.currentTimeMillis()
+                - 30L * 24 * 60 * 60 * 1000)));
+        em.getTransaction().commit();
+        em.close();
+        assertEquals(3, getDefinitions().size());
+
+        assertEquals(1, services.get(WorkflowDefinitionService.class).purgeUnused());
+        assertEquals(2, getDefinitions().size());
+        WorkflowJobBean read = WorkflowJobQueryExecutor.getInstance().get(WorkflowJobQuery.GET_WORKFLOW, job.getId());
+        assertEquals(job.getId(), read.getWorkflowInstance().getId());
+    }
+
+    private byte[] getLegacyBytes(WorkflowInstance instance) throws Exception {
+        WorkflowDefinitionService service = services.get(WorkflowDefinitionService.class);
+        services.getConf().setBoolean(WorkflowDefinitionService.CONF_ENABLED, false);
+        service.init(services);
+        try {
+            ((LiteWorkflowInstance) instance).storeDefinition();
+            return WritableUtils.toByteArray((LiteWorkflowInstance) instance);
+        }
+        finally {
+            services.getConf().setBoolean(WorkflowDefinitionService.CONF_ENABLED, true);
+            service.init(services);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<WorkflowDefinitionBean> getDefinitions() throws Exception {
+        EntityManager em = services.get(JPAService.class).getEntityManager();
+        try {
+            return em.createNamedQuery("GET_WF_DEFINITIONS").getResultList();
+        }
+        finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.yarn.api.records.ApplicationId;
+import org.apache.hadoop.yarn.api.records.ApplicationReport;
+import org.apache.hadoop.yarn.api.records.YarnApplicationState;
+import org.apache.hadoop.yarn.util.Records;
+import org.apache.oozie.action.hadoop.JavaActionExecutor;
+import org.apache.oozie.test.XTestCase;
+
+public class TestYarnApplicationReportService extends XTestCase {
+    private Services services;
+    private PolledService service;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+        service = new PolledService();
+        service.init(services);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        service.destroy();
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testPoll() throws Exception {
+        ApplicationId running = ApplicationId.newInstance(1000, 1);
+        ApplicationId finished = ApplicationId.newInstance(1000, 2);
+        service.reports.add(report(running, YarnApplicationState.RUNNING, getTestUser()));
+        service.reports.add(report(finished, YarnApplicationState.FINISHED, getTestUser()));
+
+        // nothing is polled until a ResourceManager is registered
+        service.poll();
+        assertEquals(0, service.polls);
+        assertNull(service.getApplicationReport(running));
+
+        service.register(getTestUser(), conf("rm1:8032"));
+        service.register(getTestUser(), conf("rm1:8032"));
+        service.register(getTestUser(), conf("rm2:8032"));
+        service.poll();
+        assertEquals(2, service.polls);
+        assertEquals(YarnApplicationState.RUNNING, service.getApplicationReport(running).getYarnApplicationState());
+        // the finished launchers are not polled, they are checked one by one
+        assertNull(service.getApplicationReport(finished));
+        assertNull(service.getApplicationReport(ApplicationId.newInstance(1000, 3)));
+
+        service.invalidate(running.toString());
+        assertNull(service.getApplicationReport(running));
+    }
+
+    public void testPollPerUser() throws Exception {
+        ApplicationId app1 = ApplicationId.newInstance(1000, 1);
+        ApplicationId app2 = ApplicationId.newInstance(1000, 2);
+        service.reports.add(report(app1, YarnApplicationState.RUNNING, getTestUser()));
+        service.reports.add(report(app2, YarnApplicationState.RUNNING, getTestUser2()));
+
+        // the reports of the launchers of other users are not kept
+        service.register(getTestUser(), conf("rm1:8032"));
+        service.poll();
+        assertEquals(1, service.polls);
+        assertNotNull(service.getApplicationReport(app1));
+        assertNull(service.getApplicationReport(app2));
+
+        service.register(getTestUser2(), conf("rm1:8032"));
+        service.poll();
+        assertEquals(3, service.polls);
+        assertNotNull(service.getApplicationReport(app1));
+        assertNotNull(service.getApplicationReport(app2));
+    }
+
+    public void testReportsExpire() throws Exception {
+        services.getConf().setInt(YarnApplicationReportService.CONF_TTL, 1);
+        service.init(services);
+        ApplicationId appId = ApplicationId.newInstance(1000, 1);
+        service.reports.add(report(appId, YarnApplicationState.RUNNING, getTestUser()));
+        service.register(getTestUser(), conf("rm1:8032"));
+        service.poll();
+        assertNotNull(service.getApplicationReport(appId));
+
+        Thread.sleep(1100);
+        assertNull(service.getApplicationReport(appId));
+        service.reports.clear();
+        service.poll();
+        assertEquals(0, service.getReportCount());
+    }
+
+    public void testPollError() throws Exception {
+        ApplicationId appId = ApplicationId.newInstance(1000, 1);
+        service.reports.add(report(appId, YarnApplicationState.RUNNING, getTestUser()));
+        service.register(getTestUser(), conf("rm1:8032"));
+        service.fail = true;
+        service.poll();
+        assertNull(service.getApplicationReport(appId));
+
+        service.fail = false;
+        service.poll();
+        assertNotNull(service.getApplicationReport(appId));
+    }
+
+    public void testDisabled() throws Exception {
+        services.getConf().setBoolean(YarnApplicationReportService.CONF_ENABLED, false);
+        service.init(services);
+        ApplicationId appId = ApplicationId.newInstance(1000, 1);
+        service.reports.add(report(appId, YarnApplicationState.RUNNING, getTestUser()));
+        service.register(getTestUser(), conf("rm1:8032"));
+        service.poll();
+        assertEquals(0, service.polls);
+        assertNull(service.getApplicationReport(appId));
+    }
+
+    private static Configuration conf(String resourceManager) {
+        Configuration conf = new Configuration(false);
+        conf.set(JavaActionExecutor.HADOOP_YARN_RM, resourceManager);
+        return conf;
+    }
+
+    private static ApplicationReport report(ApplicationId appId, YarnApplicationState state, String user) {
+        ApplicationReport report = Records.newRecord(ApplicationReport.class);
+        report.setApplicationId(appId);
+        report.setYarnApplicationState(state);
+        report.setUser(user);
+        return report;
+    }
+
+    private static class PolledService extends YarnApplicationReportService {
+        private final List<ApplicationReport> reports = new ArrayList<ApplicationReport>();
+        private int polls;
+        private boolean fail;
+
+        @Override
+        protected List<ApplicationReport> getLauncherReports(ResourceManager resourceManager) throws Exception {
+            if (fail) {
+                throw new IOException("ResourceManager is down");
+            }
+            polls++;
+            List<ApplicationReport> polled = new ArrayList<ApplicationReport>();
+            for (ApplicationReport report : reports) {
+                if (POLLED_STATES.contains(report.getYarnApplicationState())) {
+                    polled.add(report);
+                }
+            }
+            return polled;
+        }
+    }
+}
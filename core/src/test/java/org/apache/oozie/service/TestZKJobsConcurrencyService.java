@@ -19,6 +19,7 @@
 package org.apache.oozie.service;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +28,7 @@ import org.apache.oozie.ErrorCode;
 import org.apache.oozie.client.rest.RestConstants;
 import org.apache.oozie.test.ZKXTestCase;
 import org.apache.oozie.util.ConfigUtils;
+import org.apache.oozie.util.ConsistentHashRing;
 import org.apache.oozie.util.Instrumentation;
 import org.apache.oozie.util.ZKUtils;
 
@@ -120,6 +122,8 @@ public class TestZKJobsConcurrencyService extends ZKXTestCase {
     }
 
     public void testIsJobIdForThisServer() throws Exception {
+        // assign jobs by id mod number of servers
+        Services.get().getConf().setInt(ZKJobsConcurrencyService.CONF_VIRTUAL_NODES, 0);
         ZKJobsConcurrencyService zkjcs = new ZKJobsConcurrencyService();
         // We'll use some DummyZKXOozies here to pretend to be other Oozie servers that will influence isJobIdForThisServer()
         // once they are running in that the indecies of the job ids will cause each job id to belong to different Oozie "servers"
@@ -202,6 +206,8 @@ public class TestZKJobsConcurrencyService extends ZKXTestCase {
     }
 
     public void testGetJobIdsForThisServer() throws Exception {
+        // assign jobs by id mod number of servers
+        Services.get().getConf().setInt(ZKJobsConcurrencyService.CONF_VIRTUAL_NODES, 0);
         ZKJobsConcurrencyService zkjcs = new ZKJobsConcurrencyService();
         // We'll use some DummyZKXOozies here to pretend to be other Oozie servers that will influence getJobIdsForThisServer()
         // once they are running in that the indecies of the job ids will cause each job id to belong to different Oozie "servers"
@@ -261,6 +267,53 @@ public class TestZKJobsConcurrencyService extends ZKXTestCase {
         }
     }
 
+    public void testConsistentHashing() throws Exception {
+        ZKJobsConcurrencyService zkjcs = new ZKJobsConcurrencyService();
+        DummyZKOozie dummyOozie = null;
+        DummyZKOozie dummyOozie2 = null;
+        try {
+            List<String> ids = new ArrayList<String>();
+            for (int i = 0; i < 1000; i++) {
+                ids.add(String.format("%07d-130521183438837-oozie-rkan-W", i));
+            }
+            zkjcs.init(Services.get());
+            assertEquals(ids, zkjcs.getJobIdsForThisServer(ids));
+            assertTrue(zkjcs.isJobIdForThisServer("blah"));
+
+            dummyOozie = new DummyZKOozie("a", "http://blah");
+            dummyOozie2 = new DummyZKOozie("b", "http://blah");
+            List<String> threeServers = zkjcs.getJobIdsForThisServer(ids);
+            ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList(ZK_ID, "a", "b"), 100);
+            for (String id : ids) {
+                assertEquals(ring.getOwner(id.substring(0, 7)).equals(ZK_ID), threeServers.contains(id));
+                assertEquals(threeServers.contains(id), zkjcs.isJobIdForThisServer(id));
+                assertEquals(threeServers.contains(id), zkjcs.isJobIdForThisServer(id + "@action"));
+            }
+            assertTrue(threeServers.size() > 200 && threeServers.size() < 470);
+
+            // only the jobs of the server that left change owner
+            dummyOozie.teardown();
+            List<String> twoServers = zkjcs.getJobIdsForThisServer(ids);
+            assertTrue(twoServers.containsAll(threeServers));
+            ConsistentHashRing twoServerRing = new ConsistentHashRing(Arrays.asList(ZK_ID, "b"), 100);
+            for (String id : ids) {
+                if (!threeServers.contains(id) && twoServers.contains(id)) {
+                    assertEquals("a", ring.getOwner(id.substring(0, 7)));
+                }
+                assertEquals(twoServerRing.getOwner(id.substring(0, 7)).equals(ZK_ID), twoServers.contains(id));
+            }
+        }
+        finally {
+            zkjcs.destroy();
+            if (dummyOozie != null) {
+                dummyOozie.teardown();
+            }
+            if (dummyOozie2 != null) {
+                dummyOozie2.teardown();
+            }
+        }
+    }
+
     public void testGetJobIdsForThisServerBadZk() throws Exception {
         ZKJobsConcurrencyService zkjcs = new ZKJobsConcurrencyService();
         try {
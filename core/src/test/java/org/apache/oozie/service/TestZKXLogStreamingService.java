@@ -353,6 +353,7 @@ public class TestZKXLogStreamingService extends ZKXTestCase {
             assertTrue(outArr[14].contains("_L15_"));
             assertTrue(outArr[15].contains("_L16_"));
             assertEquals("show=log&allservers=false", DummyLogStreamingServlet.lastQueryString);
+            assertEquals("gzip", DummyLogStreamingServlet.lastAcceptEncoding);
 
             // If we stop the container but leave the DummyZKOozie running, it will simulate if that server is down but still has
             // info in ZK; we should be able to get the logs from other servers (in this case, this server) and a message about
@@ -378,6 +379,75 @@ public class TestZKXLogStreamingService extends ZKXTestCase {
             container.stop();
         }
     }
+    public void testStreamingWithMultipleOozieServers_sameTimestamps() throws Exception {
+        XLogFilter.reset();
+        XLogFilter.defineParameter("USER");
+        XLogFilter.defineParameter("GROUP");
+        XLogFilter.defineParameter("TOKEN");
+        XLogFilter.defineParameter("APP");
+        XLogFilter.defineParameter("JOB");
+        XLogFilter.defineParameter("ACTION");
+        XLogFilter xf = new XLogFilter();
+        xf.setParameter("JOB", "0000003-130610102426873-oozie-rkan-W");
+        File log4jFile = new File(getTestCaseConfDir(), "test-log4j.properties");
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        InputStream is = cl.getResourceAsStream("test-no-dash-log4j.properties");
+        Properties log4jProps = new Properties();
+        log4jProps.load(is);
+        // prevent conflicts with other tests by changing the log file location
+        log4jProps.setProperty("log4j.appender.oozie.File", getTestCaseDir() + "/oozie.log");
+        log4jProps.store(new FileOutputStream(log4jFile), "");
+        setSystemProperty(XLogService.LOG4J_FILE, log4jFile.getName());
+        assertFalse(doStreamDisabledCheck());
+        File logFile = new File(Services.get().get(XLogService.class).getOozieLogPath(),
+                                Services.get().get(XLogService.class).getOozieLogName());
+        logFile.getParentFile().mkdirs();
+        // more messages than the buffer of each server, all of them logged at the same time on both servers
+        ConfigurationService.set(ZKXLogStreamingService.CONF_BUFFER_SIZE, "2");
+        StringBuilder localLogs = new StringBuilder();
+        StringBuilder otherLogs = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            String line = "2013-06-10 10:25:44,008 INFO ActionStartXCommand:542 SERVER[foo] USER[rkanter] GROUP[-] TOKEN[] "
+                    + "APP[hive-wf] JOB[0000003-130610102426873-oozie-rkan-W] ACTION[-] ";
+            localLogs.append(line).append("local ").append(i).append("\n");
+            otherLogs.append(line).append("other ").append(i).append("\n");
+        }
+        Writer logWriter = new OutputStreamWriter(new FileOutputStream(logFile), StandardCharsets.UTF_8);
+        logWriter.append(localLogs);
+        logWriter.close();
+        DummyLogStreamingServlet.logs = otherLogs.toString();
+
+        DummyZKOozie dummyOozie = null;
+        EmbeddedServletContainer container = new EmbeddedServletContainer("oozie");
+        container.addServletEndpoint("/other-oozie-server/*", DummyLogStreamingServlet.class);
+        try {
+            container.start();
+            dummyOozie = new DummyZKOozie("9876", container.getServletURL("/other-oozie-server/*"));
+            String out = doStreamLog(xf);
+            String[] outArr = out.split("\n");
+            assertEquals(20, outArr.length);
+            int local = 0;
+            int other = 0;
+            for (String line : outArr) {
+                if (line.endsWith("local " + local)) {
+                    local++;
+                }
+                else {
+                    assertTrue(line, line.endsWith("other " + other));
+                    other++;
+                }
+            }
+            assertEquals(10, local);
+            assertEquals(10, other);
+        }
+        finally {
+            if (dummyOozie != null) {
+                dummyOozie.teardown();
+            }
+            container.stop();
+        }
+    }
+
     public void testStreamingWithMultipleOozieServers_coordActionList() throws Exception {
         XLogFilter.reset();
 
@@ -18,7 +18,11 @@
 
 package org.apache.oozie.servlet;
 
+import org.apache.oozie.action.hadoop.LauncherAM;
+import org.apache.oozie.action.hadoop.LauncherAMCallbackNotifier;
 import org.apache.oozie.client.rest.RestConstants;
+import org.apache.oozie.service.CallbackService;
+import org.apache.oozie.service.Services;
 
 import javax.servlet.http.HttpServletResponse;
 import java.net.HttpURLConnection;
@@ -105,4 +109,43 @@ public class TestCallbackServlet extends DagServletTestCase {
         });
     }
 
+    @SuppressWarnings("unchecked")
+    public void testCallbackPostActionData() throws Exception {
+        runTest("/callback", CallbackServlet.class, true, new Callable<Void>() {
+            public Void call() throws Exception {
+                CallbackService callbackService = Services.get().get(CallbackService.class);
+                Map<String, String> params = new HashMap<String, String>();
+                params.put("id", "ok");
+                params.put("status", "ok");
+                Properties props = new Properties();
+                props.setProperty(LauncherAM.ACTION_DATA_FINAL_STATUS, "SUCCEEDED");
+
+                // action data with the token of another action is refused
+                MockDagEngineService.reset();
+                HttpURLConnection conn = postActionData(createURL("", params), props,
+                        callbackService.createActionDataToken("other"));
+                assertEquals(HttpServletResponse.SC_FORBIDDEN, conn.getResponseCode());
+                assertNull(callbackService.getActionData("ok"));
+
+                MockDagEngineService.reset();
+                conn = postActionData(createURL("", params), props, callbackService.createActionDataToken("ok"));
+                assertEquals(HttpServletResponse.SC_OK, conn.getResponseCode());
+                assertEquals(Collections.singletonMap(LauncherAM.ACTION_DATA_FINAL_STATUS, "SUCCEEDED"),
+                        callbackService.getActionData("ok"));
+                callbackService.removeActionData("ok");
+                assertNull(callbackService.getActionData("ok"));
+                return null;
+            }
+        });
+    }
+
+    private HttpURLConnection postActionData(URL url, Properties props, String token) throws Exception {
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        conn.setDoOutput(true);
+        conn.setRequestMethod("POST");
+        conn.setRequestProperty("content-type", RestConstants.TEXT_CONTENT_TYPE);
+        conn.setRequestProperty(LauncherAMCallbackNotifier.ACTION_DATA_TOKEN_HEADER, token);
+        props.store(conn.getOutputStream(), null);
+        return conn;
+    }
 }
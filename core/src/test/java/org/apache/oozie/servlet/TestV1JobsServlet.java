@@ -26,6 +26,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -160,6 +161,39 @@ public class TestV1JobsServlet extends DagServletTestCase {
         });
     }
 
+    public void testJobsGzip() throws Exception {
+        runTest(new String[] {"/v1/jobs", "/v2/jobs", "/versions"},
+                new Class[] {V1JobsServlet.class, V1JobsServlet.class, VersionServlet.class}, IS_SECURITY_ENABLED,
+                new Callable<Void>() {
+            public Void call() throws Exception {
+                MockDagEngineService.reset();
+
+                Map<String, String> params = new HashMap<String, String>();
+                params.put(RestConstants.JOBS_FILTER_PARAM, "name=x");
+                URL url = createURL("", params);
+                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+                conn.setRequestMethod("GET");
+                conn.setRequestProperty("Accept-Encoding", "gzip");
+                assertEquals(HttpServletResponse.SC_OK, conn.getResponseCode());
+                assertTrue(conn.getHeaderField("content-type").startsWith(RestConstants.JSON_CONTENT_TYPE));
+                assertEquals("gzip", conn.getContentEncoding());
+                JSONObject json = (JSONObject) JSONValue.parse(new InputStreamReader(
+                        new GZIPInputStream(conn.getInputStream()), StandardCharsets.UTF_8));
+                JSONArray array = (JSONArray) json.get(JsonTags.WORKFLOWS_JOBS);
+                assertEquals(MockDagEngineService.INIT_WF_COUNT, array.size());
+                for (int i = 0; i < MockDagEngineService.INIT_WF_COUNT; i++) {
+                    assertEquals(MockDagEngineService.JOB_ID + i + MockDagEngineService.JOB_ID_END,
+                                 ((JSONObject) array.get(i)).get(JsonTags.WORKFLOW_ID));
+                }
+
+                // the client asks for and reads compressed job lists
+                OozieClient client = new OozieClient(getContextURL());
+                assertEquals(MockDagEngineService.INIT_WF_COUNT, client.getJobsInfo("name=x").size());
+                return null;
+            }
+        });
+    }
+
     public void testJobs() throws Exception {
         runTest("/v1/jobs", V1JobsServlet.class, IS_SECURITY_ENABLED, new Callable<Void>() {
             public Void call() throws Exception {
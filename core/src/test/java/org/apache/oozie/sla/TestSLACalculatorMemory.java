@@ -1002,6 +1002,59 @@ public class TestSLACalculatorMemory extends XDataTestCase {
         assertEquals(slaSummaryBean.getJobStatus(), WorkflowInstance.Status.SUCCEEDED.toString());
     }
 
+    public void testCheckSchedule() throws Exception {
+        SLACalculatorMemory slaCalcMemory = new SLACalculatorMemory();
+        slaCalcMemory.init(Services.get().get(ConfigurationService.class).getConf());
+        long latency = ConfigurationService.getInt(SLAService.CONF_JOB_EVENT_LATENCY);
+        long now = System.currentTimeMillis();
+
+        WorkflowJobBean job1 = addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        SLARegistrationBean slaRegBean1 = _createSLARegistration(job1.getId(), AppType.WORKFLOW_JOB);
+        slaRegBean1.setExpectedStart(new Date(now + 1 * 3600 * 1000)); // 1 hour ahead
+        slaRegBean1.setExpectedDuration(1800 * 1000);
+        slaRegBean1.setExpectedEnd(new Date(now + 2 * 3600 * 1000)); // 2 hours ahead
+        String jobId1 = slaRegBean1.getId();
+        slaCalcMemory.addRegistration(jobId1, slaRegBean1);
+
+        WorkflowJobBean job2 = addRecordToWfJobTable(WorkflowJob.Status.PREP, WorkflowInstance.Status.PREP);
+        SLARegistrationBean slaRegBean2 = _createSLARegistration(job2.getId(), AppType.WORKFLOW_JOB);
+        slaRegBean2.setExpectedStart(new Date(now - 1 * 3600 * 1000)); // 1 hour back
+        slaRegBean2.setExpectedDuration(2 * 3600 * 1000);
+        slaRegBean2.setExpectedEnd(new Date(now + 1 * 3600 * 1000)); // 1 hour ahead
+        String jobId2 = slaRegBean2.getId();
+        slaCalcMemory.addRegistration(jobId2, slaRegBean2);
+
+        // jobs are scheduled at their expected start
+        assertEquals(Long.valueOf(slaRegBean1.getExpectedStart().getTime() + latency),
+                slaCalcMemory.getScheduledCheckTime(jobId1));
+        assertEquals(Long.valueOf(slaRegBean2.getExpectedStart().getTime() + latency),
+                slaCalcMemory.getScheduledCheckTime(jobId2));
+
+        // start miss of job 2 is processed and job 2 is scheduled at its expected end
+        slaCalcMemory.updateAllSlaStatus();
+        assertEquals(1, slaCalcMemory.get(jobId2).getEventProcessed());
+        assertEquals(1, SLASummaryQueryExecutor.getInstance().get(SLASummaryQuery.GET_SLA_SUMMARY, jobId2)
+                .getEventProcessed());
+        assertEquals(Long.valueOf(slaRegBean2.getExpectedEnd().getTime() + latency),
+                slaCalcMemory.getScheduledCheckTime(jobId2));
+        assertEquals(0, slaCalcMemory.get(jobId1).getEventProcessed());
+        assertEquals(Long.valueOf(slaRegBean1.getExpectedStart().getTime() + latency),
+                slaCalcMemory.getScheduledCheckTime(jobId1));
+
+        // job 1 is processed by another server, and picked up even if its deadline has not passed
+        SLASummaryBean slaSummary1 = SLASummaryQueryExecutor.getInstance().get(SLASummaryQuery.GET_SLA_SUMMARY, jobId1);
+        slaSummary1.setEventProcessed(8);
+        slaSummary1.setLastModifiedTime(new Date());
+        SLASummaryQueryExecutor.getInstance().executeUpdate(SLASummaryQuery.UPDATE_SLA_SUMMARY_FOR_STATUS_ACTUAL_TIMES,
+                slaSummary1);
+        slaCalcMemory.updateAllSlaStatus();
+        assertFalse(slaCalcMemory.isJobIdInSLAMap(jobId1));
+        assertNull(slaCalcMemory.getScheduledCheckTime(jobId1));
+
+        slaCalcMemory.removeRegistration(jobId2);
+        assertNull(slaCalcMemory.getScheduledCheckTime(jobId2));
+    }
+
     public void testSingleAddUpdateRemoveInstrumentedCorrectly() throws Exception {
         SLACalculatorMemory slaCalcMemory = new SLACalculatorMemory();
         slaCalcMemory.init(Services.get().get(ConfigurationService.class).getConf());
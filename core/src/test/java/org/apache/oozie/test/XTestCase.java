@@ -78,6 +78,7 @@ import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.SLAEventBean;
 import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowDefinitionBean;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.action.hadoop.LauncherMain;
 import org.apache.oozie.dependency.FSURIHandler;
@@ -921,6 +922,7 @@ public abstract class XTestCase extends TestCase {
         final int slaSize = getCountAndRemoveAll(entityManager, "GET_SLA_EVENTS", SLAEventBean.class);
         final int slaRegSize = getCountAndRemoveAll(entityManager, "GET_SLA_REGISTRATIONS", SLARegistrationBean.class);
         final int ssSize = getCountAndRemoveAll(entityManager, "GET_SLA_SUMMARY_ALL", SLASummaryBean.class);
+        final int wfdSize = getCountAndRemoveAll(entityManager, "GET_WF_DEFINITIONS", WorkflowDefinitionBean.class);
 
         try {
             if (entityManager.getTransaction().isActive()) {
@@ -944,6 +946,7 @@ public abstract class XTestCase extends TestCase {
         log.info(slaSize + " entries in SLA_EVENTS removed from DB!");
         log.info(slaRegSize + " entries in SLA_REGISTRATION removed from DB!");
         log.info(ssSize + " entries in SLA_SUMMARY removed from DB!");
+        log.info(wfdSize + " entries in WF_DEFINITIONS removed from DB!");
     }
 
     private <E> int getCountAndRemoveAll(final EntityManager entityManager,
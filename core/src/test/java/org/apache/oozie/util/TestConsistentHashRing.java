@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TestConsistentHashRing {
+    private static final int KEYS = 100000;
+
+    @Test
+    public void testSingleMember() {
+        ConsistentHashRing ring = new ConsistentHashRing(Collections.singleton("a"), 10);
+        for (int i = 0; i < 100; i++) {
+            assertEquals("a", ring.getOwner(key(i)));
+        }
+    }
+
+    @Test
+    public void testBalance() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d", "e"), 100);
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (int i = 0; i < KEYS; i++) {
+            String owner = ring.getOwner(key(i));
+            counts.put(owner, counts.containsKey(owner) ? counts.get(owner) + 1 : 1);
+        }
+        assertEquals(5, counts.size());
+        for (int count : counts.values()) {
+            assertTrue("Unbalanced: " + counts, count > KEYS / 5 * 0.7 && count < KEYS / 5 * 1.3);
+        }
+    }
+
+    @Test
+    public void testMembershipChange() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d"), 100);
+        ConsistentHashRing joined = new ConsistentHashRing(Arrays.asList("a", "b", "c", "d", "e"), 100);
+        ConsistentHashRing left = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 100);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            String owner = ring.getOwner(key(i));
+            String newOwner = joined.getOwner(key(i));
+            if (!owner.equals(newOwner)) {
+                // keys only move to the new member
+                assertEquals("e", newOwner);
+                moved++;
+            }
+            if (!owner.equals("d")) {
+                // keys of the remaining members stay
+                assertEquals(owner, left.getOwner(key(i)));
+            }
+        }
+        assertTrue("Moved: " + moved, moved > KEYS / 5 * 0.7 && moved < KEYS / 5 * 1.3);
+    }
+
+    @Test
+    public void testMemberOrderDoesNotMatter() {
+        ConsistentHashRing ring = new ConsistentHashRing(Arrays.asList("a", "b", "c"), 50);
+        ConsistentHashRing other = new ConsistentHashRing(Arrays.asList("c", "a", "b"), 50);
+        assertEquals(ring.getMembers(), other.getMembers());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(ring.getOwner(key(i)), other.getOwner(key(i)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoMembers() {
+        new ConsistentHashRing(Collections.<String>emptyList(), 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoVirtualNodes() {
+        new ConsistentHashRing(Collections.singleton("a"), 0);
+    }
+
+    private static String key(int i) {
+        return String.format("%07d", i);
+    }
+}
@@ -28,6 +28,7 @@ import java.util.Map;
 import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.fail;
 
 public class TestELEvaluator {
@@ -183,4 +184,54 @@ public class TestELEvaluator {
             //nop
         }
     }
+
+    @Test
+    public void testGroup() throws Exception {
+        Map<String, Object> constants = new HashMap<String, Object>();
+        constants.put("a", "C");
+        constants.put("b", "B");
+        Map<String, Method> functions = new HashMap<String, Method>();
+        functions.put("a:a", functionA);
+        functions.put("d", functionD);
+        ELEvaluator.Group group = new ELEvaluator.Group(constants, functions, 10);
+
+        ELEvaluator evaluator = new ELEvaluator(new ELEvaluator.Context(group));
+        assertEquals("C", evaluator.getVariable("a"));
+        evaluator.setVariable("a", "A");
+        assertEquals("A", evaluator.getVariable("a"));
+        assertEquals("B", evaluator.getContext().resolveVariable("b"));
+        assertSame(functionA, evaluator.getContext().resolveFunction("a", "a"));
+        assertEquals("AaB", evaluator.evaluate("${a}${a:a()}${b}", String.class));
+        assertEquals("A::B", evaluator.evaluate("${d(a, b)}", String.class));
+        assertEquals(2, group.getCachedExpressions());
+
+        // the parsed expressions are shared, the variables are not
+        ELEvaluator other = new ELEvaluator(new ELEvaluator.Context(group));
+        other.setVariable("a", "A");
+        other.setVariable("b", "BB");
+        assertEquals("A::BB", other.evaluate("${d(a, b)}", String.class));
+        assertEquals(2, group.getCachedExpressions());
+        assertEquals("A::B", evaluator.evaluate("${d(a, b)}", String.class));
+
+        // adding a function to a context does not change the group
+        other.getContext().addFunction("e", "e", functionError);
+        assertSame(functionError, other.getContext().resolveFunction("e", "e"));
+        assertNull(evaluator.getContext().resolveFunction("e", "e"));
+        assertNull(group.resolveFunction("e", "e"));
+        assertEquals("A::BB", other.evaluate("${d(a, b)}", String.class));
+        try {
+            other.evaluate("${e:e()}", String.class);
+            fail();
+        }
+        catch (ELEvaluationException ex) {
+            //nop
+        }
+        assertEquals(2, group.getCachedExpressions());
+
+        // without cache
+        group = new ELEvaluator.Group(constants, functions, 0);
+        evaluator = new ELEvaluator(new ELEvaluator.Context(group));
+        assertEquals("C::B", evaluator.evaluate("${d(a, b)}", String.class));
+        assertEquals(0, group.getCachedExpressions());
+    }
 }
@@ -0,0 +1,76 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.client.CoordinatorAction;
+import org.apache.oozie.client.CoordinatorJob;
+import org.apache.oozie.client.rest.JsonTags;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XDataTestCase;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.JSONValue;
+
+public class TestStreamingJSONArray extends XDataTestCase {
+    private Services services;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        services = new Services();
+        services.init();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        services.destroy();
+        super.tearDown();
+    }
+
+    public void testWriteJSONString() throws Exception {
+        CoordinatorJobBean job = createCoordJob(CoordinatorJob.Status.RUNNING, false, false);
+        List<CoordinatorActionBean> actions = new ArrayList<CoordinatorActionBean>();
+        for (int i = 1; i <= 3; i++) {
+            actions.add(createCoordAction(job.getId(), i, CoordinatorAction.Status.WAITING, "coord-action-get.xml", 0));
+        }
+        job.setActions(actions);
+
+        StringWriter writer = new StringWriter();
+        new StreamingJSONArray(actions, "PST").writeJSONString(writer);
+        assertEquals(JSONValue.parse(CoordinatorActionBean.toJSONArray(actions, "PST").toJSONString()),
+                JSONValue.parse(writer.toString()));
+        assertEquals(writer.toString(), new StreamingJSONArray(actions, "PST").toJSONString());
+        assertEquals("[]", new StreamingJSONArray(null, "GMT").toJSONString());
+
+        // the actions of a job are only converted to JSON when the job is written
+        JSONObject json = job.toStreamingJSONObject("GMT");
+        assertTrue(json.get(JsonTags.COORDINATOR_ACTIONS) instanceof StreamingJSONArray);
+        writer = new StringWriter();
+        json.writeJSONString(writer);
+        JSONObject parsed = (JSONObject) JSONValue.parse(writer.toString());
+        assertEquals(JSONValue.parse(job.toJSONObject("GMT").toJSONString()), parsed);
+        assertEquals(3, ((JSONArray) parsed.get(JsonTags.COORDINATOR_ACTIONS)).size());
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class TestTimingWheel {
+
+    @Test
+    public void testExpiresInOrderOfBuckets() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 8, 0);
+        assertTrue(wheel.add("c", 55));
+        assertTrue(wheel.add("a", 5));
+        assertTrue(wheel.add("b", 25));
+        assertEquals(3, wheel.size());
+
+        assertEquals(Collections.emptyList(), wheel.advance(9));
+        assertEquals(Arrays.asList("a"), wheel.advance(10));
+        assertEquals(Arrays.asList("b"), wheel.advance(50));
+        assertEquals(Collections.emptyList(), wheel.advance(59));
+        assertEquals(Arrays.asList("c"), wheel.advance(60));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testOverflowLevelsCascade() {
+        TimingWheel<Long> wheel = new TimingWheel<>(1, 4, 0);
+        List<Long> expirations = Arrays.asList(3L, 4L, 15L, 16L, 17L, 63L, 64L, 100L, 1000L);
+        for (Long expiration : expirations) {
+            assertTrue(wheel.add(expiration, expiration));
+        }
+        assertEquals(expirations.size(), wheel.getElements().size());
+
+        List<Long> expired = new ArrayList<>();
+        for (long now = 0; now <= 1001; now++) {
+            for (Long element : wheel.advance(now)) {
+                assertTrue("Element " + element + " expired early at " + now, element < now);
+                assertTrue("Element " + element + " expired late at " + now, now - element <= 1);
+                expired.add(element);
+            }
+        }
+        assertEquals(expirations, expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testRandomExpirationsNeverEarly() {
+        Random random = new Random(42);
+        TimingWheel<Long> wheel = new TimingWheel<>(10, 16, 1000);
+        int count = 5000;
+        for (int i = 0; i < count; i++) {
+            long expiration = 1000 + random.nextInt(100000);
+            assertTrue(wheel.add(expiration, expiration));
+        }
+
+        int expired = 0;
+        for (long now = 1000; now <= 101010; now += 7) {
+            for (Long element : wheel.advance(now)) {
+                assertTrue(element < now);
+                assertTrue(now - element <= 10 + 7);
+                expired++;
+            }
+        }
+        assertEquals(count, expired);
+    }
+
+    @Test
+    public void testAddAfterAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        wheel.advance(1000);
+        assertFalse(wheel.add("past", 999));
+        assertTrue(wheel.add("current", 1005));
+        assertTrue(wheel.add("future", 5000));
+        assertEquals(Arrays.asList("current"), wheel.advance(1010));
+        assertEquals(Collections.emptyList(), wheel.advance(4999));
+        assertEquals(Arrays.asList("future"), wheel.advance(5010));
+    }
+
+    @Test
+    public void testSchedulerRunsTasks() throws Exception {
+        TimingWheelScheduler scheduler = new TimingWheelScheduler(5, 16, "TestTimingWheel");
+        try {
+            final int count = 50;
+            final CountDownLatch latch = new CountDownLatch(count);
+            final AtomicLong early = new AtomicLong();
+            for (int i = 0; i < count; i++) {
+                final long delay = i * 10;
+                final long scheduled = System.currentTimeMillis();
+                scheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (System.currentTimeMillis() < scheduled + delay) {
+                            early.incrementAndGet();
+                        }
+                        latch.countDown();
+                    }
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+            assertEquals(0, early.get());
+            assertEquals(0, scheduler.getScheduled().size());
+        }
+        finally {
+            scheduler.shutdown();
+        }
+        assertTrue(scheduler.awaitTermination(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.isTerminated());
+    }
+}
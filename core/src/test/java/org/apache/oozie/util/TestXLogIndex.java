@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.oozie.service.ConfigurationService;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XTestCase;
+
+public class TestXLogIndex extends XTestCase {
+    private static final String[] JOBS = {"0000001-200101000000000-oozie-W", "0000002-200101000000000-oozie-W",
+            "0000003-200101000000000-oozie-C"};
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        XLogFilter.reset();
+        XLogFilter.defineParameter("USER");
+        XLogFilter.defineParameter("GROUP");
+        XLogFilter.defineParameter("TOKEN");
+        XLogFilter.defineParameter("APP");
+        XLogFilter.defineParameter("JOB");
+        XLogFilter.defineParameter("ACTION");
+    }
+
+    public void testRanges() throws Exception {
+        File logFile = new File(getTestCaseDir(), "oozie.log.1");
+        writeLog(logFile, 300);
+        XLogIndex index = new XLogIndex(512);
+        assertNull(index.getRanges(logFile, JOBS[0]));
+
+        index.build(logFile);
+        assertTrue(XLogIndex.getIndexFile(logFile).exists());
+        for (String jobId : JOBS) {
+            List<Long> ranges = index.getRanges(logFile, jobId);
+            assertNotNull(ranges);
+            assertTrue(ranges.size() > 0 && ranges.size() % 2 == 0);
+            for (int i = 1; i < ranges.size(); i++) {
+                assertTrue(ranges.get(i - 1) < ranges.get(i));
+            }
+        }
+        // the last job only logs in the first half of the file
+        List<Long> ranges = index.getRanges(logFile, JOBS[2]);
+        assertTrue(ranges.get(ranges.size() - 1) < logFile.length());
+        assertEquals(0, index.getRanges(logFile, "0000004-200101000000000-oozie-W").size());
+
+        // the index is out of date once the log file changes
+        logFile.setLastModified(logFile.lastModified() - 10000);
+        assertNull(index.getRanges(logFile, JOBS[0]));
+    }
+
+    public void testReader() throws Exception {
+        File logFile = new File(getTestCaseDir(), "oozie.log.1");
+        writeLog(logFile, 300);
+        File gzLogFile = new File(getTestCaseDir(), "oozie.log-2020-01-01-10.gz");
+        StringBuilder sb = new StringBuilder();
+        BufferedReader reader = new BufferedReader(new MultiFileReader(new ArrayList<File>(Arrays.asList(logFile))));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            sb.append(line).append("\n");
+        }
+        reader.close();
+        TestLogStreamer.writeToGZFile(gzLogFile, sb);
+
+        XLogIndex index = new XLogIndex(512);
+        for (File file : new File[] {logFile, gzLogFile}) {
+            for (String jobId : JOBS) {
+                assertEquals(filter(new MultiFileReader(new ArrayList<File>(Arrays.asList(file))), jobId),
+                        filter(index.openReader(file, jobId), jobId));
+            }
+            assertEquals("", filter(index.openReader(file, "0000004-200101000000000-oozie-W"),
+                    "0000004-200101000000000-oozie-W"));
+        }
+    }
+
+    public void testStreamLog() throws Exception {
+        Services services = new Services();
+        services.init();
+        try {
+            File rotatedLogFile = new File(getTestCaseDir(), "oozie.log.1");
+            writeLog(rotatedLogFile, 300);
+            File logFile = new File(getTestCaseDir(), "oozie.log");
+            writeLog(logFile, 20);
+
+            String expected = streamLog(JOBS[1]);
+            assertTrue(expected.contains("message 1 "));
+            assertTrue(expected.contains("at org.apache.oozie.Test.method(Test.java:1)"));
+            assertFalse(XLogIndex.getIndexFile(rotatedLogFile).exists());
+
+            ConfigurationService.set(XLogIndex.CONF_ENABLED, "true");
+            ConfigurationService.set(XLogIndex.CONF_BLOCK_SIZE, "512");
+            assertEquals(expected, streamLog(JOBS[1]));
+            // the active log file is not indexed
+            assertTrue(XLogIndex.getIndexFile(rotatedLogFile).exists());
+            assertFalse(XLogIndex.getIndexFile(logFile).exists());
+            assertEquals(expected, streamLog(JOBS[1]));
+        }
+        finally {
+            services.destroy();
+        }
+    }
+
+    private String streamLog(String jobId) throws Exception {
+        XLogFilter filter = new XLogFilter();
+        filter.setParameter("JOB", jobId);
+        XLogStreamer streamer = new XLogStreamer(filter, getTestCaseDir(), "oozie.log", 1);
+        StringWriter writer = new StringWriter();
+        streamer.streamLog(writer, null, null, false);
+        return writer.toString();
+    }
+
+    private String filter(Reader reader, String jobId) throws Exception {
+        XLogFilter filter = new XLogFilter();
+        filter.setParameter("JOB", jobId);
+        TimestampedMessageParser parser = new TimestampedMessageParser(new BufferedReader(reader), filter);
+        StringBuilder sb = new StringBuilder();
+        while (parser.increment()) {
+            sb.append(parser.getLastMessage());
+        }
+        parser.closeReader();
+        return sb.toString();
+    }
+
+    private void writeLog(File file, int messages) throws Exception {
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8);
+        for (int i = 0; i < messages; i++) {
+            // the last job only logs in the first half
+            String jobId = i < messages / 2 ? JOBS[i % 3] : JOBS[i % 2];
+            writer.write("2020-01-01 10:" + String.format("%02d:%02d", i / 60 % 60, i % 60) + ",000 INFO Test:1 - "
+                    + "SERVER[test] USER[test] GROUP[-] TOKEN[-] APP[app] JOB[" + jobId + "] ACTION[-] message " + i + " é\n");
+            if (i % 7 == 0) {
+                writer.write("java.lang.Exception: failure " + i + "\n");
+                writer.write("\tat org.apache.oozie.Test.method(Test.java:1)\n");
+            }
+            if (i % 11 == 0) {
+                writer.write("2020-01-01 10:00:00,000 INFO Test:1 - SERVER[test] USER[-] GROUP[-] TOKEN[-] APP[-] JOB[-] "
+                        + "ACTION[-] no job\n");
+            }
+        }
+        writer.close();
+    }
+}
@@ -42,6 +42,10 @@ function printUsage() {
   echo "                                                                file in zip format"
   echo "          import <file>                                         imports the oozie database from the zip file"
   echo "                                                                created by export"
+  echo "          compression train <file> [-samples N] [-size BYTES]   trains a zstd dictionary on the contents of the"
+  echo "                                                                oozie database and writes it to the file"
+  echo "          compression recompress [-batch N] [-force]            recompresses the oozie database with the codec"
+  echo "                                                                set in oozie.output.compression.codec"
   echo "          (without options prints this usage information)"
   echo
   echo " EXTJS can be downloaded from http://www.extjs.com/learn/Ext_Version_Archives"
@@ -126,7 +130,8 @@ prepareWar=""
 
 while [ $# -gt 0 ]
 do
-  if [ "$1" = "sharelib" ] || [ "$1" = "db" ] || [ "$1" = "export" ] || [ "$1" = "import" ]; then
+  if [ "$1" = "sharelib" ] || [ "$1" = "db" ] || [ "$1" = "export" ] || [ "$1" = "import" ] \
+      || [ "$1" = "compression" ]; then
     OOZIE_OPTS="-Doozie.home.dir=${OOZIE_HOME}";
     OOZIE_OPTS="${OOZIE_OPTS} -Doozie.config.dir=${OOZIE_CONFIG}";
     OOZIE_OPTS="${OOZIE_OPTS} -Doozie.log.dir=${OOZIE_LOG}";
@@ -158,6 +163,9 @@ do
       ${JAVA_BIN} ${OOZIE_OPTS} -cp ${OOZIECPPATH} org.apache.oozie.tools.OozieDBExportCLI "${@}"
     elif [ "$1" = "import" ]; then
       ${JAVA_BIN} ${OOZIE_OPTS} -cp ${OOZIECPPATH} org.apache.oozie.tools.OozieDBImportCLI "${@}"
+    elif [ "$1" = "compression" ]; then
+      shift
+      ${JAVA_BIN} ${OOZIE_OPTS} -cp ${OOZIECPPATH} org.apache.oozie.tools.OozieDBCompressionCLI "${@}"
     fi
     exit $?
   elif [ "$1" = "-d" ]; then
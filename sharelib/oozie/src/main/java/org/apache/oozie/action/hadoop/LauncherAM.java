@@ -34,6 +34,7 @@ import java.util.Properties;
 import java.util.StringTokenizer;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.Text;
 import org.apache.hadoop.security.Credentials;
@@ -64,6 +65,7 @@ public class LauncherAM {
     public static final String OOZIE_LAUNCHER_SHARELIB_PROPERTY = "oozie.launcher.sharelib";
     public static final String OOZIE_LAUNCHER_LOG_LEVEL_PROPERTY = "oozie.launcher.log.level";
     public static final String OOZIE_LAUNCHER_MAX_ATTEMPTS = "oozie.launcher.max.attempts";
+    public static final String OOZIE_LAUNCHER_POOL_PROPERTY = "oozie.launcher.pool";
 
     public static final String JAVA_CLASS_PATH = "java.class.path";
     public static final String OOZIE_ACTION_ID = "oozie.action.id";
@@ -76,6 +78,7 @@ public class LauncherAM {
     public static final String CONF_OOZIE_EXTERNAL_STATS_MAX_SIZE = "oozie.external.stats.max.size";
     public static final String OOZIE_ACTION_DIR_PATH = ACTION_PREFIX + "dir.path";
     public static final String ACTION_PREPARE_XML = ACTION_PREFIX + "prepare.xml";
+    public static final String OOZIE_ACTION_WORKING_DIR = ACTION_PREFIX + "working.dir";
     public static final String ACTION_DATA_SEQUENCE_FILE = "action-data.seq"; // COMBO FILE
     public static final String ACTION_DATA_EXTERNAL_CHILD_IDS = "externalChildIDs";
     public static final String ACTION_DATA_OUTPUT_PROPS = "output.properties";
@@ -88,6 +91,8 @@ public class LauncherAM {
     public static final String LAUNCHER_JOB_CONF_XML = "launcher.xml";
     public static final String ACTION_CONF_XML = "action.xml";
     public static final String ACTION_DATA_FINAL_STATUS = "final.status";
+    public static final String ACTION_DATA_POOLED_LAUNCHER_DELAY = "pooled.launcher.delay";
+    public static final String POOLED_ACTION_DONE = "pooled-action.done";
     public static final String OOZIE_SUBMITTER_USER = "oozie.submitter.user";
 
     @VisibleForTesting
@@ -103,9 +108,12 @@ public class LauncherAM {
 
     private final Configuration launcherConf;
     private final AMRMCallBackHandler amrmCallBackHandler;
+    // working directory of an action run by a pooled launcher, null for the current directory
+    private final File workDir;
     private AMRMClientAsync<?> amRmClientAsync;
     private Path actionDir;
     private Map<String, String> actionData = new HashMap<String,String>();
+    private Exception setupFailure;
 
     public LauncherAM(
             AMRMClientAsyncFactory amrmClientAsyncFactory,
@@ -117,6 +125,24 @@ public class LauncherAM {
             LauncherSecurityManager launcherSecurityManager,
             String containerId,
             Configuration launcherConf) {
+        this(amrmClientAsyncFactory, amrmCallBackHandler, hdfsOperations, localFsOperations, prepareHandler,
+                callbackNotifierFactory, launcherSecurityManager, containerId, launcherConf, null);
+    }
+
+    /**
+     * Create the launcher of an action run by a {@link PooledLauncherAM}, which is already registered with the RM.
+     */
+    LauncherAM(
+            AMRMClientAsyncFactory amrmClientAsyncFactory,
+            AMRMCallBackHandler amrmCallBackHandler,
+            HdfsOperations hdfsOperations,
+            LocalFsOperations localFsOperations,
+            PrepareActionsHandler prepareHandler,
+            LauncherAMCallbackNotifierFactory callbackNotifierFactory,
+            LauncherSecurityManager launcherSecurityManager,
+            String containerId,
+            Configuration launcherConf,
+            File workDir) {
         this.amrmClientAsyncFactory = Objects.requireNonNull(amrmClientAsyncFactory,
                 "amrmClientAsyncFactory should not be null");
         this.amrmCallBackHandler = Objects.requireNonNull(amrmCallBackHandler, "amrmCallBackHandler should not be null");
@@ -129,6 +155,7 @@ public class LauncherAM {
                 "launcherSecurityManager should not be null");
         this.containerId = ContainerId.fromString(Objects.requireNonNull(containerId, "containerId should not be null"));
         this.launcherConf = Objects.requireNonNull(launcherConf, "launcherConf should not be null");
+        this.workDir = workDir;
     }
 
     public static void main(String[] args) throws Exception {
@@ -143,6 +170,18 @@ public class LauncherAM {
         ugi.doAs(new PrivilegedExceptionAction<Object>() {
             @Override
             public Object run() throws Exception {
+                if (launcherConf.get(PooledLauncherAM.OOZIE_LAUNCHER_POOL_DIR) != null) {
+                    PooledLauncherAM launcher = new PooledLauncherAM(new AMRMClientAsyncFactory(),
+                            new AMRMCallBackHandler(),
+                            new HdfsOperations(new SequenceFileWriterFactory()),
+                            new LocalFsOperations(),
+                            new PrepareActionsHandler(new LauncherURIHandlerFactory(null)),
+                            new LauncherAMCallbackNotifierFactory(),
+                            sysenv.getenv(ApplicationConstants.Environment.CONTAINER_ID.name()),
+                            launcherConf);
+                    launcher.run();
+                    return null;
+                }
                   LauncherAM launcher = new LauncherAM(new AMRMClientAsyncFactory(),
                         new AMRMCallBackHandler(),
                         new HdfsOperations(new SequenceFileWriterFactory()),
@@ -208,24 +247,39 @@ public class LauncherAM {
         final ErrorHolder errorHolder = new ErrorHolder();
         OozieActionResult actionResult = OozieActionResult.FAILED;
         boolean backgroundAction = false;
+        LauncherAMCallbackNotifier callbackNotifier = null;
+        boolean actionDataSent = false;
         try {
 
             actionDir = new Path(launcherConf.get(OOZIE_ACTION_DIR_PATH));
 
-            registerWithRM(amrmCallBackHandler);
+            if (setupFailure != null) {
+                throw setupFailure;
+            }
+            // a pooled launcher is registered once for all of its actions
+            if (workDir == null) {
+                registerWithRM(amrmCallBackHandler);
+            }
             // Run user code without the AM_RM_TOKEN so users can't request containers
             UserGroupInformation ugi = getUserGroupInformation(launcherConf, AMRMTokenIdentifier.KIND_NAME);
             printTokens(  "Executing Action Main with tokens:", ugi.getTokens());
-            ugi.doAs(new PrivilegedExceptionAction<Object>() {
-                @Override
-                public Object run() throws Exception {
-                    executePrepare(errorHolder);
-                    printDebugInfo();
-                    setupMainConfiguration();
-                    runActionMain(errorHolder);
-                    return null;
+            try {
+                ugi.doAs(new PrivilegedExceptionAction<Object>() {
+                    @Override
+                    public Object run() throws Exception {
+                        executePrepare(errorHolder);
+                        printDebugInfo();
+                        setupMainConfiguration();
+                        runActionMain(errorHolder);
+                        return null;
+                    }
+                });
+            } finally {
+                if (workDir != null) {
+                    // the file systems of the action would be kept by the pooled launcher otherwise
+                    FileSystem.closeAllForUGI(ugi);
                 }
-            });
+            }
 
             if (!errorHolder.isPopulated()) {
                 handleActionData();
@@ -275,12 +329,24 @@ public class LauncherAM {
 
                 actionData.put(ACTION_DATA_FINAL_STATUS, actionResult.toString());
                 hdfsOperations.uploadActionDataToHDFS(launcherConf, actionDir, actionData);
+                if (workDir != null) {
+                    // a pooled launcher keeps running, Oozie reads the action data once it is marked as complete
+                    hdfsOperations.writeStringToFile(new Path(actionDir, POOLED_ACTION_DONE), launcherConf,
+                            containerId.getApplicationAttemptId().getApplicationId().toString());
+                }
+                // small action data also goes with the callback, saving the server the reads of the file on HDFS
+                callbackNotifier = callbackNotifierFactory.createCallbackNotifier(launcherConf);
+                actionDataSent = callbackNotifier.notifyURLWithActionData(actionResult, actionData);
             } finally {
                 try {
                     unregisterWithRM(actionResult, errorHolder.getErrorMessage());
                 } finally {
-                    LauncherAMCallbackNotifier cn = callbackNotifierFactory.createCallbackNotifier(launcherConf);
-                    cn.notifyURL(actionResult);
+                    if (!actionDataSent) {
+                        if (callbackNotifier == null) {
+                            callbackNotifier = callbackNotifierFactory.createCallbackNotifier(launcherConf);
+                        }
+                        callbackNotifier.notifyURL(actionResult);
+                    }
                 }
             }
         }
@@ -291,8 +357,21 @@ public class LauncherAM {
         return actionData;
     }
 
+    void addActionData(String key, String value) {
+        actionData.put(key, value);
+    }
+
+    /**
+     * Fail the action instead of running it, when a pooled launcher could not set it up.
+     *
+     * @param setupFailure the cause of the failure
+     */
+    void setSetupFailure(Exception setupFailure) {
+        this.setupFailure = setupFailure;
+    }
+
     private void printDebugInfo() throws IOException {
-        localFsOperations.printContentsOfDir(new File("."));
+        localFsOperations.printContentsOfDir(workDir != null ? workDir : new File("."));
 
         System.out.println();
         System.out.println("Oozie Launcher Application Master configuration");
@@ -369,7 +448,11 @@ public class LauncherAM {
             if (prepareXML != null) {
                 if (prepareXML.length() != 0) {
                     Configuration actionConf = new Configuration(launcherConf);
-                    actionConf.addResource(ACTION_CONF_XML);
+                    if (workDir != null) {
+                        actionConf.addResource(new Path(new File(workDir, ACTION_CONF_XML).getAbsolutePath()));
+                    } else {
+                        actionConf.addResource(ACTION_CONF_XML);
+                    }
                     prepareHandler.prepareAction(prepareXML, actionConf);
                 } else {
                     System.out.println("There are no prepare actions to execute.");
@@ -387,13 +470,15 @@ public class LauncherAM {
         System.setProperty(OOZIE_LAUNCHER_JOB_ID, launcherConf.get(OOZIE_JOB_ID));
         System.setProperty(OOZIE_JOB_ID, launcherConf.get(OOZIE_JOB_ID));
         System.setProperty(OOZIE_ACTION_ID, launcherConf.get(OOZIE_ACTION_ID));
-        System.setProperty(OOZIE_ACTION_CONF_XML, new File(ACTION_CONF_XML).getAbsolutePath());
+        System.setProperty(OOZIE_ACTION_CONF_XML, new File(workDir, ACTION_CONF_XML).getAbsolutePath());
         System.setProperty(ACTION_PREFIX + ACTION_DATA_EXTERNAL_CHILD_IDS,
-                new File(ACTION_DATA_EXTERNAL_CHILD_IDS).getAbsolutePath());
-        System.setProperty(ACTION_PREFIX + ACTION_DATA_STATS, new File(ACTION_DATA_STATS).getAbsolutePath());
-        System.setProperty(ACTION_PREFIX + ACTION_DATA_NEW_ID, new File(ACTION_DATA_NEW_ID).getAbsolutePath());
-        System.setProperty(ACTION_PREFIX + ACTION_DATA_OUTPUT_PROPS, new File(ACTION_DATA_OUTPUT_PROPS).getAbsolutePath());
-        System.setProperty(ACTION_PREFIX + ACTION_DATA_ERROR_PROPS, new File(ACTION_DATA_ERROR_PROPS).getAbsolutePath());
+                new File(workDir, ACTION_DATA_EXTERNAL_CHILD_IDS).getAbsolutePath());
+        System.setProperty(ACTION_PREFIX + ACTION_DATA_STATS, new File(workDir, ACTION_DATA_STATS).getAbsolutePath());
+        System.setProperty(ACTION_PREFIX + ACTION_DATA_NEW_ID, new File(workDir, ACTION_DATA_NEW_ID).getAbsolutePath());
+        System.setProperty(ACTION_PREFIX + ACTION_DATA_OUTPUT_PROPS,
+                new File(workDir, ACTION_DATA_OUTPUT_PROPS).getAbsolutePath());
+        System.setProperty(ACTION_PREFIX + ACTION_DATA_ERROR_PROPS,
+                new File(workDir, ACTION_DATA_ERROR_PROPS).getAbsolutePath());
 
         System.setProperty("oozie.job.launch.time", String.valueOf(System.currentTimeMillis()));
     }
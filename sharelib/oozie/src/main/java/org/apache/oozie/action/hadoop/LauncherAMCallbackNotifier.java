@@ -21,11 +21,16 @@ import org.apache.hadoop.conf.Configuration;
 import org.apache.oozie.action.hadoop.LauncherAM.OozieActionResult;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.Proxy;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
 
 // Adapted from org.apache.hadoop.mapreduce.v2.app.JobEndNotifier
 /**
@@ -43,6 +48,9 @@ public class LauncherAMCallbackNotifier {
     public static final String OOZIE_LAUNCHER_CALLBACK_URL = OOZIE_LAUNCHER_CALLBACK + "url";
     public static final String OOZIE_LAUNCHER_CALLBACK_PROXY = OOZIE_LAUNCHER_CALLBACK + "proxy";
     public static final String OOZIE_LAUNCHER_CALLBACK_JOBSTATUS_TOKEN = "$jobStatus";
+    public static final String OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE = OOZIE_LAUNCHER_CALLBACK + "action.data.max.size";
+    public static final String OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_TOKEN = OOZIE_LAUNCHER_CALLBACK + "action.data.token";
+    public static final String ACTION_DATA_TOKEN_HEADER = "X-Oozie-Action-Data-Token";
 
     protected String userUrl;
     protected String proxyConf;
@@ -51,6 +59,8 @@ public class LauncherAMCallbackNotifier {
     protected int timeout; // Timeout (ms) on the connection and notification
     protected URL urlToNotify; //URL to notify read from the config
     protected Proxy proxyToUse = Proxy.NO_PROXY; //Proxy to use for notification
+    protected int actionDataMaxSize; //Max size (chars) of the action data sent with the notification
+    protected String actionDataToken; //Token authenticating the action data sent with the notification
 
 
     /**
@@ -73,6 +83,9 @@ public class LauncherAMCallbackNotifier {
 
         proxyConf = conf.get(OOZIE_LAUNCHER_CALLBACK_PROXY);
 
+        actionDataMaxSize = conf.getInt(OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE, 0);
+        actionDataToken = conf.get(OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_TOKEN);
+
         //Configure the proxy to use if its set. It should be set like
         //proxyType@proxyHostname:port
         if(proxyConf != null && !proxyConf.equals("") &&
@@ -175,4 +188,81 @@ public class LauncherAMCallbackNotifier {
             System.out.println("Callback notification succeeded");
         }
     }
+
+    /**
+     * Notify the server of the completion of the action with the action data in the body of a POST request, so that the
+     * server doesn't have to read the action data file from HDFS. The action data is only sent if the server gave a token
+     * for it, it fits in {@link #OOZIE_LAUNCHER_CALLBACK_ACTION_DATA_MAX_SIZE} and the action is not running in the
+     * background. It is sent once: if the server doesn't accept it, the action data has to be uploaded to HDFS and the
+     * server notified with {@link #notifyURL(OozieActionResult)}.
+     * @param actionResult The Action Result (failed/succeeded/running)
+     * @param actionData the action data
+     * @return true if the server accepted the action data
+     */
+    public boolean notifyURLWithActionData(OozieActionResult actionResult, Map<String, String> actionData) {
+        if (userUrl == null || actionDataToken == null || actionDataMaxSize <= 0
+                || actionResult == OozieActionResult.RUNNING) {
+            return false;
+        }
+        String data = toPropertiesString(actionData);
+        if (data.length() > actionDataMaxSize) {
+            System.out.println("Action data is too large to be sent with the callback notification (" + data.length()
+                    + " characters), uploading it to HDFS");
+            return false;
+        }
+
+        URL url;
+        try {
+            url = new URL(userUrl.replace(OOZIE_LAUNCHER_CALLBACK_JOBSTATUS_TOKEN, actionResult.toString()));
+        } catch (MalformedURLException mue) {
+            System.err.println("Callback notification couldn't parse " + userUrl);
+            mue.printStackTrace();
+            return false;
+        }
+
+        boolean success = false;
+        HttpURLConnection conn = null;
+        try {
+            System.out.println("Callback notification with action data trying " + url);
+            conn = (HttpURLConnection) url.openConnection(proxyToUse);
+            conn.setConnectTimeout(timeout);
+            conn.setReadTimeout(timeout);
+            conn.setAllowUserInteraction(false);
+            conn.setRequestMethod("POST");
+            conn.setDoOutput(true);
+            conn.setRequestProperty("Content-Type", "text/plain;charset=UTF-8");
+            conn.setRequestProperty(ACTION_DATA_TOKEN_HEADER, actionDataToken);
+            try (OutputStream os = conn.getOutputStream()) {
+                os.write(data.getBytes(StandardCharsets.UTF_8));
+            }
+            if (conn.getResponseCode() != HttpURLConnection.HTTP_OK) {
+                System.err.println("Callback notification with action data to " + url + " failed with code: "
+                        + conn.getResponseCode() + " and message \"" + conn.getResponseMessage() + "\"");
+            }
+            else {
+                success = true;
+                System.out.println("Callback notification with action data to " + url + " succeeded");
+            }
+        } catch (IOException ioe) {
+            System.err.println("Callback notification with action data to " + url + " failed");
+            ioe.printStackTrace();
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+        return success;
+    }
+
+    private static String toPropertiesString(Map<String, String> actionData) {
+        Properties props = new Properties();
+        props.putAll(actionData);
+        StringWriter writer = new StringWriter();
+        try {
+            props.store(writer, null);
+        } catch (IOException ioe) {
+            throw new RuntimeException(ioe);
+        }
+        return writer.toString();
+    }
 }
@@ -0,0 +1,405 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.action.hadoop;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.client.api.async.AMRMClientAsync;
+import org.apache.hadoop.yarn.exceptions.YarnException;
+import org.apache.oozie.action.hadoop.security.LauncherSecurityManager;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * Launcher AM of a launcher pool: it keeps running to execute the actions Oozie hands to it one after the other, so that
+ * short actions don't wait for a new YARN application each.
+ * <p>
+ * Oozie hands an action over by moving a task file, holding the action directory, into the directory of the launcher
+ * ({@link #OOZIE_LAUNCHER_POOL_DIR}). Each action is run by a {@link LauncherAM} in its own working directory, where the
+ * files of the action are linked, with its own class loader for the jars of the action. The files are downloaded once
+ * and shared by the actions using the same version of a file.
+ * <p>
+ * The launcher renames its directory to stop taking actions once it has been idle for
+ * {@link #OOZIE_LAUNCHER_POOL_IDLE_TIMEOUT}, ran {@link #OOZIE_LAUNCHER_POOL_MAX_ACTIONS} actions or has been running for
+ * {@link #OOZIE_LAUNCHER_POOL_MAX_LIFETIME}; the actions handed over before that are still run.
+ */
+public class PooledLauncherAM {
+    public static final String OOZIE_LAUNCHER_POOL_DIR = "oozie.launcher.pool.dir";
+    public static final String OOZIE_LAUNCHER_POOL_IDLE_TIMEOUT = "oozie.launcher.pool.idle.timeout";
+    public static final String OOZIE_LAUNCHER_POOL_MAX_ACTIONS = "oozie.launcher.pool.max.actions";
+    public static final String OOZIE_LAUNCHER_POOL_MAX_LIFETIME = "oozie.launcher.pool.max.lifetime";
+    public static final String OOZIE_LAUNCHER_POOL_POLL_INTERVAL = "oozie.launcher.pool.poll.interval";
+    public static final String CLOSED_SUFFIX = ".closed";
+
+    // same as MRJobConfig.CACHE_FILES, MapReduce is not on the class path of the launcher
+    static final String CACHE_FILES = "mapreduce.job.cache.files";
+    static final String WORK_DIR = "pooled-actions";
+    static final String CACHE_DIR = "pooled-files";
+
+    private final AMRMClientAsyncFactory amrmClientAsyncFactory;
+    private final AMRMCallBackHandler amrmCallBackHandler;
+    private final HdfsOperations hdfsOperations;
+    private final LocalFsOperations localFsOperations;
+    private final PrepareActionsHandler prepareHandler;
+    private final LauncherAMCallbackNotifierFactory callbackNotifierFactory;
+    private final String containerId;
+    private final Configuration poolConf;
+    private final Path poolDir;
+    private final File workRoot;
+    private final File cacheDir;
+    private AMRMClientAsync<?> amRmClientAsync;
+    private int actions;
+
+    public PooledLauncherAM(
+            AMRMClientAsyncFactory amrmClientAsyncFactory,
+            AMRMCallBackHandler amrmCallBackHandler,
+            HdfsOperations hdfsOperations,
+            LocalFsOperations localFsOperations,
+            PrepareActionsHandler prepareHandler,
+            LauncherAMCallbackNotifierFactory callbackNotifierFactory,
+            String containerId,
+            Configuration poolConf) {
+        this(amrmClientAsyncFactory, amrmCallBackHandler, hdfsOperations, localFsOperations, prepareHandler,
+                callbackNotifierFactory, containerId, poolConf, new File("."));
+    }
+
+    @VisibleForTesting
+    PooledLauncherAM(
+            AMRMClientAsyncFactory amrmClientAsyncFactory,
+            AMRMCallBackHandler amrmCallBackHandler,
+            HdfsOperations hdfsOperations,
+            LocalFsOperations localFsOperations,
+            PrepareActionsHandler prepareHandler,
+            LauncherAMCallbackNotifierFactory callbackNotifierFactory,
+            String containerId,
+            Configuration poolConf,
+            File localDir) {
+        this.amrmClientAsyncFactory = Objects.requireNonNull(amrmClientAsyncFactory,
+                "amrmClientAsyncFactory should not be null");
+        this.amrmCallBackHandler = Objects.requireNonNull(amrmCallBackHandler, "amrmCallBackHandler should not be null");
+        this.hdfsOperations = Objects.requireNonNull(hdfsOperations, "hdfsOperations should not be null");
+        this.localFsOperations = Objects.requireNonNull(localFsOperations, "localFsOperations should not be null");
+        this.prepareHandler = Objects.requireNonNull(prepareHandler, "prepareHandler should not be null");
+        this.callbackNotifierFactory = Objects.requireNonNull(callbackNotifierFactory,
+                "callbackNotifierFactory should not be null");
+        this.containerId = Objects.requireNonNull(containerId, "containerId should not be null");
+        this.poolConf = Objects.requireNonNull(poolConf, "poolConf should not be null");
+        this.poolDir = new Path(Objects.requireNonNull(poolConf.get(OOZIE_LAUNCHER_POOL_DIR),
+                "pool directory should not be null"));
+        this.workRoot = new File(localDir, WORK_DIR);
+        this.cacheDir = new File(localDir, CACHE_DIR);
+    }
+
+    public void run() throws Exception {
+        long idleTimeout = poolConf.getLong(OOZIE_LAUNCHER_POOL_IDLE_TIMEOUT, 5 * 60 * 1000L);
+        int maxActions = poolConf.getInt(OOZIE_LAUNCHER_POOL_MAX_ACTIONS, 100);
+        long maxLifetime = poolConf.getLong(OOZIE_LAUNCHER_POOL_MAX_LIFETIME, 60 * 60 * 1000L);
+        long pollInterval = poolConf.getLong(OOZIE_LAUNCHER_POOL_POLL_INTERVAL, 1000L);
+        Path closedDir = new Path(poolDir.getParent(), poolDir.getName() + CLOSED_SUFFIX);
+        FinalApplicationStatus finalStatus = FinalApplicationStatus.SUCCEEDED;
+        String message = "";
+
+        registerWithRM();
+        try {
+            System.out.println("Oozie launcher pool, taking actions from " + poolDir);
+            long started = System.currentTimeMillis();
+            long lastActive = started;
+            Path dir = poolDir;
+            while (amrmCallBackHandler.getError() == null) {
+                List<FileStatus> tasks = listTasks(dir);
+                long now = System.currentTimeMillis();
+                if (dir == poolDir && (actions >= maxActions || now - started >= maxLifetime
+                        || (tasks.isEmpty() && now - lastActive >= idleTimeout))) {
+                    System.out.println("Oozie launcher pool, closing after running " + actions + " actions");
+                    close(closedDir);
+                    dir = closedDir;
+                    continue;
+                }
+                if (tasks.isEmpty()) {
+                    if (dir != poolDir) {
+                        break;
+                    }
+                    Thread.sleep(pollInterval);
+                    continue;
+                }
+                for (FileStatus task : tasks) {
+                    runTask(task);
+                }
+                lastActive = System.currentTimeMillis();
+            }
+            ErrorHolder error = amrmCallBackHandler.getError();
+            if (error != null) {
+                finalStatus = FinalApplicationStatus.FAILED;
+                message = error.getErrorMessage() == null ? "" : error.getErrorMessage();
+            }
+        } finally {
+            try {
+                delete(poolDir);
+                delete(closedDir);
+            } finally {
+                unregisterWithRM(finalStatus, message);
+            }
+        }
+    }
+
+    /**
+     * @return the number of actions run by the launcher
+     */
+    int getActions() {
+        return actions;
+    }
+
+    private List<FileStatus> listTasks(Path dir) {
+        List<FileStatus> tasks = new ArrayList<>();
+        try {
+            for (FileStatus status : dir.getFileSystem(poolConf).listStatus(dir)) {
+                if (status.isFile()) {
+                    tasks.add(status);
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // the directory was closed or removed
+        } catch (IOException e) {
+            System.out.println("Oozie launcher pool, could not list the actions in " + dir + ": " + e);
+        }
+        tasks.sort(Comparator.comparingLong(FileStatus::getModificationTime));
+        return tasks;
+    }
+
+    private void close(Path closedDir) {
+        try {
+            if (!poolDir.getFileSystem(poolConf).rename(poolDir, closedDir)) {
+                System.out.println("Oozie launcher pool, could not rename " + poolDir + " to " + closedDir);
+            }
+        } catch (IOException e) {
+            System.out.println("Oozie launcher pool, could not rename " + poolDir + " to " + closedDir + ": " + e);
+        }
+    }
+
+    private void delete(Path dir) {
+        try {
+            dir.getFileSystem(poolConf).delete(dir, true);
+        } catch (IOException e) {
+            System.out.println("Oozie launcher pool, could not delete " + dir + ": " + e);
+        }
+    }
+
+    private void runTask(FileStatus task) {
+        actions++;
+        File workDir = new File(workRoot, Integer.toString(actions));
+        long delay = System.currentTimeMillis() - task.getModificationTime();
+        Configuration launcherConf = null;
+        Exception setupFailure = null;
+        URLClassLoader classLoader = null;
+        try {
+            FileSystem fs = task.getPath().getFileSystem(poolConf);
+            Path actionDir;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(fs.open(task.getPath()),
+                    StandardCharsets.UTF_8))) {
+                actionDir = new Path(reader.readLine().trim());
+            }
+            fs.delete(task.getPath(), false);
+            System.out.println();
+            System.out.println("Oozie launcher pool, running action [" + task.getPath().getName() + "] in " + workDir
+                    + " after " + delay + " ms");
+            System.out.println("=================================================================");
+
+            if (!workDir.mkdirs()) {
+                throw new IOException("Could not create " + workDir);
+            }
+            for (String confFile : new String[] {LauncherAM.LAUNCHER_JOB_CONF_XML, LauncherAM.ACTION_CONF_XML}) {
+                fs.copyToLocalFile(false, new Path(actionDir, confFile),
+                        new Path(new File(workDir, confFile).getAbsolutePath()), true);
+            }
+            launcherConf = new Configuration(false);
+            launcherConf.addResource(new Path(new File(workDir, LauncherAM.LAUNCHER_JOB_CONF_XML).getAbsolutePath()));
+            try {
+                classLoader = new URLClassLoader(localizeFiles(launcherConf, workDir), getClass().getClassLoader());
+                launcherConf.setClassLoader(classLoader);
+            } catch (Exception e) {
+                setupFailure = e;
+            }
+        } catch (Exception e) {
+            System.out.println("Oozie launcher pool, could not take action [" + task.getPath().getName() + "]");
+            e.printStackTrace(System.out);
+        }
+
+        if (launcherConf != null) {
+            Thread thread = Thread.currentThread();
+            ClassLoader contextClassLoader = thread.getContextClassLoader();
+            if (classLoader != null) {
+                thread.setContextClassLoader(classLoader);
+            }
+            System.setProperty(LauncherAM.OOZIE_ACTION_WORKING_DIR, workDir.getAbsolutePath());
+            try {
+                runAction(launcherConf, workDir, delay, setupFailure);
+            } catch (Exception e) {
+                // the launcher reported the failure of the action
+                System.out.println("Oozie launcher pool, action [" + task.getPath().getName() + "] failed");
+            } finally {
+                System.clearProperty(LauncherAM.OOZIE_ACTION_WORKING_DIR);
+                thread.setContextClassLoader(contextClassLoader);
+            }
+        }
+        if (classLoader != null) {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                System.out.println("Oozie launcher pool, could not close the class loader: " + e);
+            }
+        }
+        deleteLocalDir(workDir);
+    }
+
+    @VisibleForTesting
+    void runAction(Configuration launcherConf, File workDir, long delay, Exception setupFailure) throws Exception {
+        LauncherAM launcher = new LauncherAM(amrmClientAsyncFactory, amrmCallBackHandler, hdfsOperations,
+                localFsOperations, prepareHandler, callbackNotifierFactory, new LauncherSecurityManager(), containerId,
+                launcherConf, workDir);
+        launcher.addActionData(LauncherAM.ACTION_DATA_POOLED_LAUNCHER_DELAY, Long.toString(delay));
+        if (setupFailure != null) {
+            launcher.setSetupFailure(setupFailure);
+        }
+        launcher.run();
+    }
+
+    /**
+     * Link the files of an action into its working directory, downloading the ones not downloaded yet.
+     *
+     * @param launcherConf the launcher configuration of the action
+     * @param workDir the working directory of the action
+     * @return the class path of the action: the working directory and the jars in it
+     * @throws IOException if a file can't be downloaded or linked
+     * @throws URISyntaxException if the URI of a file is invalid
+     */
+    @VisibleForTesting
+    URL[] localizeFiles(Configuration launcherConf, File workDir) throws IOException, URISyntaxException {
+        List<URL> classPath = new ArrayList<>();
+        classPath.add(workDir.toURI().toURL());
+        List<String> launcherJars = Arrays.asList(getLauncherJars());
+        for (String cacheFile : launcherConf.getTrimmedStrings(CACHE_FILES)) {
+            URI uri = new URI(cacheFile);
+            Path path = new Path(uri.getScheme(), uri.getAuthority(), uri.getPath());
+            String linkName = uri.getFragment() != null ? uri.getFragment() : path.getName();
+            // the jars of the pooled launcher itself are on the class path already
+            if (linkName.endsWith(".jar") && launcherJars.contains(linkName)) {
+                continue;
+            }
+            File link = new File(workDir, linkName);
+            Files.createSymbolicLink(link.toPath(), downloadFile(path, launcherConf).getAbsoluteFile().toPath());
+            if (linkName.endsWith(".jar")) {
+                classPath.add(link.toURI().toURL());
+            }
+        }
+        return classPath.toArray(new URL[classPath.size()]);
+    }
+
+    private String[] getLauncherJars() {
+        String[] jars = workRoot.getAbsoluteFile().getParentFile().list();
+        return jars != null ? jars : new String[0];
+    }
+
+    private File downloadFile(Path path, Configuration conf) throws IOException {
+        FileSystem fs = path.getFileSystem(conf);
+        FileStatus status = fs.getFileStatus(path);
+        String version = status.getPath() + ":" + status.getModificationTime() + ":" + status.getLen();
+        File file = new File(cacheDir, UUID.nameUUIDFromBytes(version.getBytes(StandardCharsets.UTF_8)) + "-"
+                + status.getPath().getName());
+        if (!file.exists()) {
+            if (!cacheDir.isDirectory() && !cacheDir.mkdirs()) {
+                throw new IOException("Could not create " + cacheDir);
+            }
+            File tmpFile = new File(cacheDir, file.getName() + ".tmp");
+            deleteLocalDir(tmpFile);
+            fs.copyToLocalFile(false, status.getPath(), new Path(tmpFile.getAbsolutePath()), true);
+            // as when localized by YARN, the files may be scripts to run
+            if (!tmpFile.setExecutable(true, true) || !tmpFile.renameTo(file)) {
+                throw new IOException("Could not download " + path + " to " + file);
+            }
+        }
+        return file;
+    }
+
+    private void deleteLocalDir(File dir) {
+        if (!dir.exists() && !Files.isSymbolicLink(dir.toPath())) {
+            return;
+        }
+        try {
+            // the links to the downloaded files are deleted, not followed
+            Files.walkFileTree(dir.toPath(), new SimpleFileVisitor<java.nio.file.Path>() {
+                @Override
+                public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(java.nio.file.Path file, IOException e) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            System.out.println("Oozie launcher pool, could not delete " + dir + ": " + e);
+        }
+    }
+
+    private void registerWithRM() throws IOException, YarnException {
+        amRmClientAsync = amrmClientAsyncFactory.createAMRMClientAsync(60000, amrmCallBackHandler);
+        amRmClientAsync.init(new Configuration(poolConf));
+        amRmClientAsync.start();
+
+        // hostname and tracking url are determined automatically
+        amRmClientAsync.registerApplicationMaster("", 0, "");
+    }
+
+    private void unregisterWithRM(FinalApplicationStatus finalStatus, String message) throws YarnException, IOException {
+        System.out.println("Stopping AM");
+        try {
+            // tracking url is determined automatically
+            amRmClientAsync.unregisterApplicationMaster(finalStatus, message, "");
+        } finally {
+            amRmClientAsync.stop();
+        }
+    }
+}
@@ -93,8 +93,10 @@ public class ShellMain extends LauncherMain {
         ProcessBuilder builder = new ProcessBuilder(cmdArray);
         Map<String, String> envp = getEnvMap(builder.environment(), actionConf);
 
-        // Getting the Current working dir and setting it to processbuilder
-        File currDir = new File("dummy").getAbsoluteFile().getParentFile();
+        // Getting the Current working dir and setting it to processbuilder, a pooled launcher runs each action in its own dir
+        String workingDir = System.getProperty(LauncherAM.OOZIE_ACTION_WORKING_DIR);
+        File currDir = workingDir != null ? new File(workingDir)
+                : new File("dummy").getAbsoluteFile().getParentFile();
         System.out.println("Current working dir " + currDir);
         builder.directory(currDir);
 
@@ -49,6 +49,7 @@ import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mockito;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 
@@ -70,6 +71,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import static org.mockito.Mockito.when;
@@ -95,6 +97,9 @@ public class TestLauncherAM {
     @Rule
     public ExpectedException thrown = ExpectedException.none();
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Mock
     private AMRMClientAsyncFactory amRMClientAsyncFactoryMock;
 
@@ -161,6 +166,60 @@ public class TestLauncherAM {
         assertNoActionOutputData();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testActionDataSentWithCallback() throws Exception {
+        given(launcherCallbackNotifierMock.notifyURLWithActionData(eq(OozieActionResult.SUCCEEDED), any(Map.class)))
+            .willReturn(true);
+
+        executeLauncher();
+
+        verify(launcherCallbackNotifierMock).notifyURLWithActionData(eq(OozieActionResult.SUCCEEDED), any(Map.class));
+        verify(hdfsOperationsMock).uploadActionDataToHDFS(any(Configuration.class), any(Path.class), any(Map.class));
+        verify(launcherCallbackNotifierMock, never()).notifyURL(any(OozieActionResult.class));
+        verify(amRmAsyncClientMock).unregisterApplicationMaster(FinalApplicationStatus.SUCCEEDED, EMPTY_STRING, EMPTY_STRING);
+        verifyFinalStatus(launcherAM.getActionData(), OozieActionResult.SUCCEEDED);
+    }
+
+    @Test
+    public void testPooledActionRunWithoutRegistering() throws Exception {
+        File workDir = tempFolder.newFolder();
+        launcherAM = new LauncherAM(amRMClientAsyncFactoryMock, callbackHandlerMock, hdfsOperationsMock, localFsOperationsMock,
+                prepareHandlerMock, launcherCallbackNotifierFactoryMock, launcherSecurityManagerMock, containerId,
+                launcherJobConfig, workDir);
+
+        executeLauncher();
+
+        verifyZeroInteractions(amRMClientAsyncFactoryMock);
+        assertThat("action conf", System.getProperty(LauncherAM.OOZIE_ACTION_CONF_XML),
+                equalTo(new File(workDir, LauncherAM.ACTION_CONF_XML).getAbsolutePath()));
+        verify(hdfsOperationsMock).writeStringToFile(new Path("dummy", LauncherAM.POOLED_ACTION_DONE), launcherJobConfig,
+                applicationId);
+        verify(launcherCallbackNotifierMock).notifyURL(OozieActionResult.SUCCEEDED);
+        verifyFinalStatus(launcherAM.getActionData(), OozieActionResult.SUCCEEDED);
+    }
+
+    @Test
+    public void testPooledActionSetupFailure() throws Exception {
+        launcherAM = new LauncherAM(amRMClientAsyncFactoryMock, callbackHandlerMock, hdfsOperationsMock, localFsOperationsMock,
+                prepareHandlerMock, launcherCallbackNotifierFactoryMock, launcherSecurityManagerMock, containerId,
+                launcherJobConfig, tempFolder.newFolder());
+        launcherAM.setSetupFailure(new IOException("Could not download the files"));
+        thrown.expect(IOException.class);
+
+        try {
+            executeLauncher();
+        } finally {
+            verifyZeroInteractions(amRMClientAsyncFactoryMock);
+            failureDetails.expectedExceptionMessage("Could not download the files")
+                .expectedErrorCode(EXIT_CODE_0)
+                .expectedErrorReason("Could not download the files")
+                .withStackTrace();
+
+            assertFailedExecution();
+        }
+    }
+
     @Test
     public void testActionHasPrepareXML() throws Exception {
         launcherJobConfig.set(LauncherAM.ACTION_PREPARE_XML, DUMMY_XML);
@@ -0,0 +1,231 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.action.hadoop;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.arrayContaining;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.verify;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.yarn.api.records.FinalApplicationStatus;
+import org.apache.hadoop.yarn.client.api.async.AMRMClientAsync;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TestPooledLauncherAM {
+    private static final String CONTAINER_ID = "container_1479473450392_0001_01_000001";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Mock
+    private AMRMClientAsyncFactory amRMClientAsyncFactoryMock;
+
+    @Mock
+    private AMRMClientAsync<?> amRmAsyncClientMock;
+
+    @Mock
+    private AMRMCallBackHandler callbackHandlerMock;
+
+    @Mock
+    private HdfsOperations hdfsOperationsMock;
+
+    @Mock
+    private LocalFsOperations localFsOperationsMock;
+
+    @Mock
+    private PrepareActionsHandler prepareHandlerMock;
+
+    @Mock
+    private LauncherAMCallbackNotifierFactory launcherCallbackNotifierFactoryMock;
+
+    private File localDir;
+    private File poolDir;
+    private Configuration poolConf;
+    private final List<RunAction> runActions = new ArrayList<>();
+
+    @Before
+    public void setup() throws Exception {
+        willReturn(amRmAsyncClientMock).given(amRMClientAsyncFactoryMock)
+                .createAMRMClientAsync(anyInt(), any(AMRMCallBackHandler.class));
+        localDir = tempFolder.newFolder("container");
+        poolDir = new File(tempFolder.getRoot(), "pool/application_1479473450392_0001");
+        assertThat("pool dir", poolDir.mkdirs(), equalTo(true));
+        poolConf = new Configuration(false);
+        poolConf.set("fs.defaultFS", "file:///");
+        poolConf.set(PooledLauncherAM.OOZIE_LAUNCHER_POOL_DIR, poolDir.toURI().toString());
+        poolConf.setLong(PooledLauncherAM.OOZIE_LAUNCHER_POOL_IDLE_TIMEOUT, 0);
+        poolConf.setLong(PooledLauncherAM.OOZIE_LAUNCHER_POOL_POLL_INTERVAL, 10);
+    }
+
+    @Test
+    public void testActionsRunInOrder() throws Exception {
+        File jar = writeFile("lib/action.jar", "jar");
+        File script = writeFile("lib/script.sh", "echo");
+        handOver("action-2", createActionDir("action-2", jar.toURI() + "," + script.toURI() + "#run.sh"), 2000);
+        handOver("action-1", createActionDir("action-1", jar.toURI().toString()), 1000);
+
+        PooledLauncherAM launcher = createLauncher();
+        launcher.run();
+
+        assertThat("actions", launcher.getActions(), equalTo(2));
+        assertThat("action-1 conf", runActions.get(0).launcherConf.get(LauncherAM.OOZIE_ACTION_ID), equalTo("action-1"));
+        assertThat("action-2 conf", runActions.get(1).launcherConf.get(LauncherAM.OOZIE_ACTION_ID), equalTo("action-2"));
+        for (RunAction runAction : runActions) {
+            assertThat("setup failure", runAction.setupFailure, nullValue());
+            assertThat("working dir", runAction.workingDir, equalTo(runAction.workDir.getAbsolutePath()));
+            assertThat("class path", runAction.classPath, arrayContaining(runAction.workDirUrl,
+                    new File(runAction.workDir, "action.jar").toURI().toURL()));
+            assertThat("work dir", runAction.workDir.exists(), equalTo(false));
+        }
+        assertThat("linked files", runActions.get(1).files, contains("action.jar", "run.sh"));
+        // the jar used by both actions is downloaded once
+        assertThat("downloaded files", new File(localDir, PooledLauncherAM.CACHE_DIR).list().length, equalTo(2));
+        assertThat("working dir", System.getProperty(LauncherAM.OOZIE_ACTION_WORKING_DIR), nullValue());
+
+        // the pool dir is closed and removed once the launcher is idle
+        assertThat("pool dir", poolDir.exists(), equalTo(false));
+        verify(amRmAsyncClientMock).registerApplicationMaster(anyString(), anyInt(), anyString());
+        verify(amRmAsyncClientMock).unregisterApplicationMaster(FinalApplicationStatus.SUCCEEDED, "", "");
+        verify(amRmAsyncClientMock).stop();
+    }
+
+    @Test
+    public void testLauncherJarsNotLinked() throws Exception {
+        writeFile("container/oozie-sharelib-oozie.jar", "jar");
+        File jar = writeFile("lib/oozie-sharelib-oozie.jar", "jar");
+        Configuration launcherConf = new Configuration(false);
+        launcherConf.set(PooledLauncherAM.CACHE_FILES, jar.toURI().toString());
+        File workDir = tempFolder.newFolder("work");
+
+        URL[] classPath = createLauncher().localizeFiles(launcherConf, workDir);
+
+        assertThat("class path", classPath, arrayContaining(workDir.toURI().toURL()));
+        assertThat("linked files", workDir.list().length, equalTo(0));
+    }
+
+    @Test
+    public void testSetupFailure() throws Exception {
+        handOver("action-1", createActionDir("action-1", new File(tempFolder.getRoot(), "missing.jar").toURI().toString()),
+                1000);
+
+        PooledLauncherAM launcher = createLauncher();
+        launcher.run();
+
+        assertThat("actions", launcher.getActions(), equalTo(1));
+        assertThat("setup failure", runActions.get(0).setupFailure, notNullValue());
+        assertThat("setup failure", runActions.get(0).setupFailure, instanceOf(IOException.class));
+        verify(amRmAsyncClientMock).unregisterApplicationMaster(FinalApplicationStatus.SUCCEEDED, "", "");
+    }
+
+    private PooledLauncherAM createLauncher() {
+        return new PooledLauncherAM(amRMClientAsyncFactoryMock, callbackHandlerMock, hdfsOperationsMock,
+                localFsOperationsMock, prepareHandlerMock, launcherCallbackNotifierFactoryMock, CONTAINER_ID, poolConf,
+                localDir) {
+            @Override
+            void runAction(Configuration launcherConf, File workDir, long delay, Exception setupFailure) throws IOException {
+                runActions.add(new RunAction(launcherConf, workDir, setupFailure));
+            }
+        };
+    }
+
+    private File createActionDir(String actionId, String cacheFiles) throws IOException {
+        File actionDir = tempFolder.newFolder(actionId);
+        Configuration launcherConf = new Configuration(false);
+        launcherConf.set(LauncherAM.OOZIE_ACTION_ID, actionId);
+        launcherConf.set(PooledLauncherAM.CACHE_FILES, cacheFiles);
+        try (OutputStream os = new FileOutputStream(new File(actionDir, LauncherAM.LAUNCHER_JOB_CONF_XML))) {
+            launcherConf.writeXml(os);
+        }
+        try (OutputStream os = new FileOutputStream(new File(actionDir, LauncherAM.ACTION_CONF_XML))) {
+            new Configuration(false).writeXml(os);
+        }
+        return actionDir;
+    }
+
+    private void handOver(String actionId, File actionDir, long modificationTime) throws IOException {
+        File task = new File(poolDir, actionId);
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(task), StandardCharsets.UTF_8)) {
+            writer.write(actionDir.toURI().toString());
+        }
+        assertThat("modification time", task.setLastModified(modificationTime), equalTo(true));
+    }
+
+    private File writeFile(String name, String content) throws IOException {
+        File file = new File(tempFolder.getRoot(), name);
+        file.getParentFile().mkdirs();
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write(content);
+        }
+        return file;
+    }
+
+    private static class RunAction {
+        private final Configuration launcherConf;
+        private final File workDir;
+        private final Exception setupFailure;
+        private final String workingDir;
+        private final URL workDirUrl;
+        private final URL[] classPath;
+        private final List<String> files = new ArrayList<>();
+
+        RunAction(Configuration launcherConf, File workDir, Exception setupFailure) throws IOException {
+            this.launcherConf = launcherConf;
+            this.workDir = workDir;
+            this.setupFailure = setupFailure;
+            this.workingDir = System.getProperty(LauncherAM.OOZIE_ACTION_WORKING_DIR);
+            this.workDirUrl = workDir.toURI().toURL();
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            this.classPath = classLoader instanceof URLClassLoader ? ((URLClassLoader) classLoader).getURLs() : null;
+            for (String name : workDir.list()) {
+                if (new File(workDir, name).exists() && !name.endsWith(".xml")) {
+                    files.add(name);
+                }
+            }
+            files.sort(null);
+        }
+    }
+}
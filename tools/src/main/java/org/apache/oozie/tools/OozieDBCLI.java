@@ -66,7 +66,8 @@ public class OozieDBCLI {
     private final static String DB_VERSION_PRE_4_0 = "1";
     private final static String DB_VERSION_FOR_4_0 = "2";
     private static String DB_VERSION_FOR_4_1 = "3";
-    final static String DB_VERSION_FOR_5_0 = "4";
+    private final static String DB_VERSION_FOR_5_0 = "4";
+    final static String DB_VERSION_FOR_5_2 = "5";
     private final static String DISCRIMINATOR_COLUMN = "bean_type";
     private final static String TEMP_COLUMN_PREFIX = "temp_";
     private HashMap <String, List<String>> clobColumnMap;
@@ -197,7 +198,7 @@ public class OozieDBCLI {
         verifyOozieSysTable(false);
         createUpgradeDB(sqlFile, run, true);
         ddlTweaksFor50(sqlFile, run);
-        createOozieSysTable(sqlFile, run, DB_VERSION_FOR_5_0);
+        createOozieSysTable(sqlFile, run, DB_VERSION_FOR_5_2);
         System.out.println();
         if (run) {
             System.out.println("Oozie DB has been created for Oozie version '" +
@@ -219,14 +220,14 @@ public class OozieDBCLI {
         }
         String ver = getOozieDBVersion().trim();
         String startingVersion = ver;
-        if (ver.equals(DB_VERSION_FOR_5_0)) {
+        if (ver.equals(DB_VERSION_FOR_5_2)) {
             System.out.println("Oozie DB already upgraded to Oozie version '" + version + "'");
             return;
         }
 
         createUpgradeDB(sqlFile, run, false);
 
-        while (!ver.equals(DB_VERSION_FOR_5_0)) {
+        while (!ver.equals(DB_VERSION_FOR_5_2)) {
             if (ver.equals(DB_VERSION_PRE_4_0)) {
                 System.out.println("Upgrading to db schema for Oozie 4.0");
                 upgradeDBTo40(sqlFile, run);
@@ -242,6 +243,11 @@ public class OozieDBCLI {
                 upgradeDBto50(sqlFile, run, startingVersion);
                 ver = run ? getOozieDBVersion().trim() : DB_VERSION_FOR_5_0;
             }
+            else if (ver.equals(DB_VERSION_FOR_5_0)) {
+                System.out.println("Upgrading to db schema for Oozie " + version);
+                upgradeDBto52(sqlFile, run);
+                ver = run ? getOozieDBVersion().trim() : DB_VERSION_FOR_5_2;
+            }
         }
 
         if (run) {
@@ -267,6 +273,11 @@ public class OozieDBCLI {
         ddlTweaksFor50(sqlFile, run);
     }
 
+    // The WF_DEFINITIONS table is created by the mapping tool in createUpgradeDB()
+    private void upgradeDBto52(String sqlFile, boolean run) throws Exception {
+        upgradeOozieDBVersion(sqlFile, run, DB_VERSION_FOR_5_2);
+    }
+
     private final static String UPDATE_OOZIE_VERSION =
             "update OOZIE_SYS set data='" + BuildInfo.getBuildInfo().getProperty(BuildInfo.BUILD_VERSION)
             + "' where name='oozie.version'";
@@ -1135,6 +1146,7 @@ public class OozieDBCLI {
         args.add("true");
         args.add("org.apache.oozie.WorkflowJobBean");
         args.add("org.apache.oozie.WorkflowActionBean");
+        args.add("org.apache.oozie.WorkflowDefinitionBean");
         args.add("org.apache.oozie.CoordinatorJobBean");
         args.add("org.apache.oozie.CoordinatorActionBean");
         args.add("org.apache.oozie.client.rest.JsonSLAEvent");
@@ -0,0 +1,282 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.tools;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.oozie.BinaryBlob;
+import org.apache.oozie.BundleJobBean;
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.StringBlob;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowDefinitionBean;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.cli.CLIParser;
+import org.apache.oozie.compression.CodecFactory;
+import org.apache.oozie.compression.ZstdCompressionCodec;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.Services;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
+
+import javax.persistence.Column;
+import javax.persistence.EntityManager;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class provides the following functionality:
+ * <ul>
+ * <li>Trains a zstd dictionary on the configurations, definitions and other blobs stored in the Oozie database</li>
+ * <li>Recompresses the blobs stored in the Oozie database with the codec set in
+ * <code>oozie.output.compression.codec</code></li>
+ * <li>This class uses the current oozie configuration in oozie-site.xml</li>
+ * </ul>
+ */
+public class OozieDBCompressionCLI {
+
+    private static final Class<?>[] ENTITIES = {WorkflowJobBean.class, WorkflowActionBean.class,
+            WorkflowDefinitionBean.class, CoordinatorJobBean.class, CoordinatorActionBean.class, BundleJobBean.class};
+
+    private static final String[] HELP_INFO = {
+            "",
+            "OozieDBCompressionCLI trains zstd dictionaries and recompresses the blobs stored in the Oozie database."
+    };
+    private static final String HELP_CMD = "help";
+    private static final String TRAIN_CMD = "train";
+    private static final String RECOMPRESS_CMD = "recompress";
+    private static final String SAMPLES_OPT = "samples";
+    private static final String SIZE_OPT = "size";
+    private static final String BATCH_OPT = "batch";
+    private static final String FORCE_OPT = "force";
+
+    private static final int DEFAULT_SAMPLES = 1000;
+    private static final int DEFAULT_DICTIONARY_SIZE = 16 * 1024;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    public static void main(String[] args) {
+        CLIParser parser = new CLIParser("oozie-setup.sh", HELP_INFO);
+        parser.addCommand(HELP_CMD, "", "display usage for all commands or specified command", new Options(), false);
+        parser.addCommand(TRAIN_CMD, "", "trains a zstd dictionary on the blobs of the Oozie database and writes it to the"
+                + " specified file", createTrainOptions(), true);
+        parser.addCommand(RECOMPRESS_CMD, "", "recompresses the blobs of the Oozie database with the configured output"
+                + " compression codec", createRecompressOptions(), false);
+
+        try {
+            CLIParser.Command command = parser.parse(args);
+            if (command.getName().equals(HELP_CMD)) {
+                parser.showHelp(command.getCommandLine());
+            }
+            else {
+                Services services = new Services();
+                services.getConf().set(Services.CONF_SERVICE_CLASSES, JPAService.class.getName());
+                services.getConf().set(Services.CONF_SERVICE_EXT_CLASSES, "");
+                services.init();
+                CommandLine commandLine = command.getCommandLine();
+                if (command.getName().equals(TRAIN_CMD)) {
+                    train(commandLine.getArgs()[0],
+                            getInt(commandLine, SAMPLES_OPT, DEFAULT_SAMPLES),
+                            getInt(commandLine, SIZE_OPT, DEFAULT_DICTIONARY_SIZE));
+                }
+                else {
+                    recompress(getInt(commandLine, BATCH_OPT, DEFAULT_BATCH_SIZE), commandLine.hasOption(FORCE_OPT));
+                }
+            }
+        } catch (ParseException pex) {
+            System.err.println("Invalid sub-command: " + pex.getMessage());
+            System.err.println();
+            System.err.println(parser.shortHelp());
+            System.exit(1);
+        } catch (Exception e) {
+            System.err.println();
+            System.err.println("Error: " + e.getMessage());
+            System.err.println();
+            System.err.println("Stack trace for the error was (for debug purposes):");
+            System.err.println("--------------------------------------");
+            e.printStackTrace(System.err);
+            System.err.println("--------------------------------------");
+            System.err.println();
+            System.exit(1);
+        } finally {
+            if (Services.get() != null) {
+                Services.get().destroy();
+            }
+        }
+    }
+
+    private static Options createTrainOptions() {
+        Options options = new Options();
+        options.addOption(new Option(SAMPLES_OPT, true, "number of samples per column (default "
+                + DEFAULT_SAMPLES + ")"));
+        options.addOption(new Option(SIZE_OPT, true, "maximum size of the dictionary in bytes (default "
+                + DEFAULT_DICTIONARY_SIZE + ")"));
+        return options;
+    }
+
+    private static Options createRecompressOptions() {
+        Options options = new Options();
+        options.addOption(new Option(BATCH_OPT, true, "number of rows updated in one transaction (default "
+                + DEFAULT_BATCH_SIZE + ")"));
+        options.addOption(new Option(FORCE_OPT, false, "recompress blobs which are already compressed with the output"
+                + " codec, for example to use a new zstd dictionary"));
+        return options;
+    }
+
+    private static int getInt(CommandLine commandLine, String option, int defaultValue) {
+        return commandLine.hasOption(option) ? Integer.parseInt(commandLine.getOptionValue(option)) : defaultValue;
+    }
+
+    private static void train(String fileName, int samplesPerColumn, int dictionarySize) throws SQLException,
+            IOException {
+        List<byte[]> samples = new ArrayList<byte[]>();
+        EntityManager entityManager = Services.get().get(JPAService.class).getEntityManager();
+        try (Connection connection = getConnection(entityManager)) {
+            for (BlobTable table : getBlobTables()) {
+                for (String column : table.blobColumns) {
+                    int sampled = 0;
+                    try (PreparedStatement select = connection.prepareStatement("select " + column + " from "
+                            + table.name + " where " + column + " is not null")) {
+                        select.setMaxRows(samplesPerColumn);
+                        try (ResultSet rs = select.executeQuery()) {
+                            while (rs.next()) {
+                                byte[] sample = new BinaryBlob(rs.getBytes(1), false).getBytes();
+                                if (sample.length > 0) {
+                                    samples.add(sample);
+                                    sampled++;
+                                }
+                            }
+                        }
+                    }
+                    System.out.println(sampled + " samples read from " + table.name + "." + column);
+                }
+            }
+        }
+        finally {
+            entityManager.close();
+        }
+        byte[] dictionary = ZstdCompressionCodec.trainDictionary(samples, dictionarySize);
+        Files.write(new File(fileName).toPath(), dictionary);
+        System.out.println("Dictionary of " + dictionary.length + " bytes written to " + fileName);
+        System.out.println("Add it to " + ZstdCompressionCodec.CONF_DICTIONARIES + " to use it");
+    }
+
+    private static void recompress(int batchSize, boolean force) throws SQLException, IOException {
+        System.out.println("Recompressing with codec "
+                + (CodecFactory.isCompressionEnabled() ? CodecFactory.getCompressionCodec().getClass().getSimpleName()
+                : "none"));
+        EntityManager entityManager = Services.get().get(JPAService.class).getEntityManager();
+        try (Connection connection = getConnection(entityManager)) {
+            connection.setAutoCommit(false);
+            for (BlobTable table : getBlobTables()) {
+                recompress(connection, table, batchSize, force);
+            }
+        }
+        finally {
+            entityManager.close();
+        }
+    }
+
+    private static void recompress(Connection connection, BlobTable table, int batchSize, boolean force)
+            throws SQLException, IOException {
+        StringBuilder columns = new StringBuilder(table.idColumn);
+        for (String column : table.blobColumns) {
+            columns.append(", ").append(column);
+        }
+        String selectSql = "select " + columns + " from " + table.name + " where " + table.idColumn + " > ? order by "
+                + table.idColumn;
+        long rows = 0;
+        long updated = 0;
+        String lastId = "";
+        boolean more = true;
+        while (more) {
+            more = false;
+            try (PreparedStatement select = connection.prepareStatement(selectSql)) {
+                select.setMaxRows(batchSize);
+                select.setString(1, lastId);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        more = true;
+                        rows++;
+                        lastId = rs.getString(1);
+                        for (int i = 0; i < table.blobColumns.size(); i++) {
+                            byte[] rawBlob = rs.getBytes(i + 2);
+                            byte[] recompressed = rawBlob == null ? null : CodecFactory.recompress(rawBlob, force);
+                            if (recompressed != null) {
+                                try (PreparedStatement update = connection.prepareStatement("update " + table.name
+                                        + " set " + table.blobColumns.get(i) + " = ? where " + table.idColumn + " = ?")) {
+                                    update.setBytes(1, recompressed);
+                                    update.setString(2, lastId);
+                                    update.executeUpdate();
+                                }
+                                updated++;
+                            }
+                        }
+                    }
+                }
+            }
+            connection.commit();
+        }
+        System.out.println(updated + " blobs recompressed in " + rows + " rows of " + table.name);
+    }
+
+    private static Connection getConnection(EntityManager entityManager) {
+        return (Connection) ((OpenJPAEntityManagerSPI) entityManager.getDelegate()).getConnection();
+    }
+
+    private static List<BlobTable> getBlobTables() {
+        List<BlobTable> tables = new ArrayList<BlobTable>();
+        for (Class<?> entity : ENTITIES) {
+            BlobTable table = new BlobTable(entity.getAnnotation(Table.class).name());
+            for (Field field : entity.getDeclaredFields()) {
+                Column column = field.getAnnotation(Column.class);
+                if (field.getAnnotation(Id.class) != null) {
+                    table.idColumn = column == null ? field.getName() : column.name();
+                }
+                else if (column != null && (field.getType().equals(StringBlob.class)
+                        || field.getType().equals(BinaryBlob.class))) {
+                    table.blobColumns.add(column.name());
+                }
+            }
+            tables.add(table);
+        }
+        return tables;
+    }
+
+    private static class BlobTable {
+        private final String name;
+        private String idColumn;
+        private final List<String> blobColumns = new ArrayList<String>();
+
+        private BlobTable(String name) {
+            this.name = name;
+        }
+    }
+}
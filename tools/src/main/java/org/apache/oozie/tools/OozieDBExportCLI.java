@@ -18,26 +18,50 @@
 
 package org.apache.oozie.tools;
 
+import com.google.common.base.Strings;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
+import org.apache.oozie.BundleActionBean;
+import org.apache.oozie.BundleJobBean;
+import org.apache.oozie.CoordinatorActionBean;
+import org.apache.oozie.CoordinatorJobBean;
+import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowDefinitionBean;
+import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.cli.CLIParser;
+import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
-import org.apache.oozie.store.StoreException;
+import org.apache.oozie.sla.SLARegistrationBean;
+import org.apache.oozie.sla.SLASummaryBean;
 import org.apache.oozie.util.IOUtils;
 
 import javax.persistence.EntityManager;
 import javax.persistence.FlushModeType;
 import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStreamWriter;
+import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -47,12 +71,18 @@ import java.util.zip.ZipOutputStream;
  * <li>Exports the data from the Oozie database to a specified target zip file</li>
  * <li>This class uses the current oozie configuration in oozie-site.xml</li>
  * </ul>
+ * <p>
+ * Tables, and ranges of {@link #OOZIE_DB_EXPORT_RANGE_SIZE_KEY} rows of the large tables, are exported in parallel by
+ * {@link #OOZIE_DB_EXPORT_THREADS_KEY} threads to part files in the <code>&lt;zip file&gt;.parts</code> directory, which are
+ * then streamed to one zip entry per table. The directory is kept if the export fails, and the parts finished in it are not
+ * exported again when the export is run again to the same zip file.
  */
 
 public class OozieDBExportCLI {
 
     public static final String OOZIEDB_WF_JSON = "ooziedb_wf.json";
     public static final String OOZIEDB_AC_JSON = "ooziedb_ac.json";
+    public static final String OOZIEDB_WFDEF_JSON = "ooziedb_wfdef.json";
     public static final String OOZIEDB_CJ_JSON = "ooziedb_cj.json";
     public static final String OOZIEDB_CA_JSON = "ooziedb_ca.json";
     public static final String OOZIEDB_BNJ_JSON = "ooziedb_bnj.json";
@@ -61,15 +91,28 @@ public class OozieDBExportCLI {
     public static final String OOZIEDB_SLASUM_JSON = "ooziedb_slasum.json";
     public static final String OOZIEDB_SYS_INFO_JSON = "ooziedb_sysinfo.json";
 
+    public static final String OOZIE_DB_EXPORT_THREADS_KEY = "oozie.db.export.threads";
+    public static final String OOZIE_DB_EXPORT_RANGE_SIZE_KEY = "oozie.db.export.range.size";
+    static final int DEFAULT_THREADS = 4;
+    static final int DEFAULT_RANGE_SIZE = 100000;
+
     private static final String GET_DB_VERSION = "select name, data from OOZIE_SYS where name = 'db.version'";
-    private static final String GET_WORKFLOW_JOBS = "select OBJECT(w) from WorkflowJobBean w";
-    private static final String GET_WORKFLOW_ACTIONS = "select OBJECT(a) from WorkflowActionBean a";
-    private static final String GET_COORD_JOBS = "select OBJECT(w) from CoordinatorJobBean w";
-    private static final String GET_COORD_ACTIONS = "select OBJECT(w) from CoordinatorActionBean w";
-    private static final String GET_BUNDLE_JOBS = "select OBJECT(w) from BundleJobBean w";
-    private static final String GET_BUNDLE_ACIONS = "select OBJECT(w) from BundleActionBean w";
-    private static final String GET_SLA_REGISTRATIONS = "select OBJECT(w) from SLARegistrationBean w";
-    private static final String GET_SLA_SUMMARYS = "select OBJECT(w) from SLASummaryBean w";
+
+    private static final ExportTable[] TABLES = {
+            new ExportTable(OOZIEDB_WF_JSON, "WF_JOBS", WorkflowJobBean.class),
+            new ExportTable(OOZIEDB_AC_JSON, "WF_ACTIONS", WorkflowActionBean.class),
+            new ExportTable(OOZIEDB_WFDEF_JSON, "WF_DEFINITIONS", WorkflowDefinitionBean.class),
+            new ExportTable(OOZIEDB_CJ_JSON, "COORD_JOBS", CoordinatorJobBean.class),
+            new ExportTable(OOZIEDB_CA_JSON, "COORD_ACTIONS", CoordinatorActionBean.class),
+            new ExportTable(OOZIEDB_BNJ_JSON, "BUNDLE_JOBS", BundleJobBean.class),
+            new ExportTable(OOZIEDB_BNA_JSON, "BUNDLE_ACTIONS", BundleActionBean.class),
+            new ExportTable(OOZIEDB_SLAREG_JSON, "SLA_REGISTRATION", SLARegistrationBean.class),
+            new ExportTable(OOZIEDB_SLASUM_JSON, "SLA_SUMMARY", SLASummaryBean.class)
+    };
+
+    private static final String PARTS_DIR_SUFFIX = ".parts";
+    private static final String RANGES_SUFFIX = ".ranges";
+    private static final String TMP_SUFFIX = ".tmp";
 
     private static final int LIMIT = 1000;
     private static final String[] HELP_INFO = {
@@ -94,7 +137,9 @@ public class OozieDBExportCLI {
                 services.getConf().set(Services.CONF_SERVICE_CLASSES, JPAService.class.getName());
                 services.getConf().set(Services.CONF_SERVICE_EXT_CLASSES, "");
                 services.init();
-                queryAllDBTables(command.getCommandLine().getArgs()[0]);
+                queryAllDBTables(command.getCommandLine().getArgs()[0],
+                        getIntSetting(OOZIE_DB_EXPORT_THREADS_KEY, DEFAULT_THREADS),
+                        getIntSetting(OOZIE_DB_EXPORT_RANGE_SIZE_KEY, DEFAULT_RANGE_SIZE));
             } else if (command.getName().equals(HELP_CMD)) {
                 parser.showHelp(command.getCommandLine());
             }
@@ -120,55 +165,106 @@ public class OozieDBExportCLI {
         }
     }
 
-    private static void queryAllDBTables(String filename) throws StoreException, IOException {
+    /**
+     * Get an integer setting of the DB tools, from the system property of the same name if it is set, or from the Oozie
+     * configuration.
+     *
+     * @param key the name of the setting
+     * @param defaultValue the value used if the setting is not set
+     * @return the value of the setting
+     */
+    static int getIntSetting(final String key, final int defaultValue) {
+        final String value = System.getProperty(key);
+        if (!Strings.isNullOrEmpty(value)) {
+            try {
+                return Integer.parseInt(value);
+            }
+            catch (final NumberFormatException e) {
+                System.err.println(String.format("Invalid value of %s: %s, using the Oozie configuration.", key, value));
+            }
+        }
+        return ConfigurationService.getInt(key, defaultValue);
+    }
+
+    /**
+     * Get the attribute of the primary key of an entity.
+     *
+     * @param entityManager the entity manager
+     * @param entityClass the {@link javax.persistence.Entity} class
+     * @return the id attribute
+     */
+    static SingularAttribute<?, ?> getIdAttribute(final EntityManager entityManager, final Class<?> entityClass) {
+        final EntityType<?> entityType = entityManager.getMetamodel().entity(entityClass);
+        return entityType.getId(entityType.getIdType().getJavaType());
+    }
+
+    /**
+     * Get the field of the primary key of an entity, to read the id of both managed and new entities.
+     *
+     * @param entityManager the entity manager
+     * @param entityClass the {@link javax.persistence.Entity} class
+     * @return the accessible id field
+     */
+    static Field getIdField(final EntityManager entityManager, final Class<?> entityClass) {
+        final Field idField = (Field) getIdAttribute(entityManager, entityClass).getJavaMember();
+        idField.setAccessible(true);
+        return idField;
+    }
+
+    private static void queryAllDBTables(String filename, int threads, int rangeSize) {
 
         EntityManager manager = null;
         ZipOutputStream zos = null;
+        ExecutorService executor = null;
         File file = null;
+        File partsDir = null;
         try {
             file = new File(filename);
-            zos = new ZipOutputStream(new FileOutputStream(file));
-            zos.setLevel(1);
+            partsDir = new File(filename + PARTS_DIR_SUFFIX);
+            if (!partsDir.isDirectory() && !partsDir.mkdirs()) {
+                throw new IOException("Could not create directory " + partsDir);
+            }
             manager = Services.get().get(JPAService.class).getEntityManager();
             manager.setFlushMode(FlushModeType.COMMIT);
+            System.out.println(String.format("Exporting with %d thread(s) to %s", threads, partsDir));
 
-            int infoSize = exportTableToJSON(manager.createNativeQuery(GET_DB_VERSION), zos, OOZIEDB_SYS_INFO_JSON);
-            System.out.println(infoSize + " rows exported from OOZIE_SYS");
-
-            int wfjSize = exportTableToJSON(manager.createQuery(GET_WORKFLOW_JOBS), zos, OOZIEDB_WF_JSON);
-            System.out.println(wfjSize + " rows exported from WF_JOBS");
-
-            int wfaSize = exportTableToJSON(manager.createQuery(GET_WORKFLOW_ACTIONS), zos, OOZIEDB_AC_JSON);
-            System.out.println(wfaSize + " rows exported from WF_ACTIONS");
-
-            int cojSize = exportTableToJSON(manager.createQuery(GET_COORD_JOBS), zos, OOZIEDB_CJ_JSON);
-            System.out.println(cojSize + " rows exported from COORD_JOBS");
-
-            int coaSize = exportTableToJSON(manager.createQuery(GET_COORD_ACTIONS), zos, OOZIEDB_CA_JSON);
-            System.out.println(coaSize + " rows exported from COORD_ACTIONS");
-
-            int bnjSize = exportTableToJSON(manager.createQuery(GET_BUNDLE_JOBS), zos, OOZIEDB_BNJ_JSON);
-            System.out.println(bnjSize + " rows exported from BUNDLE_JOBS");
+            executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+            List<List<Future<File>>> tableParts = new ArrayList<>();
+            for (ExportTable table : TABLES) {
+                tableParts.add(submitTableExport(manager, executor, table, partsDir, rangeSize));
+            }
 
-            int bnaSize = exportTableToJSON(manager.createQuery(GET_BUNDLE_ACIONS), zos, OOZIEDB_BNA_JSON);
-            System.out.println(bnaSize + " rows exported from BUNDLE_ACTIONS");
+            zos = new ZipOutputStream(new FileOutputStream(file));
+            zos.setLevel(1);
 
-            int slaRegSize = exportTableToJSON(manager.createQuery(GET_SLA_REGISTRATIONS), zos, OOZIEDB_SLAREG_JSON);
-            System.out.println(slaRegSize + " rows exported from SLA_REGISTRATION");
+            int infoSize = exportTableToJSON(manager.createNativeQuery(GET_DB_VERSION), zos, OOZIEDB_SYS_INFO_JSON);
+            System.out.println(infoSize + " rows exported from OOZIE_SYS");
 
-            int ssSize = exportTableToJSON(manager.createQuery(GET_SLA_SUMMARYS), zos, OOZIEDB_SLASUM_JSON);
-            System.out.println(ssSize + " rows exported from SLA_SUMMARY");
+            for (int i = 0; i < TABLES.length; i++) {
+                int size = copyPartsToZip(tableParts.get(i), zos, TABLES[i].entryName);
+                System.out.println(size + " rows exported from " + TABLES[i].tableName);
+            }
 
+            zos.close();
+            IOUtils.delete(partsDir);
         } catch (Exception e){
             System.err.println("Error during dump creation: " + e.getMessage());
             System.err.println();
             e.printStackTrace(System.err);
             System.err.println();
+            if (partsDir != null && partsDir.isDirectory()) {
+                System.err.println(String.format("The exported parts are kept in %s, run the export to %s again to resume.",
+                        partsDir, filename));
+                System.err.println();
+            }
             if (file != null) {
                 file.delete();
             }
             System.exit(1);
         } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
             IOUtils.closeSafely(zos);
             if (manager != null) {
                 manager.close();
@@ -177,7 +273,7 @@ public class OozieDBExportCLI {
     }
 
     private static int exportTableToJSON(Query query, ZipOutputStream zipOutputStream, String filename) throws IOException {
-        Gson gson = new GsonBuilder().setDateFormat("MMM d, yyyy h:mm:ss a").create();
+        Gson gson = createGson();
         ZipEntry zipEntry = new ZipEntry(filename);
         zipOutputStream.putNextEntry(zipEntry);
         BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(zipOutputStream, StandardCharsets.UTF_8.name()));
@@ -197,4 +293,182 @@ public class OozieDBExportCLI {
         zipOutputStream.closeEntry();
         return exported;
     }
+
+    private static Gson createGson() {
+        return new GsonBuilder().setDateFormat("MMM d, yyyy h:mm:ss a").create();
+    }
+
+    /**
+     * Submit the export of the ranges of a table which have not been exported yet.
+     *
+     * @return the part files of the ranges, in the order of the ids
+     */
+    private static List<Future<File>> submitTableExport(EntityManager manager, ExecutorService executor,
+                                                        final ExportTable table, File partsDir, int rangeSize)
+            throws IOException {
+        final List<String> bounds = getRangeBounds(manager, table, partsDir, rangeSize);
+        final List<Future<File>> parts = new ArrayList<>();
+        for (int i = 0; i <= bounds.size(); i++) {
+            final File part = new File(partsDir, table.entryName + "." + i);
+            if (part.exists()) {
+                parts.add(CompletableFuture.completedFuture(part));
+                continue;
+            }
+            final String from = i == 0 ? null : bounds.get(i - 1);
+            final String to = i == bounds.size() ? null : bounds.get(i);
+            parts.add(executor.submit(new Callable<File>() {
+                @Override
+                public File call() throws Exception {
+                    exportRangeToPart(table, from, to, part);
+                    return part;
+                }
+            }));
+        }
+        return parts;
+    }
+
+    /**
+     * Split a table to ranges of <code>rangeSize</code> rows. The bounds are kept in the parts directory, so that the ranges
+     * of the parts already exported are the same when the export is resumed.
+     *
+     * @return the first ids of the ranges after the first one
+     */
+    private static List<String> getRangeBounds(EntityManager manager, ExportTable table, File partsDir, int rangeSize)
+            throws IOException {
+        final File rangesFile = new File(partsDir, table.entryName + RANGES_SUFFIX);
+        if (rangesFile.exists()) {
+            return Files.readAllLines(rangesFile.toPath(), StandardCharsets.UTF_8);
+        }
+        final String entityName = table.entityClass.getSimpleName();
+        final String idName = getIdAttribute(manager, table.entityClass).getName();
+        final List<String> bounds = new ArrayList<>();
+        if (rangeSize > 0) {
+            // walk the ids once, each bound being rangeSize ids after the previous one
+            final TypedQuery<String> firstBoundQuery = manager.createQuery(
+                    String.format("select e.%s from %s e order by e.%s", idName, entityName, idName), String.class);
+            final TypedQuery<String> nextBoundQuery = manager.createQuery(
+                    String.format("select e.%s from %s e where e.%s >= :lower order by e.%s", idName, entityName, idName,
+                            idName), String.class);
+            String bound = null;
+            List<String> result;
+            do {
+                final TypedQuery<String> boundQuery = bound == null ? firstBoundQuery
+                        : nextBoundQuery.setParameter("lower", bound);
+                result = boundQuery.setFirstResult(rangeSize).setMaxResults(1).getResultList();
+                if (!result.isEmpty()) {
+                    bound = result.get(0);
+                    bounds.add(bound);
+                }
+            } while (!result.isEmpty());
+        }
+        final File tmpFile = new File(partsDir, table.entryName + RANGES_SUFFIX + TMP_SUFFIX);
+        Files.write(tmpFile.toPath(), bounds, StandardCharsets.UTF_8);
+        renameOrThrow(tmpFile, rangesFile);
+        return bounds;
+    }
+
+    /**
+     * Export the rows of a table with ids in [<code>from</code>, <code>to</code>) to a part file, paging on the ids instead
+     * of offsets, with a new {@link EntityManager} cleared after each page so that the exported rows are not kept in memory.
+     */
+    private static void exportRangeToPart(ExportTable table, String from, String to, File part)
+            throws IOException, IllegalAccessException {
+        final File tmpFile = new File(part.getPath() + TMP_SUFFIX);
+        final EntityManager manager = Services.get().get(JPAService.class).getEntityManager();
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmpFile),
+                StandardCharsets.UTF_8))) {
+            manager.setFlushMode(FlushModeType.COMMIT);
+            final Gson gson = createGson();
+            final Field idField = getIdField(manager, table.entityClass);
+            String lastId = null;
+            List<?> list;
+            do {
+                list = createPageQuery(manager, table, idField.getName(), from, to, lastId).getResultList();
+                for (Object w : list) {
+                    gson.toJson(w, writer);
+                    writer.newLine();
+                }
+                if (!list.isEmpty()) {
+                    lastId = (String) idField.get(list.get(list.size() - 1));
+                }
+                manager.clear();
+            } while (list.size() == LIMIT);
+        } finally {
+            manager.close();
+        }
+        renameOrThrow(tmpFile, part);
+    }
+
+    private static Query createPageQuery(EntityManager manager, ExportTable table, String idName, String from, String to,
+                                         String lastId) {
+        final List<String> conditions = new ArrayList<>();
+        if (lastId != null) {
+            conditions.add(String.format("e.%s > :lower", idName));
+        } else if (from != null) {
+            conditions.add(String.format("e.%s >= :lower", idName));
+        }
+        if (to != null) {
+            conditions.add(String.format("e.%s < :upper", idName));
+        }
+        final StringBuilder jpql = new StringBuilder("select OBJECT(e) from ").append(table.entityClass.getSimpleName())
+                .append(" e");
+        if (!conditions.isEmpty()) {
+            jpql.append(" where ").append(String.join(" and ", conditions));
+        }
+        jpql.append(" order by e.").append(idName);
+
+        final Query query = manager.createQuery(jpql.toString()).setMaxResults(LIMIT);
+        if (lastId != null || from != null) {
+            query.setParameter("lower", lastId != null ? lastId : from);
+        }
+        if (to != null) {
+            query.setParameter("upper", to);
+        }
+        return query;
+    }
+
+    /**
+     * Stream the part files of a table to one zip entry, as they are exported.
+     *
+     * @return the number of exported rows
+     */
+    private static int copyPartsToZip(List<Future<File>> parts, ZipOutputStream zipOutputStream, String filename)
+            throws IOException, InterruptedException, ExecutionException {
+        zipOutputStream.putNextEntry(new ZipEntry(filename));
+        final byte[] buffer = new byte[64 * 1024];
+        int rows = 0;
+        for (Future<File> part : parts) {
+            try (InputStream is = new FileInputStream(part.get())) {
+                int read;
+                while ((read = is.read(buffer)) != -1) {
+                    zipOutputStream.write(buffer, 0, read);
+                    for (int i = 0; i < read; i++) {
+                        if (buffer[i] == '\n') {
+                            rows++;
+                        }
+                    }
+                }
+            }
+        }
+        zipOutputStream.closeEntry();
+        return rows;
+    }
+
+    private static void renameOrThrow(File source, File target) throws IOException {
+        if (!source.renameTo(target)) {
+            throw new IOException(String.format("Could not rename %s to %s", source, target));
+        }
+    }
+
+    private static class ExportTable {
+        private final String entryName;
+        private final String tableName;
+        private final Class<?> entityClass;
+
+        private ExportTable(String entryName, String tableName, Class<?> entityClass) {
+            this.entryName = entryName;
+            this.tableName = tableName;
+            this.entityClass = entityClass;
+        }
+    }
 }
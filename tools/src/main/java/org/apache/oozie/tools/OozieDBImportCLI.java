@@ -18,7 +18,6 @@
 
 package org.apache.oozie.tools;
 
-import com.google.common.base.Strings;
 import com.google.common.collect.Sets;
 import com.google.gson.Gson;
 
@@ -30,15 +29,16 @@ import org.apache.oozie.BundleJobBean;
 import org.apache.oozie.CoordinatorActionBean;
 import org.apache.oozie.CoordinatorJobBean;
 import org.apache.oozie.WorkflowActionBean;
+import org.apache.oozie.WorkflowDefinitionBean;
 import org.apache.oozie.WorkflowJobBean;
 import org.apache.oozie.cli.CLIParser;
 import org.apache.oozie.executor.jpa.JPAExecutorException;
-import org.apache.oozie.service.ConfigurationService;
 import org.apache.oozie.service.JPAService;
 import org.apache.oozie.service.Services;
 import org.apache.oozie.sla.SLARegistrationBean;
 import org.apache.oozie.sla.SLASummaryBean;
 import org.apache.oozie.store.StoreException;
+import org.apache.oozie.util.IOUtils;
 import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
 import org.apache.openjpa.persistence.RollbackException;
 
@@ -46,27 +46,48 @@ import javax.persistence.EntityManager;
 import javax.persistence.EntityTransaction;
 import javax.persistence.FlushModeType;
 import javax.persistence.Table;
+import javax.persistence.TypedQuery;
 import javax.persistence.metamodel.EntityType;
 import javax.persistence.metamodel.Metamodel;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
 import static com.google.common.base.Preconditions.checkState;
+import static org.apache.oozie.tools.OozieDBExportCLI.getIdField;
+import static org.apache.oozie.tools.OozieDBExportCLI.getIntSetting;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_AC_JSON;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_BNA_JSON;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_BNJ_JSON;
@@ -75,6 +96,7 @@ import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_CJ_JSON;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_SLAREG_JSON;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_SLASUM_JSON;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_SYS_INFO_JSON;
+import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_WFDEF_JSON;
 import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_WF_JSON;
 
 /**
@@ -84,6 +106,11 @@ import static org.apache.oozie.tools.OozieDBExportCLI.OOZIEDB_WF_JSON;
  *      <li>this class uses the current Oozie configuration in {oozie-site.xml}</li>
  *      <li></li>
  *  </ul>
+ * <p/>
+ * The tables are imported in parallel, and the batches read from the input JSON file of a table are persisted in parallel,
+ * by {@link #OOZIE_DB_IMPORT_THREADS_KEY} threads. The batches committed are recorded in the
+ * <code>&lt;zip file&gt;.checkpoint</code> file, which is removed once the import is done. If the import is interrupted,
+ * importing the same zip file again skips the recorded batches, and the rows of the other batches already in the database.
  */
 public class OozieDBImportCLI {
     private static final String[] HELP_INFO = {
@@ -95,19 +122,29 @@ public class OozieDBImportCLI {
     public static final String OOZIE_DB_IMPORT_BATCH_SIZE_KEY = "oozie.db.import.batch.size";
     static final int DEFAULT_BATCH_SIZE = 1000;
     private static int IMPORT_BATCH_SIZE;
+    public static final String OOZIE_DB_IMPORT_THREADS_KEY = "oozie.db.import.threads";
+    static final int DEFAULT_THREADS = 4;
+    private static int IMPORT_THREADS;
+    private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+    private static final int MAX_IDS_PER_QUERY = 500;
     private static final String OPTION_VERBOSE_SHORT = "v";
     private static final String OPTION_VERBOSE_LONG = "verbose";
 
     private final EntityManager entityManager;
     private final ZipFile mainZipFile;
     private final boolean verbose;
-    private boolean cleanupNecessary = false;
-    private final Set<Class<?>> entityClasses = Sets.newLinkedHashSet();
+    private final ImportCheckpoint checkpoint;
+    private final ExecutorService persistExecutor;
+    private volatile boolean cleanupNecessary = false;
+    private final Set<Class<?>> entityClasses = Collections.synchronizedSet(Sets.<Class<?>>newLinkedHashSet());
 
-    private OozieDBImportCLI(final EntityManager entityManager, final ZipFile mainZipFile, final boolean verbose) {
+    private OozieDBImportCLI(final EntityManager entityManager, final ZipFile mainZipFile, final boolean verbose,
+                             final ImportCheckpoint checkpoint, final ExecutorService persistExecutor) {
         this.entityManager = entityManager;
         this.mainZipFile = mainZipFile;
         this.verbose = verbose;
+        this.checkpoint = checkpoint;
+        this.persistExecutor = persistExecutor;
     }
 
     public static void main(final String[] args) throws ParseException {
@@ -126,9 +163,11 @@ public class OozieDBImportCLI {
                 services.getConf().set(Services.CONF_SERVICE_EXT_CLASSES, "");
                 services.init();
                 setImportBatchSize();
+                IMPORT_THREADS = Math.max(getIntSetting(OOZIE_DB_IMPORT_THREADS_KEY, DEFAULT_THREADS), 1);
                 System.out.println("==========================================================");
                 System.out.println(Arrays.toString(command.getCommandLine().getArgs()));
                 System.out.println(String.format("Import batch length is %d", IMPORT_BATCH_SIZE));
+                System.out.println(String.format("Import threads: %d", IMPORT_THREADS));
 
                 verbose = command.getCommandLine().hasOption(OPTION_VERBOSE_SHORT)
                         || command.getCommandLine().hasOption(OPTION_VERBOSE_LONG);
@@ -164,48 +203,65 @@ public class OozieDBImportCLI {
     }
 
     private static void setImportBatchSize() {
-        if (!Strings.isNullOrEmpty(System.getProperty(OOZIE_DB_IMPORT_BATCH_SIZE_KEY))) {
-            try {
-                IMPORT_BATCH_SIZE = Integer.parseInt(System.getProperty(OOZIE_DB_IMPORT_BATCH_SIZE_KEY));
-            }
-            catch (final NumberFormatException e) {
-                IMPORT_BATCH_SIZE = ConfigurationService.getInt(OOZIE_DB_IMPORT_BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE);
-            }
-        }
-        else {
-            IMPORT_BATCH_SIZE = ConfigurationService.getInt(OOZIE_DB_IMPORT_BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE);
-        }
+        IMPORT_BATCH_SIZE = getIntSetting(OOZIE_DB_IMPORT_BATCH_SIZE_KEY, DEFAULT_BATCH_SIZE);
     }
 
     private static void importAllDBTables(final String zipFileName, final boolean verbose) throws StoreException, IOException,
-            JPAExecutorException, SQLException {
+            JPAExecutorException, SQLException, InterruptedException {
 
         EntityManager entityManager = null;
+        ImportCheckpoint checkpoint = null;
+        final ExecutorService tableExecutor = Executors.newFixedThreadPool(IMPORT_THREADS);
+        // the readers persist the batches themselves when all the threads are busy, so that few batches are kept in memory
+        final ExecutorService persistExecutor = new ThreadPoolExecutor(IMPORT_THREADS, IMPORT_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(IMPORT_THREADS), new ThreadPoolExecutor.CallerRunsPolicy());
 
         try (ZipFile mainZipFile = new ZipFile(zipFileName)) {
             entityManager = Services.get().get(JPAService.class).getEntityManager();
             entityManager.setFlushMode(FlushModeType.COMMIT);
+            checkpoint = new ImportCheckpoint(new File(zipFileName + CHECKPOINT_SUFFIX), IMPORT_BATCH_SIZE);
 
-            final OozieDBImportCLI importer = new OozieDBImportCLI(entityManager, mainZipFile, verbose);
+            final OozieDBImportCLI importer = new OozieDBImportCLI(entityManager, mainZipFile, verbose, checkpoint,
+                    persistExecutor);
 
             importer.checkDBVersion();
 
-            importer.checkTablesArePresentAndEmpty();
+            if (checkpoint.isResumed()) {
+                System.out.println(String.format("Resuming import, [%d] batches already imported according to [%s].",
+                        checkpoint.getImportedBatchCount(), checkpoint.getFile()));
+                importer.checkTablesArePresent();
+            } else {
+                importer.checkTablesArePresentAndEmpty();
+            }
 
-            importer.importOneInputFileToOneEntityTable(WorkflowJobBean.class, OOZIEDB_WF_JSON);
-            importer.importOneInputFileToOneEntityTable(WorkflowActionBean.class, OOZIEDB_AC_JSON);
-            importer.importOneInputFileToOneEntityTable(CoordinatorJobBean.class, OOZIEDB_CJ_JSON);
-            importer.importOneInputFileToOneEntityTable(CoordinatorActionBean.class, OOZIEDB_CA_JSON);
-            importer.importOneInputFileToOneEntityTable(BundleJobBean.class, OOZIEDB_BNJ_JSON);
-            importer.importOneInputFileToOneEntityTable(BundleActionBean.class, OOZIEDB_BNA_JSON);
-            importer.importOneInputFileToOneEntityTable(SLARegistrationBean.class, OOZIEDB_SLAREG_JSON);
-            importer.importOneInputFileToOneEntityTable(SLASummaryBean.class, OOZIEDB_SLASUM_JSON);
+            final List<Future<?>> tableImports = new ArrayList<>();
+            tableImports.add(importer.submitImport(tableExecutor, WorkflowJobBean.class, OOZIEDB_WF_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, WorkflowActionBean.class, OOZIEDB_AC_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, WorkflowDefinitionBean.class, OOZIEDB_WFDEF_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, CoordinatorJobBean.class, OOZIEDB_CJ_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, CoordinatorActionBean.class, OOZIEDB_CA_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, BundleJobBean.class, OOZIEDB_BNJ_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, BundleActionBean.class, OOZIEDB_BNA_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, SLARegistrationBean.class, OOZIEDB_SLAREG_JSON));
+            tableImports.add(importer.submitImport(tableExecutor, SLASummaryBean.class, OOZIEDB_SLASUM_JSON));
+            for (final Future<?> tableImport : tableImports) {
+                getUnwrapped(tableImport);
+            }
 
             final boolean cleanupPerformed = importer.cleanupIfNecessary();
 
+            checkpoint.delete();
+
             checkState(!cleanupPerformed, "DB cleanup happened due to skipped rows. " +
                     "See previous log entries about what rows were skipped and why.");
         } finally {
+            tableExecutor.shutdownNow();
+            persistExecutor.shutdownNow();
+            tableExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            persistExecutor.awaitTermination(1, TimeUnit.MINUTES);
+            if (checkpoint != null) {
+                checkpoint.close();
+            }
             if (entityManager != null) {
                 entityManager.close();
             }
@@ -213,6 +269,20 @@ public class OozieDBImportCLI {
 
     }
 
+    private static <T> T getUnwrapped(final Future<T> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
     private void checkDBVersion() throws IOException {
         try {
             final String currentDBVersion = (String) entityManager
@@ -257,9 +327,22 @@ public class OozieDBImportCLI {
         }
     }
 
+    private void checkTablesArePresent() throws SQLException {
+        checkTableIsPresent(WorkflowJobBean.class);
+        checkTableIsPresent(WorkflowActionBean.class);
+        checkTableIsPresent(WorkflowDefinitionBean.class);
+        checkTableIsPresent(CoordinatorJobBean.class);
+        checkTableIsPresent(CoordinatorActionBean.class);
+        checkTableIsPresent(BundleJobBean.class);
+        checkTableIsPresent(BundleActionBean.class);
+        checkTableIsPresent(SLARegistrationBean.class);
+        checkTableIsPresent(SLASummaryBean.class);
+    }
+
     private void checkTablesArePresentAndEmpty() throws SQLException {
         checkTableIsPresentAndEmpty(WorkflowJobBean.class);
         checkTableIsPresentAndEmpty(WorkflowActionBean.class);
+        checkTableIsPresentAndEmpty(WorkflowDefinitionBean.class);
         checkTableIsPresentAndEmpty(CoordinatorJobBean.class);
         checkTableIsPresentAndEmpty(CoordinatorActionBean.class);
         checkTableIsPresentAndEmpty(BundleJobBean.class);
@@ -269,6 +352,19 @@ public class OozieDBImportCLI {
     }
 
     private <E> void checkTableIsPresentAndEmpty(final Class<E> entityClass) throws SQLException {
+        checkTableIsPresent(entityClass);
+
+        final String tableName = findTableName(entityManager, entityClass);
+        final long entityCount = getEntityCount(entityClass);
+
+        checkState(entityCount == 0,
+                String.format("There are already [%d] entries in table [%s] for class [%s], should be empty.",
+                        entityCount,
+                        tableName,
+                        entityClass.getSimpleName()));
+    }
+
+    private <E> void checkTableIsPresent(final Class<E> entityClass) throws SQLException {
         final OpenJPAEntityManagerSPI entityManagerDelegate = (OpenJPAEntityManagerSPI) entityManager.getDelegate();
         final Connection connection = (Connection) entityManagerDelegate.getConnection();
         final DatabaseMetaData metaData = connection.getMetaData();
@@ -278,14 +374,6 @@ public class OozieDBImportCLI {
             checkState(rs.next(),
                     String.format("Table [%s] does not exist for class [%s].", tableName, entityClass.getSimpleName()));
         }
-
-        final long entityCount = getEntityCount(entityClass);
-
-        checkState(entityCount == 0,
-                String.format("There are already [%d] entries in table [%s] for class [%s], should be empty.",
-                        entityCount,
-                        tableName,
-                        entityClass.getSimpleName()));
     }
 
     private <E> long getEntityCount(final Class<E> entityClass) {
@@ -294,21 +382,49 @@ public class OozieDBImportCLI {
                     .getSingleResult();
     }
 
+    /**
+     * Submit the import of one input JSON file, see {@link #importOneInputFileToOneEntityTable(Class, String, boolean)}.
+     * @param executor the executor of the table imports
+     * @param entityClass the class to persist
+     * @param importFileName the JSON file name
+     * @param <E> {@link javax.persistence.Entity} type
+     * @return the future of the import
+     */
+    private <E> Future<?> submitImport(final ExecutorService executor, final Class<E> entityClass,
+                                       final String importFileName) {
+        // the rows of a table already filled by an interrupted import are cleaned up too if rows are skipped
+        final boolean resumedTable = checkpoint.isResumed() && getEntityCount(entityClass) > 0;
+        if (resumedTable) {
+            entityClasses.add(entityClass);
+        }
+
+        return executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                importOneInputFileToOneEntityTable(entityClass, importFileName, resumedTable);
+            }
+        });
+    }
+
     /**
      * Import all the contents of the input JSON file to one database table where the {@link javax.persistence.Entity} instances are
      * stored. This call hides batch {@link EntityTransaction} handling details, as well as trying to commit pending entities
      * one-by-one, if needed.
+     * <p/>
+     * The batches are persisted in parallel, each in its own {@link EntityManager}. The batches recorded in the checkpoint are
+     * skipped, and the entities already in the database are not persisted again if the table was filled by an interrupted
+     * import.
      * @param entityClass the class to persist
      * @param importFileName the JSON file name
+     * @param resumedTable whether the table was partially filled by an interrupted import
      * @param <E> {@link javax.persistence.Entity} type
-     * @throws JPAExecutorException
      */
-    private <E> void importOneInputFileToOneEntityTable(final Class<E> entityClass, final String importFileName) {
-        final BatchTransactionHandler<E> batchTransactionHandler = new BatchTransactionHandler<>();
-        final BatchEntityPersister<E> batchEntityPersister = new BatchEntityPersister<>(entityClass,
-                importFileName, batchTransactionHandler);
+    private <E> void importOneInputFileToOneEntityTable(final Class<E> entityClass, final String importFileName,
+                                                        final boolean resumedTable) {
+        final List<Future<BatchTransactionHandler<E>>> batchResults = new ArrayList<>();
 
-        final List<E> batch = new ArrayList<>();
+        List<E> batch = new ArrayList<>();
+        long batchIndex = 0L;
         final Gson gson = new Gson();
         final ZipEntry importEntry = mainZipFile.getEntry(importFileName);
 
@@ -318,48 +434,143 @@ public class OozieDBImportCLI {
                     new InputStreamReader(mainZipFile.getInputStream(importEntry), StandardCharsets.UTF_8))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    final E newEntity = gson.fromJson(line, entityClass);
-                    batch.add(newEntity);
+                    final boolean batchImported = checkpoint.isImported(importFileName, batchIndex);
+                    if (!batchImported) {
+                        final E newEntity = gson.fromJson(line, entityClass);
+                        batch.add(newEntity);
+                    }
 
                     if (lineIndex % IMPORT_BATCH_SIZE == 0) {
-                        System.out.println(String.format("Batch is full, persisting. [lineIndex=%s;batch.size=%s]",
-                                lineIndex, batch.size()));
-                        batchEntityPersister.persist(batch);
+                        if (batchImported) {
+                            if (verbose) {
+                                System.out.println(String.format("Batch already imported, skipping. [lineIndex=%s]",
+                                        lineIndex));
+                            }
+                        } else {
+                            System.out.println(String.format("Batch is full, persisting. [lineIndex=%s;batch.size=%s]",
+                                    lineIndex, batch.size()));
+                            batchResults.add(submitBatch(entityClass, importFileName, batch, batchIndex, resumedTable));
+                            batch = new ArrayList<>();
+                        }
+                        batchIndex++;
                     }
 
                     lineIndex++;
                 }
             } catch (final IOException e) {
-                rollbackAndThrow(importFileName, batchTransactionHandler, e);
+                throwImportFailure(importFileName, e);
             } catch (final JsonSyntaxException e) {
                 if (verbose) {
                     System.err.println(String.format("JSON error. [lineIndex=%s;e.message=%s]", lineIndex, e.getMessage()));
                 }
-                rollbackAndThrow(importFileName, batchTransactionHandler, e);
+                throwImportFailure(importFileName, e);
             }
         }
 
         if (!batch.isEmpty()) {
             System.out.println(String.format("Persisting last batch. [batch.size=%s]", batch.size()));
-            batchEntityPersister.persist(batch);
+            batchResults.add(submitBatch(entityClass, importFileName, batch, batchIndex, resumedTable));
+        }
+
+        int totalPersistedCount = 0;
+        int totalSkippedCount = 0;
+        for (final Future<BatchTransactionHandler<E>> batchResult : batchResults) {
+            final BatchTransactionHandler<E> batchTransactionHandler;
+            try {
+                batchTransactionHandler = getUnwrapped(batchResult);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(String.format("Import interrupted [zippedFileName=%s].", importFileName), e);
+            }
+            totalPersistedCount += batchTransactionHandler.getTotalPersistedCount();
+            totalSkippedCount += batchTransactionHandler.getTotalSkippedCount();
         }
 
         final String tableName = findTableName(entityManager, entityClass);
         System.out.println(String.format("%s row(s) imported to table %s.",
-                batchTransactionHandler.getTotalPersistedCount(),
+                totalPersistedCount,
                 tableName));
 
-        if (batchTransactionHandler.getTotalSkippedCount() > 0) {
+        if (totalSkippedCount > 0) {
             System.err.println(
                     String.format("[%s] row(s) skipped while importing to table [%s]. " +
                                     "Will remove all the rows of all the tables to get clean data.",
-                    batchTransactionHandler.getTotalSkippedCount(),
+                    totalSkippedCount,
                     tableName));
 
             cleanupNecessary = true;
         }
     }
 
+    /**
+     * Persist a batch with a new {@link EntityManager} in the background, and record it in the checkpoint once committed.
+     * @return the future of the {@link BatchTransactionHandler} which has persisted the batch
+     */
+    private <E> Future<BatchTransactionHandler<E>> submitBatch(final Class<E> entityClass,
+                                                              final String importFileName,
+                                                              final List<E> batch,
+                                                              final long batchIndex,
+                                                              final boolean resumedTable) {
+        return persistExecutor.submit(new Callable<BatchTransactionHandler<E>>() {
+            @Override
+            public BatchTransactionHandler<E> call() throws IOException {
+                final EntityManager batchEntityManager = Services.get().get(JPAService.class).getEntityManager();
+                try {
+                    batchEntityManager.setFlushMode(FlushModeType.COMMIT);
+                    final BatchTransactionHandler<E> batchTransactionHandler =
+                            new BatchTransactionHandler<>(batchEntityManager);
+
+                    if (resumedTable) {
+                        removeAlreadyImported(batchEntityManager, entityClass, batch);
+                    }
+                    if (!batch.isEmpty()) {
+                        new BatchEntityPersister<>(entityClass, importFileName, batchTransactionHandler).persist(batch);
+                    }
+
+                    checkpoint.markImported(importFileName, batchIndex);
+                    return batchTransactionHandler;
+                } finally {
+                    batchEntityManager.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Remove the entities which are already in the database from a batch, when resuming an interrupted import.
+     */
+    private static <E> void removeAlreadyImported(final EntityManager batchEntityManager, final Class<E> entityClass,
+                                                  final List<E> batch) {
+        final Field idField = getIdField(batchEntityManager, entityClass);
+        final String idName = idField.getName();
+
+        try {
+            final List<Object> ids = new ArrayList<>();
+            for (final E entity : batch) {
+                ids.add(idField.get(entity));
+            }
+
+            final TypedQuery<Object> importedIdsQuery = batchEntityManager.createQuery(
+                    String.format("SELECT e.%s FROM %s e WHERE e.%s IN :ids", idName, entityClass.getSimpleName(), idName),
+                    Object.class);
+            final Set<Object> importedIds = new HashSet<>();
+            for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                importedIds.addAll(importedIdsQuery
+                        .setParameter("ids", ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size())))
+                        .getResultList());
+            }
+
+            final Iterator<E> iterator = batch.iterator();
+            while (iterator.hasNext()) {
+                if (importedIds.contains(idField.get(iterator.next()))) {
+                    iterator.remove();
+                }
+            }
+        } catch (final IllegalAccessException e) {
+            throw new RuntimeException(String.format("Cannot read the id of [%s].", entityClass.getSimpleName()), e);
+        }
+    }
+
     private boolean cleanupIfNecessary() {
         if (!cleanupNecessary) {
             System.out.println("Cleanup not necessary, no entities skipped.");
@@ -373,7 +584,7 @@ public class OozieDBImportCLI {
             final String tableName = findTableName(entityManager, entityClass);
             System.out.println(String.format("Cleaning up table [%s].", tableName));
 
-            final BatchTransactionHandler<?> batchTransactionHandler = new BatchTransactionHandler<>();
+            final BatchTransactionHandler<?> batchTransactionHandler = new BatchTransactionHandler<>(entityManager);
 
             batchTransactionHandler.begin();
 
@@ -394,6 +605,10 @@ public class OozieDBImportCLI {
                                       final Exception cause) {
         batchTransactionHandler.rollbackIfActive();
 
+        throwImportFailure(importFileName, cause);
+    }
+
+    private static void throwImportFailure(final String importFileName, final Exception cause) {
         throw new RuntimeException(String.format("Import failed from json [zippedFileName=%s;e.message=%s].", importFileName,
                 cause.getMessage()), cause);
     }
@@ -425,11 +640,16 @@ public class OozieDBImportCLI {
      */
     private class BatchTransactionHandler<E> {
 
+        private final EntityManager entityManager;
         private EntityTransaction currentTransaction;
         private int totalPersistedCount = 0;
         private int totalSkippedCount = 0;
         private List<E> pendingEntities = new ArrayList<>();
 
+        BatchTransactionHandler(final EntityManager entityManager) {
+            this.entityManager = entityManager;
+        }
+
         /**
          * Begin recording the {@link EntityTransaction}
          */
@@ -583,4 +803,73 @@ public class OozieDBImportCLI {
             }
         }
     }
+
+    /**
+     * Records the batches of the input JSON files which have been committed, one line per batch after a header with the batch
+     * size, so that an interrupted import can be resumed without importing them again.
+     */
+    private static class ImportCheckpoint {
+
+        private static final String BATCH_SIZE_HEADER = "batch.size=";
+
+        private final File file;
+        private final int batchSize;
+        private final boolean resumed;
+        private final Set<String> importedBatches = new HashSet<>();
+        private Writer writer;
+
+        ImportCheckpoint(final File file, final int batchSize) throws IOException {
+            this.file = file;
+            this.batchSize = batchSize;
+            this.resumed = file.exists();
+
+            if (resumed) {
+                final List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+                final String header = lines.isEmpty() ? "" : lines.get(0);
+                checkState(header.equals(BATCH_SIZE_HEADER + batchSize),
+                        String.format("Checkpoint [%s] was written with another batch size [%s], import with that batch size " +
+                                "or remove the checkpoint and the imported rows.", file, header));
+                importedBatches.addAll(lines.subList(1, lines.size()));
+            }
+        }
+
+        File getFile() {
+            return file;
+        }
+
+        boolean isResumed() {
+            return resumed;
+        }
+
+        int getImportedBatchCount() {
+            return importedBatches.size();
+        }
+
+        boolean isImported(final String importFileName, final long batchIndex) {
+            return importedBatches.contains(importFileName + " " + batchIndex);
+        }
+
+        synchronized void markImported(final String importFileName, final long batchIndex) throws IOException {
+            if (writer == null) {
+                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), StandardCharsets.UTF_8));
+                if (!resumed) {
+                    writer.write(BATCH_SIZE_HEADER + batchSize + "\n");
+                }
+            }
+            writer.write(importFileName + " " + batchIndex + "\n");
+            writer.flush();
+        }
+
+        synchronized void close() {
+            IOUtils.closeSafely(writer);
+            writer = null;
+        }
+
+        synchronized void delete() {
+            close();
+            if (file.exists() && !file.delete()) {
+                System.err.println(String.format("Cannot delete checkpoint [%s].", file));
+            }
+        }
+    }
 }
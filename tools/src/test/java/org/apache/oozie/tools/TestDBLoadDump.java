@@ -37,6 +37,7 @@ import javax.persistence.TypedQuery;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.security.Permission;
 import java.util.Enumeration;
 import java.util.List;
@@ -44,8 +45,11 @@ import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import java.util.zip.ZipOutputStream;
 
+import static org.apache.oozie.tools.OozieDBExportCLI.OOZIE_DB_EXPORT_RANGE_SIZE_KEY;
+import static org.apache.oozie.tools.OozieDBExportCLI.OOZIE_DB_EXPORT_THREADS_KEY;
 import static org.apache.oozie.tools.OozieDBImportCLI.DEFAULT_BATCH_SIZE;
 import static org.apache.oozie.tools.OozieDBImportCLI.OOZIE_DB_IMPORT_BATCH_SIZE_KEY;
+import static org.apache.oozie.tools.OozieDBImportCLI.OOZIE_DB_IMPORT_THREADS_KEY;
 
 /**
  * Test Dump and dump reading mechanism
@@ -161,6 +165,47 @@ public class TestDBLoadDump extends XTestCase {
         System.setProperty(OOZIE_DB_IMPORT_BATCH_SIZE_KEY, Integer.toString(DEFAULT_BATCH_SIZE));
     }
 
+    @Test
+    public void testParallelExportOfRangesAndImportOfBatches() throws Exception {
+        System.setProperty(OOZIE_DB_IMPORT_BATCH_SIZE_KEY, "1");
+        System.setProperty(OOZIE_DB_IMPORT_THREADS_KEY, "3");
+        System.setProperty(OOZIE_DB_EXPORT_THREADS_KEY, "3");
+        System.setProperty(OOZIE_DB_EXPORT_RANGE_SIZE_KEY, "1");
+
+        try {
+            testImportedDBIsExportedCorrectly();
+
+            assertFalse("Checkpoint should be removed", new File(validZipDump.getPath() + ".checkpoint").exists());
+            assertFalse("Exported parts should be removed",
+                    new File(getTestCaseDir(), "newDumpTest.zip.parts").exists());
+        } finally {
+            System.getProperties().remove(OOZIE_DB_IMPORT_BATCH_SIZE_KEY);
+            System.getProperties().remove(OOZIE_DB_IMPORT_THREADS_KEY);
+            System.getProperties().remove(OOZIE_DB_EXPORT_THREADS_KEY);
+            System.getProperties().remove(OOZIE_DB_EXPORT_RANGE_SIZE_KEY);
+        }
+    }
+
+    @Test
+    public void testImportResumesFromCheckpoint() throws Exception {
+        importValidDataToDB();
+
+        // as if the import had been interrupted after committing the only batch of the workflow actions
+        final File checkpoint = new File(validZipDump.getPath() + ".checkpoint");
+        try (FileOutputStream out = new FileOutputStream(checkpoint)) {
+            out.write(String.format("batch.size=%d%n%s 0%n", DEFAULT_BATCH_SIZE, OozieDBExportCLI.OOZIEDB_AC_JSON)
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        importValidDataToDB();
+
+        assertFalse("Checkpoint should be removed", checkpoint.exists());
+        assertEquals("One WorkflowJobBean should be imported.", 1L, getCount(WorkflowJobBean.class));
+        assertEquals("Three WorkflowActionBeans should be imported.", 3L, getCount(WorkflowActionBean.class));
+        assertEquals("Three CoordinatorActionBeans should be imported.", 3L, getCount(CoordinatorActionBean.class));
+        assertEquals("Three CoordinatorJobBeans should be imported.", 3L, getCount(CoordinatorJobBean.class));
+    }
+
     private EntityManager getEntityManager() throws ServiceException {
         Services services = Services.get();
 
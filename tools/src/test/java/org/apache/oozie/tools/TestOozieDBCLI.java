@@ -135,7 +135,7 @@ public class TestOozieDBCLI extends XTestCase {
             String[] argsVersion = { "version" };
             assertEquals(0, execOozieDBCLICommands(argsVersion));
             assertTrue(data.toString(StandardCharsets.UTF_8.name())
-                    .contains("db.version: "+ OozieDBCLI.DB_VERSION_FOR_5_0));
+                    .contains("db.version: "+ OozieDBCLI.DB_VERSION_FOR_5_2));
             // show help information
             data.reset();
             String[] argsHelp = { "help" };
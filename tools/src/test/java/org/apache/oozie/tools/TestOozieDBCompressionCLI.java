@@ -0,0 +1,241 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.oozie.tools;
+
+import org.apache.oozie.StringBlob;
+import org.apache.oozie.WorkflowJobBean;
+import org.apache.oozie.client.WorkflowJob;
+import org.apache.oozie.compression.CodecFactory;
+import org.apache.oozie.compression.GzipCompressionCodec;
+import org.apache.oozie.compression.Lz4CompressionCodec;
+import org.apache.oozie.compression.ZstdCompressionCodec;
+import org.apache.oozie.service.JPAService;
+import org.apache.oozie.service.ServiceException;
+import org.apache.oozie.service.Services;
+import org.apache.oozie.test.XTestCase;
+import org.apache.openjpa.persistence.OpenJPAEntityManagerSPI;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.persistence.EntityManager;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.security.Permission;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Date;
+
+/**
+ * Test the recompression of the Oozie database blobs
+ */
+public class TestOozieDBCompressionCLI extends XTestCase {
+    private static final int JOBS = 5;
+
+    @Before
+    protected void setUp() throws Exception {
+        // Use hsqldb-tools-oozie-site.xml with sql.enforce_strict_size=true in these tests
+        System.setProperty("oozie.test.db", "hsqldb-tools");
+        System.getProperties().remove("oozie.test.config.file");
+
+        super.setUp();
+
+        System.setSecurityManager(new NoExitSecurityManager());
+    }
+
+    @After
+    protected void tearDown() throws Exception {
+        System.setSecurityManager(null);
+
+        super.tearDown();
+    }
+
+    @Test
+    public void testRecompressToZstd() throws Exception {
+        checkRecompress(ZstdCompressionCodec.CODEC_NAME);
+    }
+
+    @Test
+    public void testRecompressToLz4() throws Exception {
+        checkRecompress(Lz4CompressionCodec.CODEC_NAME);
+    }
+
+    private void checkRecompress(final String codec) throws Exception {
+        insertJobs(GzipCompressionCodec.CODEC_NAME);
+        assertJobs(GzipCompressionCodec.CODEC_NAME);
+
+        // a batch smaller than the number of rows, so the rows are read in several batches
+        assertEquals(2 * JOBS + " blobs recompressed in " + JOBS + " rows of WF_JOBS",
+                recompress(codec, "recompress", "-batch", "2"));
+        assertJobs(codec);
+
+        assertEquals("Already recompressed blobs should be skipped",
+                "0 blobs recompressed in " + JOBS + " rows of WF_JOBS", recompress(codec, "recompress"));
+        assertJobs(codec);
+
+        assertEquals(2 * JOBS + " blobs recompressed in " + JOBS + " rows of WF_JOBS",
+                recompress(codec, "recompress", "-force"));
+        assertJobs(codec);
+    }
+
+    private void insertJobs(final String codec) throws ServiceException {
+        restartServices(codec);
+        final EntityManager entityManager = getEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            for (int i = 0; i < JOBS; i++) {
+                final WorkflowJobBean job = new WorkflowJobBean();
+                job.setId(getJobId(i));
+                job.setAppName("test-wf");
+                job.setStatus(WorkflowJob.Status.SUCCEEDED);
+                job.setCreatedTime(new Date());
+                job.setConf(getConf(i));
+                job.setProtoActionConf(getProtoActionConf(i));
+                entityManager.persist(job);
+            }
+            entityManager.getTransaction().commit();
+        }
+        finally {
+            entityManager.close();
+        }
+    }
+
+    private void assertJobs(final String codec) throws Exception {
+        restartServices(codec);
+        final EntityManager entityManager = getEntityManager();
+        final OpenJPAEntityManagerSPI openJPAEntityManager = (OpenJPAEntityManagerSPI) entityManager.getDelegate();
+        try (Connection connection = (Connection) openJPAEntityManager.getConnection();
+             PreparedStatement select = connection.prepareStatement(
+                     "select id, conf, proto_action_conf from WF_JOBS order by id");
+             ResultSet rs = select.executeQuery()) {
+            int i = 0;
+            while (rs.next()) {
+                assertEquals(getJobId(i), rs.getString(1));
+                assertEquals(codec, getCodec(rs.getBytes(2)));
+                assertEquals(codec, getCodec(rs.getBytes(3)));
+                assertEquals(getConf(i), new StringBlob(rs.getBytes(2)).getString());
+                assertEquals(getProtoActionConf(i), new StringBlob(rs.getBytes(3)).getString());
+                i++;
+            }
+            assertEquals(JOBS, i);
+        }
+        finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Run the recompression with the given output codec and return the line it logged for the workflow jobs.
+     */
+    private String recompress(final String codec, final String... args) throws Exception {
+        Services.get().destroy();
+        setSystemProperty(CodecFactory.COMPRESSION_OUTPUT_CODEC, codec);
+
+        final PrintStream stdout = System.out;
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(out, true, StandardCharsets.UTF_8.name()));
+        try {
+            OozieDBCompressionCLI.main(args);
+        }
+        finally {
+            System.setOut(stdout);
+        }
+        for (final String line : out.toString(StandardCharsets.UTF_8.name()).split("\n")) {
+            if (line.endsWith(" rows of WF_JOBS")) {
+                return line.trim();
+            }
+        }
+        fail("Missing recompression summary of WF_JOBS in " + out);
+        return null;
+    }
+
+    private void restartServices(final String codec) throws ServiceException {
+        if (Services.get() != null) {
+            Services.get().destroy();
+        }
+        setSystemProperty(CodecFactory.COMPRESSION_OUTPUT_CODEC, codec);
+        new Services().init();
+    }
+
+    private EntityManager getEntityManager() {
+        return Services.get().get(JPAService.class).getEntityManager();
+    }
+
+    private static String getCodec(final byte[] rawBlob) throws Exception {
+        try (DataInputStream dais = new DataInputStream(new ByteArrayInputStream(rawBlob))) {
+            final byte[] magic = new byte[CodecFactory.COMPRESSION_MAGIC_DATA.length()];
+            dais.readFully(magic);
+            assertEquals(CodecFactory.COMPRESSION_MAGIC_DATA, new String(magic, StandardCharsets.UTF_8));
+            // version and number of properties
+            dais.readInt();
+            dais.readInt();
+            assertEquals(CodecFactory.COMPRESSION_KEY_HEADER, dais.readUTF());
+            return dais.readUTF();
+        }
+    }
+
+    private static String getJobId(final int i) {
+        return String.format("%07d-160720041037822-oozie-oozi-W", i);
+    }
+
+    private static String getConf(final int i) {
+        final StringBuilder conf = new StringBuilder("<configuration>");
+        for (int j = 0; j < 20; j++) {
+            conf.append("<property><name>property.").append(j).append("</name><value>value ").append(i)
+                    .append("</value></property>");
+        }
+        return conf.append("</configuration>").toString();
+    }
+
+    private static String getProtoActionConf(final int i) {
+        return "<configuration><property><name>user.name</name><value>user" + i + "</value></property></configuration>";
+    }
+
+    private static class ExitException extends SecurityException {
+        private final int status;
+
+        ExitException(final int status) {
+            this.status = status;
+        }
+    }
+
+    private static class NoExitSecurityManager extends SecurityManager {
+
+        @Override
+        public void checkPermission(final Permission perm) {
+
+        }
+
+        @Override
+        public void checkPermission(final Permission perm, final Object context) {
+
+        }
+
+        @Override
+        public void checkExit(final int status) {
+            super.checkExit(status);
+
+            throw new ExitException(status);
+        }
+    }
+}